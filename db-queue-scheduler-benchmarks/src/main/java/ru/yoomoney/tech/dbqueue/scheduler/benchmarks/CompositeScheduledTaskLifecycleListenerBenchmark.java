@@ -0,0 +1,107 @@
+package ru.yoomoney.tech.dbqueue.scheduler.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.yoomoney.tech.dbqueue.scheduler.config.ScheduledTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.CompositeScheduledTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskContext;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fan-out of lifecycle events to several listeners, it is done twice per execution of every scheduled task.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompositeScheduledTaskLifecycleListenerBenchmark {
+
+    @Param({"1", "4", "16"})
+    private int listenersCount;
+
+    private ScheduledTaskLifecycleListener listener;
+    private final ScheduledTaskIdentity taskIdentity = ScheduledTaskIdentity.of("benchmark_task");
+    private final ScheduledTaskContext taskContext = ScheduledTaskContext.builder()
+            .withCreatedAt(Instant.now())
+            .build();
+    private final Duration scheduleLag = Duration.ofMillis(5L);
+    private final Instant nextExecutionTime = Instant.now();
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        List<ScheduledTaskLifecycleListener> listeners = new ArrayList<>(listenersCount);
+        for (int i = 0; i < listenersCount; i++) {
+            listeners.add(new BlackholeScheduledTaskLifecycleListener(blackhole));
+        }
+        listener = new CompositeScheduledTaskLifecycleListener(listeners);
+    }
+
+    @Benchmark
+    public void startedAndFinished() {
+        listener.started(taskIdentity, taskContext, scheduleLag);
+        listener.finished(taskIdentity, taskContext, ScheduledTaskExecutionResult.success(), nextExecutionTime, 10L);
+    }
+
+    /**
+     * Listener that passes events to the blackhole, so the fan-out is not eliminated by JIT
+     */
+    private static class BlackholeScheduledTaskLifecycleListener implements ScheduledTaskLifecycleListener {
+        private final Blackhole blackhole;
+
+        BlackholeScheduledTaskLifecycleListener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void started(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull ScheduledTaskContext taskContext) {
+            started(taskIdentity, taskContext, Duration.ZERO);
+        }
+
+        @Override
+        public void started(@Nonnull ScheduledTaskIdentity taskIdentity,
+                            @Nonnull ScheduledTaskContext taskContext,
+                            @Nonnull Duration scheduleLag) {
+            blackhole.consume(scheduleLag);
+        }
+
+        @Override
+        public void finished(@Nonnull ScheduledTaskIdentity taskIdentity,
+                             @Nonnull ScheduledTaskContext taskContext,
+                             @Nonnull ScheduledTaskExecutionResult executionResult,
+                             @Nonnull Instant nextExecutionTime,
+                             long processTaskTimeInMills) {
+            blackhole.consume(executionResult);
+        }
+
+        @Override
+        public void crashed(@Nonnull ScheduledTaskIdentity taskIdentity,
+                            @Nonnull ScheduledTaskContext taskContext,
+                            @Nullable Throwable exc) {
+            blackhole.consume(exc);
+        }
+    }
+}
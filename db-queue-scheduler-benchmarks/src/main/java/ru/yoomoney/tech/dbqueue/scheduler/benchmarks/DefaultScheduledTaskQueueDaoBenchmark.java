@@ -0,0 +1,138 @@
+package ru.yoomoney.tech.dbqueue.scheduler.benchmarks;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
+import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
+import ru.yoomoney.tech.dbqueue.scheduler.config.DatabaseDialect;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.DefaultScheduledTaskQueueDao;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskQueueDao;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskRecord;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statements of the scheduler against the task table in the in-process H2 database.
+ *
+ * <p>The numbers do not predict the latency of a production database, but they show the cost of the statement
+ * building, parameter binding and result mapping, and the relative cost of the statements.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DefaultScheduledTaskQueueDaoBenchmark {
+    private static final String TASKS_TABLE_DDL = "" +
+            "CREATE TABLE scheduled_tasks (" +
+            "  id                BIGSERIAL PRIMARY KEY," +
+            "  queue_name        VARCHAR(100) NOT NULL," +
+            "  payload           VARCHAR(100)," +
+            "  created_at        TIMESTAMP WITH TIME ZONE DEFAULT now()," +
+            "  next_process_at   TIMESTAMP WITH TIME ZONE DEFAULT now()," +
+            "  attempt           INTEGER                  DEFAULT 0," +
+            "  reenqueue_attempt INTEGER                  DEFAULT 0," +
+            "  total_attempt     INTEGER                  DEFAULT 0," +
+            "  resume_process_at TIMESTAMP WITH TIME ZONE," +
+            "  execution_state   SMALLINT" +
+            ");" +
+            "CREATE UNIQUE INDEX scheduled_tasks_uq ON scheduled_tasks (queue_name);";
+
+    @Param({"100", "10000"})
+    private int tasksCount;
+
+    private JdbcTemplate jdbcTemplate;
+    private ScheduledTaskQueueDao scheduledTaskQueueDao;
+    private QueueId[] queueIds;
+
+    @Setup
+    public void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:scheduler_benchmark;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        dataSource.setPassword("sa");
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.update("DROP ALL OBJECTS");
+        jdbcTemplate.update(TASKS_TABLE_DDL);
+
+        queueIds = new QueueId[tasksCount];
+        for (int i = 0; i < tasksCount; i++) {
+            queueIds[i] = new QueueId("benchmark_task_" + i);
+            jdbcTemplate.update("insert into scheduled_tasks (queue_name, payload) values (?, ?)",
+                    queueIds[i].asString(), "state");
+        }
+        scheduledTaskQueueDao = new DefaultScheduledTaskQueueDao(
+                "scheduled_tasks",
+                DatabaseDialect.H2,
+                jdbcTemplate,
+                transactionTemplate,
+                QueueTableSchema.builder().build()
+        );
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.update("DROP ALL OBJECTS");
+    }
+
+    @Benchmark
+    public Optional<ScheduledTaskRecord> findQueueTask() {
+        return scheduledTaskQueueDao.findQueueTask(randomQueueId());
+    }
+
+    @Benchmark
+    public int updateNextProcessDate() {
+        return scheduledTaskQueueDao.updateNextProcessDate(randomQueueId(), Duration.ofMinutes(1L));
+    }
+
+    @Benchmark
+    public int updatePayload() {
+        return scheduledTaskQueueDao.updatePayload(randomQueueId(), "state");
+    }
+
+    @Benchmark
+    public TaskRecord pickTask() {
+        // zero retry interval keeps the task available for the next pick
+        return scheduledTaskQueueDao.pickTask(randomQueueId(), Duration.ZERO);
+    }
+
+    @Benchmark
+    public List<ScheduledTaskRecord> findAll() {
+        return scheduledTaskQueueDao.findAll();
+    }
+
+    @Benchmark
+    public Instant getDatabaseCurrentTime() {
+        return scheduledTaskQueueDao.getDatabaseCurrentTime();
+    }
+
+    private QueueId randomQueueId() {
+        return queueIds[ThreadLocalRandom.current().nextInt(queueIds.length)];
+    }
+}
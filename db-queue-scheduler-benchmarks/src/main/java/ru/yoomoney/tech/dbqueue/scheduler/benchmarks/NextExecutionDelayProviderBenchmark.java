@@ -0,0 +1,94 @@
+package ru.yoomoney.tech.dbqueue.scheduler.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.NextExecutionDelayProvider;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.ScheduledTaskExecutionContext;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.impl.CronNextExecutionDelayProvider;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.impl.FailureAwareNextExecutionDelayProvider;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.impl.FixedDelayNextExecutionDelayProvider;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.impl.FixedRateNextExecutionDelayProvider;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.FailureSettings;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computation of next execution delay, it is done after every execution of every scheduled task.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NextExecutionDelayProviderBenchmark {
+
+    private NextExecutionDelayProvider cronProvider;
+    private NextExecutionDelayProvider fixedRateProvider;
+    private NextExecutionDelayProvider fixedDelayProvider;
+    private NextExecutionDelayProvider failureAwareProvider;
+
+    private ScheduledTaskExecutionContext successContext;
+    private ScheduledTaskExecutionContext errorContext;
+
+    @Setup
+    public void setUp() {
+        cronProvider = new CronNextExecutionDelayProvider("*/15 * * * * *", ZoneId.of("Europe/Moscow"));
+        fixedRateProvider = new FixedRateNextExecutionDelayProvider(Duration.ofMinutes(1L));
+        fixedDelayProvider = new FixedDelayNextExecutionDelayProvider(Duration.ofMinutes(1L));
+        failureAwareProvider = new FailureAwareNextExecutionDelayProvider(fixedRateProvider,
+                FailureSettings.geometricBackoff(Duration.ofSeconds(1L)).withMaxAttempts(10));
+
+        successContext = executionContext(ScheduledTaskExecutionResult.Type.SUCCESS);
+        errorContext = executionContext(ScheduledTaskExecutionResult.Type.ERROR);
+    }
+
+    @Benchmark
+    public Duration cron() {
+        return cronProvider.getNextExecutionDelay(successContext);
+    }
+
+    @Benchmark
+    public Duration fixedRate() {
+        return fixedRateProvider.getNextExecutionDelay(successContext);
+    }
+
+    @Benchmark
+    public Duration fixedDelay() {
+        return fixedDelayProvider.getNextExecutionDelay(successContext);
+    }
+
+    @Benchmark
+    public Duration failureAwareOnSuccess() {
+        return failureAwareProvider.getNextExecutionDelay(successContext);
+    }
+
+    @Benchmark
+    public Duration failureAwareOnError() {
+        return failureAwareProvider.getNextExecutionDelay(errorContext);
+    }
+
+    private static ScheduledTaskExecutionContext executionContext(ScheduledTaskExecutionResult.Type resultType) {
+        ScheduledTaskExecutionContext executionContext = new ScheduledTaskExecutionContext();
+        executionContext.setExecutionStartTime(Instant.now());
+        executionContext.setProcessingTime(Duration.ofMillis(150L));
+        executionContext.setExecutionResultType(resultType);
+        executionContext.setAttemptsCount(3L);
+        return executionContext;
+    }
+}
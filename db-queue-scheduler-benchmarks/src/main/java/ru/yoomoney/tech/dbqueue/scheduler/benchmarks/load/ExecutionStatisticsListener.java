@@ -0,0 +1,112 @@
+package ru.yoomoney.tech.dbqueue.scheduler.benchmarks.load;
+
+import ru.yoomoney.tech.dbqueue.scheduler.config.ScheduledTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskContext;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Listener that collects statistics of executions made by all simulated nodes.
+ *
+ * <p>An execution is a duplicate one when the same task has been already executed for the same planned execution
+ * time, an execution is a concurrent one when another execution of the same task is in progress.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class ExecutionStatisticsListener implements ScheduledTaskLifecycleListener {
+    private final AtomicLong executionsCount = new AtomicLong();
+    private final AtomicLong duplicateExecutionsCount = new AtomicLong();
+    private final AtomicLong concurrentExecutionsCount = new AtomicLong();
+    private final AtomicLong crashesCount = new AtomicLong();
+    private final Set<String> executedPlans = ConcurrentHashMap.newKeySet();
+    private final Map<ScheduledTaskIdentity, AtomicInteger> runningExecutions = new ConcurrentHashMap<>();
+    private final Object lagsMutex = new Object();
+    private List<Long> scheduleLagsInMillis = new ArrayList<>();
+
+    @Override
+    public void started(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull ScheduledTaskContext taskContext) {
+        started(taskIdentity, taskContext, Duration.ZERO);
+    }
+
+    @Override
+    public void started(@Nonnull ScheduledTaskIdentity taskIdentity,
+                        @Nonnull ScheduledTaskContext taskContext,
+                        @Nonnull Duration scheduleLag) {
+        executionsCount.incrementAndGet();
+        if (runningExecutions.computeIfAbsent(taskIdentity, identity -> new AtomicInteger()).incrementAndGet() > 1) {
+            concurrentExecutionsCount.incrementAndGet();
+        }
+        taskContext.getPlannedExecutionTime().ifPresent(plannedExecutionTime -> {
+            if (!executedPlans.add(taskIdentity.asString() + '@' + plannedExecutionTime)) {
+                duplicateExecutionsCount.incrementAndGet();
+            }
+        });
+        synchronized (lagsMutex) {
+            scheduleLagsInMillis.add(scheduleLag.toMillis());
+        }
+    }
+
+    @Override
+    public void finished(@Nonnull ScheduledTaskIdentity taskIdentity,
+                         @Nonnull ScheduledTaskContext taskContext,
+                         @Nonnull ScheduledTaskExecutionResult executionResult,
+                         @Nonnull Instant nextExecutionTime,
+                         long processTaskTimeInMills) {
+        AtomicInteger running = runningExecutions.get(taskIdentity);
+        if (running != null) {
+            running.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void crashed(@Nonnull ScheduledTaskIdentity taskIdentity,
+                        @Nonnull ScheduledTaskContext taskContext,
+                        @Nullable Throwable exc) {
+        crashesCount.incrementAndGet();
+    }
+
+    long getExecutionsCount() {
+        return executionsCount.get();
+    }
+
+    long getDuplicateExecutionsCount() {
+        return duplicateExecutionsCount.get();
+    }
+
+    long getConcurrentExecutionsCount() {
+        return concurrentExecutionsCount.get();
+    }
+
+    long getCrashesCount() {
+        return crashesCount.get();
+    }
+
+    /**
+     * Takes schedule lags collected since the previous call
+     *
+     * @return sorted schedule lags in milliseconds
+     */
+    List<Long> drainScheduleLags() {
+        List<Long> scheduleLags;
+        synchronized (lagsMutex) {
+            scheduleLags = scheduleLagsInMillis;
+            scheduleLagsInMillis = new ArrayList<>();
+        }
+        Collections.sort(scheduleLags);
+        return scheduleLags;
+    }
+}
@@ -0,0 +1,111 @@
+package ru.yoomoney.tech.dbqueue.scheduler.benchmarks.load;
+
+import javax.annotation.Nonnull;
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Data source that counts statements executed through its connections.
+ *
+ * <p>Counting is done on the JDBC level, so queries of both the scheduler and db-queue are taken into account.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class QueryCountingDataSource implements DataSource {
+    private final DataSource delegate;
+    private final AtomicLong queriesCount;
+
+    QueryCountingDataSource(@Nonnull DataSource delegate, @Nonnull AtomicLong queriesCount) {
+        this.delegate = requireNonNull(delegate, "delegate");
+        this.queriesCount = requireNonNull(queriesCount, "queriesCount");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, delegate.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, delegate.getConnection(username, password));
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return delegate.isWrapperFor(iface);
+    }
+
+    private <T> T wrap(Class<T> type, T target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (type == Connection.class) {
+                if (result instanceof CallableStatement) {
+                    return wrap(CallableStatement.class, (CallableStatement) result);
+                }
+                if (result instanceof PreparedStatement) {
+                    return wrap(PreparedStatement.class, (PreparedStatement) result);
+                }
+                if (result instanceof Statement) {
+                    return wrap(Statement.class, (Statement) result);
+                }
+            } else if (method.getName().startsWith("execute")) {
+                queriesCount.incrementAndGet();
+            }
+            return result;
+        };
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+}
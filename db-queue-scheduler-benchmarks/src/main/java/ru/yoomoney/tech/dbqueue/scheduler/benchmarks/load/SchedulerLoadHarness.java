@@ -0,0 +1,258 @@
+package ru.yoomoney.tech.dbqueue.scheduler.benchmarks.load;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.yoomoney.tech.dbqueue.scheduler.Scheduler;
+import ru.yoomoney.tech.dbqueue.scheduler.SpringSchedulerConfigurator;
+import ru.yoomoney.tech.dbqueue.scheduler.config.DatabaseDialect;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.scheduler.models.SimpleScheduledTask;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.FailureSettings;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.ScheduleSettings;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.ScheduledTaskSettings;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load harness that runs several scheduler nodes with many tasks against the same database.
+ *
+ * <p>Every node is a separate {@link Scheduler} with its own connection pool, all the nodes schedule the same tasks.
+ * Tasks have cron, fixed rate and fixed delay schedules in equal parts. The harness periodically reports queries per
+ * second, live threads, used heap, schedule lag percentiles and duplicate executions.
+ *
+ * <p>Options are passed as {@code key=value} arguments:
+ * <ul>
+ * <li>{@code tasks} - count of tasks, default 1000</li>
+ * <li>{@code nodes} - count of simulated nodes, default 3</li>
+ * <li>{@code interval} - schedule interval of tasks in seconds, default 10</li>
+ * <li>{@code duration} - run duration in seconds, default 120</li>
+ * <li>{@code report} - report interval in seconds, default 10</li>
+ * <li>{@code poolSize} - connection pool size of a node, default 10</li>
+ * <li>{@code jdbcUrl}, {@code user}, {@code password} - database to run against, default is in-memory H2.
+ * PostgreSQL is detected by the url</li>
+ * </ul>
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class SchedulerLoadHarness {
+    private static final String TABLE_NAME = "scheduled_tasks_load";
+
+    private static final String H2_TABLE_DDL = "" +
+            "CREATE TABLE " + TABLE_NAME + " (" +
+            "  id                BIGSERIAL PRIMARY KEY," +
+            "  queue_name        VARCHAR(100) NOT NULL," +
+            "  payload           VARCHAR(100)," +
+            "  created_at        TIMESTAMP WITH TIME ZONE DEFAULT now()," +
+            "  next_process_at   TIMESTAMP WITH TIME ZONE DEFAULT now()," +
+            "  attempt           INTEGER                  DEFAULT 0," +
+            "  reenqueue_attempt INTEGER                  DEFAULT 0," +
+            "  total_attempt     INTEGER                  DEFAULT 0," +
+            "  resume_process_at TIMESTAMP WITH TIME ZONE," +
+            "  execution_state   SMALLINT" +
+            ");" +
+            "CREATE UNIQUE INDEX " + TABLE_NAME + "_uq ON " + TABLE_NAME + " (queue_name);";
+
+    private static final String POSTGRES_TABLE_DDL = "" +
+            "CREATE TABLE " + TABLE_NAME + " (" +
+            "  id                BIGSERIAL PRIMARY KEY," +
+            "  queue_name        TEXT NOT NULL," +
+            "  payload           TEXT," +
+            "  created_at        TIMESTAMP WITH TIME ZONE DEFAULT now()," +
+            "  next_process_at   TIMESTAMP WITH TIME ZONE DEFAULT now()," +
+            "  attempt           INTEGER                  DEFAULT 0," +
+            "  reenqueue_attempt INTEGER                  DEFAULT 0," +
+            "  total_attempt     INTEGER                  DEFAULT 0," +
+            "  resume_process_at TIMESTAMP WITH TIME ZONE," +
+            "  execution_state   SMALLINT" +
+            ");" +
+            "CREATE UNIQUE INDEX " + TABLE_NAME + "_uq ON " + TABLE_NAME + " (queue_name text_pattern_ops);";
+
+    private final int tasksCount;
+    private final int nodesCount;
+    private final Duration scheduleInterval;
+    private final Duration runDuration;
+    private final Duration reportInterval;
+    private final int poolSize;
+    private final String jdbcUrl;
+    private final String user;
+    private final String password;
+    private final DatabaseDialect databaseDialect;
+
+    private final AtomicLong queriesCount = new AtomicLong();
+    private final ExecutionStatisticsListener statisticsListener = new ExecutionStatisticsListener();
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+    private final List<Scheduler> schedulers = new ArrayList<>();
+
+    SchedulerLoadHarness(Map<String, String> options) {
+        this.tasksCount = Integer.parseInt(options.getOrDefault("tasks", "1000"));
+        this.nodesCount = Integer.parseInt(options.getOrDefault("nodes", "3"));
+        this.scheduleInterval = Duration.ofSeconds(Long.parseLong(options.getOrDefault("interval", "10")));
+        this.runDuration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "120")));
+        this.reportInterval = Duration.ofSeconds(Long.parseLong(options.getOrDefault("report", "10")));
+        this.poolSize = Integer.parseInt(options.getOrDefault("poolSize", "10"));
+        this.jdbcUrl = options.getOrDefault("jdbcUrl", "jdbc:h2:mem:scheduler_load;DB_CLOSE_DELAY=-1");
+        this.user = options.getOrDefault("user", "sa");
+        this.password = options.getOrDefault("password", "sa");
+        if (jdbcUrl.startsWith("jdbc:h2:")) {
+            this.databaseDialect = DatabaseDialect.H2;
+        } else if (jdbcUrl.startsWith("jdbc:postgresql:")) {
+            this.databaseDialect = DatabaseDialect.POSTGRESQL;
+        } else {
+            throw new IllegalArgumentException("unsupported database: jdbcUrl=" + jdbcUrl);
+        }
+        if (scheduleInterval.getSeconds() <= 0L || scheduleInterval.getSeconds() >= 60L) {
+            throw new IllegalArgumentException("interval must be in range [1, 59] seconds: interval=" + scheduleInterval);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separatorIndex = arg.indexOf('=');
+            if (separatorIndex <= 0) {
+                throw new IllegalArgumentException("option must be in key=value format: option=" + arg);
+            }
+            options.put(arg.substring(0, separatorIndex), arg.substring(separatorIndex + 1));
+        }
+        new SchedulerLoadHarness(options).run();
+    }
+
+    void run() throws InterruptedException {
+        System.out.printf("starting load: dialect=%s, tasks=%d, nodes=%d, interval=%s, duration=%s%n",
+                databaseDialect, tasksCount, nodesCount, scheduleInterval, runDuration);
+        createTable();
+        long startMillis = System.currentTimeMillis();
+        for (int node = 0; node < nodesCount; node++) {
+            schedulers.add(startNode(node));
+        }
+        System.out.printf("nodes started: startupTime=%dms, %s%n",
+                System.currentTimeMillis() - startMillis, resourceUsage());
+
+        List<Long> allScheduleLags = new ArrayList<>();
+        long previousQueriesCount = queriesCount.get();
+        long previousExecutionsCount = statisticsListener.getExecutionsCount();
+        long deadline = System.currentTimeMillis() + runDuration.toMillis();
+        try {
+            while (System.currentTimeMillis() < deadline) {
+                Thread.sleep(Math.min(reportInterval.toMillis(), Math.max(1L, deadline - System.currentTimeMillis())));
+                long currentQueriesCount = queriesCount.get();
+                long currentExecutionsCount = statisticsListener.getExecutionsCount();
+                List<Long> scheduleLags = statisticsListener.drainScheduleLags();
+                allScheduleLags.addAll(scheduleLags);
+                double seconds = reportInterval.toMillis() / 1000.0;
+                System.out.printf("qps=%.1f, executionsPerSecond=%.1f, %s, lag{%s}, duplicates=%d, concurrent=%d%n",
+                        (currentQueriesCount - previousQueriesCount) / seconds,
+                        (currentExecutionsCount - previousExecutionsCount) / seconds,
+                        resourceUsage(), percentiles(scheduleLags),
+                        statisticsListener.getDuplicateExecutionsCount(),
+                        statisticsListener.getConcurrentExecutionsCount());
+                previousQueriesCount = currentQueriesCount;
+                previousExecutionsCount = currentExecutionsCount;
+            }
+        } finally {
+            shutdown();
+        }
+
+        allScheduleLags.sort(Long::compare);
+        double totalSeconds = (System.currentTimeMillis() - startMillis) / 1000.0;
+        System.out.printf("summary: queries=%d, avgQps=%.1f, executions=%d, crashes=%d, duplicates=%d, concurrent=%d, " +
+                        "lag{%s}%n",
+                queriesCount.get(), queriesCount.get() / totalSeconds, statisticsListener.getExecutionsCount(),
+                statisticsListener.getCrashesCount(), statisticsListener.getDuplicateExecutionsCount(),
+                statisticsListener.getConcurrentExecutionsCount(), percentiles(allScheduleLags));
+    }
+
+    private void createTable() {
+        HikariDataSource dataSource = createDataSource("scheduler-load-ddl");
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE_NAME);
+            jdbcTemplate.execute(databaseDialect == DatabaseDialect.H2 ? H2_TABLE_DDL : POSTGRES_TABLE_DDL);
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    private Scheduler startNode(int node) {
+        HikariDataSource dataSource = createDataSource("scheduler-load-node-" + node);
+        dataSources.add(dataSource);
+        QueryCountingDataSource countingDataSource = new QueryCountingDataSource(dataSource, queriesCount);
+
+        Scheduler scheduler = new SpringSchedulerConfigurator()
+                .withDatabaseDialect(databaseDialect)
+                .withTableName(TABLE_NAME)
+                .withJdbcOperations(new JdbcTemplate(countingDataSource))
+                .withTransactionOperations(new TransactionTemplate(new DataSourceTransactionManager(countingDataSource)))
+                .withScheduledTaskLifecycleListener(statisticsListener)
+                .configure();
+        for (int task = 0; task < tasksCount; task++) {
+            scheduler.schedule(
+                    SimpleScheduledTask.create("load_task_" + task, context -> ScheduledTaskExecutionResult.success()),
+                    ScheduledTaskSettings.builder()
+                            .withScheduleSettings(scheduleSettings(task))
+                            .withFailureSettings(FailureSettings.none())
+                            .build()
+            );
+        }
+        scheduler.start();
+        return scheduler;
+    }
+
+    private ScheduleSettings scheduleSettings(int task) {
+        switch (task % 3) {
+            case 0:
+                return ScheduleSettings.cron("*/" + scheduleInterval.getSeconds() + " * * * * *", ZoneId.of("UTC"));
+            case 1:
+                return ScheduleSettings.fixedRate(scheduleInterval);
+            default:
+                return ScheduleSettings.fixedDelay(scheduleInterval);
+        }
+    }
+
+    private HikariDataSource createDataSource(String poolName) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(user);
+        config.setPassword(password);
+        config.setMaximumPoolSize(poolSize);
+        config.setPoolName(poolName);
+        return new HikariDataSource(config);
+    }
+
+    private void shutdown() {
+        schedulers.forEach(Scheduler::shutdown);
+        schedulers.forEach(scheduler -> scheduler.awaitTermination(Duration.ofSeconds(30L)));
+        dataSources.forEach(HikariDataSource::close);
+    }
+
+    private static String resourceUsage() {
+        long usedHeap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        return String.format("threads=%d, heapUsed=%dMB",
+                ManagementFactory.getThreadMXBean().getThreadCount(), usedHeap / (1024L * 1024L));
+    }
+
+    private static String percentiles(List<Long> sortedValues) {
+        if (sortedValues.isEmpty()) {
+            return "n/a";
+        }
+        return String.format("p50=%dms, p95=%dms, p99=%dms, max=%dms",
+                percentile(sortedValues, 0.50), percentile(sortedValues, 0.95), percentile(sortedValues, 0.99),
+                sortedValues.get(sortedValues.size() - 1));
+    }
+
+    private static long percentile(List<Long> sortedValues, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedValues.size()) - 1;
+        return sortedValues.get(Math.max(0, index));
+    }
+}
@@ -0,0 +1,136 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.queue;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yoomoney.tech.dbqueue.api.EnqueueParams;
+import ru.yoomoney.tech.dbqueue.api.Task;
+import ru.yoomoney.tech.dbqueue.api.TaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.config.QueueShardId;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.NoopScheduledTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.ScheduledTaskDefinition;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.InMemoryDatabaseAccessLayer;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.InMemoryScheduledTaskQueueDao;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskExtFields;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.impl.FixedRateNextExecutionDelayProvider;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.scheduler.models.SimpleScheduledTask;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.FailureSettings;
+import ru.yoomoney.tech.dbqueue.settings.ExtSettings;
+import ru.yoomoney.tech.dbqueue.settings.FailRetryType;
+import ru.yoomoney.tech.dbqueue.settings.PollSettings;
+import ru.yoomoney.tech.dbqueue.settings.ProcessingMode;
+import ru.yoomoney.tech.dbqueue.settings.ProcessingSettings;
+import ru.yoomoney.tech.dbqueue.settings.QueueConfig;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
+import ru.yoomoney.tech.dbqueue.settings.ReenqueueRetryType;
+import ru.yoomoney.tech.dbqueue.settings.ReenqueueSettings;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end execution of a scheduled task by the consumer: listener calls, heartbeat agent, next execution delay
+ * and queries to the task table. Queries are served by the in-memory task table, so the benchmark measures the
+ * scheduler overhead rather than the database.
+ *
+ * <p>The benchmark is placed in the package of the consumer since the consumer is not a public API.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduledTaskQueueConsumerBenchmark {
+
+    @Param({"SUCCESS", "ERROR"})
+    private ScheduledTaskExecutionResult.Type resultType;
+
+    private ScheduledTaskQueueConsumer consumer;
+    private Task<String> task;
+
+    @Setup
+    public void setUp() {
+        ScheduledTaskExecutionResult executionResult = resultType == ScheduledTaskExecutionResult.Type.SUCCESS
+                ? ScheduledTaskExecutionResult.success()
+                : ScheduledTaskExecutionResult.error();
+        ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
+                .withScheduledTask(SimpleScheduledTask.create("benchmark_task", context -> executionResult))
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofMinutes(1L)))
+                .withNextExecutionTimeProvider(new FixedRateNextExecutionDelayProvider(Duration.ofMinutes(1L)))
+                .build();
+        QueueConfig queueConfig = queueConfig();
+        InMemoryScheduledTaskQueueDao scheduledTaskQueueDao = new InMemoryScheduledTaskQueueDao();
+        new InMemoryDatabaseAccessLayer(scheduledTaskQueueDao).getQueueDao()
+                .enqueue(queueConfig.getLocation(), new EnqueueParams<>());
+        consumer = new ScheduledTaskQueueConsumer(
+                queueConfig,
+                scheduledTaskDefinition,
+                NoopScheduledTaskLifecycleListener.getInstance(),
+                scheduledTaskQueueDao
+        );
+        task = Task.<String>builder(new QueueShardId("benchmark"))
+                .withPayload("state")
+                .withAttemptsCount(1L)
+                .withReenqueueAttemptsCount(10L)
+                .withTotalAttemptsCount(11L)
+                .withCreatedAt(Instant.now().atZone(ZoneOffset.UTC))
+                .withExtData(Map.of(ScheduledTaskExtFields.PLANNED_PROCESS_AT, Instant.now().toString()))
+                .build();
+    }
+
+    @Benchmark
+    public TaskExecutionResult execute() {
+        return consumer.execute(task);
+    }
+
+    private static QueueConfig queueConfig() {
+        return new QueueConfig(
+                QueueLocation.builder()
+                        .withTableName("scheduled_tasks")
+                        .withQueueId(new QueueId("benchmark_task"))
+                        .build(),
+                QueueSettings.builder()
+                        .withProcessingSettings(ProcessingSettings.builder()
+                                .withProcessingMode(ProcessingMode.SEPARATE_TRANSACTIONS)
+                                .withThreadCount(1)
+                                .build()
+                        )
+                        .withPollSettings(PollSettings.builder()
+                                .withBetweenTaskTimeout(Duration.ZERO)
+                                .withNoTaskTimeout(Duration.ZERO)
+                                .withFatalCrashTimeout(Duration.ZERO)
+                                .build()
+                        )
+                        .withFailureSettings(ru.yoomoney.tech.dbqueue.settings.FailureSettings.builder()
+                                .withRetryType(FailRetryType.GEOMETRIC_BACKOFF)
+                                .withRetryInterval(Duration.ZERO)
+                                .build()
+                        )
+                        .withReenqueueSettings(ReenqueueSettings.builder()
+                                .withRetryType(ReenqueueRetryType.MANUAL)
+                                .build()
+                        )
+                        .withExtSettings(ExtSettings.builder().withSettings(Collections.emptyMap()).build())
+                        .build()
+        );
+    }
+}
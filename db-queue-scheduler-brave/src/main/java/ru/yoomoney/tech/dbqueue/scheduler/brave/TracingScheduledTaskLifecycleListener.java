@@ -11,6 +11,7 @@ import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.time.Duration;
 import java.time.Instant;
 
 import static java.util.Objects.requireNonNull;
@@ -32,11 +33,19 @@ public class TracingScheduledTaskLifecycleListener implements ScheduledTaskLifec
 
     @Override
     public void started(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull ScheduledTaskContext taskContext) {
+        started(taskIdentity, taskContext, Duration.ZERO);
+    }
+
+    @Override
+    public void started(@Nonnull ScheduledTaskIdentity taskIdentity,
+                        @Nonnull ScheduledTaskContext taskContext,
+                        @Nonnull Duration scheduleLag) {
         Tracer tracer = tracing.tracer();
         TraceContext traceContext = tracer.newTrace().context().toBuilder().build();
         Span span = tracer.toSpan(traceContext)
                 .name("scheduler " + taskIdentity.asString())
                 .tag("scheduler.task", taskIdentity.asString())
+                .tag("scheduler.lag", String.valueOf(scheduleLag.toMillis()))
                 .kind(Span.Kind.CONSUMER)
                 .start();
         threadLocalSpan.set(new SpanAndScope(span, tracer.withSpanInScope(span)));
@@ -7,6 +7,7 @@ import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskContext;
 import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
 import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
 
+import java.time.Duration;
 import java.time.Instant;
 
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -28,7 +29,7 @@ class TracingScheduledTaskLifecycleListenerTest {
         ScheduledTaskContext taskContext = ScheduledTaskContext.builder().withCreatedAt(Instant.now()).build();
 
         // when
-        listener.started(scheduledTaskIdentity, taskContext);
+        listener.started(scheduledTaskIdentity, taskContext, Duration.ZERO);
 
         // then
         TraceContext traceContext = tracing.tracer().currentSpan().context();
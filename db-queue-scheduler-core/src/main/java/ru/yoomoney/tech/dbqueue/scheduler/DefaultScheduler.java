@@ -8,6 +8,8 @@ import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.NextExecutionDelayPr
 import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.NextExecutionDelayProviderFactory;
 import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTask;
 import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskTemplate;
+import ru.yoomoney.tech.dbqueue.scheduler.models.info.ScheduledTaskExecutionInfo;
 import ru.yoomoney.tech.dbqueue.scheduler.models.info.ScheduledTaskInfo;
 import ru.yoomoney.tech.dbqueue.scheduler.settings.ScheduledTaskSettings;
 
@@ -42,19 +44,84 @@ class DefaultScheduler implements Scheduler {
         requireNonNull(scheduledTaskSettings, "scheduledTaskSettings");
         requireNonNull(scheduledTask, "scheduledTask");
 
+        scheduledTaskManager.schedule(createTaskDefinition(scheduledTask, scheduledTaskSettings));
+
+        log.info("task scheduled: identity={}, settings={}", scheduledTask.getIdentity(), scheduledTaskSettings);
+    }
+
+    @Override
+    public void schedule(@Nonnull ScheduledTaskTemplate scheduledTaskTemplate,
+                         @Nonnull ScheduledTaskSettings scheduledTaskSettings) {
+        requireNonNull(scheduledTaskSettings, "scheduledTaskSettings");
+        requireNonNull(scheduledTaskTemplate, "scheduledTaskTemplate");
+
+        scheduledTaskManager.schedule(createTemplateDefinition(scheduledTaskTemplate, scheduledTaskSettings));
+
+        log.info("task template scheduled: template={}, settings={}", scheduledTaskTemplate, scheduledTaskSettings);
+    }
+
+    @Override
+    public void update(@Nonnull ScheduledTask scheduledTask,
+                       @Nonnull ScheduledTaskSettings scheduledTaskSettings) {
+        requireNonNull(scheduledTaskSettings, "scheduledTaskSettings");
+        requireNonNull(scheduledTask, "scheduledTask");
+
+        scheduledTaskManager.update(createTaskDefinition(scheduledTask, scheduledTaskSettings));
+
+        log.info("task updated: identity={}, settings={}", scheduledTask.getIdentity(), scheduledTaskSettings);
+    }
+
+    @Override
+    public void update(@Nonnull ScheduledTaskTemplate scheduledTaskTemplate,
+                       @Nonnull ScheduledTaskSettings scheduledTaskSettings) {
+        requireNonNull(scheduledTaskSettings, "scheduledTaskSettings");
+        requireNonNull(scheduledTaskTemplate, "scheduledTaskTemplate");
+
+        scheduledTaskManager.update(createTemplateDefinition(scheduledTaskTemplate, scheduledTaskSettings));
+
+        log.info("task template updated: template={}, settings={}", scheduledTaskTemplate, scheduledTaskSettings);
+    }
+
+    @Override
+    public void unschedule(@Nonnull ScheduledTaskIdentity taskIdentity, boolean deleteTask) {
+        requireNonNull(taskIdentity, "taskIdentity");
+
+        scheduledTaskManager.unschedule(taskIdentity, deleteTask);
+        log.info("task unscheduled: identity={}, deleteTask={}", taskIdentity, deleteTask);
+    }
+
+    private ScheduledTaskDefinition createTaskDefinition(ScheduledTask scheduledTask,
+                                                         ScheduledTaskSettings scheduledTaskSettings) {
         NextExecutionDelayProvider executionTimeProvider = nextExecutionTimeProviderFactory
                 .createExecutionDelayProvider(scheduledTaskSettings);
 
-        ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
+        return ScheduledTaskDefinition.builder()
                 .withEnabled(scheduledTaskSettings.isEnabled())
                 .withFailureSettings(scheduledTaskSettings.getFailureSettings())
                 .withScheduledTask(scheduledTask)
                 .withNextExecutionTimeProvider(executionTimeProvider)
+                .withLeaseSettings(scheduledTaskSettings.getLeaseSettings().orElse(null))
+                .withHeartbeatSettings(scheduledTaskSettings.getHeartbeatSettings())
+                .withStateCodec(scheduledTaskSettings.getStateCodec().orElse(null))
                 .build();
+    }
 
-        scheduledTaskManager.schedule(scheduledTaskDefinition);
+    private ScheduledTaskDefinition createTemplateDefinition(ScheduledTaskTemplate scheduledTaskTemplate,
+                                                             ScheduledTaskSettings scheduledTaskSettings) {
+        NextExecutionDelayProvider executionTimeProvider = nextExecutionTimeProviderFactory
+                .createExecutionDelayProvider(scheduledTaskSettings);
 
-        log.info("task scheduled: identity={}, settings={}", scheduledTask.getIdentity(), scheduledTaskSettings);
+        return ScheduledTaskDefinition.builder()
+                .withEnabled(scheduledTaskSettings.isEnabled())
+                .withFailureSettings(scheduledTaskSettings.getFailureSettings())
+                .withScheduledTask(scheduledTaskTemplate.getScheduledTask())
+                .withNextExecutionTimeProvider(executionTimeProvider)
+                .withInstanceKeys(scheduledTaskTemplate.getInstanceKeys())
+                .withThreadCount(scheduledTaskTemplate.getThreadCount())
+                .withLeaseSettings(scheduledTaskSettings.getLeaseSettings().orElse(null))
+                .withHeartbeatSettings(scheduledTaskSettings.getHeartbeatSettings())
+                .withStateCodec(scheduledTaskSettings.getStateCodec().orElse(null))
+                .build();
     }
 
     @Override
@@ -66,6 +133,14 @@ class DefaultScheduler implements Scheduler {
         log.info("task rescheduled: identity={}, nextExecutionTime={}", taskIdentity, nextExecutionTime);
     }
 
+    @Override
+    public void triggerNow(@Nonnull ScheduledTaskIdentity taskIdentity) {
+        requireNonNull(taskIdentity, "taskIdentity");
+
+        scheduledTaskManager.triggerNow(taskIdentity);
+        log.info("task triggered: identity={}", taskIdentity);
+    }
+
     @Override
     public void start() {
         scheduledTaskManager.start();
@@ -99,4 +174,9 @@ class DefaultScheduler implements Scheduler {
     public List<ScheduledTaskInfo> getScheduledTaskInfo() {
         return scheduledTaskManager.getScheduledTaskInfo();
     }
+
+    @Override
+    public List<ScheduledTaskExecutionInfo> getExecutionHistory(@Nonnull ScheduledTaskIdentity identity, int limit) {
+        return scheduledTaskManager.getExecutionHistory(identity, limit);
+    }
 }
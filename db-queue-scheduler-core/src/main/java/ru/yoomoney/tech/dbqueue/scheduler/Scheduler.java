@@ -2,6 +2,8 @@ package ru.yoomoney.tech.dbqueue.scheduler;
 
 import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTask;
 import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskTemplate;
+import ru.yoomoney.tech.dbqueue.scheduler.models.info.ScheduledTaskExecutionInfo;
 import ru.yoomoney.tech.dbqueue.scheduler.models.info.ScheduledTaskInfo;
 import ru.yoomoney.tech.dbqueue.scheduler.settings.ScheduledTaskSettings;
 
@@ -32,14 +34,78 @@ public interface Scheduler {
     void schedule(@Nonnull ScheduledTask scheduledTask,
                   @Nonnull ScheduledTaskSettings scheduledTaskSettings);
 
+    /**
+     * Registers a task template for periodic executions of all its instances.
+     *
+     * <p>All instances share the same settings and a single consumer, whereas each instance is executed according to
+     * its own schedule. Records of missing instances are created in bulk.
+     *
+     * @param scheduledTaskTemplate template of tasks for periodic executions
+     * @param scheduledTaskSettings settings of each instance of the template
+     * @throws RuntimeException if any scheduled task with the same identity already registered
+     */
+    void schedule(@Nonnull ScheduledTaskTemplate scheduledTaskTemplate,
+                  @Nonnull ScheduledTaskSettings scheduledTaskSettings);
+
+    /**
+     * Replaces settings of a registered task.
+     *
+     * <p>Method does not interrupt the currently processing task, the next executions are done according to the new
+     * settings. The next execution time that is already persisted is not changed.
+     *
+     * @param scheduledTask task for periodic executions
+     * @param scheduledTaskSettings new settings of the scheduled task
+     * @throws RuntimeException if the scheduled task is not registered
+     */
+    void update(@Nonnull ScheduledTask scheduledTask,
+                @Nonnull ScheduledTaskSettings scheduledTaskSettings);
+
+    /**
+     * Replaces instances and settings of a registered task template.
+     *
+     * <p>Records of added instances are created, records of removed instances are deleted. Method does not interrupt
+     * currently processing instances.
+     *
+     * @param scheduledTaskTemplate template of tasks for periodic executions
+     * @param scheduledTaskSettings new settings of each instance of the template
+     * @throws RuntimeException if the task template is not registered
+     */
+    void update(@Nonnull ScheduledTaskTemplate scheduledTaskTemplate,
+                @Nonnull ScheduledTaskSettings scheduledTaskSettings);
+
+    /**
+     * Unregisters a task or a task template and releases its resources on the current application node.
+     *
+     * <p>Method does not interrupt the currently processing task but prevents starting the new ones. Other tasks keep
+     * running. The task might be scheduled again afterwards.
+     *
+     * @param taskIdentity identity of the task or the task template
+     * @param deleteTask true if persisted task records should be deleted as well. Other application nodes that still have
+     *                   the task scheduled do not execute it until they schedule it again after restart.
+     */
+    void unschedule(@Nonnull ScheduledTaskIdentity taskIdentity, boolean deleteTask);
+
     /**
      * Updates next execution time of a scheduled task
      *
-     * @param taskIdentity identity of the task that should be rescheduled
+     * @param taskIdentity identity of the task or the template instance that should be rescheduled
      * @param nextExecutionTime date time at which the task should be executed
      */
     void reschedule(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull Instant nextExecutionTime);
 
+    /**
+     * Triggers a one-off execution of a scheduled task as soon as possible.
+     *
+     * <p>The one-off execution does not change the schedule - the next regular execution happens at the same time as it
+     * would have happened without the trigger. Repeated triggers before the one-off execution result in a single execution.
+     *
+     * <p>Like {@link #reschedule(ScheduledTaskIdentity, Instant)}, the trigger does not wait for a currently running
+     * execution of the task.
+     *
+     * @param taskIdentity identity of the task or the template instance that should be executed
+     */
+    void triggerNow(@Nonnull ScheduledTaskIdentity taskIdentity);
+
     /**
      * Starts scheduler - makes scheduler available for executing scheduled tasks
      */
@@ -79,4 +145,16 @@ public interface Scheduler {
      * @return collected statistics
      */
     List<ScheduledTaskInfo> getScheduledTaskInfo();
+
+    /**
+     * Finds latest persisted executions of a scheduled task, the most recent first.
+     *
+     * <p>Executions are written asynchronously, so the latest executions might be not available yet.
+     *
+     * @param identity identity of a scheduled task or a task template instance
+     * @param limit max count of executions
+     * @return found executions
+     * @throws IllegalStateException if the execution history is not configured
+     */
+    List<ScheduledTaskExecutionInfo> getExecutionHistory(@Nonnull ScheduledTaskIdentity identity, int limit);
 }
@@ -6,6 +6,7 @@ import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.time.Duration;
 import java.time.Instant;
 
 /**
@@ -27,10 +28,31 @@ public interface ScheduledTaskLifecycleListener {
      */
     void started(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull ScheduledTaskContext taskContext);
 
+    /**
+     * Event of task starting execution along with the schedule lag.
+     *
+     * <p> Always triggered before scheduled task execution instead of {@link #started(ScheduledTaskIdentity,
+     * ScheduledTaskContext)}, which is called by default.
+     *
+     * <p> Might be useful for tracking how late tasks start.
+     *
+     * @param taskIdentity identity of executing task
+     * @param taskContext executing task context
+     * @param scheduleLag delay between the planned execution time ({@link ScheduledTaskContext#getPlannedExecutionTime()})
+     *                    and the actual execution start, both are measured by the database clock.
+     *                    Zero if the planned execution time is unknown.
+     */
+    default void started(@Nonnull ScheduledTaskIdentity taskIdentity,
+                         @Nonnull ScheduledTaskContext taskContext,
+                         @Nonnull Duration scheduleLag) {
+        started(taskIdentity, taskContext);
+    }
+
     /**
      * Event for completion of client logic when task processing.
      *
-     * <p> Always triggered when task processing has finished with any result.
+     * <p> Always triggered when task processing has finished with any result, after the task record is postponed to
+     * the next execution date.
      *
      * <p> Might be useful for recovery of initial logging context state.
      *
@@ -58,4 +80,38 @@ public interface ScheduledTaskLifecycleListener {
      * @param exc an error caused the crash.
      */
     void crashed(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull ScheduledTaskContext taskContext, @Nullable Throwable exc);
+
+    /**
+     * Event of losing the task by the current execution.
+     *
+     * <p> Triggered once per execution when a heartbeat or a completion update of the task record is rejected
+     * because the task was picked again ({@link ScheduledTaskContext#getExecutionEpoch()} is outdated) or deleted.
+     * Another execution of the task might overlap with the current one.
+     *
+     * <p> Might be useful for alerting on overlapping executions.
+     *
+     * @param taskIdentity identity of executing task
+     * @param taskContext executing task context
+     */
+    default void lockLost(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull ScheduledTaskContext taskContext) {
+    }
+
+    /**
+     * Event of a failed heartbeat of the current execution.
+     *
+     * <p> Triggered when a heartbeat update throws an error or is rejected ({@link #lockLost} is triggered as well).
+     * The counter is reset by a successful heartbeat.
+     *
+     * <p> Might be useful for alerting on executions cut off from the database.
+     *
+     * @param taskIdentity identity of executing task
+     * @param taskContext executing task context
+     * @param consecutiveFailuresCount count of consecutive failed heartbeats including the current one
+     * @param exc an error of the heartbeat or null if the heartbeat was rejected
+     */
+    default void heartbeatFailed(@Nonnull ScheduledTaskIdentity taskIdentity,
+                                 @Nonnull ScheduledTaskContext taskContext,
+                                 int consecutiveFailuresCount,
+                                 @Nullable Throwable exc) {
+    }
 }
@@ -0,0 +1,67 @@
+package ru.yoomoney.tech.dbqueue.scheduler.config;
+
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+
+/**
+ * Instrumentation of scheduler internals.
+ *
+ * <p>Unlike {@link ScheduledTaskLifecycleListener}, that observes executions of scheduled tasks, the instrumentation
+ * observes the machinery around executions - scheduling lag, heartbeats and database queries. Might be useful for
+ * noticing that the scheduler is falling behind.
+ *
+ * <p>Methods are called synchronously by scheduler threads, so implementations must be fast and must not throw.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public interface SchedulerInstrumentation {
+    /**
+     * Event of a task execution start delay measurement.
+     *
+     * <p>Lag is the difference between the actual execution start and the planned execution time, both are measured
+     * by the database clock.
+     *
+     * @param taskIdentity identity of executing task
+     * @param scheduleLag delay of the execution start
+     */
+    void scheduleLagMeasured(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull Duration scheduleLag);
+
+    /**
+     * Event of a heartbeat that postponed next execution time of a running task.
+     *
+     * @param taskIdentity identity of executing task
+     * @param latency time spent on the heartbeat
+     * @param exc an error caused the heartbeat failure or null if the heartbeat is successful
+     */
+    void heartbeatFinished(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull Duration latency, @Nullable Throwable exc);
+
+    /**
+     * Event of a database query executed by the scheduler.
+     *
+     * @param queryName name of the query, that equals to the name of the method of the scheduler DAO
+     * @param duration time spent on the query
+     * @param exc an error caused the query failure or null if the query is successful
+     */
+    void queryFinished(@Nonnull String queryName, @Nonnull Duration duration, @Nullable Throwable exc);
+
+    /**
+     * Event of a database query executed by the scheduler on behalf of a particular task.
+     *
+     * <p>By default the task is ignored and the event is passed to {@link #queryFinished(String, Duration, Throwable)}.
+     *
+     * @param queryName name of the query, that equals to the name of the method of the scheduler DAO
+     * @param taskIdentity identity of the task the query is executed for or null if the query is not bound to a task
+     * @param duration time spent on the query
+     * @param exc an error caused the query failure or null if the query is successful
+     */
+    default void queryFinished(@Nonnull String queryName,
+                               @Nullable ScheduledTaskIdentity taskIdentity,
+                               @Nonnull Duration duration,
+                               @Nullable Throwable exc) {
+        queryFinished(queryName, duration, exc);
+    }
+}
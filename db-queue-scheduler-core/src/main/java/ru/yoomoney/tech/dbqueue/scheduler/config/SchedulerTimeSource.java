@@ -0,0 +1,53 @@
+package ru.yoomoney.tech.dbqueue.scheduler.config;
+
+import javax.annotation.Nonnull;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Source of time for the scheduler internals.
+ *
+ * <p>The scheduler reads the current time and waits only through the time source, so a virtual time source allows to
+ * run schedules of days in seconds and to reproduce timing races on demand.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public interface SchedulerTimeSource {
+
+    /**
+     * Get clock that reads the current time of the time source
+     *
+     * @return clock of the time source
+     */
+    @Nonnull
+    Clock getClock();
+
+    /**
+     * Creates a sleeper that waits by the time of the time source
+     *
+     * @return new sleeper
+     */
+    @Nonnull
+    Sleeper createSleeper();
+
+    /**
+     * Waiting facility that can be woken up by another thread
+     */
+    interface Sleeper {
+
+        /**
+         * Waits until the duration elapses by the time source or the sleeper is woken up
+         *
+         * @param duration duration to wait
+         * @return true if the duration elapsed, false if the sleeper has been woken up
+         * @throws InterruptedException if the thread is interrupted while waiting
+         */
+        boolean sleep(@Nonnull Duration duration) throws InterruptedException;
+
+        /**
+         * Wakes up the current and all the subsequent waits of the sleeper
+         */
+        void wakeUp();
+    }
+}
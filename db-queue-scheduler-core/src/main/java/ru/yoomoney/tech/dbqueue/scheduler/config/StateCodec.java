@@ -0,0 +1,37 @@
+package ru.yoomoney.tech.dbqueue.scheduler.config;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Codec of a typed state of a scheduled task.
+ *
+ * <p>The state is stored in the payload column of the task record as a string. The scheduler keeps decoded states
+ * in memory of the node and decodes a state only when the stored one differs from the cached one, so the same decoded
+ * object is passed to consecutive executions. That is why states must be immutable: a modified state must be returned
+ * as a new object via {@code ScheduledTaskExecutionResult.withTypedState}. A cached state is evicted when an execution
+ * does not succeed.
+ *
+ * @param <T> type of the state
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public interface StateCodec<T> {
+
+    /**
+     * Encodes the state to be stored in the task record
+     *
+     * @param state state of the task
+     * @return encoded state
+     */
+    @Nonnull
+    String encode(@Nonnull T state);
+
+    /**
+     * Decodes the state stored in the task record
+     *
+     * @param encodedState encoded state
+     * @return state of the task
+     */
+    @Nonnull
+    T decode(@Nonnull String encodedState);
+}
@@ -0,0 +1,339 @@
+package ru.yoomoney.tech.dbqueue.scheduler.config.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yoomoney.tech.dbqueue.scheduler.config.ScheduledTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskContext;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Listener that passes events to the delegate listener asynchronously.
+ *
+ * <p>Events are put into a preallocated ring buffer and are dispatched to the delegate by a single thread in the same
+ * order they were received. That takes the cost of slow listeners off task executions, namely off the processing time
+ * that next execution time is computed with.
+ *
+ * <p>When the buffer is full an event is either dropped or the execution thread waits for a free slot, according to
+ * {@link OverflowPolicy}. Dropped events are counted, see {@link #getDroppedEventsCount()}.
+ *
+ * <p>The delegate must not rely on being called by the execution thread, eg: thread local tracing contexts do not work.
+ * The dispatching thread is a daemon one, {@link #close()} stops it after the buffered events are dispatched.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class AsyncScheduledTaskLifecycleListener implements ScheduledTaskLifecycleListener, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(AsyncScheduledTaskLifecycleListener.class);
+
+    private final ScheduledTaskLifecycleListener delegate;
+    private final OverflowPolicy overflowPolicy;
+    private final ListenerEvent[] ringBuffer;
+    private final Object mutex = new Object();
+    private final AtomicLong droppedEventsCount = new AtomicLong();
+    private final Thread dispatcherThread;
+
+    private long writeSequence;
+    private long readSequence;
+    private boolean closed;
+
+    /**
+     * Constructor
+     *
+     * @param delegate listener the events are dispatched to
+     * @param bufferSize count of events that might be buffered
+     * @param overflowPolicy behaviour on the buffer overflow
+     */
+    public AsyncScheduledTaskLifecycleListener(@Nonnull ScheduledTaskLifecycleListener delegate,
+                                               int bufferSize,
+                                               @Nonnull OverflowPolicy overflowPolicy) {
+        this.delegate = requireNonNull(delegate, "delegate");
+        this.overflowPolicy = requireNonNull(overflowPolicy, "overflowPolicy");
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive: bufferSize=" + bufferSize);
+        }
+        this.ringBuffer = new ListenerEvent[bufferSize];
+        for (int i = 0; i < bufferSize; i++) {
+            ringBuffer[i] = new ListenerEvent();
+        }
+        this.dispatcherThread = new Thread(this::dispatchEvents);
+        dispatcherThread.setName("scheduler-listener-dispatcher");
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.start();
+    }
+
+    @Override
+    public void started(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull ScheduledTaskContext taskContext) {
+        started(taskIdentity, taskContext, Duration.ZERO);
+    }
+
+    @Override
+    public void started(@Nonnull ScheduledTaskIdentity taskIdentity,
+                        @Nonnull ScheduledTaskContext taskContext,
+                        @Nonnull Duration scheduleLag) {
+        synchronized (mutex) {
+            ListenerEvent event = claimSlot();
+            if (event == null) {
+                return;
+            }
+            event.type = EventType.STARTED;
+            event.taskIdentity = taskIdentity;
+            event.taskContext = taskContext;
+            event.scheduleLag = scheduleLag;
+            publish();
+        }
+    }
+
+    @Override
+    public void finished(@Nonnull ScheduledTaskIdentity taskIdentity,
+                         @Nonnull ScheduledTaskContext taskContext,
+                         @Nonnull ScheduledTaskExecutionResult executionResult,
+                         @Nonnull Instant nextExecutionTime,
+                         long processTaskTimeInMills) {
+        synchronized (mutex) {
+            ListenerEvent event = claimSlot();
+            if (event == null) {
+                return;
+            }
+            event.type = EventType.FINISHED;
+            event.taskIdentity = taskIdentity;
+            event.taskContext = taskContext;
+            event.executionResult = executionResult;
+            event.nextExecutionTime = nextExecutionTime;
+            event.processTaskTimeInMills = processTaskTimeInMills;
+            publish();
+        }
+    }
+
+    @Override
+    public void crashed(@Nonnull ScheduledTaskIdentity taskIdentity,
+                        @Nonnull ScheduledTaskContext taskContext,
+                        @Nullable Throwable exc) {
+        synchronized (mutex) {
+            ListenerEvent event = claimSlot();
+            if (event == null) {
+                return;
+            }
+            event.type = EventType.CRASHED;
+            event.taskIdentity = taskIdentity;
+            event.taskContext = taskContext;
+            event.exc = exc;
+            publish();
+        }
+    }
+
+    @Override
+    public void lockLost(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull ScheduledTaskContext taskContext) {
+        synchronized (mutex) {
+            ListenerEvent event = claimSlot();
+            if (event == null) {
+                return;
+            }
+            event.type = EventType.LOCK_LOST;
+            event.taskIdentity = taskIdentity;
+            event.taskContext = taskContext;
+            publish();
+        }
+    }
+
+    @Override
+    public void heartbeatFailed(@Nonnull ScheduledTaskIdentity taskIdentity,
+                                @Nonnull ScheduledTaskContext taskContext,
+                                int consecutiveFailuresCount,
+                                @Nullable Throwable exc) {
+        synchronized (mutex) {
+            ListenerEvent event = claimSlot();
+            if (event == null) {
+                return;
+            }
+            event.type = EventType.HEARTBEAT_FAILED;
+            event.taskIdentity = taskIdentity;
+            event.taskContext = taskContext;
+            event.consecutiveFailuresCount = consecutiveFailuresCount;
+            event.exc = exc;
+            publish();
+        }
+    }
+
+    /**
+     * Get count of events dropped due to the buffer overflow or after the listener is closed
+     *
+     * @return count of dropped events
+     */
+    public long getDroppedEventsCount() {
+        return droppedEventsCount.get();
+    }
+
+    /**
+     * Stops the dispatching thread after the buffered events are dispatched. Events received later are dropped.
+     */
+    @Override
+    public void close() {
+        synchronized (mutex) {
+            closed = true;
+            mutex.notifyAll();
+        }
+        try {
+            dispatcherThread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Claims a free slot of the ring buffer, must be called under the mutex
+     *
+     * @return free slot or null if the event must be dropped
+     */
+    @Nullable
+    private ListenerEvent claimSlot() {
+        while (!closed && writeSequence - readSequence == ringBuffer.length) {
+            if (overflowPolicy == OverflowPolicy.DROP) {
+                break;
+            }
+            try {
+                mutex.wait();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (closed || writeSequence - readSequence == ringBuffer.length) {
+            droppedEventsCount.incrementAndGet();
+            return null;
+        }
+        return ringBuffer[(int) (writeSequence % ringBuffer.length)];
+    }
+
+    /**
+     * Publishes the claimed slot to the dispatching thread, must be called under the mutex
+     */
+    private void publish() {
+        writeSequence++;
+        mutex.notifyAll();
+    }
+
+    private void dispatchEvents() {
+        ListenerEvent event = new ListenerEvent();
+        while (true) {
+            synchronized (mutex) {
+                while (!closed && readSequence == writeSequence) {
+                    try {
+                        mutex.wait();
+                    } catch (InterruptedException ex) {
+                        log.info("listener dispatcher thread interrupted");
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (readSequence == writeSequence) {
+                    return;
+                }
+                ListenerEvent slot = ringBuffer[(int) (readSequence % ringBuffer.length)];
+                event.copyFrom(slot);
+                slot.clear();
+                readSequence++;
+                mutex.notifyAll();
+            }
+            try {
+                dispatch(event);
+            } catch (RuntimeException ex) {
+                log.warn("failed to dispatch listener event: type={}, taskIdentity={}", event.type, event.taskIdentity, ex);
+            }
+            event.clear();
+        }
+    }
+
+    private void dispatch(ListenerEvent event) {
+        switch (event.type) {
+            case STARTED:
+                delegate.started(event.taskIdentity, event.taskContext, event.scheduleLag);
+                return;
+            case FINISHED:
+                delegate.finished(event.taskIdentity, event.taskContext, event.executionResult,
+                        event.nextExecutionTime, event.processTaskTimeInMills);
+                return;
+            case CRASHED:
+                delegate.crashed(event.taskIdentity, event.taskContext, event.exc);
+                return;
+            case LOCK_LOST:
+                delegate.lockLost(event.taskIdentity, event.taskContext);
+                return;
+            case HEARTBEAT_FAILED:
+                delegate.heartbeatFailed(event.taskIdentity, event.taskContext, event.consecutiveFailuresCount,
+                        event.exc);
+                return;
+            default:
+                throw new IllegalStateException("unknown event type: type=" + event.type);
+        }
+    }
+
+    /**
+     * Behaviour on the buffer overflow
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drop the event, the execution thread is not blocked
+         */
+        DROP,
+        /**
+         * Wait until the dispatching thread frees a slot
+         */
+        BLOCK
+    }
+
+    private enum EventType {
+        STARTED,
+        FINISHED,
+        CRASHED,
+        LOCK_LOST,
+        HEARTBEAT_FAILED
+    }
+
+    /**
+     * Mutable slot of the ring buffer
+     */
+    private static final class ListenerEvent {
+        private EventType type;
+        private ScheduledTaskIdentity taskIdentity;
+        private ScheduledTaskContext taskContext;
+        private Duration scheduleLag;
+        private ScheduledTaskExecutionResult executionResult;
+        private Instant nextExecutionTime;
+        private long processTaskTimeInMills;
+        private int consecutiveFailuresCount;
+        private Throwable exc;
+
+        void copyFrom(ListenerEvent other) {
+            type = other.type;
+            taskIdentity = other.taskIdentity;
+            taskContext = other.taskContext;
+            scheduleLag = other.scheduleLag;
+            executionResult = other.executionResult;
+            nextExecutionTime = other.nextExecutionTime;
+            processTaskTimeInMills = other.processTaskTimeInMills;
+            consecutiveFailuresCount = other.consecutiveFailuresCount;
+            exc = other.exc;
+        }
+
+        void clear() {
+            type = null;
+            taskIdentity = null;
+            taskContext = null;
+            scheduleLag = null;
+            executionResult = null;
+            nextExecutionTime = null;
+            processTaskTimeInMills = 0L;
+            consecutiveFailuresCount = 0;
+            exc = null;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -35,7 +36,14 @@ public class CompositeScheduledTaskLifecycleListener implements ScheduledTaskLif
 
     @Override
     public void started(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull ScheduledTaskContext taskContext) {
-        listeners.forEach(listener -> listener.started(taskIdentity, taskContext));
+        started(taskIdentity, taskContext, Duration.ZERO);
+    }
+
+    @Override
+    public void started(@Nonnull ScheduledTaskIdentity taskIdentity,
+                        @Nonnull ScheduledTaskContext taskContext,
+                        @Nonnull Duration scheduleLag) {
+        listeners.forEach(listener -> listener.started(taskIdentity, taskContext, scheduleLag));
     }
 
     @Override
@@ -54,4 +62,17 @@ public class CompositeScheduledTaskLifecycleListener implements ScheduledTaskLif
                         @Nullable Throwable exc) {
         reverseListeners.forEach(listener -> listener.crashed(taskIdentity, taskContext, exc));
     }
+
+    @Override
+    public void lockLost(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull ScheduledTaskContext taskContext) {
+        listeners.forEach(listener -> listener.lockLost(taskIdentity, taskContext));
+    }
+
+    @Override
+    public void heartbeatFailed(@Nonnull ScheduledTaskIdentity taskIdentity,
+                                @Nonnull ScheduledTaskContext taskContext,
+                                int consecutiveFailuresCount,
+                                @Nullable Throwable exc) {
+        listeners.forEach(listener -> listener.heartbeatFailed(taskIdentity, taskContext, consecutiveFailuresCount, exc));
+    }
 }
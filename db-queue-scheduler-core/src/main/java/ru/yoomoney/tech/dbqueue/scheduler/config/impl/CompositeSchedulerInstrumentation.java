@@ -0,0 +1,52 @@
+package ru.yoomoney.tech.dbqueue.scheduler.config.impl;
+
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerInstrumentation;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Composite instrumentation. It allows combining several instrumentations into one, eg: metrics and tracing.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class CompositeSchedulerInstrumentation implements SchedulerInstrumentation {
+    private final List<SchedulerInstrumentation> instrumentations;
+
+    public CompositeSchedulerInstrumentation(@Nonnull List<SchedulerInstrumentation> instrumentations) {
+        this.instrumentations = Collections.unmodifiableList(requireNonNull(instrumentations, "instrumentations"));
+    }
+
+    @Override
+    public void scheduleLagMeasured(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull Duration scheduleLag) {
+        instrumentations.forEach(instrumentation -> instrumentation.scheduleLagMeasured(taskIdentity, scheduleLag));
+    }
+
+    @Override
+    public void heartbeatFinished(@Nonnull ScheduledTaskIdentity taskIdentity,
+                                  @Nonnull Duration latency,
+                                  @Nullable Throwable exc) {
+        instrumentations.forEach(instrumentation -> instrumentation.heartbeatFinished(taskIdentity, latency, exc));
+    }
+
+    @Override
+    public void queryFinished(@Nonnull String queryName, @Nonnull Duration duration, @Nullable Throwable exc) {
+        instrumentations.forEach(instrumentation -> instrumentation.queryFinished(queryName, duration, exc));
+    }
+
+    @Override
+    public void queryFinished(@Nonnull String queryName,
+                              @Nullable ScheduledTaskIdentity taskIdentity,
+                              @Nonnull Duration duration,
+                              @Nullable Throwable exc) {
+        instrumentations.forEach(instrumentation ->
+                instrumentation.queryFinished(queryName, taskIdentity, duration, exc));
+    }
+}
@@ -0,0 +1,97 @@
+package ru.yoomoney.tech.dbqueue.scheduler.config.impl;
+
+import ru.yoomoney.tech.dbqueue.scheduler.config.StateCodec;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Codec that compresses large states of the delegate codec.
+ *
+ * <p>A state that is not shorter than the threshold is compressed by deflate and stored in Base64 with the
+ * {@value #COMPRESSED_STATE_PREFIX} prefix. Shorter states are stored as is, so states stored before the codec was
+ * configured are decoded too.
+ *
+ * @param <T> type of the state
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class DeflateStateCodec<T> implements StateCodec<T> {
+    private static final String COMPRESSED_STATE_PREFIX = "deflate:";
+    private static final int BUFFER_SIZE = 4096;
+
+    private final StateCodec<T> delegate;
+    private final int compressionThreshold;
+
+    /**
+     * Constructor
+     *
+     * @param delegate codec of the state
+     * @param compressionThreshold min length of the encoded state to be compressed
+     */
+    public DeflateStateCodec(@Nonnull StateCodec<T> delegate, int compressionThreshold) {
+        this.delegate = requireNonNull(delegate, "delegate");
+        if (compressionThreshold < 0) {
+            throw new IllegalArgumentException("compressionThreshold must not be negative: compressionThreshold="
+                    + compressionThreshold);
+        }
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Nonnull
+    @Override
+    public String encode(@Nonnull T state) {
+        String encodedState = delegate.encode(state);
+        // a short state with the prefix is compressed too, otherwise it would be taken for a compressed one
+        if (encodedState.length() < compressionThreshold && !encodedState.startsWith(COMPRESSED_STATE_PREFIX)) {
+            return encodedState;
+        }
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(encodedState.getBytes(StandardCharsets.UTF_8));
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return COMPRESSED_STATE_PREFIX + Base64.getEncoder().encodeToString(output.toByteArray());
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Nonnull
+    @Override
+    public T decode(@Nonnull String encodedState) {
+        requireNonNull(encodedState, "encodedState");
+        if (!encodedState.startsWith(COMPRESSED_STATE_PREFIX)) {
+            return delegate.decode(encodedState);
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(Base64.getDecoder().decode(encodedState.substring(COMPRESSED_STATE_PREFIX.length())));
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int inflatedLength = inflater.inflate(buffer);
+                if (inflatedLength == 0 && inflater.needsInput()) {
+                    throw new IllegalArgumentException("compressed state is truncated");
+                }
+                output.write(buffer, 0, inflatedLength);
+            }
+            return delegate.decode(output.toString(StandardCharsets.UTF_8));
+        } catch (DataFormatException ex) {
+            throw new IllegalArgumentException("compressed state is corrupted", ex);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -9,6 +9,7 @@ import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.time.Duration;
 import java.time.Instant;
 
 /**
@@ -22,7 +23,14 @@ public class LoggingScheduledTaskLifecycleListener implements ScheduledTaskLifec
 
     @Override
     public void started(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull ScheduledTaskContext taskContext) {
-        log.info("task started: identity={}", taskIdentity.asString());
+        started(taskIdentity, taskContext, Duration.ZERO);
+    }
+
+    @Override
+    public void started(@Nonnull ScheduledTaskIdentity taskIdentity,
+                        @Nonnull ScheduledTaskContext taskContext,
+                        @Nonnull Duration scheduleLag) {
+        log.info("task started: identity={}, scheduleLag={}", taskIdentity.asString(), scheduleLag);
     }
 
     @Override
@@ -46,4 +54,19 @@ public class LoggingScheduledTaskLifecycleListener implements ScheduledTaskLifec
                         @Nullable Throwable exc) {
         log.error("task crashed: identity={}", taskIdentity.asString(), exc);
     }
+
+    @Override
+    public void lockLost(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull ScheduledTaskContext taskContext) {
+        log.warn("task lock lost: identity={}, executionEpoch={}", taskIdentity.asString(),
+                taskContext.getExecutionEpoch());
+    }
+
+    @Override
+    public void heartbeatFailed(@Nonnull ScheduledTaskIdentity taskIdentity,
+                                @Nonnull ScheduledTaskContext taskContext,
+                                int consecutiveFailuresCount,
+                                @Nullable Throwable exc) {
+        log.warn("task heartbeat failed: identity={}, consecutiveFailuresCount={}", taskIdentity.asString(),
+                consecutiveFailuresCount, exc);
+    }
 }
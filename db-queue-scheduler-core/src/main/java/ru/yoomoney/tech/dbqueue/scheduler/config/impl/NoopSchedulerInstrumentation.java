@@ -0,0 +1,44 @@
+package ru.yoomoney.tech.dbqueue.scheduler.config.impl;
+
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerInstrumentation;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+
+/**
+ * Empty instrumentation of scheduler internals.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class NoopSchedulerInstrumentation implements SchedulerInstrumentation {
+    private static final NoopSchedulerInstrumentation INSTANCE = new NoopSchedulerInstrumentation();
+
+    @Override
+    public void scheduleLagMeasured(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull Duration scheduleLag) {
+        // do nothing
+    }
+
+    @Override
+    public void heartbeatFinished(@Nonnull ScheduledTaskIdentity taskIdentity,
+                                  @Nonnull Duration latency,
+                                  @Nullable Throwable exc) {
+        // do nothing
+    }
+
+    @Override
+    public void queryFinished(@Nonnull String queryName, @Nonnull Duration duration, @Nullable Throwable exc) {
+        // do nothing
+    }
+
+    /**
+     * Get empty instrumentation of scheduler internals
+     *
+     * @return flyweight object of empty instrumentation
+     */
+    public static NoopSchedulerInstrumentation getInstance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.yoomoney.tech.dbqueue.scheduler.config.impl;
+
+import ru.yoomoney.tech.dbqueue.scheduler.config.StateCodec;
+
+import javax.annotation.Nonnull;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Codec of a string state that stores the state as is, e.g. to be compressed by {@link DeflateStateCodec}
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class StringStateCodec implements StateCodec<String> {
+    private static final StringStateCodec INSTANCE = new StringStateCodec();
+
+    private StringStateCodec() {
+    }
+
+    @Nonnull
+    public static StringStateCodec getInstance() {
+        return INSTANCE;
+    }
+
+    @Nonnull
+    @Override
+    public String encode(@Nonnull String state) {
+        return requireNonNull(state, "state");
+    }
+
+    @Nonnull
+    @Override
+    public String decode(@Nonnull String encodedState) {
+        return requireNonNull(encodedState, "encodedState");
+    }
+}
@@ -0,0 +1,80 @@
+package ru.yoomoney.tech.dbqueue.scheduler.config.impl;
+
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerTimeSource;
+
+import javax.annotation.Nonnull;
+import java.time.Clock;
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Time source of the real time.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class SystemSchedulerTimeSource implements SchedulerTimeSource {
+    private static final SystemSchedulerTimeSource INSTANCE = new SystemSchedulerTimeSource(Clock.systemDefaultZone());
+
+    private static final long ALLOWABLE_WAITING_ERROR_IN_MILLS = 50L;
+
+    private final Clock clock;
+
+    /**
+     * Constructor
+     *
+     * @param clock clock to read the current time, waits are done by the real time regardless of the clock
+     */
+    public SystemSchedulerTimeSource(@Nonnull Clock clock) {
+        this.clock = requireNonNull(clock, "clock");
+    }
+
+    @Nonnull
+    @Override
+    public Clock getClock() {
+        return clock;
+    }
+
+    @Nonnull
+    @Override
+    public Sleeper createSleeper() {
+        return new SystemSleeper();
+    }
+
+    /**
+     * Get time source of the real time with the system default zone
+     *
+     * @return flyweight object of the time source
+     */
+    public static SystemSchedulerTimeSource getInstance() {
+        return INSTANCE;
+    }
+
+    private static class SystemSleeper implements Sleeper {
+        private final Object mutex = new Object();
+        private boolean wokenUp;
+
+        @Override
+        public boolean sleep(@Nonnull Duration duration) throws InterruptedException {
+            requireNonNull(duration, "duration");
+            synchronized (mutex) {
+                long remainingMills = duration.toMillis();
+                while (!wokenUp && remainingMills > ALLOWABLE_WAITING_ERROR_IN_MILLS) {
+                    long start = System.currentTimeMillis();
+                    mutex.wait(remainingMills);
+                    remainingMills -= System.currentTimeMillis() - start;
+                }
+                return !wokenUp;
+            }
+        }
+
+        @Override
+        public void wakeUp() {
+            synchronized (mutex) {
+                wokenUp = true;
+                mutex.notifyAll();
+            }
+        }
+    }
+}
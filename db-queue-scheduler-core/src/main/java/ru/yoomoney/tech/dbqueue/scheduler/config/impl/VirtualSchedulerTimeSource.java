@@ -0,0 +1,151 @@
+package ru.yoomoney.tech.dbqueue.scheduler.config.impl;
+
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerTimeSource;
+
+import javax.annotation.Nonnull;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Time source of the virtual time that is moved forward explicitly.
+ *
+ * <p>Sleepers wait until the virtual time is advanced past their deadlines, so the time source makes timing of
+ * the scheduler internals deterministic: a test advances the time when sleepers it expects are waiting, see
+ * {@link #awaitSleepers(int, Duration)}.
+ *
+ * <p>Intended for tests and simulations.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class VirtualSchedulerTimeSource implements SchedulerTimeSource {
+    private final Object mutex = new Object();
+    private final ZoneId zoneId;
+    private Instant now;
+    private int sleepersCount;
+
+    /**
+     * Constructor
+     *
+     * @param startTime initial virtual time
+     * @param zoneId zone of the clock
+     */
+    public VirtualSchedulerTimeSource(@Nonnull Instant startTime, @Nonnull ZoneId zoneId) {
+        this.now = requireNonNull(startTime, "startTime");
+        this.zoneId = requireNonNull(zoneId, "zoneId");
+    }
+
+    @Nonnull
+    @Override
+    public Clock getClock() {
+        return new VirtualClock(zoneId);
+    }
+
+    @Nonnull
+    @Override
+    public Sleeper createSleeper() {
+        return new VirtualSleeper();
+    }
+
+    /**
+     * Moves the virtual time forward and wakes up sleepers whose deadlines are reached
+     *
+     * @param duration non-negative duration to move the time by
+     */
+    public void advance(@Nonnull Duration duration) {
+        requireNonNull(duration, "duration");
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("virtual time cannot be moved backward: duration=" + duration);
+        }
+        synchronized (mutex) {
+            now = now.plus(duration);
+            mutex.notifyAll();
+        }
+    }
+
+    /**
+     * Waits by the real time until the given count of threads sleep by the virtual time
+     *
+     * @param count expected count of sleeping threads
+     * @param timeout real time to wait
+     * @return true if the count of sleeping threads is reached
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public boolean awaitSleepers(int count, @Nonnull Duration timeout) throws InterruptedException {
+        requireNonNull(timeout, "timeout");
+        long deadline = System.currentTimeMillis() + timeout.toMillis();
+        synchronized (mutex) {
+            while (sleepersCount < count) {
+                long remainingMills = deadline - System.currentTimeMillis();
+                if (remainingMills <= 0L) {
+                    return false;
+                }
+                mutex.wait(remainingMills);
+            }
+            return true;
+        }
+    }
+
+    private Instant now() {
+        synchronized (mutex) {
+            return now;
+        }
+    }
+
+    private class VirtualSleeper implements Sleeper {
+        private boolean wokenUp;
+
+        @Override
+        public boolean sleep(@Nonnull Duration duration) throws InterruptedException {
+            requireNonNull(duration, "duration");
+            synchronized (mutex) {
+                Instant deadline = now.plus(duration);
+                sleepersCount++;
+                mutex.notifyAll();
+                try {
+                    while (!wokenUp && now.isBefore(deadline)) {
+                        mutex.wait();
+                    }
+                } finally {
+                    sleepersCount--;
+                }
+                return !wokenUp;
+            }
+        }
+
+        @Override
+        public void wakeUp() {
+            synchronized (mutex) {
+                wokenUp = true;
+                mutex.notifyAll();
+            }
+        }
+    }
+
+    private class VirtualClock extends Clock {
+        private final ZoneId clockZoneId;
+
+        VirtualClock(ZoneId clockZoneId) {
+            this.clockZoneId = clockZoneId;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return clockZoneId;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new VirtualClock(zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return now();
+        }
+    }
+}
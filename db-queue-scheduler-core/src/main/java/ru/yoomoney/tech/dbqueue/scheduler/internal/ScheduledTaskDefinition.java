@@ -1,11 +1,17 @@
 package ru.yoomoney.tech.dbqueue.scheduler.internal;
 
+import ru.yoomoney.tech.dbqueue.scheduler.config.StateCodec;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.NextExecutionDelayProvider;
 import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTask;
 import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
 import ru.yoomoney.tech.dbqueue.scheduler.settings.FailureSettings;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.HeartbeatSettings;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.LeaseSettings;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Optional;
+import java.util.Set;
 
 import static java.util.Objects.requireNonNull;
 
@@ -43,15 +49,58 @@ public class ScheduledTaskDefinition {
     @Nonnull
     private final ScheduledTask scheduledTask;
 
+    /**
+     * Keys of instances if the task is registered as a template, otherwise null
+     */
+    @Nullable
+    private final Set<String> instanceKeys;
+
+    /**
+     * Number of threads that execute the task
+     */
+    private final int threadCount;
+
+    /**
+     * Settings of the lease mode, null if every execution is picked from the database
+     */
+    @Nullable
+    private final LeaseSettings leaseSettings;
+
+    /**
+     * Settings of heartbeats of time-consuming executions
+     */
+    @Nonnull
+    private final HeartbeatSettings heartbeatSettings;
+
+    /**
+     * Codec of the typed state of the task
+     */
+    @Nullable
+    private final StateCodec<?> stateCodec;
+
     private ScheduledTaskDefinition(boolean enabled,
                                     @Nonnull FailureSettings failureSettings,
                                     @Nonnull NextExecutionDelayProvider nextExecutionDelayProvider,
-                                    @Nonnull ScheduledTask scheduledTask) {
+                                    @Nonnull ScheduledTask scheduledTask,
+                                    @Nullable Set<String> instanceKeys,
+                                    int threadCount,
+                                    @Nullable LeaseSettings leaseSettings,
+                                    @Nonnull HeartbeatSettings heartbeatSettings,
+                                    @Nullable StateCodec<?> stateCodec) {
         this.enabled = enabled;
         this.failureSettings = requireNonNull(failureSettings, "failureSettings");
         this.nextExecutionDelayProvider = requireNonNull(nextExecutionDelayProvider, "nextExecutionTimeProvider");
         this.scheduledTask = requireNonNull(scheduledTask, "scheduledTask");
         this.identity = scheduledTask.getIdentity();
+        this.instanceKeys = instanceKeys;
+        this.threadCount = threadCount;
+        if (instanceKeys != null && leaseSettings != null) {
+            // a leased instance would occupy a thread shared by all instances of the template
+            throw new IllegalArgumentException("lease mode is not supported by task templates: identity=" + identity);
+        }
+        this.leaseSettings = leaseSettings;
+        this.heartbeatSettings = requireNonNull(heartbeatSettings, "heartbeatSettings");
+        this.stateCodec = stateCodec;
     }
 
     /**
@@ -88,6 +137,39 @@ public class ScheduledTaskDefinition {
         return scheduledTask;
     }
 
+    /**
+     * Checks if the task is registered as a template of many instances
+     *
+     * @return true if the task is a template otherwise false
+     */
+    public boolean isTemplate() {
+        return instanceKeys != null;
+    }
+
+    @Nonnull
+    public Optional<Set<String>> getInstanceKeys() {
+        return Optional.ofNullable(instanceKeys);
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    @Nonnull
+    public Optional<LeaseSettings> getLeaseSettings() {
+        return Optional.ofNullable(leaseSettings);
+    }
+
+    @Nonnull
+    public HeartbeatSettings getHeartbeatSettings() {
+        return heartbeatSettings;
+    }
+
+    @Nonnull
+    public Optional<StateCodec<?>> getStateCodec() {
+        return Optional.ofNullable(stateCodec);
+    }
+
     @Override
     public String toString() {
         return "ScheduledTaskDefinition{" +
@@ -96,6 +178,11 @@ public class ScheduledTaskDefinition {
                 ", failureSettings=" + failureSettings +
                 ", nextExecutionTimeProvider=" + nextExecutionDelayProvider +
                 ", scheduledTask=" + scheduledTask +
+                ", instanceKeysCount=" + (instanceKeys == null ? null : instanceKeys.size()) +
+                ", threadCount=" + threadCount +
+                ", leaseSettings=" + leaseSettings +
+                ", heartbeatSettings=" + heartbeatSettings +
+                ", stateCodec=" + stateCodec +
                 '}';
     }
 
@@ -107,6 +194,11 @@ public class ScheduledTaskDefinition {
         private FailureSettings failureSettings;
         private NextExecutionDelayProvider nextExecutionDelayProvider;
         private ScheduledTask scheduledTask;
+        private Set<String> instanceKeys;
+        private int threadCount = 1;
+        private LeaseSettings leaseSettings;
+        private HeartbeatSettings heartbeatSettings = HeartbeatSettings.builder().build();
+        private StateCodec<?> stateCodec;
 
         private Builder() {
         }
@@ -131,6 +223,31 @@ public class ScheduledTaskDefinition {
             return this;
         }
 
+        public Builder withInstanceKeys(@Nullable Set<String> instanceKeys) {
+            this.instanceKeys = instanceKeys;
+            return this;
+        }
+
+        public Builder withThreadCount(int threadCount) {
+            this.threadCount = threadCount;
+            return this;
+        }
+
+        public Builder withLeaseSettings(@Nullable LeaseSettings leaseSettings) {
+            this.leaseSettings = leaseSettings;
+            return this;
+        }
+
+        public Builder withHeartbeatSettings(@Nonnull HeartbeatSettings heartbeatSettings) {
+            this.heartbeatSettings = heartbeatSettings;
+            return this;
+        }
+
+        public Builder withStateCodec(@Nullable StateCodec<?> stateCodec) {
+            this.stateCodec = stateCodec;
+            return this;
+        }
+
         /**
          * Creates an object
          *
@@ -138,7 +255,8 @@ public class ScheduledTaskDefinition {
          */
         @Nonnull
         public ScheduledTaskDefinition build() {
-            return new ScheduledTaskDefinition(enabled, failureSettings, nextExecutionDelayProvider, scheduledTask);
+            return new ScheduledTaskDefinition(enabled, failureSettings, nextExecutionDelayProvider, scheduledTask,
+                    instanceKeys, threadCount, leaseSettings, heartbeatSettings, stateCodec);
         }
     }
 }
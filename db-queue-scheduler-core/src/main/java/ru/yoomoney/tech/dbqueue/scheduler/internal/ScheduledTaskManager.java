@@ -1,19 +1,31 @@
 package ru.yoomoney.tech.dbqueue.scheduler.internal;
 
+import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
 import ru.yoomoney.tech.dbqueue.config.QueueService;
+import ru.yoomoney.tech.dbqueue.config.QueueShardId;
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerTimeSource;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskDatabaseAccessLayer;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskExecutionHistoryDao;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskQueueDao;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.history.ExecutionHistoryWriter;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.queue.DelegatingQueueConsumer;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.queue.QueueIdMapper;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.queue.ScheduledTaskQueue;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.queue.ScheduledTaskQueueFactory;
 import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+import ru.yoomoney.tech.dbqueue.scheduler.models.info.ScheduledTaskExecutionInfo;
 import ru.yoomoney.tech.dbqueue.scheduler.models.info.ScheduledTaskInfo;
 import ru.yoomoney.tech.dbqueue.settings.QueueId;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -27,21 +39,42 @@ import static java.util.Objects.requireNonNull;
  */
 public class ScheduledTaskManager {
     private final QueueService queueService;
+    private final QueueShardId queueShardId;
     private final QueueIdMapper queueIdMapper;
+    private final ScheduledTaskDatabaseAccessLayer databaseAccessLayer;
     private final ScheduledTaskQueueDao scheduledTaskQueueDao;
     private final ScheduledTaskQueueFactory scheduledTaskQueueFactory;
+    @Nullable
+    private final ScheduledTaskExecutionHistoryDao executionHistoryDao;
+    @Nullable
+    private final ExecutionHistoryWriter executionHistoryWriter;
+    private final Clock clock;
     private final Map<ScheduledTaskIdentity, ScheduledTaskQueue> registry = new ConcurrentHashMap<>();
+    /**
+     * Consumers registered in {@code db-queue}, released consumers do not refer to the unscheduled tasks
+     */
+    private final Map<QueueId, DelegatingQueueConsumer> registeredConsumers = new ConcurrentHashMap<>();
     private final Object mutex = new Object();
     private volatile boolean started = false;
 
     ScheduledTaskManager(@Nonnull QueueService queueService,
+                         @Nonnull QueueShardId queueShardId,
                          @Nonnull QueueIdMapper queueIdMapper,
+                         @Nonnull ScheduledTaskDatabaseAccessLayer databaseAccessLayer,
                          @Nonnull ScheduledTaskQueueDao scheduledTaskQueueDao,
-                         @Nonnull ScheduledTaskQueueFactory scheduledTaskQueueFactory) {
+                         @Nonnull ScheduledTaskQueueFactory scheduledTaskQueueFactory,
+                         @Nullable ScheduledTaskExecutionHistoryDao executionHistoryDao,
+                         @Nullable ExecutionHistoryWriter executionHistoryWriter,
+                         @Nonnull SchedulerTimeSource timeSource) {
         this.queueService = requireNonNull(queueService, "queueService");
+        this.queueShardId = requireNonNull(queueShardId, "queueShardId");
         this.queueIdMapper = requireNonNull(queueIdMapper, "queueIdMapper");
+        this.databaseAccessLayer = requireNonNull(databaseAccessLayer, "databaseAccessLayer");
         this.scheduledTaskQueueDao = requireNonNull(scheduledTaskQueueDao, "scheduledTaskQueueDao");
         this.scheduledTaskQueueFactory = requireNonNull(scheduledTaskQueueFactory, "scheduledTaskQueueFactory");
+        this.executionHistoryDao = executionHistoryDao;
+        this.executionHistoryWriter = executionHistoryWriter;
+        this.clock = requireNonNull(timeSource, "timeSource").getClock();
     }
 
     /**
@@ -57,23 +90,177 @@ public class ScheduledTaskManager {
                 throw new RuntimeException(String.format("scheduled task already registered: identity=%s",
                         scheduledTaskDefinition.getIdentity()));
             }
+            checkTemplateKind(scheduledTaskDefinition);
+            checkInstancePrefix(scheduledTaskDefinition);
 
             ScheduledTaskQueue scheduledTaskQueue = scheduledTaskQueueFactory.createScheduledTasksQueue(scheduledTaskDefinition);
             registry.put(scheduledTaskDefinition.getIdentity(), scheduledTaskQueue);
 
-            if (!scheduledTaskDefinition.isEnabled()) {
-                return;
+            if (scheduledTaskDefinition.isEnabled()) {
+                activate(scheduledTaskQueue);
             }
+        }
+    }
 
-            queueService.registerQueue(scheduledTaskQueue.getQueueConsumer());
+    /**
+     * Replaces definition of a registered scheduled task.
+     *
+     * <p>The current execution of the task is not interrupted, the next ones are done according to the new definition.
+     * Records of instances removed from a task template are deleted.
+     *
+     * @param scheduledTaskDefinition new definition of a scheduled task
+     * @throws RuntimeException if the scheduled task is not registered or a task is replaced with a template and vice versa
+     */
+    public void update(@Nonnull ScheduledTaskDefinition scheduledTaskDefinition) {
+        requireNonNull(scheduledTaskDefinition, "scheduledTaskDefinition");
+        Set<String> removedInstanceKeys;
+        synchronized (mutex) {
+            ScheduledTaskQueue previousTaskQueue = registry.get(scheduledTaskDefinition.getIdentity());
+            if (previousTaskQueue == null) {
+                throw new RuntimeException(String.format("scheduled task not registered: identity=%s",
+                        scheduledTaskDefinition.getIdentity()));
+            }
+            checkTemplateKind(scheduledTaskDefinition);
+
+            ScheduledTaskQueue scheduledTaskQueue = scheduledTaskQueueFactory.createScheduledTasksQueue(scheduledTaskDefinition);
+            registry.put(scheduledTaskDefinition.getIdentity(), scheduledTaskQueue);
+
+            if (scheduledTaskDefinition.isEnabled()) {
+                activate(scheduledTaskQueue);
+            } else {
+                release(scheduledTaskDefinition.getIdentity());
+            }
 
+            removedInstanceKeys = new HashSet<>(previousTaskQueue.getTaskDefinition().getInstanceKeys().orElse(Set.of()));
+            removedInstanceKeys.removeAll(scheduledTaskDefinition.getInstanceKeys().orElse(Set.of()));
+        }
+        removedInstanceKeys.forEach(instanceKey -> scheduledTaskQueueDao.deleteQueueTask(
+                queueIdMapper.toInstanceQueueId(scheduledTaskDefinition.getIdentity(), instanceKey)));
+    }
+
+    /**
+     * Stops executing a scheduled task on the current application node and releases its resources.
+     *
+     * <p>The current execution of the task is not interrupted. The task might be scheduled again afterwards.
+     *
+     * @param taskIdentity identity of the task or the task template that should be unscheduled
+     * @param deleteTask true if the task record (records of all instances for a template) should be deleted, that stops
+     *                   executing the task on all application nodes until they schedule it again. Records of instances
+     *                   are deleted even if the template is not registered on the current application node.
+     */
+    public void unschedule(@Nonnull ScheduledTaskIdentity taskIdentity, boolean deleteTask) {
+        requireNonNull(taskIdentity, "taskIdentity");
+        ScheduledTaskQueue scheduledTaskQueue;
+        synchronized (mutex) {
+            scheduledTaskQueue = registry.remove(taskIdentity);
+            if (scheduledTaskQueue != null) {
+                release(taskIdentity);
+            }
+        }
+        if (!deleteTask) {
+            return;
+        }
+
+        QueueId queueId = queueIdMapper.toQueueId(taskIdentity);
+        if (scheduledTaskQueue == null || scheduledTaskQueue.getTaskDefinition().isTemplate()) {
+            scheduledTaskQueueDao.deleteQueueTasks(queueIdMapper.toInstanceQueueNamePrefix(queueId));
+        }
+        if (scheduledTaskQueue == null || !scheduledTaskQueue.getTaskDefinition().isTemplate()) {
+            scheduledTaskQueueDao.deleteQueueTask(queueId);
+        }
+    }
+
+    /**
+     * Makes {@code db-queue} execute the scheduled task queue.
+     *
+     * <p>{@code db-queue} does not allow to unregister a queue, so a queue is registered once and its consumer and
+     * threads count are replaced on subsequent activations.
+     *
+     * @param scheduledTaskQueue queue of an enabled scheduled task
+     */
+    private void activate(ScheduledTaskQueue scheduledTaskQueue) {
+        QueueConsumer<String> queueConsumer = scheduledTaskQueue.getQueueConsumer();
+        QueueId queueId = queueConsumer.getQueueConfig().getLocation().getQueueId();
+
+        DelegatingQueueConsumer registeredConsumer = registeredConsumers.get(queueId);
+        if (registeredConsumer != null) {
+            registeredConsumer.setDelegate(queueConsumer);
+            queueService.updateQueueConfigs(List.of(queueConsumer.getQueueConfig()));
             if (started) {
                 scheduledTaskQueue.initTask();
-                queueService.start(scheduledTaskQueue.getQueueConsumer().getQueueConfig().getLocation().getQueueId());
             }
+            return;
+        }
+
+        boolean template = scheduledTaskQueue.getTaskDefinition().isTemplate();
+        if (template) {
+            databaseAccessLayer.registerQueueNamePrefix(queueId, queueIdMapper.toInstanceQueueNamePrefix(queueId));
+        }
+        registeredConsumer = new DelegatingQueueConsumer(queueConsumer, template);
+        queueService.registerQueue(registeredConsumer);
+        registeredConsumers.put(queueId, registeredConsumer);
+
+        if (started) {
+            scheduledTaskQueue.initTask();
+            queueService.start(queueId);
         }
     }
 
+    /**
+     * Stops processing threads of the scheduled task queue and releases its consumer
+     * if the queue is registered in {@code db-queue}
+     *
+     * @param taskIdentity identity of a scheduled task
+     */
+    private void release(ScheduledTaskIdentity taskIdentity) {
+        DelegatingQueueConsumer registeredConsumer = registeredConsumers.get(queueIdMapper.toQueueId(taskIdentity));
+        if (registeredConsumer != null) {
+            queueService.updateQueueConfigs(List.of(scheduledTaskQueueFactory.createReleasedQueueConfig(taskIdentity)));
+            registeredConsumer.release();
+        }
+    }
+
+    /**
+     * Checks that a queue registered in {@code db-queue} is not reused for a task of another kind,
+     * since tasks of templates are picked differently.
+     *
+     * @param scheduledTaskDefinition definition of a scheduled task
+     */
+    private void checkTemplateKind(ScheduledTaskDefinition scheduledTaskDefinition) {
+        QueueId queueId = queueIdMapper.toQueueId(scheduledTaskDefinition.getIdentity());
+        DelegatingQueueConsumer registeredConsumer = registeredConsumers.get(queueId);
+        if (registeredConsumer != null && registeredConsumer.isTemplate() != scheduledTaskDefinition.isTemplate()) {
+            throw new RuntimeException(String.format("scheduled task and task template cannot share identity: identity=%s",
+                    scheduledTaskDefinition.getIdentity()));
+        }
+    }
+
+    /**
+     * Checks that the task does not fall under the instance prefix of a registered task template and vice versa,
+     * otherwise the template would pick and delete records of unrelated tasks.
+     *
+     * @param scheduledTaskDefinition definition of a scheduled task
+     */
+    private void checkInstancePrefix(ScheduledTaskDefinition scheduledTaskDefinition) {
+        String queueName = queueIdMapper.toQueueId(scheduledTaskDefinition.getIdentity()).asString();
+        String instancePrefix = toInstancePrefix(scheduledTaskDefinition);
+        registry.values().stream()
+                .map(ScheduledTaskQueue::getTaskDefinition)
+                .filter(registered -> registered.isTemplate() && queueName.startsWith(toInstancePrefix(registered))
+                        || scheduledTaskDefinition.isTemplate() && queueIdMapper.toQueueId(registered.getIdentity())
+                        .asString().startsWith(instancePrefix))
+                .findFirst()
+                .ifPresent(registered -> {
+                    throw new RuntimeException(String.format("scheduled task collides with instances of task template: " +
+                            "identity=%s, registeredIdentity=%s", scheduledTaskDefinition.getIdentity(),
+                            registered.getIdentity()));
+                });
+    }
+
+    private String toInstancePrefix(ScheduledTaskDefinition scheduledTaskDefinition) {
+        return queueIdMapper.toInstanceQueueNamePrefix(queueIdMapper.toQueueId(scheduledTaskDefinition.getIdentity()));
+    }
+
     /**
      * Updates next execution time of a scheduled task
      *
@@ -84,10 +271,50 @@ public class ScheduledTaskManager {
         requireNonNull(taskIdentity, "taskIdentity");
         requireNonNull(nextExecutionTime, "nextExecutionTime");
 
-        Duration nextExecutionDelay = Duration.between(Instant.now(), nextExecutionTime);
+        Duration nextExecutionDelay = Duration.between(clock.instant(), nextExecutionTime);
         scheduledTaskQueueDao.updateNextProcessDate(queueIdMapper.toQueueId(taskIdentity), nextExecutionDelay);
     }
 
+    /**
+     * Triggers a one-off execution of a scheduled task as soon as possible.
+     *
+     * <p>The regular schedule of the task is resumed after the one-off execution. If the task is registered on the current
+     * application node, the node is woken up to pick the task immediately, otherwise the task is picked by any node
+     * within its polling interval.
+     *
+     * @param taskIdentity identity of the task that should be triggered
+     */
+    public void triggerNow(@Nonnull ScheduledTaskIdentity taskIdentity) {
+        requireNonNull(taskIdentity, "taskIdentity");
+
+        QueueId queueId = queueIdMapper.toQueueId(taskIdentity);
+        scheduledTaskQueueDao.triggerNow(queueId);
+
+        ScheduledTaskQueue scheduledTaskQueue = findScheduledTaskQueue(taskIdentity);
+        if (started && scheduledTaskQueue != null && scheduledTaskQueue.isEnabled()) {
+            queueService.wakeup(scheduledTaskQueue.getQueueConsumer().getQueueConfig().getLocation().getQueueId(),
+                    queueShardId);
+        }
+    }
+
+    /**
+     * Finds the queue that executes the task - either the task queue or the queue of the task template
+     *
+     * @param taskIdentity identity of a task or a template instance
+     * @return found queue or null if the task is not registered on the current node
+     */
+    @Nullable
+    private ScheduledTaskQueue findScheduledTaskQueue(@Nonnull ScheduledTaskIdentity taskIdentity) {
+        ScheduledTaskQueue scheduledTaskQueue = registry.get(taskIdentity);
+        String taskName = taskIdentity.asString();
+        int separatorIndex = taskName.indexOf(ScheduledTaskIdentity.INSTANCE_KEY_SEPARATOR);
+        while (scheduledTaskQueue == null && separatorIndex >= 0) {
+            scheduledTaskQueue = registry.get(ScheduledTaskIdentity.of(taskName.substring(0, separatorIndex)));
+            separatorIndex = taskName.indexOf(ScheduledTaskIdentity.INSTANCE_KEY_SEPARATOR, separatorIndex + 1);
+        }
+        return scheduledTaskQueue;
+    }
+
     /**
      * Starts executing scheduled tasks
      */
@@ -97,6 +324,9 @@ public class ScheduledTaskManager {
                 return;
             }
             registry.values().forEach(ScheduledTaskQueue::initTask);
+            if (executionHistoryWriter != null) {
+                executionHistoryWriter.start();
+            }
             queueService.start();
             started = true;
         }
@@ -121,6 +351,9 @@ public class ScheduledTaskManager {
      */
     public void shutdown() {
         queueService.shutdown();
+        if (executionHistoryWriter != null) {
+            executionHistoryWriter.shutdown();
+        }
     }
 
     /**
@@ -146,7 +379,23 @@ public class ScheduledTaskManager {
                 .map(record -> ScheduledTaskInfo.builder()
                         .withIdentity(queueIdMapper.toScheduledTaskIdentity(new QueueId(record.getQueueName())))
                         .withNextExecutionTime(record.getNextProcessAt())
+                        .withStaleness(record.getStaleness())
                         .build())
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Finds latest persisted executions of a scheduled task
+     *
+     * @param identity identity of a scheduled task or a task template instance
+     * @param limit max count of executions
+     * @return found executions, the most recent first
+     */
+    public List<ScheduledTaskExecutionInfo> getExecutionHistory(@Nonnull ScheduledTaskIdentity identity, int limit) {
+        requireNonNull(identity, "identity");
+        if (executionHistoryDao == null) {
+            throw new IllegalStateException("execution history is not configured");
+        }
+        return executionHistoryDao.findLatest(identity, limit);
+    }
 }
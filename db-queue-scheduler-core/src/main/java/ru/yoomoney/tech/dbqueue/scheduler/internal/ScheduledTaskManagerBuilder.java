@@ -8,9 +8,22 @@ import ru.yoomoney.tech.dbqueue.config.QueueShardId;
 import ru.yoomoney.tech.dbqueue.config.impl.NoopTaskLifecycleListener;
 import ru.yoomoney.tech.dbqueue.config.impl.NoopThreadLifecycleListener;
 import ru.yoomoney.tech.dbqueue.scheduler.config.ScheduledTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerInstrumentation;
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerTimeSource;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.CompositeScheduledTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.NoopSchedulerInstrumentation;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.SystemSchedulerTimeSource;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.InstrumentedScheduledTaskQueueDao;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.JfrScheduledTaskQueueDao;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ResilientScheduledTaskQueueDao;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskDatabaseAccessLayer;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskExecutionHistoryDao;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskQueueDao;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.history.ExecutionHistoryWriter;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.queue.QueueIdMapper;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.queue.ScheduledTaskQueueFactory;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.DatabaseResilienceSettings;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.ExecutionHistorySettings;
 import ru.yoomoney.tech.dbqueue.settings.ExtSettings;
 import ru.yoomoney.tech.dbqueue.settings.FailRetryType;
 import ru.yoomoney.tech.dbqueue.settings.FailureSettings;
@@ -25,6 +38,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
 
 import static java.util.Objects.requireNonNull;
 
@@ -44,6 +58,11 @@ public class ScheduledTaskManagerBuilder {
     private DatabaseAccessLayer databaseAccessLayer;
     private ScheduledTaskQueueDao scheduledTaskQueueDao;
     private ScheduledTaskLifecycleListener scheduledTaskLifecycleListener;
+    private SchedulerInstrumentation schedulerInstrumentation = NoopSchedulerInstrumentation.getInstance();
+    private SchedulerTimeSource timeSource = SystemSchedulerTimeSource.getInstance();
+    private ScheduledTaskExecutionHistoryDao executionHistoryDao;
+    private ExecutionHistorySettings executionHistorySettings;
+    private DatabaseResilienceSettings databaseResilienceSettings;
 
     /**
      * Sets backed table name for storing scheduled tasks
@@ -102,6 +121,55 @@ public class ScheduledTaskManagerBuilder {
         return this;
     }
 
+    /**
+     * Sets {@link SchedulerInstrumentation} for observing scheduler internals
+     *
+     * @param schedulerInstrumentation instrumentation of scheduler internals
+     * @return the same instance of {@link ScheduledTaskManagerBuilder}
+     */
+    public ScheduledTaskManagerBuilder withSchedulerInstrumentation(@Nonnull SchedulerInstrumentation schedulerInstrumentation) {
+        this.schedulerInstrumentation = requireNonNull(schedulerInstrumentation, "schedulerInstrumentation");
+        return this;
+    }
+
+    /**
+     * Sets {@link SchedulerTimeSource} the scheduler internals read the time and wait by
+     *
+     * @param timeSource source of time
+     * @return the same instance of {@link ScheduledTaskManagerBuilder}
+     */
+    public ScheduledTaskManagerBuilder withTimeSource(@Nonnull SchedulerTimeSource timeSource) {
+        this.timeSource = requireNonNull(timeSource, "timeSource");
+        return this;
+    }
+
+    /**
+     * Enables the persisted execution history
+     *
+     * @param executionHistoryDao DAO that implements access to the executions table
+     * @param executionHistorySettings settings of the execution history
+     * @return the same instance of {@link ScheduledTaskManagerBuilder}
+     */
+    public ScheduledTaskManagerBuilder withExecutionHistory(@Nonnull ScheduledTaskExecutionHistoryDao executionHistoryDao,
+                                                            @Nonnull ExecutionHistorySettings executionHistorySettings) {
+        this.executionHistoryDao = requireNonNull(executionHistoryDao, "executionHistoryDao");
+        this.executionHistorySettings = requireNonNull(executionHistorySettings, "executionHistorySettings");
+        return this;
+    }
+
+    /**
+     * Enables retries of transient database errors and the circuit breaker of the node
+     *
+     * @param databaseResilienceSettings settings of retries and of the circuit breaker
+     * @return the same instance of {@link ScheduledTaskManagerBuilder}
+     */
+    public ScheduledTaskManagerBuilder withDatabaseResilienceSettings(
+            @Nonnull DatabaseResilienceSettings databaseResilienceSettings
+    ) {
+        this.databaseResilienceSettings = requireNonNull(databaseResilienceSettings, "databaseResilienceSettings");
+        return this;
+    }
+
     /**
      * Builds {@link ScheduledTaskManager} according to set properties
      *
@@ -112,10 +180,29 @@ public class ScheduledTaskManagerBuilder {
         requireNonNull(databaseAccessLayer, "databaseAccessLayer");
         requireNonNull(scheduledTaskQueueDao, "scheduledTaskQueueDao");
         requireNonNull(scheduledTaskLifecycleListener, "scheduledTaskLifecycleListener");
+        requireNonNull(schedulerInstrumentation, "schedulerInstrumentation");
 
-        QueueShard<?> singleQueueShard = new QueueShard<>(DEFAULT_DB_QUEUE_SHARD_ID, databaseAccessLayer);
+        ScheduledTaskQueueDao jfrQueueDao = new JfrScheduledTaskQueueDao(scheduledTaskQueueDao);
+        ScheduledTaskQueueDao instrumentedQueueDao = schedulerInstrumentation instanceof NoopSchedulerInstrumentation
+                ? jfrQueueDao
+                : new InstrumentedScheduledTaskQueueDao(jfrQueueDao, schedulerInstrumentation);
+        // every attempt of a retried query is instrumented
+        ScheduledTaskQueueDao queueDao = databaseResilienceSettings == null
+                ? instrumentedQueueDao
+                : new ResilientScheduledTaskQueueDao(instrumentedQueueDao, databaseResilienceSettings, timeSource);
+        ScheduledTaskDatabaseAccessLayer scheduledTaskDatabaseAccessLayer =
+                new ScheduledTaskDatabaseAccessLayer(databaseAccessLayer, queueDao);
+        QueueShard<?> singleQueueShard = new QueueShard<>(DEFAULT_DB_QUEUE_SHARD_ID, scheduledTaskDatabaseAccessLayer);
         QueueSettings defaultQueueSettings = buildDefaultQueueSettings();
 
+        ExecutionHistoryWriter executionHistoryWriter = executionHistoryDao == null
+                ? null
+                : new ExecutionHistoryWriter(executionHistoryDao, executionHistorySettings, timeSource.getClock());
+        ScheduledTaskLifecycleListener lifecycleListener = executionHistoryWriter == null
+                ? scheduledTaskLifecycleListener
+                : new CompositeScheduledTaskLifecycleListener(
+                        List.of(scheduledTaskLifecycleListener, executionHistoryWriter));
+
         QueueIdMapper queueIdMapper = new QueueIdMapper();
         QueueService queueService = new QueueService(
                 Collections.singletonList(singleQueueShard),
@@ -127,12 +214,16 @@ public class ScheduledTaskManagerBuilder {
                 idSequenceName,
                 queueIdMapper,
                 defaultQueueSettings,
-                scheduledTaskQueueDao,
+                queueDao,
                 new SingleQueueShardRouter<>(singleQueueShard),
-                scheduledTaskLifecycleListener
+                lifecycleListener,
+                schedulerInstrumentation,
+                timeSource
         );
 
-        return new ScheduledTaskManager(queueService, queueIdMapper, scheduledTaskQueueDao, scheduledTaskQueueFactory);
+        return new ScheduledTaskManager(queueService, DEFAULT_DB_QUEUE_SHARD_ID, queueIdMapper,
+                scheduledTaskDatabaseAccessLayer, queueDao, scheduledTaskQueueFactory, executionHistoryDao,
+                executionHistoryWriter, timeSource);
     }
 
     private QueueSettings buildDefaultQueueSettings() {
@@ -0,0 +1,109 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.DatabaseResilienceSettings;
+
+import javax.annotation.Nonnull;
+import java.time.Clock;
+import java.time.Instant;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Circuit breaker of the database shared by all tasks of the node.
+ *
+ * <p>The breaker opens after a number of consecutive transient errors. While it is open, picks of tasks are skipped.
+ * When the open duration elapses, a single pick is let through as a probe - the breaker closes on its success
+ * and opens again on its transient error.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class DatabaseCircuitBreaker {
+    private static final Logger log = LoggerFactory.getLogger(DatabaseCircuitBreaker.class);
+
+    private final DatabaseResilienceSettings resilienceSettings;
+    private final Clock clock;
+    private final Object mutex = new Object();
+
+    private int consecutiveFailuresCount;
+    private Instant openedAt;
+    private boolean probing;
+
+    DatabaseCircuitBreaker(@Nonnull DatabaseResilienceSettings resilienceSettings, @Nonnull Clock clock) {
+        this.resilienceSettings = requireNonNull(resilienceSettings, "resilienceSettings");
+        this.clock = requireNonNull(clock, "clock");
+    }
+
+    /**
+     * Checks if the breaker is open.
+     *
+     * @return true if the database is considered unhealthy otherwise false
+     */
+    boolean isOpen() {
+        synchronized (mutex) {
+            return openedAt != null;
+        }
+    }
+
+    /**
+     * Acquires a permission to pick a task
+     *
+     * @return true if the breaker is closed or the caller is the probe of the open breaker otherwise false
+     */
+    boolean tryAcquirePick() {
+        synchronized (mutex) {
+            if (openedAt == null) {
+                return true;
+            }
+            if (probing || clock.instant().isBefore(openedAt.plus(resilienceSettings.getOpenDuration()))) {
+                return false;
+            }
+            probing = true;
+            return true;
+        }
+    }
+
+    /**
+     * Records a successful query
+     */
+    void recordSuccess() {
+        synchronized (mutex) {
+            consecutiveFailuresCount = 0;
+            probing = false;
+            if (openedAt != null) {
+                openedAt = null;
+                log.info("database circuit breaker closed");
+            }
+        }
+    }
+
+    /**
+     * Records a query failed with a transient error
+     */
+    void recordTransientFailure() {
+        synchronized (mutex) {
+            consecutiveFailuresCount++;
+            if (probing) {
+                probing = false;
+                openedAt = clock.instant();
+                return;
+            }
+            if (openedAt == null && consecutiveFailuresCount >= resilienceSettings.getFailureThreshold()) {
+                openedAt = clock.instant();
+                log.warn("database circuit breaker opened: consecutiveFailuresCount={}, openDuration={}",
+                        consecutiveFailuresCount, resilienceSettings.getOpenDuration());
+            }
+        }
+    }
+
+    /**
+     * Records a query failed with a non-transient error.
+     *
+     * <p>The database has responded, so the error does not count as a failure of the database.
+     */
+    void recordPermanentFailure() {
+        recordSuccess();
+    }
+}
@@ -0,0 +1,105 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
+
+import ru.yoomoney.tech.dbqueue.api.EnqueueParams;
+import ru.yoomoney.tech.dbqueue.config.DatabaseAccessLayer;
+import ru.yoomoney.tech.dbqueue.config.DatabaseDialect;
+import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
+import ru.yoomoney.tech.dbqueue.dao.QueueDao;
+import ru.yoomoney.tech.dbqueue.dao.QueuePickTaskDao;
+import ru.yoomoney.tech.dbqueue.settings.FailureSettings;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link DatabaseAccessLayer} of {@code db-queue} backed by {@link InMemoryScheduledTaskQueueDao}.
+ *
+ * <p>Tasks are picked with linear backoff regardless of the retry type - the scheduler uses no other one. Transactions
+ * are not supported: every operation of the storage is atomic by itself. The dialect is reported as H2 since
+ * {@code db-queue} requires one, though no queries are issued.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class InMemoryDatabaseAccessLayer implements DatabaseAccessLayer {
+    private final InMemoryScheduledTaskQueueDao scheduledTaskQueueDao;
+    private final QueueTableSchema queueTableSchema;
+    private final QueueDao queueDao;
+
+    public InMemoryDatabaseAccessLayer(@Nonnull InMemoryScheduledTaskQueueDao scheduledTaskQueueDao) {
+        this.scheduledTaskQueueDao = requireNonNull(scheduledTaskQueueDao, "scheduledTaskQueueDao");
+        this.queueTableSchema = QueueTableSchema.builder()
+                .withExtFields(ScheduledTaskExtFields.ALL)
+                .build();
+        this.queueDao = new InMemoryQueueDao(scheduledTaskQueueDao);
+    }
+
+    @Override
+    public QueueDao getQueueDao() {
+        return queueDao;
+    }
+
+    @Override
+    public QueuePickTaskDao createQueuePickTaskDao(@Nonnull QueueLocation queueLocation,
+                                                   @Nonnull FailureSettings failureSettings) {
+        requireNonNull(queueLocation, "queueLocation");
+        requireNonNull(failureSettings, "failureSettings");
+        return () -> scheduledTaskQueueDao.pickTask(queueLocation.getQueueId(), failureSettings.getRetryInterval());
+    }
+
+    @Override
+    public <T> T transact(@Nonnull Supplier<T> supplier) {
+        return supplier.get();
+    }
+
+    @Override
+    public void transact(@Nonnull Runnable runnable) {
+        runnable.run();
+    }
+
+    @Override
+    public DatabaseDialect getDatabaseDialect() {
+        return DatabaseDialect.H2;
+    }
+
+    @Override
+    public QueueTableSchema getQueueTableSchema() {
+        return queueTableSchema;
+    }
+
+    /**
+     * {@link QueueDao} that stores tasks in {@link InMemoryScheduledTaskQueueDao}
+     */
+    private static class InMemoryQueueDao implements QueueDao {
+        private final InMemoryScheduledTaskQueueDao scheduledTaskQueueDao;
+
+        InMemoryQueueDao(InMemoryScheduledTaskQueueDao scheduledTaskQueueDao) {
+            this.scheduledTaskQueueDao = scheduledTaskQueueDao;
+        }
+
+        @Override
+        public long enqueue(@Nonnull QueueLocation location, @Nonnull EnqueueParams<String> enqueueParams) {
+            requireNonNull(location, "location");
+            requireNonNull(enqueueParams, "enqueueParams");
+            return scheduledTaskQueueDao.enqueue(location.getQueueId().asString(), enqueueParams.getPayload(),
+                    enqueueParams.getExecutionDelay());
+        }
+
+        @Override
+        public boolean deleteTask(@Nonnull QueueLocation location, long taskId) {
+            requireNonNull(location, "location");
+            return scheduledTaskQueueDao.deleteTask(taskId);
+        }
+
+        @Override
+        public boolean reenqueue(@Nonnull QueueLocation location, long taskId, @Nonnull Duration executionDelay) {
+            requireNonNull(location, "location");
+            requireNonNull(executionDelay, "executionDelay");
+            return scheduledTaskQueueDao.reenqueue(taskId, executionDelay);
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
+
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * In-memory implementation of {@link ScheduledTaskQueueDao}.
+ *
+ * <p>Tasks are held in a map by queue name and in a concurrent index sorted by next process date, so picking a ready
+ * task does not scan tasks planned for the future. Modifications are serialized by a single lock whereas lookups are
+ * lock-free. Time is taken from the given clock, that is why next process dates follow a virtual time as well.
+ *
+ * <p>The storage is not shared between processes - it is supposed to be used by a single node in development mode,
+ * by tests and by benchmarks. Tasks are enqueued via {@link InMemoryDatabaseAccessLayer}.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class InMemoryScheduledTaskQueueDao implements ScheduledTaskQueueDao {
+    private static final Comparator<TaskEntry> NEXT_PROCESS_DATE_ORDER = Comparator
+            .comparing((TaskEntry entry) -> entry.nextProcessAt)
+            .thenComparingLong(entry -> entry.id);
+
+    private final Clock clock;
+    private final Map<String, TaskEntry> tasksByQueueName = new ConcurrentHashMap<>();
+    private final Map<Long, TaskEntry> tasksById = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<TaskEntry> nextProcessDateIndex =
+            new ConcurrentSkipListSet<>(NEXT_PROCESS_DATE_ORDER);
+    private final Object mutex = new Object();
+
+    private long idSequence;
+
+    public InMemoryScheduledTaskQueueDao() {
+        this(Clock.systemUTC());
+    }
+
+    public InMemoryScheduledTaskQueueDao(@Nonnull Clock clock) {
+        this.clock = requireNonNull(clock, "clock");
+    }
+
+    /**
+     * Enqueues a new task
+     *
+     * @param queueName name of the queue
+     * @param payload payload of the task
+     * @param executionDelay execution delay
+     * @return identifier of the task
+     * @throws IllegalStateException if a task of the queue already exists
+     */
+    long enqueue(@Nonnull String queueName, @Nullable String payload, @Nonnull Duration executionDelay) {
+        requireNonNull(queueName, "queueName");
+        requireNonNull(executionDelay, "executionDelay");
+
+        synchronized (mutex) {
+            if (tasksByQueueName.containsKey(queueName)) {
+                throw new IllegalStateException("task already enqueued: queueName=" + queueName);
+            }
+            Instant now = clock.instant();
+            TaskEntry entry = new TaskEntry(++idSequence, queueName, payload, now, now.plus(executionDelay),
+                    0L, 0L, 0L, null, null);
+            put(entry);
+            return entry.id;
+        }
+    }
+
+    /**
+     * Deletes a task by its identifier
+     *
+     * @param taskId identifier of the task
+     * @return true if the task was deleted
+     */
+    boolean deleteTask(long taskId) {
+        synchronized (mutex) {
+            TaskEntry entry = tasksById.get(taskId);
+            if (entry == null) {
+                return false;
+            }
+            remove(entry);
+            return true;
+        }
+    }
+
+    /**
+     * Postpones a task by its identifier the same way as {@link #reenqueue(QueueId, Duration)} does
+     *
+     * @param taskId identifier of the task
+     * @param executionDelay execution delay
+     * @return true if the task was postponed
+     */
+    boolean reenqueue(long taskId, @Nonnull Duration executionDelay) {
+        requireNonNull(executionDelay, "executionDelay");
+
+        synchronized (mutex) {
+            TaskEntry entry = tasksById.get(taskId);
+            if (entry == null) {
+                return false;
+            }
+            replace(entry, entry.reenqueued(clock.instant().plus(executionDelay)));
+            return true;
+        }
+    }
+
+    @Override
+    public Optional<ScheduledTaskRecord> findQueueTask(@Nonnull QueueId queueId) {
+        requireNonNull(queueId, "queueId");
+        return Optional.ofNullable(tasksByQueueName.get(queueId.asString())).map(TaskEntry::toScheduledTaskRecord);
+    }
+
+    @Override
+    public int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay) {
+        requireNonNull(queueId, "queueId");
+        requireNonNull(executionDelay, "executionDelay");
+
+        synchronized (mutex) {
+            TaskEntry entry = tasksByQueueName.get(queueId.asString());
+            if (entry == null) {
+                return 0;
+            }
+            replace(entry, entry.withNextProcessAt(clock.instant().plus(executionDelay)));
+            return 1;
+        }
+    }
+
+    @Override
+    public int reenqueue(@Nonnull QueueId queueId, @Nonnull Duration executionDelay) {
+        requireNonNull(queueId, "queueId");
+        requireNonNull(executionDelay, "executionDelay");
+
+        synchronized (mutex) {
+            TaskEntry entry = tasksByQueueName.get(queueId.asString());
+            if (entry == null) {
+                return 0;
+            }
+            replace(entry, entry.reenqueued(clock.instant().plus(executionDelay)));
+            return 1;
+        }
+    }
+
+    @Override
+    public int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch) {
+        requireNonNull(queueId, "queueId");
+        requireNonNull(executionDelay, "executionDelay");
+
+        synchronized (mutex) {
+            TaskEntry entry = tasksByQueueName.get(queueId.asString());
+            if (entry == null || entry.totalAttempt != executionEpoch) {
+                return 0;
+            }
+            replace(entry, entry.withNextProcessAt(clock.instant().plus(executionDelay)));
+            return 1;
+        }
+    }
+
+    @Override
+    public int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch,
+                                     @Nullable String payload) {
+        requireNonNull(queueId, "queueId");
+        requireNonNull(executionDelay, "executionDelay");
+
+        synchronized (mutex) {
+            TaskEntry entry = tasksByQueueName.get(queueId.asString());
+            if (entry == null || entry.totalAttempt != executionEpoch) {
+                return 0;
+            }
+            replace(entry, entry.withNextProcessAt(clock.instant().plus(executionDelay)).withPayload(payload));
+            return 1;
+        }
+    }
+
+    @Override
+    public int reenqueue(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch) {
+        requireNonNull(queueId, "queueId");
+        requireNonNull(executionDelay, "executionDelay");
+
+        synchronized (mutex) {
+            TaskEntry entry = tasksByQueueName.get(queueId.asString());
+            if (entry == null || entry.totalAttempt != executionEpoch) {
+                return 0;
+            }
+            replace(entry, entry.released(clock.instant(), clock.instant().plus(executionDelay), true));
+            return 1;
+        }
+    }
+
+    @Override
+    public int postponeFailed(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch) {
+        requireNonNull(queueId, "queueId");
+        requireNonNull(executionDelay, "executionDelay");
+
+        synchronized (mutex) {
+            TaskEntry entry = tasksByQueueName.get(queueId.asString());
+            if (entry == null || entry.totalAttempt != executionEpoch) {
+                return 0;
+            }
+            replace(entry, entry.released(clock.instant(), clock.instant().plus(executionDelay), false));
+            return 1;
+        }
+    }
+
+    @Override
+    public int updatePayload(@Nonnull QueueId queueId, @Nullable String payload) {
+        requireNonNull(queueId, "queueId");
+
+        synchronized (mutex) {
+            TaskEntry entry = tasksByQueueName.get(queueId.asString());
+            if (entry == null) {
+                return 0;
+            }
+            replace(entry, entry.withPayload(payload));
+            return 1;
+        }
+    }
+
+    @Nullable
+    @Override
+    public String findPayload(@Nonnull QueueId queueId) {
+        requireNonNull(queueId, "queueId");
+        TaskEntry entry = tasksByQueueName.get(queueId.asString());
+        return entry == null ? null : entry.payload;
+    }
+
+    @Override
+    public int triggerNow(@Nonnull QueueId queueId) {
+        requireNonNull(queueId, "queueId");
+
+        synchronized (mutex) {
+            TaskEntry entry = tasksByQueueName.get(queueId.asString());
+            if (entry == null) {
+                return 0;
+            }
+            replace(entry, entry.triggered(clock.instant()));
+            return 1;
+        }
+    }
+
+    @Override
+    public int deleteQueueTask(@Nonnull QueueId queueId) {
+        requireNonNull(queueId, "queueId");
+
+        synchronized (mutex) {
+            TaskEntry entry = tasksByQueueName.get(queueId.asString());
+            if (entry == null) {
+                return 0;
+            }
+            remove(entry);
+            return 1;
+        }
+    }
+
+    @Override
+    public int deleteQueueTasks(@Nonnull String queueNamePrefix) {
+        requireNonNull(queueNamePrefix, "queueNamePrefix");
+
+        synchronized (mutex) {
+            List<TaskEntry> entries = tasksByQueueName.values().stream()
+                    .filter(entry -> entry.queueName.startsWith(queueNamePrefix))
+                    .collect(Collectors.toList());
+            entries.forEach(this::remove);
+            return entries.size();
+        }
+    }
+
+    @Nullable
+    @Override
+    public TaskRecord pickTask(@Nonnull QueueId queueId, @Nonnull Duration retryInterval) {
+        requireNonNull(queueId, "queueId");
+        requireNonNull(retryInterval, "retryInterval");
+
+        synchronized (mutex) {
+            Instant now = clock.instant();
+            TaskEntry entry = tasksByQueueName.get(queueId.asString());
+            if (entry == null || entry.nextProcessAt.isAfter(now)) {
+                return null;
+            }
+            return pick(entry, now.plus(retryInterval));
+        }
+    }
+
+    @Nullable
+    @Override
+    public TaskRecord pickTask(@Nonnull String queueNamePrefix, @Nonnull Duration retryInterval) {
+        requireNonNull(queueNamePrefix, "queueNamePrefix");
+        requireNonNull(retryInterval, "retryInterval");
+
+        synchronized (mutex) {
+            Instant now = clock.instant();
+            for (TaskEntry entry : nextProcessDateIndex) {
+                if (entry.nextProcessAt.isAfter(now)) {
+                    return null;
+                }
+                if (entry.queueName.startsWith(queueNamePrefix)) {
+                    return pick(entry, now.plus(retryInterval));
+                }
+            }
+            return null;
+        }
+    }
+
+    private TaskRecord pick(TaskEntry entry, Instant postponedProcessAt) {
+        TaskEntry pickedEntry = entry.picked(postponedProcessAt);
+        replace(entry, pickedEntry);
+
+        Map<String, String> extData = new HashMap<>();
+        extData.put(ScheduledTaskExtFields.QUEUE_NAME, entry.queueName);
+        extData.put(ScheduledTaskExtFields.PLANNED_PROCESS_AT, entry.nextProcessAt.toString());
+        extData.put(ScheduledTaskExtFields.RESUME_PROCESS_AT,
+                entry.resumeProcessAt == null ? null : entry.resumeProcessAt.toString());
+        return TaskRecord.builder()
+                .withId(entry.id)
+                .withPayload(entry.payload)
+                .withCreatedAt(ZonedDateTime.ofInstant(entry.createdAt, ZoneId.systemDefault()))
+                .withNextProcessAt(ZonedDateTime.ofInstant(entry.nextProcessAt, ZoneId.systemDefault()))
+                .withAttemptsCount(pickedEntry.attempt)
+                .withReenqueueAttemptsCount(pickedEntry.reenqueueAttempt)
+                .withTotalAttemptsCount(pickedEntry.totalAttempt)
+                .withExtData(extData)
+                .build();
+    }
+
+    @Override
+    public int enqueueQueueTasks(@Nonnull List<QueueId> queueIds, @Nonnull Duration executionDelay,
+                                 @Nullable String idSequence) {
+        requireNonNull(queueIds, "queueIds");
+        requireNonNull(executionDelay, "executionDelay");
+
+        synchronized (mutex) {
+            queueIds.forEach(queueId -> enqueue(queueId.asString(), null, executionDelay));
+            return queueIds.size();
+        }
+    }
+
+    @Override
+    public List<String> findQueueNames(@Nonnull String queueNamePrefix) {
+        requireNonNull(queueNamePrefix, "queueNamePrefix");
+        return tasksByQueueName.keySet().stream()
+                .filter(queueName -> queueName.startsWith(queueNamePrefix))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ScheduledTaskRecord> findAll() {
+        List<ScheduledTaskRecord> records = new ArrayList<>(tasksByQueueName.size());
+        tasksByQueueName.values().forEach(entry -> records.add(entry.toScheduledTaskRecord()));
+        return records;
+    }
+
+    @Override
+    public Instant getDatabaseCurrentTime() {
+        return clock.instant();
+    }
+
+    private void put(TaskEntry entry) {
+        tasksByQueueName.put(entry.queueName, entry);
+        tasksById.put(entry.id, entry);
+        nextProcessDateIndex.add(entry);
+    }
+
+    private void remove(TaskEntry entry) {
+        nextProcessDateIndex.remove(entry);
+        tasksByQueueName.remove(entry.queueName);
+        tasksById.remove(entry.id);
+    }
+
+    private void replace(TaskEntry oldEntry, TaskEntry newEntry) {
+        nextProcessDateIndex.remove(oldEntry);
+        put(newEntry);
+    }
+
+    /**
+     * Immutable row of the task table
+     */
+    private static final class TaskEntry {
+        private final long id;
+        private final String queueName;
+        @Nullable
+        private final String payload;
+        private final Instant createdAt;
+        private final Instant nextProcessAt;
+        private final long attempt;
+        private final long reenqueueAttempt;
+        private final long totalAttempt;
+        @Nullable
+        private final Instant resumeProcessAt;
+        @Nullable
+        private final Integer executionState;
+
+        private TaskEntry(long id,
+                          String queueName,
+                          @Nullable String payload,
+                          Instant createdAt,
+                          Instant nextProcessAt,
+                          long attempt,
+                          long reenqueueAttempt,
+                          long totalAttempt,
+                          @Nullable Instant resumeProcessAt,
+                          @Nullable Integer executionState) {
+            this.id = id;
+            this.queueName = queueName;
+            this.payload = payload;
+            this.createdAt = createdAt;
+            this.nextProcessAt = nextProcessAt;
+            this.attempt = attempt;
+            this.reenqueueAttempt = reenqueueAttempt;
+            this.totalAttempt = totalAttempt;
+            this.resumeProcessAt = resumeProcessAt;
+            this.executionState = executionState;
+        }
+
+        private TaskEntry withNextProcessAt(Instant newNextProcessAt) {
+            return new TaskEntry(id, queueName, payload, createdAt, newNextProcessAt, attempt, reenqueueAttempt,
+                    totalAttempt, resumeProcessAt, executionState);
+        }
+
+        private TaskEntry withPayload(@Nullable String newPayload) {
+            return new TaskEntry(id, queueName, newPayload, createdAt, nextProcessAt, attempt, reenqueueAttempt,
+                    totalAttempt, resumeProcessAt, executionState);
+        }
+
+        private TaskEntry reenqueued(Instant newNextProcessAt) {
+            return new TaskEntry(id, queueName, payload, createdAt, newNextProcessAt, 0L, reenqueueAttempt + 1L,
+                    totalAttempt, resumeProcessAt, executionState);
+        }
+
+        private TaskEntry released(Instant now, Instant newNextProcessAt, boolean successful) {
+            boolean triggered = Objects.equals(executionState, ScheduledTaskExtFields.EXECUTING_TRIGGERED);
+            Instant releasedNextProcessAt = triggered ? now : newNextProcessAt;
+            if (!successful) {
+                return new TaskEntry(id, queueName, payload, createdAt, releasedNextProcessAt, attempt,
+                        reenqueueAttempt, totalAttempt, resumeProcessAt, null);
+            }
+            return new TaskEntry(id, queueName, payload, createdAt, releasedNextProcessAt, 0L, reenqueueAttempt + 1L,
+                    totalAttempt, triggered ? newNextProcessAt : null, null);
+        }
+
+        private TaskEntry picked(Instant postponedProcessAt) {
+            return new TaskEntry(id, queueName, payload, createdAt, postponedProcessAt, attempt + 1L,
+                    reenqueueAttempt, totalAttempt + 1L, resumeProcessAt,
+                    executionState == null ? ScheduledTaskExtFields.EXECUTING : executionState);
+        }
+
+        private TaskEntry triggered(Instant now) {
+            if (executionState != null) {
+                return new TaskEntry(id, queueName, payload, createdAt, nextProcessAt, attempt, reenqueueAttempt,
+                        totalAttempt, resumeProcessAt, ScheduledTaskExtFields.EXECUTING_TRIGGERED);
+            }
+            return new TaskEntry(id, queueName, payload, createdAt, now, attempt, reenqueueAttempt, totalAttempt,
+                    resumeProcessAt == null ? nextProcessAt : resumeProcessAt, null);
+        }
+
+        private ScheduledTaskRecord toScheduledTaskRecord() {
+            return ScheduledTaskRecord.builder()
+                    .withId(id)
+                    .withQueueName(queueName)
+                    .withNextProcessAt(nextProcessAt)
+                    .withResumeProcessAt(resumeProcessAt)
+                    .build();
+        }
+    }
+}
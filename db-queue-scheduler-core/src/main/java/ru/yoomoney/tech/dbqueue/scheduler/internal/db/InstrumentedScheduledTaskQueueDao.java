@@ -0,0 +1,150 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
+
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerInstrumentation;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link ScheduledTaskQueueDao} that reports timings of all queries to {@link SchedulerInstrumentation}.
+ *
+ * <p>Query name equals to the name of the invoked method. Queries of a particular task record are reported along with
+ * the task identity - the queue name of the record.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class InstrumentedScheduledTaskQueueDao implements ScheduledTaskQueueDao {
+    private final ScheduledTaskQueueDao delegate;
+    private final SchedulerInstrumentation schedulerInstrumentation;
+
+    public InstrumentedScheduledTaskQueueDao(@Nonnull ScheduledTaskQueueDao delegate,
+                                             @Nonnull SchedulerInstrumentation schedulerInstrumentation) {
+        this.delegate = requireNonNull(delegate, "delegate");
+        this.schedulerInstrumentation = requireNonNull(schedulerInstrumentation, "schedulerInstrumentation");
+    }
+
+    @Override
+    public Optional<ScheduledTaskRecord> findQueueTask(@Nonnull QueueId queueId) {
+        return measure("findQueueTask", queueId, () -> delegate.findQueueTask(queueId));
+    }
+
+    @Override
+    public int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay) {
+        return measure("updateNextProcessDate", queueId, () -> delegate.updateNextProcessDate(queueId, executionDelay));
+    }
+
+    @Override
+    public int reenqueue(@Nonnull QueueId queueId, @Nonnull Duration executionDelay) {
+        return measure("reenqueue", queueId, () -> delegate.reenqueue(queueId, executionDelay));
+    }
+
+    @Override
+    public int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch) {
+        return measure("updateNextProcessDate", queueId,
+                () -> delegate.updateNextProcessDate(queueId, executionDelay, executionEpoch));
+    }
+
+    @Override
+    public int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch,
+                                     @Nullable String payload) {
+        return measure("updateNextProcessDate", queueId,
+                () -> delegate.updateNextProcessDate(queueId, executionDelay, executionEpoch, payload));
+    }
+
+    @Override
+    public int reenqueue(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch) {
+        return measure("reenqueue", queueId, () -> delegate.reenqueue(queueId, executionDelay, executionEpoch));
+    }
+
+    @Override
+    public int updatePayload(@Nonnull QueueId queueId, @Nullable String payload) {
+        return measure("updatePayload", queueId, () -> delegate.updatePayload(queueId, payload));
+    }
+
+    @Nullable
+    @Override
+    public String findPayload(@Nonnull QueueId queueId) {
+        return measure("findPayload", queueId, () -> delegate.findPayload(queueId));
+    }
+
+    @Override
+    public int triggerNow(@Nonnull QueueId queueId) {
+        return measure("triggerNow", queueId, () -> delegate.triggerNow(queueId));
+    }
+
+    @Override
+    public int postponeFailed(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch) {
+        return measure("postponeFailed", queueId,
+                () -> delegate.postponeFailed(queueId, executionDelay, executionEpoch));
+    }
+
+    @Override
+    public int deleteQueueTask(@Nonnull QueueId queueId) {
+        return measure("deleteQueueTask", queueId, () -> delegate.deleteQueueTask(queueId));
+    }
+
+    @Override
+    public int deleteQueueTasks(@Nonnull String queueNamePrefix) {
+        return measure("deleteQueueTasks", null, () -> delegate.deleteQueueTasks(queueNamePrefix));
+    }
+
+    @Nullable
+    @Override
+    public TaskRecord pickTask(@Nonnull QueueId queueId, @Nonnull Duration retryInterval) {
+        return measure("pickTask", queueId, () -> delegate.pickTask(queueId, retryInterval));
+    }
+
+    @Nullable
+    @Override
+    public TaskRecord pickTask(@Nonnull String queueNamePrefix, @Nonnull Duration retryInterval) {
+        return measure("pickTask", null, () -> delegate.pickTask(queueNamePrefix, retryInterval));
+    }
+
+    @Override
+    public int enqueueQueueTasks(@Nonnull List<QueueId> queueIds, @Nonnull Duration executionDelay,
+                                 @Nullable String idSequence) {
+        return measure("enqueueQueueTasks", null,
+                () -> delegate.enqueueQueueTasks(queueIds, executionDelay, idSequence));
+    }
+
+    @Override
+    public List<String> findQueueNames(@Nonnull String queueNamePrefix) {
+        return measure("findQueueNames", null, () -> delegate.findQueueNames(queueNamePrefix));
+    }
+
+    @Override
+    public List<ScheduledTaskRecord> findAll() {
+        return measure("findAll", null, delegate::findAll);
+    }
+
+    @Override
+    public Instant getDatabaseCurrentTime() {
+        return measure("getDatabaseCurrentTime", null, delegate::getDatabaseCurrentTime);
+    }
+
+    private <T> T measure(String queryName, @Nullable QueueId queueId, Supplier<T> query) {
+        ScheduledTaskIdentity taskIdentity = queueId == null ? null : ScheduledTaskIdentity.of(queueId.asString());
+        long start = System.nanoTime();
+        try {
+            T result = query.get();
+            schedulerInstrumentation.queryFinished(queryName, taskIdentity, Duration.ofNanos(System.nanoTime() - start),
+                    null);
+            return result;
+        } catch (RuntimeException ex) {
+            schedulerInstrumentation.queryFinished(queryName, taskIdentity, Duration.ofNanos(System.nanoTime() - start),
+                    ex);
+            throw ex;
+        }
+    }
+}
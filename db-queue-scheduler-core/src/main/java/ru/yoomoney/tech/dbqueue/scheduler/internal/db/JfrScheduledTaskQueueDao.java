@@ -0,0 +1,167 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
+
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.jfr.ScheduledTaskQueryEvent;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link ScheduledTaskQueueDao} that emits {@link ScheduledTaskQueryEvent} for all queries.
+ *
+ * <p>Query name equals to the name of the invoked method. Event fields are populated only when the event is enabled
+ * in a running recording, so the decorator is always installed.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class JfrScheduledTaskQueueDao implements ScheduledTaskQueueDao {
+    private final ScheduledTaskQueueDao delegate;
+
+    public JfrScheduledTaskQueueDao(@Nonnull ScheduledTaskQueueDao delegate) {
+        this.delegate = requireNonNull(delegate, "delegate");
+    }
+
+    @Override
+    public Optional<ScheduledTaskRecord> findQueueTask(@Nonnull QueueId queueId) {
+        return record("findQueueTask", queueId.asString(), () -> delegate.findQueueTask(queueId),
+                record -> record.isPresent() ? 1 : 0);
+    }
+
+    @Override
+    public int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay) {
+        return record("updateNextProcessDate", queueId.asString(),
+                () -> delegate.updateNextProcessDate(queueId, executionDelay), Integer::intValue);
+    }
+
+    @Override
+    public int reenqueue(@Nonnull QueueId queueId, @Nonnull Duration executionDelay) {
+        return record("reenqueue", queueId.asString(), () -> delegate.reenqueue(queueId, executionDelay),
+                Integer::intValue);
+    }
+
+    @Override
+    public int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch) {
+        return record("updateNextProcessDate", queueId.asString(),
+                () -> delegate.updateNextProcessDate(queueId, executionDelay, executionEpoch), Integer::intValue);
+    }
+
+    @Override
+    public int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch,
+                                     @Nullable String payload) {
+        return record("updateNextProcessDate", queueId.asString(),
+                () -> delegate.updateNextProcessDate(queueId, executionDelay, executionEpoch, payload),
+                Integer::intValue);
+    }
+
+    @Override
+    public int reenqueue(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch) {
+        return record("reenqueue", queueId.asString(),
+                () -> delegate.reenqueue(queueId, executionDelay, executionEpoch), Integer::intValue);
+    }
+
+    @Override
+    public int updatePayload(@Nonnull QueueId queueId, @Nullable String payload) {
+        return record("updatePayload", queueId.asString(), () -> delegate.updatePayload(queueId, payload),
+                Integer::intValue);
+    }
+
+    @Nullable
+    @Override
+    public String findPayload(@Nonnull QueueId queueId) {
+        return record("findPayload", queueId.asString(), () -> delegate.findPayload(queueId),
+                payload -> payload == null ? 0 : 1);
+    }
+
+    @Override
+    public int triggerNow(@Nonnull QueueId queueId) {
+        return record("triggerNow", queueId.asString(), () -> delegate.triggerNow(queueId), Integer::intValue);
+    }
+
+    @Override
+    public int postponeFailed(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch) {
+        return record("postponeFailed", queueId.asString(),
+                () -> delegate.postponeFailed(queueId, executionDelay, executionEpoch), Integer::intValue);
+    }
+
+    @Override
+    public int deleteQueueTask(@Nonnull QueueId queueId) {
+        return record("deleteQueueTask", queueId.asString(), () -> delegate.deleteQueueTask(queueId),
+                Integer::intValue);
+    }
+
+    @Override
+    public int deleteQueueTasks(@Nonnull String queueNamePrefix) {
+        return record("deleteQueueTasks", queueNamePrefix, () -> delegate.deleteQueueTasks(queueNamePrefix),
+                Integer::intValue);
+    }
+
+    @Nullable
+    @Override
+    public TaskRecord pickTask(@Nonnull QueueId queueId, @Nonnull Duration retryInterval) {
+        return record("pickTask", queueId.asString(), () -> delegate.pickTask(queueId, retryInterval),
+                taskRecord -> taskRecord == null ? 0 : 1);
+    }
+
+    @Nullable
+    @Override
+    public TaskRecord pickTask(@Nonnull String queueNamePrefix, @Nonnull Duration retryInterval) {
+        return record("pickTask", queueNamePrefix, () -> delegate.pickTask(queueNamePrefix, retryInterval),
+                taskRecord -> taskRecord == null ? 0 : 1);
+    }
+
+    @Override
+    public int enqueueQueueTasks(@Nonnull List<QueueId> queueIds, @Nonnull Duration executionDelay,
+                                 @Nullable String idSequence) {
+        return record("enqueueQueueTasks", null,
+                () -> delegate.enqueueQueueTasks(queueIds, executionDelay, idSequence), Integer::intValue);
+    }
+
+    @Override
+    public List<String> findQueueNames(@Nonnull String queueNamePrefix) {
+        return record("findQueueNames", queueNamePrefix, () -> delegate.findQueueNames(queueNamePrefix), List::size);
+    }
+
+    @Override
+    public List<ScheduledTaskRecord> findAll() {
+        return record("findAll", null, delegate::findAll, List::size);
+    }
+
+    @Override
+    public Instant getDatabaseCurrentTime() {
+        return record("getDatabaseCurrentTime", null, delegate::getDatabaseCurrentTime, currentTime -> 0);
+    }
+
+    private <T> T record(String queryName, @Nullable String queueName, Supplier<T> query, ToIntFunction<T> rows) {
+        ScheduledTaskQueryEvent event = new ScheduledTaskQueryEvent();
+        event.begin();
+        try {
+            T result = query.get();
+            if (event.shouldCommit()) {
+                event.queryName = queryName;
+                event.queueName = queueName;
+                event.rows = rows.applyAsInt(result);
+                event.successful = true;
+                event.commit();
+            }
+            return result;
+        } catch (RuntimeException ex) {
+            if (event.shouldCommit()) {
+                event.queryName = queryName;
+                event.queueName = queueName;
+                event.successful = false;
+                event.commit();
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerTimeSource;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.DatabaseResilienceSettings;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link ScheduledTaskQueueDao} that retries transient database errors and pauses picking of tasks while
+ * the database is unhealthy.
+ *
+ * <p>Queries are retried with an exponential backoff with equal jitter, so tasks of the node do not retry in lockstep.
+ * Picks are not retried - a retried pick could claim a task twice, and polling repeats picks anyway. Inserts of tasks
+ * are not retried either - an insert that committed before the error is retried into the unique index. All queries
+ * of the node share {@link DatabaseCircuitBreaker}: while it is open, picks return no task without touching
+ * the database and failed queries are not retried.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class ResilientScheduledTaskQueueDao implements ScheduledTaskQueueDao {
+    private static final Logger log = LoggerFactory.getLogger(ResilientScheduledTaskQueueDao.class);
+
+    private final ScheduledTaskQueueDao delegate;
+    private final DatabaseResilienceSettings resilienceSettings;
+    private final SchedulerTimeSource timeSource;
+    private final DatabaseCircuitBreaker circuitBreaker;
+
+    public ResilientScheduledTaskQueueDao(@Nonnull ScheduledTaskQueueDao delegate,
+                                          @Nonnull DatabaseResilienceSettings resilienceSettings,
+                                          @Nonnull SchedulerTimeSource timeSource) {
+        this.delegate = requireNonNull(delegate, "delegate");
+        this.resilienceSettings = requireNonNull(resilienceSettings, "resilienceSettings");
+        this.timeSource = requireNonNull(timeSource, "timeSource");
+        this.circuitBreaker = new DatabaseCircuitBreaker(resilienceSettings, timeSource.getClock());
+    }
+
+    @Override
+    public Optional<ScheduledTaskRecord> findQueueTask(@Nonnull QueueId queueId) {
+        return retry("findQueueTask", () -> delegate.findQueueTask(queueId));
+    }
+
+    @Override
+    public int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay) {
+        return retry("updateNextProcessDate", () -> delegate.updateNextProcessDate(queueId, executionDelay));
+    }
+
+    @Override
+    public int reenqueue(@Nonnull QueueId queueId, @Nonnull Duration executionDelay) {
+        return retry("reenqueue", () -> delegate.reenqueue(queueId, executionDelay));
+    }
+
+    @Override
+    public int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch) {
+        return retry("updateNextProcessDate",
+                () -> delegate.updateNextProcessDate(queueId, executionDelay, executionEpoch));
+    }
+
+    @Override
+    public int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch,
+                                     @Nullable String payload) {
+        return retry("updateNextProcessDate",
+                () -> delegate.updateNextProcessDate(queueId, executionDelay, executionEpoch, payload));
+    }
+
+    @Override
+    public int reenqueue(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch) {
+        return retry("reenqueue", () -> delegate.reenqueue(queueId, executionDelay, executionEpoch));
+    }
+
+    @Override
+    public int updatePayload(@Nonnull QueueId queueId, @Nullable String payload) {
+        return retry("updatePayload", () -> delegate.updatePayload(queueId, payload));
+    }
+
+    @Nullable
+    @Override
+    public String findPayload(@Nonnull QueueId queueId) {
+        return retry("findPayload", () -> delegate.findPayload(queueId));
+    }
+
+    @Override
+    public int triggerNow(@Nonnull QueueId queueId) {
+        return retry("triggerNow", () -> delegate.triggerNow(queueId));
+    }
+
+    @Override
+    public int postponeFailed(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch) {
+        return retry("postponeFailed", () -> delegate.postponeFailed(queueId, executionDelay, executionEpoch));
+    }
+
+    @Override
+    public int deleteQueueTask(@Nonnull QueueId queueId) {
+        return retry("deleteQueueTask", () -> delegate.deleteQueueTask(queueId));
+    }
+
+    @Override
+    public int deleteQueueTasks(@Nonnull String queueNamePrefix) {
+        return retry("deleteQueueTasks", () -> delegate.deleteQueueTasks(queueNamePrefix));
+    }
+
+    @Nullable
+    @Override
+    public TaskRecord pickTask(@Nonnull QueueId queueId, @Nonnull Duration retryInterval) {
+        return pick(() -> delegate.pickTask(queueId, retryInterval));
+    }
+
+    @Nullable
+    @Override
+    public TaskRecord pickTask(@Nonnull String queueNamePrefix, @Nonnull Duration retryInterval) {
+        return pick(() -> delegate.pickTask(queueNamePrefix, retryInterval));
+    }
+
+    @Override
+    public int enqueueQueueTasks(@Nonnull List<QueueId> queueIds, @Nonnull Duration executionDelay,
+                                 @Nullable String idSequence) {
+        return call(() -> delegate.enqueueQueueTasks(queueIds, executionDelay, idSequence));
+    }
+
+    @Override
+    public List<String> findQueueNames(@Nonnull String queueNamePrefix) {
+        return retry("findQueueNames", () -> delegate.findQueueNames(queueNamePrefix));
+    }
+
+    @Override
+    public List<ScheduledTaskRecord> findAll() {
+        return retry("findAll", delegate::findAll);
+    }
+
+    @Override
+    public Instant getDatabaseCurrentTime() {
+        return retry("getDatabaseCurrentTime", delegate::getDatabaseCurrentTime);
+    }
+
+    @Nullable
+    private TaskRecord pick(Supplier<TaskRecord> query) {
+        if (!circuitBreaker.tryAcquirePick()) {
+            return null;
+        }
+        return call(query);
+    }
+
+    private <T> T retry(String queryName, Supplier<T> query) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call(query);
+            } catch (RuntimeException ex) {
+                if (attempt >= resilienceSettings.getMaxAttempts() || circuitBreaker.isOpen()
+                        || !TransientDatabaseErrors.isTransient(ex)) {
+                    throw ex;
+                }
+                Duration backoff = getBackoff(attempt);
+                log.debug("retrying query after transient error: queryName={}, attempt={}, backoff={}",
+                        queryName, attempt, backoff, ex);
+                sleep(backoff, ex);
+            }
+        }
+    }
+
+    private <T> T call(Supplier<T> query) {
+        T result;
+        try {
+            result = query.get();
+        } catch (RuntimeException ex) {
+            if (TransientDatabaseErrors.isTransient(ex)) {
+                circuitBreaker.recordTransientFailure();
+            } else {
+                circuitBreaker.recordPermanentFailure();
+            }
+            throw ex;
+        }
+        circuitBreaker.recordSuccess();
+        return result;
+    }
+
+    private Duration getBackoff(int attempt) {
+        long maxBackoffMillis = resilienceSettings.getMaxBackoff().toMillis();
+        long exponentialMillis = resilienceSettings.getInitialBackoff().toMillis() << Math.min(attempt - 1, 30);
+        long ceilingMillis = exponentialMillis <= 0L || exponentialMillis > maxBackoffMillis
+                ? maxBackoffMillis
+                : exponentialMillis;
+        long halfMillis = ceilingMillis / 2L;
+        return Duration.ofMillis(halfMillis + ThreadLocalRandom.current().nextLong(ceilingMillis - halfMillis + 1L));
+    }
+
+    private void sleep(Duration backoff, RuntimeException error) {
+        try {
+            timeSource.createSleeper().sleep(backoff);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw error;
+        }
+    }
+}
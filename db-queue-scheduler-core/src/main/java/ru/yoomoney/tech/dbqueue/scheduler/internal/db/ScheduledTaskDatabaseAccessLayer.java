@@ -0,0 +1,93 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
+
+import ru.yoomoney.tech.dbqueue.config.DatabaseAccessLayer;
+import ru.yoomoney.tech.dbqueue.config.DatabaseDialect;
+import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
+import ru.yoomoney.tech.dbqueue.dao.QueueDao;
+import ru.yoomoney.tech.dbqueue.dao.QueuePickTaskDao;
+import ru.yoomoney.tech.dbqueue.settings.FailureSettings;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link DatabaseAccessLayer} that lets the scheduler pick tasks itself.
+ *
+ * <p>{@code db-queue} does not expose next process date the picked task was planned for, that is why tasks are picked
+ * via {@link ScheduledTaskQueueDao#pickTask(QueueId, java.time.Duration)}.
+ *
+ * <p>Moreover, {@code db-queue} picks tasks by exact queue name, whereas tasks of template instances have their own
+ * queue names that share the template prefix. Such queues are registered via
+ * {@link #registerQueueNamePrefix(QueueId, String)} and picked via
+ * {@link ScheduledTaskQueueDao#pickTask(String, java.time.Duration)}. All other calls are delegated.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class ScheduledTaskDatabaseAccessLayer implements DatabaseAccessLayer {
+    private final DatabaseAccessLayer delegate;
+    private final ScheduledTaskQueueDao scheduledTaskQueueDao;
+    private final Map<QueueId, String> queueNamePrefixes = new ConcurrentHashMap<>();
+
+    public ScheduledTaskDatabaseAccessLayer(@Nonnull DatabaseAccessLayer delegate,
+                                            @Nonnull ScheduledTaskQueueDao scheduledTaskQueueDao) {
+        this.delegate = requireNonNull(delegate, "delegate");
+        this.scheduledTaskQueueDao = requireNonNull(scheduledTaskQueueDao, "scheduledTaskQueueDao");
+    }
+
+    /**
+     * Makes the queue pick tasks by queue name prefix.
+     *
+     * <p>Must be called before the queue is registered in {@code db-queue}.
+     *
+     * @param queueId identity of the queue
+     * @param queueNamePrefix prefix of queue names of tasks that belong to the queue
+     */
+    public void registerQueueNamePrefix(@Nonnull QueueId queueId, @Nonnull String queueNamePrefix) {
+        requireNonNull(queueId, "queueId");
+        requireNonNull(queueNamePrefix, "queueNamePrefix");
+        queueNamePrefixes.put(queueId, queueNamePrefix);
+    }
+
+    @Override
+    public QueueDao getQueueDao() {
+        return delegate.getQueueDao();
+    }
+
+    @Override
+    public QueuePickTaskDao createQueuePickTaskDao(@Nonnull QueueLocation queueLocation,
+                                                   @Nonnull FailureSettings failureSettings) {
+        QueueId queueId = queueLocation.getQueueId();
+        String queueNamePrefix = queueNamePrefixes.get(queueId);
+        if (queueNamePrefix == null) {
+            return () -> scheduledTaskQueueDao.pickTask(queueId, failureSettings.getRetryInterval());
+        }
+        return () -> scheduledTaskQueueDao.pickTask(queueNamePrefix, failureSettings.getRetryInterval());
+    }
+
+    @Override
+    public <T> T transact(@Nonnull Supplier<T> supplier) {
+        return delegate.transact(supplier);
+    }
+
+    @Override
+    public void transact(@Nonnull Runnable runnable) {
+        delegate.transact(runnable);
+    }
+
+    @Override
+    public DatabaseDialect getDatabaseDialect() {
+        return delegate.getDatabaseDialect();
+    }
+
+    @Override
+    public QueueTableSchema getQueueTableSchema() {
+        return delegate.getQueueTableSchema();
+    }
+}
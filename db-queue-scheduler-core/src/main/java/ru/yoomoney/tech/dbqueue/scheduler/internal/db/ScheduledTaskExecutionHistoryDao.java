@@ -0,0 +1,41 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
+
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+import ru.yoomoney.tech.dbqueue.scheduler.models.info.ScheduledTaskExecutionInfo;
+
+import javax.annotation.Nonnull;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DAO for accessing the table of executions of scheduled tasks
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public interface ScheduledTaskExecutionHistoryDao {
+    /**
+     * Inserts executions by a single batch
+     *
+     * @param executions executions to insert
+     */
+    void insert(@Nonnull List<ScheduledTaskExecutionInfo> executions);
+
+    /**
+     * Finds latest executions of a task, the most recent first
+     *
+     * @param identity identity of the task
+     * @param limit max count of executions
+     * @return found executions
+     */
+    List<ScheduledTaskExecutionInfo> findLatest(@Nonnull ScheduledTaskIdentity identity, int limit);
+
+    /**
+     * Deletes a chunk of executions finished before the given time
+     *
+     * @param finishedBefore upper bound of finish time of deleted executions, exclusive
+     * @param chunkSize max count of deleted executions
+     * @return count of deleted executions
+     */
+    int deleteFinishedBefore(@Nonnull Instant finishedBefore, int chunkSize);
+}
@@ -0,0 +1,72 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
+
+import java.util.List;
+
+/**
+ * Additional columns of the scheduled tasks table that are not defined by {@code db-queue} itself.
+ *
+ * <p>The columns are passed to {@code db-queue} as ext fields, so their values are available in
+ * {@link ru.yoomoney.tech.dbqueue.api.Task#getExtData()} without extra queries.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public final class ScheduledTaskExtFields {
+    /**
+     * Date and time of the regular execution that was postponed by a one-off execution.
+     *
+     * <p>Not null value means the task is triggered to be executed once out of its schedule.
+     */
+    public static final String RESUME_PROCESS_AT = "resume_process_at";
+
+    /**
+     * State of the execution that holds a picked task.
+     *
+     * <p>Null value means the task is not held. The pick sets {@link #EXECUTING} value and the execution clears the value
+     * when it postpones the task by {@link ScheduledTaskQueueDao#reenqueue(ru.yoomoney.tech.dbqueue.settings.QueueId,
+     * java.time.Duration, long)} or {@link ScheduledTaskQueueDao#postponeFailed}. A trigger of a held task sets
+     * {@link #EXECUTING_TRIGGERED} value instead of changing the next process date, which is the lock of the execution.
+     */
+    public static final String EXECUTION_STATE = "execution_state";
+
+    /**
+     * Value of {@link #EXECUTION_STATE} column of a task held by an execution
+     */
+    public static final int EXECUTING = 1;
+
+    /**
+     * Value of {@link #EXECUTION_STATE} column of a task held by an execution and triggered during it
+     */
+    public static final int EXECUTING_TRIGGERED = 2;
+
+    /**
+     * Queue name of a picked task.
+     *
+     * <p>The column is defined by {@code db-queue}, so it is not an ext field. It is passed in ext data only by
+     * {@link ScheduledTaskQueueDao#pickTask}, since the scheduler picks tasks of template instances itself.
+     */
+    public static final String QUEUE_NAME = "queue_name";
+
+    /**
+     * Date and time a picked task was planned to be executed at, namely next process date before picking.
+     *
+     * <p>The value is not a column - it is passed in ext data only by {@link ScheduledTaskQueueDao#pickTask}.
+     */
+    public static final String PLANNED_PROCESS_AT = "planned_process_at";
+
+    /**
+     * Flag of a picked task that its state is stored apart from the task record.
+     *
+     * <p>The value is not a column - it is passed in ext data only by {@link ScheduledTaskQueueDao#pickTask}. The state
+     * is not read by the pick then, it is read by {@link ScheduledTaskQueueDao#findPayload} when the task accesses it.
+     */
+    public static final String DETACHED_STATE = "detached_state";
+
+    /**
+     * All additional columns
+     */
+    public static final List<String> ALL = List.of(RESUME_PROCESS_AT, EXECUTION_STATE);
+
+    private ScheduledTaskExtFields() {
+    }
+}
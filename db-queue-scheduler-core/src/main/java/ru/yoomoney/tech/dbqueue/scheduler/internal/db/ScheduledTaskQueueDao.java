@@ -1,5 +1,6 @@
 package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
 
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
 import ru.yoomoney.tech.dbqueue.settings.QueueId;
 
 import javax.annotation.Nonnull;
@@ -33,6 +34,73 @@ public interface ScheduledTaskQueueDao {
      */
     int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay);
 
+    /**
+     * Postpones a queue task after a successful execution - the same way as {@code db-queue} reenqueue does.
+     *
+     * <p>Attempts counter is reset and successful attempts counter is incremented.
+     *
+     * @param queueId identity of the queue
+     * @param executionDelay execution delay
+     * @return count of updated rows
+     */
+    int reenqueue(@Nonnull QueueId queueId, @Nonnull Duration executionDelay);
+
+    /**
+     * Updates next process date column of a queue task if the task was not picked since the given execution.
+     *
+     * <p>Every pick increments total attempts counter of the task, so the counter serves as an epoch of the execution
+     * and fences off updates of executions that have lost the task.
+     *
+     * @param queueId identity of the queue
+     * @param executionDelay execution delay
+     * @param executionEpoch epoch of the execution, namely total attempts counter of the picked task
+     * @return count of updated rows, zero if the task was picked again or deleted
+     */
+    int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch);
+
+    /**
+     * Updates next process date and payload columns of a queue task by a single update if the task was not picked
+     * since the given execution.
+     *
+     * <p>Lets an execution store a checkpoint of its state along with a heartbeat.
+     *
+     * @param queueId identity of the queue
+     * @param executionDelay execution delay
+     * @param executionEpoch epoch of the execution, namely total attempts counter of the picked task
+     * @param payload new payload of the task
+     * @return count of updated rows, zero if the task was picked again or deleted
+     */
+    int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch,
+                              @Nullable String payload);
+
+    /**
+     * Postpones a queue task after a successful execution the same way as {@link #reenqueue(QueueId, Duration)} does,
+     * if the task was not picked since the given execution.
+     *
+     * <p>The execution releases the task, see {@link ScheduledTaskExtFields#EXECUTION_STATE}. The date of the regular
+     * execution postponed by a one-off execution is cleared. If the task was triggered during the execution, the task
+     * is made ready for a one-off execution instead and the postponed date is kept as the regular one.
+     *
+     * @param queueId identity of the queue
+     * @param executionDelay execution delay
+     * @param executionEpoch epoch of the execution, namely total attempts counter of the picked task
+     * @return count of updated rows, zero if the task was picked again or deleted
+     */
+    int reenqueue(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch);
+
+    /**
+     * Postpones a queue task after a failed execution if the task was not picked since the given execution.
+     *
+     * <p>Attempts counters are kept. The execution releases the task, see {@link ScheduledTaskExtFields#EXECUTION_STATE}.
+     * If the task was triggered during the execution, the task is made ready instead.
+     *
+     * @param queueId identity of the queue
+     * @param executionDelay execution delay
+     * @param executionEpoch epoch of the execution, namely total attempts counter of the picked task
+     * @return count of updated rows, zero if the task was picked again or deleted
+     */
+    int postponeFailed(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch);
+
     /**
      * Updates payload column of a queue tasks
      *
@@ -42,6 +110,100 @@ public interface ScheduledTaskQueueDao {
      */
     int updatePayload(@Nonnull QueueId queueId, @Nullable String payload);
 
+    /**
+     * Finds payload of a queue task.
+     *
+     * <p>Lets an execution read a state that is not passed by the pick, see {@link ScheduledTaskExtFields#DETACHED_STATE}.
+     *
+     * @param queueId identity of the queue
+     * @return payload of the task or null if the task has no payload
+     */
+    @Nullable
+    String findPayload(@Nonnull QueueId queueId);
+
+    /**
+     * Makes a queue task ready for an immediate one-off execution.
+     *
+     * <p>The current next process date is kept in {@link ScheduledTaskExtFields#RESUME_PROCESS_AT} column, so the regular
+     * schedule can be resumed after the one-off execution. Repeated triggers keep the originally saved date.
+     *
+     * <p>The next process date of a task held by an execution is the lock of the execution, so it is not changed.
+     * The trigger is marked in {@link ScheduledTaskExtFields#EXECUTION_STATE} column and the task is made ready when
+     * the execution postpones it.
+     *
+     * @param queueId identity of the queue
+     * @return count of updated rows
+     */
+    int triggerNow(@Nonnull QueueId queueId);
+
+    /**
+     * Deletes the task record of a queue
+     *
+     * @param queueId identity of the queue
+     * @return count of deleted rows
+     */
+    int deleteQueueTask(@Nonnull QueueId queueId);
+
+    /**
+     * Deletes task records of all queues which queue names start with the given prefix
+     *
+     * @param queueNamePrefix prefix of queue names
+     * @return count of deleted rows
+     */
+    int deleteQueueTasks(@Nonnull String queueNamePrefix);
+
+    /**
+     * Picks a ready for execution task of a queue.
+     *
+     * <p>The method works the same way as {@link #pickTask(String, Duration)}, but picks a task by exact queue name.
+     *
+     * @param queueId identity of the queue
+     * @param retryInterval interval which the picked task is postponed for
+     * @return picked task or null if the task is not ready
+     */
+    @Nullable
+    TaskRecord pickTask(@Nonnull QueueId queueId, @Nonnull Duration retryInterval);
+
+    /**
+     * Picks a ready for execution task among the tasks which queue names start with the given prefix.
+     *
+     * <p>The picked task is postponed for {@code retryInterval} and its attempts counters are incremented - the same way as
+     * {@code db-queue} picks tasks with {@code LINEAR_BACKOFF} retry type. Queue name and next process date before picking
+     * are passed in {@link ScheduledTaskExtFields#QUEUE_NAME} and {@link ScheduledTaskExtFields#PLANNED_PROCESS_AT}
+     * ext data. The picked task is held by the execution until it is postponed, see
+     * {@link ScheduledTaskExtFields#EXECUTION_STATE}.
+     *
+     * <p>The method is supposed to be called within a transaction.
+     *
+     * @param queueNamePrefix prefix of queue names
+     * @param retryInterval interval which the picked task is postponed for
+     * @return picked task or null if there are no ready tasks
+     */
+    @Nullable
+    TaskRecord pickTask(@Nonnull String queueNamePrefix, @Nonnull Duration retryInterval);
+
+    /**
+     * Enqueues tasks of the given queues by batched inserts.
+     *
+     * <p>Lets a task template create task records of many instances at once. Tasks are inserted the same way
+     * as {@code db-queue} enqueues them, the queues are supposed to have no tasks yet.
+     *
+     * @param queueIds identities of the queues
+     * @param executionDelay execution delay of the tasks
+     * @param idSequence name of the sequence of task identifiers if the database requires it
+     * @return count of enqueued tasks
+     */
+    int enqueueQueueTasks(@Nonnull List<QueueId> queueIds, @Nonnull Duration executionDelay,
+                          @Nullable String idSequence);
+
+    /**
+     * Finds queue names of all tasks which queue names start with the given prefix
+     *
+     * @param queueNamePrefix prefix of queue names
+     * @return list of found queue names
+     */
+    List<String> findQueueNames(@Nonnull String queueNamePrefix);
+
     /**
      * Finds all records.
      *
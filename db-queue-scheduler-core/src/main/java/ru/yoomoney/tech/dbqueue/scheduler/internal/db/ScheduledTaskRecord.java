@@ -1,7 +1,10 @@
 package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Optional;
 
 import static java.util.Objects.requireNonNull;
 
@@ -31,13 +34,28 @@ public class ScheduledTaskRecord {
     @Nonnull
     private final Instant nextProcessAt;
 
+    /**
+     * Date and time of the regular execution postponed by a one-off execution
+     */
+    @Nullable
+    private final Instant resumeProcessAt;
+
+    /**
+     * Upper bound of the replication lag of the database the record is read from
+     */
+    @Nonnull
+    private final Duration staleness;
 
     private ScheduledTaskRecord(long id,
                                 @Nonnull String queueName,
-                                @Nonnull Instant nextProcessAt) {
+                                @Nonnull Instant nextProcessAt,
+                                @Nullable Instant resumeProcessAt,
+                                @Nonnull Duration staleness) {
         this.id = id;
         this.queueName = requireNonNull(queueName, "queueName");
         this.nextProcessAt = requireNonNull(nextProcessAt, "nextProcessAt");
+        this.resumeProcessAt = resumeProcessAt;
+        this.staleness = requireNonNull(staleness, "staleness");
     }
 
     /**
@@ -64,12 +82,24 @@ public class ScheduledTaskRecord {
         return nextProcessAt;
     }
 
+    @Nonnull
+    public Optional<Instant> getResumeProcessAt() {
+        return Optional.ofNullable(resumeProcessAt);
+    }
+
+    @Nonnull
+    public Duration getStaleness() {
+        return staleness;
+    }
+
     @Override
     public String toString() {
         return "ScheduledTaskRecord{" +
                 "id=" + id +
                 ", queueName='" + queueName + '\'' +
                 ", nextProcessAt=" + nextProcessAt +
+                ", resumeProcessAt=" + resumeProcessAt +
+                ", staleness=" + staleness +
                 '}';
     }
 
@@ -80,6 +110,8 @@ public class ScheduledTaskRecord {
         private long id;
         private String queueName;
         private Instant nextProcessAt;
+        private Instant resumeProcessAt;
+        private Duration staleness = Duration.ZERO;
 
         private Builder() {
         }
@@ -99,6 +131,22 @@ public class ScheduledTaskRecord {
             return this;
         }
 
+        public Builder withResumeProcessAt(@Nullable Instant resumeProcessAt) {
+            this.resumeProcessAt = resumeProcessAt;
+            return this;
+        }
+
+        /**
+         * Sets upper bound of the replication lag of the database the record is read from, zero by default
+         *
+         * @param staleness upper bound of the replication lag
+         * @return the same instance of {@link Builder}
+         */
+        public Builder withStaleness(@Nonnull Duration staleness) {
+            this.staleness = staleness;
+            return this;
+        }
+
         /**
          * Creates an object
          *
@@ -106,7 +154,7 @@ public class ScheduledTaskRecord {
          */
         @Nonnull
         public ScheduledTaskRecord build() {
-            return new ScheduledTaskRecord(id, queueName, nextProcessAt);
+            return new ScheduledTaskRecord(id, queueName, nextProcessAt, resumeProcessAt, staleness);
         }
     }
 }
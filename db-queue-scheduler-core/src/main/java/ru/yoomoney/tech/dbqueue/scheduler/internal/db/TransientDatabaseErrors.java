@@ -0,0 +1,63 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
+
+import javax.annotation.Nullable;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.Set;
+
+/**
+ * Classifier of database errors that are likely to disappear on retry.
+ *
+ * <p>The classifier walks the cause chain, so errors wrapped by data access frameworks are classified by the original
+ * {@link SQLException}: SQL states of serialization failures, deadlocks and connection exceptions, vendor codes
+ * of MSSQL and Oracle that report the same with a generic state, and transient or recoverable exception types
+ * of the JDBC driver or the connection pool.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+final class TransientDatabaseErrors {
+    private static final String SERIALIZATION_FAILURE_STATE = "40001";
+    private static final String POSTGRESQL_DEADLOCK_STATE = "40P01";
+    private static final String CONNECTION_EXCEPTION_STATE_CLASS = "08";
+    /**
+     * MSSQL deadlock victim, MSSQL snapshot update conflict, Oracle deadlock, Oracle serialization failure,
+     * Oracle connection reset and closed connection
+     */
+    private static final Set<Integer> TRANSIENT_VENDOR_CODES = Set.of(1205, 3960, 60, 8177, 17002, 17008);
+    private static final int MAX_CAUSE_DEPTH = 16;
+
+    private TransientDatabaseErrors() {
+    }
+
+    /**
+     * Checks if the error is transient
+     *
+     * @param error error of a query
+     * @return true if the query may succeed on retry otherwise false
+     */
+    static boolean isTransient(@Nullable Throwable error) {
+        Throwable cause = error;
+        for (int depth = 0; cause != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            if (cause instanceof SQLTransientException || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+            if (cause instanceof SQLException && isTransient((SQLException) cause)) {
+                return true;
+            }
+            cause = cause.getCause() == cause ? null : cause.getCause();
+        }
+        return false;
+    }
+
+    private static boolean isTransient(SQLException error) {
+        String sqlState = error.getSQLState();
+        if (sqlState != null && (sqlState.equals(SERIALIZATION_FAILURE_STATE)
+                || sqlState.equals(POSTGRESQL_DEADLOCK_STATE)
+                || sqlState.startsWith(CONNECTION_EXCEPTION_STATE_CLASS))) {
+            return true;
+        }
+        return TRANSIENT_VENDOR_CODES.contains(error.getErrorCode());
+    }
+}
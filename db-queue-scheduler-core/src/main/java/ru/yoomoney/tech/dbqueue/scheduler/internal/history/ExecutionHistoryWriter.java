@@ -0,0 +1,235 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.history;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yoomoney.tech.dbqueue.scheduler.config.ScheduledTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskExecutionHistoryDao;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskContext;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+import ru.yoomoney.tech.dbqueue.scheduler.models.info.ScheduledTaskExecutionInfo;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.ExecutionHistorySettings;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Listener that persists finished executions of scheduled tasks.
+ *
+ * <p>Executions are put into a bounded buffer by execution threads and are written by a single background thread in
+ * batches - either when a batch is full or when the flush interval elapses. The same thread periodically deletes
+ * outdated executions in chunks, so a single query never holds locks on the whole outdated part of the table.
+ *
+ * <p>Executions are dropped when the buffer is full or the database is not available - the history is a diagnostic
+ * tool and must not affect task executions.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class ExecutionHistoryWriter implements ScheduledTaskLifecycleListener {
+    private static final Logger log = LoggerFactory.getLogger(ExecutionHistoryWriter.class);
+
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+
+    private final ScheduledTaskExecutionHistoryDao executionHistoryDao;
+    private final ExecutionHistorySettings executionHistorySettings;
+    private final Clock clock;
+    private final BlockingQueue<ScheduledTaskExecutionInfo> buffer;
+    private final Map<ScheduledTaskIdentity, String> errorMessages = new ConcurrentHashMap<>();
+    private final AtomicLong droppedExecutionsCount = new AtomicLong();
+    private final Object mutex = new Object();
+
+    private volatile boolean running;
+    private Thread writerThread;
+    private Instant lastPruneTime = Instant.MIN;
+
+    public ExecutionHistoryWriter(@Nonnull ScheduledTaskExecutionHistoryDao executionHistoryDao,
+                                  @Nonnull ExecutionHistorySettings executionHistorySettings) {
+        this(executionHistoryDao, executionHistorySettings, Clock.systemUTC());
+    }
+
+    public ExecutionHistoryWriter(@Nonnull ScheduledTaskExecutionHistoryDao executionHistoryDao,
+                                  @Nonnull ExecutionHistorySettings executionHistorySettings,
+                                  @Nonnull Clock clock) {
+        this.executionHistoryDao = requireNonNull(executionHistoryDao, "executionHistoryDao");
+        this.executionHistorySettings = requireNonNull(executionHistorySettings, "executionHistorySettings");
+        this.clock = requireNonNull(clock, "clock");
+        this.buffer = new ArrayBlockingQueue<>(executionHistorySettings.getBufferSize());
+    }
+
+    /**
+     * Starts the background writing
+     */
+    public void start() {
+        synchronized (mutex) {
+            if (running) {
+                return;
+            }
+            running = true;
+            writerThread = new Thread(this::writeExecutions);
+            writerThread.setName("scheduler-execution-history-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        }
+    }
+
+    /**
+     * Stops the background writing and writes buffered executions
+     */
+    public void shutdown() {
+        Thread thread;
+        synchronized (mutex) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            thread = writerThread;
+            writerThread = null;
+        }
+        try {
+            // the thread is not interrupted since it might be blocked by a query
+            thread.join(executionHistorySettings.getFlushInterval().toMillis() * 2L);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * Get count of executions that were not persisted
+     *
+     * @return count of dropped executions
+     */
+    public long getDroppedExecutionsCount() {
+        return droppedExecutionsCount.get();
+    }
+
+    /**
+     * Clears the error left by a previous execution.
+     *
+     * <p>Also handles {@link #started(ScheduledTaskIdentity, ScheduledTaskContext, java.time.Duration)}, which delegates here
+     * by default and is the only overload called by the scheduler.
+     */
+    @Override
+    public void started(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull ScheduledTaskContext taskContext) {
+        errorMessages.remove(taskIdentity);
+    }
+
+    @Override
+    public void finished(@Nonnull ScheduledTaskIdentity taskIdentity,
+                         @Nonnull ScheduledTaskContext taskContext,
+                         @Nonnull ScheduledTaskExecutionResult executionResult,
+                         @Nonnull Instant nextExecutionTime,
+                         long processTaskTimeInMills) {
+        if (!running) {
+            droppedExecutionsCount.incrementAndGet();
+            return;
+        }
+        Instant finishedAt = clock.instant();
+        ScheduledTaskExecutionInfo execution = ScheduledTaskExecutionInfo.builder()
+                .withIdentity(taskIdentity)
+                .withStartedAt(finishedAt.minusMillis(processTaskTimeInMills))
+                .withFinishedAt(finishedAt)
+                .withResultType(executionResult.getType())
+                .withErrorMessage(errorMessages.remove(taskIdentity))
+                .build();
+        if (!buffer.offer(execution)) {
+            droppedExecutionsCount.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void crashed(@Nonnull ScheduledTaskIdentity taskIdentity,
+                        @Nonnull ScheduledTaskContext taskContext,
+                        @Nullable Throwable exc) {
+        if (exc == null) {
+            return;
+        }
+        String errorMessage = String.valueOf(exc);
+        errorMessages.put(taskIdentity, errorMessage.length() > MAX_ERROR_MESSAGE_LENGTH
+                ? errorMessage.substring(0, MAX_ERROR_MESSAGE_LENGTH)
+                : errorMessage);
+    }
+
+    private void writeExecutions() {
+        long flushIntervalMillis = executionHistorySettings.getFlushInterval().toMillis();
+        while (running) {
+            try {
+                ScheduledTaskExecutionInfo execution = buffer.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                List<ScheduledTaskExecutionInfo> batch = new ArrayList<>(executionHistorySettings.getBatchSize());
+                if (execution != null) {
+                    batch.add(execution);
+                    // the wait for a batch is real, so it is measured by the monotonic timer rather than the clock
+                    long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                    while (batch.size() < executionHistorySettings.getBatchSize()
+                            && deadlineNanos - System.nanoTime() > 0L) {
+                        buffer.drainTo(batch, executionHistorySettings.getBatchSize() - batch.size());
+                        if (batch.size() < executionHistorySettings.getBatchSize()) {
+                            ScheduledTaskExecutionInfo next = buffer.poll(
+                                    deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+                            if (next != null) {
+                                batch.add(next);
+                            }
+                        }
+                    }
+                }
+                insert(batch);
+                pruneIfNeeded();
+            } catch (InterruptedException ex) {
+                log.info("execution history writer interrupted");
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void flush() {
+        List<ScheduledTaskExecutionInfo> batch = new ArrayList<>(executionHistorySettings.getBatchSize());
+        while (buffer.drainTo(batch, executionHistorySettings.getBatchSize()) > 0) {
+            insert(batch);
+            batch.clear();
+        }
+    }
+
+    private void insert(List<ScheduledTaskExecutionInfo> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            executionHistoryDao.insert(batch);
+        } catch (RuntimeException ex) {
+            droppedExecutionsCount.addAndGet(batch.size());
+            log.warn("failed to write execution history: batchSize={}", batch.size(), ex);
+        }
+    }
+
+    private void pruneIfNeeded() {
+        Instant now = clock.instant();
+        if (lastPruneTime.plus(executionHistorySettings.getPruneInterval()).isAfter(now)) {
+            return;
+        }
+        lastPruneTime = now;
+        Instant finishedBefore = now.minus(executionHistorySettings.getRetention());
+        int chunkSize = executionHistorySettings.getPruneChunkSize();
+        try {
+            int deletedCount;
+            do {
+                deletedCount = executionHistoryDao.deleteFinishedBefore(finishedBefore, chunkSize);
+            } while (running && deletedCount >= chunkSize);
+        } catch (RuntimeException ex) {
+            log.warn("failed to prune execution history: finishedBefore={}", finishedBefore, ex);
+        }
+    }
+}
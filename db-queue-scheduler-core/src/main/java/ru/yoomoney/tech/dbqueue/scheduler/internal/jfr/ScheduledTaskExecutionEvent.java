@@ -0,0 +1,40 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event of a scheduled task execution, including listeners calls and rescheduling
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+@Name("ru.yoomoney.tech.dbqueue.scheduler.TaskExecution")
+@Label("Scheduled Task Execution")
+@Category("db-queue-scheduler")
+@Description("Execution of a scheduled task")
+public class ScheduledTaskExecutionEvent extends Event {
+    @Label("Task Identity")
+    public String taskIdentity;
+
+    @Label("Result Type")
+    public String resultType;
+
+    @Label("One-off Execution")
+    public boolean oneOffExecution;
+
+    @Label("Attempts Count")
+    public long attemptsCount;
+
+    @Label("Schedule Lag")
+    @Timespan(Timespan.MILLISECONDS)
+    public long scheduleLag;
+
+    @Label("Next Execution Delay")
+    @Timespan(Timespan.MILLISECONDS)
+    public long nextExecutionDelay;
+}
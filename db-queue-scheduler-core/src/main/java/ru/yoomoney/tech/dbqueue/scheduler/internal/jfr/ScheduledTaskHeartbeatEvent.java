@@ -0,0 +1,33 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event of a heartbeat that postpones next execution time of a running task
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+@Name("ru.yoomoney.tech.dbqueue.scheduler.TaskHeartbeat")
+@Label("Scheduled Task Heartbeat")
+@Category("db-queue-scheduler")
+@Description("Heartbeat of a running scheduled task")
+public class ScheduledTaskHeartbeatEvent extends Event {
+    @Label("Task Identity")
+    public String taskIdentity;
+
+    @Label("Next Execution Delay")
+    @Timespan(Timespan.MILLISECONDS)
+    public long nextExecutionDelay;
+
+    @Label("Rows Updated")
+    public int rowsUpdated;
+
+    @Label("Successful")
+    public boolean successful;
+}
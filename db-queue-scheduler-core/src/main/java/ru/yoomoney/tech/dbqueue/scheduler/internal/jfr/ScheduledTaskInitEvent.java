@@ -0,0 +1,28 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a scheduled task initialisation - enqueueing task records that do not exist yet
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+@Name("ru.yoomoney.tech.dbqueue.scheduler.TaskInit")
+@Label("Scheduled Task Init")
+@Category("db-queue-scheduler")
+@Description("Initialisation of scheduled task records")
+public class ScheduledTaskInitEvent extends Event {
+    @Label("Task Identity")
+    public String taskIdentity;
+
+    @Label("Rows Inserted")
+    public int rowsInserted;
+
+    @Label("Successful")
+    public boolean successful;
+}
@@ -0,0 +1,33 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a database query executed by the scheduler
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+@Name("ru.yoomoney.tech.dbqueue.scheduler.Query")
+@Label("Scheduler Query")
+@Category("db-queue-scheduler")
+@Description("Database query executed by the scheduler")
+public class ScheduledTaskQueryEvent extends Event {
+    @Label("Query Name")
+    public String queryName;
+
+    @Label("Queue Name")
+    @Description("Queue name or queue name prefix the query is executed for")
+    public String queueName;
+
+    @Label("Rows")
+    @Description("Count of updated or fetched rows")
+    public int rows;
+
+    @Label("Successful")
+    public boolean successful;
+}
@@ -0,0 +1,117 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.queue;
+
+import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
+import ru.yoomoney.tech.dbqueue.api.Task;
+import ru.yoomoney.tech.dbqueue.api.TaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.api.TaskPayloadTransformer;
+import ru.yoomoney.tech.dbqueue.api.impl.NoopPayloadTransformer;
+import ru.yoomoney.tech.dbqueue.settings.QueueConfig;
+
+import javax.annotation.Nonnull;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Consumer that is registered in {@code db-queue} on behalf of a scheduled task.
+ *
+ * <p>{@code db-queue} does not allow to unregister a queue, so the registered consumer stays the same during the whole
+ * application lifetime whereas the consumer of the scheduled task might be replaced when the task is updated or
+ * scheduled again after unscheduling. The consumer of an unscheduled task is replaced with a no-op one, so the
+ * registered consumer does not hold resources of the task.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class DelegatingQueueConsumer implements QueueConsumer<String> {
+    private final QueueConfig queueConfig;
+    private final boolean template;
+    private volatile QueueConsumer<String> delegate;
+
+    public DelegatingQueueConsumer(@Nonnull QueueConsumer<String> delegate, boolean template) {
+        this.delegate = requireNonNull(delegate, "delegate");
+        this.queueConfig = delegate.getQueueConfig();
+        this.template = template;
+    }
+
+    /**
+     * Checks whether the queue picks tasks of a task template
+     *
+     * @return true if the queue is registered on behalf of a task template
+     */
+    public boolean isTemplate() {
+        return template;
+    }
+
+    /**
+     * Replaces the consumer of the scheduled task
+     *
+     * @param delegate new consumer of the scheduled task
+     */
+    public void setDelegate(@Nonnull QueueConsumer<String> delegate) {
+        requireNonNull(delegate, "delegate");
+        if (!queueConfig.getLocation().getQueueId().equals(delegate.getQueueConfig().getLocation().getQueueId())) {
+            throw new IllegalArgumentException(String.format("consumer of another queue: expected=%s, actual=%s",
+                    queueConfig.getLocation().getQueueId(), delegate.getQueueConfig().getLocation().getQueueId()));
+        }
+        releaseDelegate(this.delegate);
+        this.delegate = delegate;
+    }
+
+    /**
+     * Replaces the consumer of the scheduled task with a no-op one that leaves picked tasks as they are
+     */
+    public void release() {
+        releaseDelegate(this.delegate);
+        this.delegate = new NoopQueueConsumer(queueConfig);
+    }
+
+    private static void releaseDelegate(QueueConsumer<String> delegate) {
+        if (delegate instanceof ScheduledTaskQueueConsumer) {
+            ((ScheduledTaskQueueConsumer) delegate).release();
+        }
+    }
+
+    @Nonnull
+    @Override
+    public TaskExecutionResult execute(@Nonnull Task<String> task) {
+        return delegate.execute(task);
+    }
+
+    @Nonnull
+    @Override
+    public QueueConfig getQueueConfig() {
+        return queueConfig;
+    }
+
+    @Nonnull
+    @Override
+    public TaskPayloadTransformer<String> getPayloadTransformer() {
+        return delegate.getPayloadTransformer();
+    }
+
+    private static class NoopQueueConsumer implements QueueConsumer<String> {
+        private final QueueConfig queueConfig;
+
+        private NoopQueueConsumer(QueueConfig queueConfig) {
+            this.queueConfig = queueConfig;
+        }
+
+        @Nonnull
+        @Override
+        public TaskExecutionResult execute(@Nonnull Task<String> task) {
+            return TaskExecutionResult.fail();
+        }
+
+        @Nonnull
+        @Override
+        public QueueConfig getQueueConfig() {
+            return queueConfig;
+        }
+
+        @Nonnull
+        @Override
+        public TaskPayloadTransformer<String> getPayloadTransformer() {
+            return NoopPayloadTransformer.getInstance();
+        }
+    }
+}
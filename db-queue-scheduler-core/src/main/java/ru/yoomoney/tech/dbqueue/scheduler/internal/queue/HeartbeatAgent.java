@@ -2,14 +2,19 @@ package ru.yoomoney.tech.dbqueue.scheduler.internal.queue;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerTimeSource;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.SystemSchedulerTimeSource;
 
 import javax.annotation.Nonnull;
 import java.time.Duration;
+import java.util.function.BooleanSupplier;
 
 import static java.util.Objects.requireNonNull;
 
 /**
- * Simple implementation of a heartbeat agent
+ * Simple implementation of a heartbeat agent.
+ *
+ * <p>A failed heartbeat, namely an action that returned false or threw an error, is retried after the retry interval.
  *
  * @author Petr Zinin pgzinin@yoomoney.ru
  * @since 25.11.2021
@@ -17,21 +22,38 @@ import static java.util.Objects.requireNonNull;
 class HeartbeatAgent {
     private static final Logger log = LoggerFactory.getLogger(HeartbeatAgent.class);
 
-    private static final long ALLOWABLE_WAITING_ERROR_IN_MILLS = 50L;
-
     private final String name;
     private final Duration heartbeatInterval;
-    private final Runnable heartbeatAction;
-    private final Object mutex;
+    private final Duration retryInterval;
+    private final BooleanSupplier heartbeatAction;
+    private final SchedulerTimeSource timeSource;
+    private volatile SchedulerTimeSource.Sleeper sleeper;
     private volatile boolean isTaskRunning;
 
     HeartbeatAgent(@Nonnull String name,
                    @Nonnull Duration heartbeatInterval,
                    @Nonnull Runnable heartbeatAction) {
+        this(name, heartbeatInterval, heartbeatAction, SystemSchedulerTimeSource.getInstance());
+    }
+
+    HeartbeatAgent(@Nonnull String name,
+                   @Nonnull Duration heartbeatInterval,
+                   @Nonnull Runnable heartbeatAction,
+                   @Nonnull SchedulerTimeSource timeSource) {
+        this(name, heartbeatInterval, heartbeatInterval,
+                toBooleanSupplier(requireNonNull(heartbeatAction, "heartbeatAction")), timeSource);
+    }
+
+    HeartbeatAgent(@Nonnull String name,
+                   @Nonnull Duration heartbeatInterval,
+                   @Nonnull Duration retryInterval,
+                   @Nonnull BooleanSupplier heartbeatAction,
+                   @Nonnull SchedulerTimeSource timeSource) {
         this.name = requireNonNull(name, "name");
         this.heartbeatInterval = requireNonNull(heartbeatInterval, "heartbeatInterval");
+        this.retryInterval = requireNonNull(retryInterval, "retryInterval");
         this.heartbeatAction = requireNonNull(heartbeatAction, "heartbeatAction");
-        this.mutex = new Object();
+        this.timeSource = requireNonNull(timeSource, "timeSource");
         this.isTaskRunning = false;
     }
 
@@ -43,27 +65,26 @@ class HeartbeatAgent {
             throw new RuntimeException("unexpected agent state. the previous execution must be finished: name=" + name);
         }
         isTaskRunning = true;
+        SchedulerTimeSource.Sleeper taskSleeper = timeSource.createSleeper();
+        sleeper = taskSleeper;
         // tasks are rarely executed
-        Thread thread = new Thread(this::doHeartbeats);
+        Thread thread = new Thread(() -> doHeartbeats(taskSleeper));
         thread.setName("heartbeat-agent-" + name);
         thread.start();
     }
 
-    private void doHeartbeats() {
+    private void doHeartbeats(SchedulerTimeSource.Sleeper taskSleeper) {
         while (isTaskRunning) {
+            boolean successful;
             try {
-                heartbeatAction.run();
+                successful = heartbeatAction.getAsBoolean();
             } catch (RuntimeException ex) {
                 log.warn("failed to run heartbeat action. that might lead to race conditions: name={}", name, ex);
+                successful = false;
             }
             try {
-                synchronized (mutex) {
-                    long remainingMills = heartbeatInterval.toMillis();
-                    while (isTaskRunning && remainingMills > ALLOWABLE_WAITING_ERROR_IN_MILLS) {
-                        long start = System.currentTimeMillis();
-                        mutex.wait(remainingMills);
-                        remainingMills -= System.currentTimeMillis() - start;
-                    }
+                if (!taskSleeper.sleep(successful ? heartbeatInterval : retryInterval)) {
+                    return;
                 }
             } catch (InterruptedException ex) {
                 log.info("agent thread interrupted: name={}", name, ex);
@@ -77,9 +98,17 @@ class HeartbeatAgent {
      * Stop heart beating
      */
     public void stop() {
-        synchronized (mutex) {
-            isTaskRunning = false;
-            mutex.notifyAll();
+        isTaskRunning = false;
+        SchedulerTimeSource.Sleeper taskSleeper = sleeper;
+        if (taskSleeper != null) {
+            taskSleeper.wakeUp();
         }
     }
+
+    private static BooleanSupplier toBooleanSupplier(Runnable heartbeatAction) {
+        return () -> {
+            heartbeatAction.run();
+            return true;
+        };
+    }
 }
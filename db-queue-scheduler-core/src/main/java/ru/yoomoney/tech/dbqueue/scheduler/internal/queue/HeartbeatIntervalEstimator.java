@@ -0,0 +1,77 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.queue;
+
+import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.TaskRecordCache;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.HeartbeatSettings;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Estimator of the heartbeat interval by observed processing time of the task.
+ *
+ * <p>The estimate is an exponentially weighted moving average of processing time kept in a {@link TaskRecordCache}.
+ * Most executions finish within the lock extension of two intervals, so
+ * the lock of a crashed execution expires soon while fast tasks rarely do periodic heartbeats.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class HeartbeatIntervalEstimator {
+    /**
+     * Weight of the last observation
+     */
+    private static final double SMOOTHING_FACTOR = 0.3;
+
+    private final HeartbeatSettings heartbeatSettings;
+    private final TaskRecordCache<Double> averageProcessingMillis = new TaskRecordCache<>();
+
+    HeartbeatIntervalEstimator(@Nonnull HeartbeatSettings heartbeatSettings) {
+        this.heartbeatSettings = requireNonNull(heartbeatSettings, "heartbeatSettings");
+    }
+
+    /**
+     * Registers processing time of an execution
+     *
+     * @param taskQueueName queue name of the task record
+     * @param processingTime processing time of the execution
+     */
+    void processingTimeMeasured(@Nonnull String taskQueueName, @Nonnull Duration processingTime) {
+        requireNonNull(taskQueueName, "taskQueueName");
+        double processingMillis = requireNonNull(processingTime, "processingTime").toMillis();
+        averageProcessingMillis.compute(taskQueueName, (key, previous) -> previous == null
+                ? processingMillis
+                : previous + SMOOTHING_FACTOR * (processingMillis - previous));
+    }
+
+    /**
+     * Estimates the heartbeat interval of the task
+     *
+     * @param taskQueueName queue name of the task record
+     * @return the average processing time rounded up to seconds and bounded by settings or the max interval if the task was not measured yet
+     */
+    @Nonnull
+    Duration getHeartbeatInterval(@Nonnull String taskQueueName) {
+        Double processingMillis = averageProcessingMillis.get(requireNonNull(taskQueueName, "taskQueueName"));
+        if (processingMillis == null) {
+            return heartbeatSettings.getMaxInterval();
+        }
+        // the task record is postponed by whole seconds
+        Duration interval = Duration.ofSeconds((long) Math.ceil(processingMillis / 1000.0));
+        if (interval.compareTo(heartbeatSettings.getMinInterval()) < 0) {
+            return heartbeatSettings.getMinInterval();
+        }
+        if (interval.compareTo(heartbeatSettings.getMaxInterval()) > 0) {
+            return heartbeatSettings.getMaxInterval();
+        }
+        return interval;
+    }
+
+    /**
+     * Forgets processing time of all tasks
+     */
+    void clear() {
+        averageProcessingMillis.clear();
+    }
+}
@@ -0,0 +1,107 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.queue;
+
+import javax.annotation.Nonnull;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Tracker of failed heartbeats of a single execution.
+ *
+ * <p>The task is locked by the pick until the initial lock expiration time. A successful heartbeat keeps the task
+ * locked for the lock extension since the heartbeat start. When cancellation is enabled, the execution thread
+ * is interrupted once the lock is lost or once the next retry of a failed heartbeat would come after the lock
+ * expiration - another node is free to pick the task at that moment.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class HeartbeatLossTracker {
+    private final Duration lockExtension;
+    private final Duration retryInterval;
+    private final boolean cancellationEnabled;
+    private final Thread executionThread;
+    private final Clock clock;
+    private final Object mutex = new Object();
+
+    private Instant lockExpirationTime;
+    private int consecutiveFailuresCount;
+    private boolean executionRunning;
+    private boolean cancelled;
+
+    HeartbeatLossTracker(@Nonnull Duration lockExtension,
+                         @Nonnull Duration retryInterval,
+                         @Nonnull Instant lockExpirationTime,
+                         boolean cancellationEnabled,
+                         @Nonnull Thread executionThread,
+                         @Nonnull Clock clock) {
+        this.lockExtension = requireNonNull(lockExtension, "lockExtension");
+        this.retryInterval = requireNonNull(retryInterval, "retryInterval");
+        this.cancellationEnabled = cancellationEnabled;
+        this.executionThread = requireNonNull(executionThread, "executionThread");
+        this.clock = requireNonNull(clock, "clock");
+        this.lockExpirationTime = requireNonNull(lockExpirationTime, "lockExpirationTime");
+        this.executionRunning = true;
+    }
+
+    /**
+     * Registers a successful heartbeat and resets the failures counter
+     *
+     * @param heartbeatStartTime time the heartbeat update was started at
+     */
+    void heartbeatSucceeded(@Nonnull Instant heartbeatStartTime) {
+        synchronized (mutex) {
+            consecutiveFailuresCount = 0;
+            lockExpirationTime = heartbeatStartTime.plus(lockExtension);
+        }
+    }
+
+    /**
+     * Registers a failed heartbeat and cancels the execution if it is required
+     *
+     * @param lockLost true if the heartbeat was rejected because the task was picked again
+     * @return count of consecutive failed heartbeats including the current one
+     */
+    int heartbeatFailed(boolean lockLost) {
+        synchronized (mutex) {
+            consecutiveFailuresCount++;
+            boolean lockExpiring = !clock.instant().plus(retryInterval).isBefore(lockExpirationTime);
+            if (cancellationEnabled && executionRunning && !cancelled && (lockLost || lockExpiring)) {
+                cancelled = true;
+                executionThread.interrupt();
+            }
+            return consecutiveFailuresCount;
+        }
+    }
+
+    /**
+     * Get time the task is locked until by the pick or by the last successful heartbeat
+     *
+     * @return lock expiration time by the clock of the node
+     */
+    @Nonnull
+    Instant getLockExpirationTime() {
+        synchronized (mutex) {
+            return lockExpirationTime;
+        }
+    }
+
+    /**
+     * Registers the end of the execution, must be called by the execution thread.
+     *
+     * <p>The interruption flag of the cancelled execution is cleared, so it does not leak into the consumer thread.
+     *
+     * @return true if the execution was cancelled otherwise false
+     */
+    boolean executionFinished() {
+        synchronized (mutex) {
+            executionRunning = false;
+            if (cancelled) {
+                Thread.interrupted();
+            }
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.queue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerTimeSource;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Timer that arms heartbeats of executions that outlive their grace period.
+ *
+ * <p>The timer is shared by consumers of a scheduler. It waits by the time source on a single thread that is started
+ * on demand and is kept alive while timeouts keep coming, so frequent short executions reuse the thread, and
+ * an execution that finishes within its grace period costs neither a heartbeat query nor a thread start.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class HeartbeatTimer {
+    private static final Logger log = LoggerFactory.getLogger(HeartbeatTimer.class);
+    /**
+     * Time the idle timer thread waits for new timeouts before it finishes
+     */
+    static final Duration KEEP_ALIVE = Duration.ofMinutes(1L);
+
+    private final SchedulerTimeSource timeSource;
+    private final Object mutex = new Object();
+    private final PriorityQueue<Timeout> timeouts =
+            new PriorityQueue<>(Comparator.comparing((Timeout timeout) -> timeout.dueTime));
+    private SchedulerTimeSource.Sleeper sleeper;
+    private Thread timerThread;
+    private Timeout runningTimeout;
+
+    HeartbeatTimer(@Nonnull SchedulerTimeSource timeSource) {
+        this.timeSource = requireNonNull(timeSource, "timeSource");
+    }
+
+    /**
+     * Schedules an action.
+     *
+     * <p>The action is run on the timer thread outside of the timer lock, it must be short and must not block.
+     *
+     * @param delay delay of the action
+     * @param action action to run
+     * @return timeout that allows to cancel the action
+     */
+    @Nonnull
+    Timeout schedule(@Nonnull Duration delay, @Nonnull Runnable action) {
+        requireNonNull(delay, "delay");
+        requireNonNull(action, "action");
+        synchronized (mutex) {
+            Timeout timeout = new Timeout(timeSource.getClock().instant().plus(delay), action);
+            timeouts.add(timeout);
+            if (timerThread == null) {
+                timerThread = new Thread(this::runTimeouts);
+                timerThread.setName("heartbeat-timer");
+                timerThread.setDaemon(true);
+                timerThread.start();
+            } else if (sleeper != null && timeouts.peek() == timeout) {
+                sleeper.wakeUp();
+            }
+            return timeout;
+        }
+    }
+
+    private void runTimeouts() {
+        Instant idleDeadline = null;
+        while (true) {
+            SchedulerTimeSource.Sleeper currentSleeper;
+            Duration delay;
+            Timeout dueTimeout;
+            synchronized (mutex) {
+                Instant now = timeSource.getClock().instant();
+                if (timeouts.isEmpty()) {
+                    if (idleDeadline == null) {
+                        idleDeadline = now.plus(KEEP_ALIVE);
+                    }
+                    if (!now.isBefore(idleDeadline)) {
+                        finish();
+                        return;
+                    }
+                    dueTimeout = null;
+                    delay = Duration.between(now, idleDeadline);
+                } else {
+                    idleDeadline = null;
+                    dueTimeout = timeouts.peek().dueTime.isAfter(now) ? null : timeouts.poll();
+                    delay = dueTimeout == null ? Duration.between(now, timeouts.peek().dueTime) : Duration.ZERO;
+                }
+                runningTimeout = dueTimeout;
+                // a sleeper stays woken up once it was woken up, so every wait has its own one
+                currentSleeper = dueTimeout == null ? timeSource.createSleeper() : null;
+                sleeper = currentSleeper;
+            }
+            if (dueTimeout != null) {
+                runAction(dueTimeout);
+                synchronized (mutex) {
+                    runningTimeout = null;
+                    mutex.notifyAll();
+                }
+                continue;
+            }
+            try {
+                currentSleeper.sleep(delay);
+            } catch (InterruptedException ex) {
+                log.info("heartbeat timer interrupted", ex);
+                Thread.currentThread().interrupt();
+                // pending timeouts are run by a thread started on the next schedule
+                synchronized (mutex) {
+                    finish();
+                }
+                return;
+            }
+        }
+    }
+
+    private void finish() {
+        timerThread = null;
+        sleeper = null;
+    }
+
+    private static void runAction(Timeout timeout) {
+        try {
+            timeout.action.run();
+        } catch (RuntimeException ex) {
+            log.warn("failed to run heartbeat timer action", ex);
+        }
+    }
+
+    /**
+     * Scheduled action of the timer
+     */
+    final class Timeout {
+        private final Instant dueTime;
+        private final Runnable action;
+
+        private Timeout(Instant dueTime, Runnable action) {
+            this.dueTime = dueTime;
+            this.action = action;
+        }
+
+        /**
+         * Cancels the action.
+         *
+         * <p>When the method returns, the action either has been run completely or will never be run. A running action
+         * is awaited unless the method is called by the action itself.
+         */
+        void cancel() {
+            boolean interrupted = false;
+            synchronized (mutex) {
+                // the idle thread is kept alive, so it is not woken up when there are no pending timeouts
+                timeouts.remove(this);
+                while (runningTimeout == this && Thread.currentThread() != timerThread) {
+                    try {
+                        mutex.wait();
+                    } catch (InterruptedException ex) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
 import ru.yoomoney.tech.dbqueue.settings.QueueId;
 
 import javax.annotation.Nonnull;
+import java.util.Optional;
 
 /**
  * Mapper {@link QueueId} to {@link ScheduledTaskIdentity} and vice versa.
@@ -11,6 +12,10 @@ import javax.annotation.Nonnull;
  * <p>Scheduled tasks is built on top of {@code db-queue} library. Each scheduled task has its own db-queue queue.
  * The mapper encapsulates identifiers` transforming logic.
  *
+ * <p>Instances of a task template share the template queue, but each instance has its own task record which queue name
+ * is the instance identity - the template identity followed by {@link ScheduledTaskIdentity#INSTANCE_KEY_SEPARATOR} and
+ * the instance key.
+ *
  * @author Petr Zinin pgzinin@yoomoney.ru
  * @since 01.11.2021
  */
@@ -34,4 +39,40 @@ public class QueueIdMapper {
     public ScheduledTaskIdentity toScheduledTaskIdentity(@Nonnull QueueId queueId) {
         return ScheduledTaskIdentity.of(queueId.asString());
     }
+
+    /**
+     * Creates {@link QueueId} of a task template instance
+     *
+     * @param templateIdentity identity of a task template
+     * @param instanceKey key of the instance
+     * @return queue name of the instance task record
+     */
+    public QueueId toInstanceQueueId(@Nonnull ScheduledTaskIdentity templateIdentity, @Nonnull String instanceKey) {
+        return toQueueId(templateIdentity.instance(instanceKey));
+    }
+
+    /**
+     * Creates common prefix of queue names of all task template instances
+     *
+     * @param templateQueueId identity of a task template queue
+     * @return queue name prefix
+     */
+    public String toInstanceQueueNamePrefix(@Nonnull QueueId templateQueueId) {
+        return templateQueueId.asString() + ScheduledTaskIdentity.INSTANCE_KEY_SEPARATOR;
+    }
+
+    /**
+     * Extracts the instance key from a queue name of a task template instance
+     *
+     * @param templateQueueId identity of a task template queue
+     * @param instanceQueueId queue name of the instance task record
+     * @return instance key or empty if the queue name does not belong to the template
+     */
+    public Optional<String> toInstanceKey(@Nonnull QueueId templateQueueId, @Nonnull QueueId instanceQueueId) {
+        String prefix = toInstanceQueueNamePrefix(templateQueueId);
+        String instanceQueueName = instanceQueueId.asString();
+        return instanceQueueName.startsWith(prefix)
+                ? Optional.of(instanceQueueName.substring(prefix.length()))
+                : Optional.empty();
+    }
 }
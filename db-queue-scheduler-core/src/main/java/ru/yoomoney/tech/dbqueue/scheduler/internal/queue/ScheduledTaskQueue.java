@@ -7,6 +7,7 @@ import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
 import ru.yoomoney.tech.dbqueue.api.QueueProducer;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.ScheduledTaskDefinition;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskQueueDao;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.jfr.ScheduledTaskInitEvent;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.ScheduledTaskExecutionContext;
 import ru.yoomoney.tech.dbqueue.settings.QueueConfig;
 
@@ -50,18 +51,37 @@ public class ScheduledTaskQueue {
      * Initialises periodic tasks
      */
     public void initTask() {
+        ScheduledTaskInitEvent initEvent = new ScheduledTaskInitEvent();
+        initEvent.begin();
+        int rowsInserted = 0;
+        boolean successful = false;
         try {
-            doInitTask();
-        } catch (RuntimeException ex) {
-            log.warn("failed to init task: taskDefinition={}", taskDefinition, ex);
-            doInitTask();
+            try {
+                rowsInserted = doInitTask();
+            } catch (RuntimeException ex) {
+                log.warn("failed to init task: taskDefinition={}", taskDefinition, ex);
+                rowsInserted = doInitTask();
+            }
+            successful = true;
+        } finally {
+            if (initEvent.shouldCommit()) {
+                initEvent.taskIdentity = taskDefinition.getIdentity().asString();
+                initEvent.rowsInserted = rowsInserted;
+                initEvent.successful = successful;
+                initEvent.commit();
+            }
         }
     }
 
-    private void doInitTask() {
+    /**
+     * Enqueues the periodic task if it has not been enqueued yet
+     *
+     * @return count of enqueued task records
+     */
+    protected int doInitTask() {
         if (scheduledQueueDao.findQueueTask(queueConfig.getLocation().getQueueId()).isPresent()) {
             log.debug("scheduled task already enqueued: taskDefinition={}", taskDefinition);
-            return;
+            return 0;
         }
 
         ScheduledTaskExecutionContext taskExecutionContext = new ScheduledTaskExecutionContext();
@@ -69,6 +89,7 @@ public class ScheduledTaskQueue {
                 taskDefinition.getNextExecutionDelayProvider().getNextExecutionDelay(taskExecutionContext));
         queueProducer.enqueue(new EnqueueParams<String>().withExecutionDelay(nextExecutionDelay));
         log.debug("scheduled task enqueued: taskDefinition={}, nextExecutionDelay={}", taskDefinition, nextExecutionDelay);
+        return 1;
     }
 
     private Duration roundToSeconds(Duration duration) {
@@ -76,12 +97,31 @@ public class ScheduledTaskQueue {
         return truncatedToSeconds.equals(duration) ? truncatedToSeconds : truncatedToSeconds.plusSeconds(1L);
     }
 
+    /**
+     * Checks if the scheduled task is enabled on the current application node
+     *
+     * @return true if the task is enabled otherwise false
+     */
+    public boolean isEnabled() {
+        return taskDefinition.isEnabled();
+    }
+
+    /**
+     * Get definition of the scheduled task
+     *
+     * @return definition of the scheduled task
+     */
+    @Nonnull
+    public ScheduledTaskDefinition getTaskDefinition() {
+        return taskDefinition;
+    }
+
     /**
      * Get backed {@link QueueConsumer}
      * @return queue's consumer
      */
     @Nonnull
-    public QueueConsumer<?> getQueueConsumer() {
+    public QueueConsumer<String> getQueueConsumer() {
         return queueConsumer;
     }
 }
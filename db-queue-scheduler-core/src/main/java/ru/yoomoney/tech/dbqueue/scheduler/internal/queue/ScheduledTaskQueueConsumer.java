@@ -8,18 +8,31 @@ import ru.yoomoney.tech.dbqueue.api.TaskExecutionResult;
 import ru.yoomoney.tech.dbqueue.api.TaskPayloadTransformer;
 import ru.yoomoney.tech.dbqueue.api.impl.NoopPayloadTransformer;
 import ru.yoomoney.tech.dbqueue.scheduler.config.ScheduledTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerInstrumentation;
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerTimeSource;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.NoopSchedulerInstrumentation;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.SystemSchedulerTimeSource;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.ScheduledTaskDefinition;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskExtFields;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskQueueDao;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.jfr.ScheduledTaskExecutionEvent;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.jfr.ScheduledTaskHeartbeatEvent;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.ScheduledTaskExecutionContext;
 import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTask;
 import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskContext;
 import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.LeaseSettings;
 import ru.yoomoney.tech.dbqueue.settings.QueueConfig;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.time.Clock;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.util.Objects.requireNonNull;
 
@@ -29,6 +42,31 @@ import static java.util.Objects.requireNonNull;
  * <p>When the consumer receives {@link Task}, it executes linked {@link ScheduledTask},
  * then schedules next execution of the task.
  *
+ * <p>The consumer of a task template executes all its instances - the instance is resolved by queue name of the task
+ * record.
+ *
+ * <p>One-off executions triggered out of the schedule do not change the schedule - the consumer resumes the regular
+ * execution postponed by the trigger when it postpones the task after a successful execution. A task triggered while
+ * it is executed is made ready by the same postponing, see {@link ScheduledTaskExtFields#EXECUTION_STATE}.
+ *
+ * <p>Heartbeats and completion updates of the task record are conditional on the execution epoch - total attempts
+ * counter of the picked task. A rejected update means the task was picked again, it is reported to
+ * {@link ScheduledTaskLifecycleListener#lockLost}.
+ *
+ * <p>Failed heartbeats are retried every half of the heartbeat interval and reported to
+ * {@link ScheduledTaskLifecycleListener#heartbeatFailed}. The execution is cancelled on heartbeat loss if it is enabled
+ * by {@link ru.yoomoney.tech.dbqueue.scheduler.settings.HeartbeatSettings}. The pick locks the task record for the retry
+ * interval of the queue, so heartbeats are armed only when an execution outlives a half of the interval. Checkpoints
+ * of the execution are stored along with heartbeats, see {@link ScheduledTaskContext#checkpoint(String)}.
+ *
+ * <p>A state is written to the task record only when it differs from the stored one. Typed states are decoded by
+ * the state codec of the task and cached by the consumer until the stored state changes, see
+ * {@link ru.yoomoney.tech.dbqueue.scheduler.config.StateCodec}. A state that is stored apart from the task record is
+ * read only when the task accesses it, see {@link ScheduledTaskExtFields#DETACHED_STATE}.
+ *
+ * <p>The consumer of a task in the lease mode keeps the picked task and executes it locally while the lease is held,
+ * see {@link LeaseSettings}.
+ *
  * @author Petr Zinin pgzinin@yoomoney.ru
  * @since 21.10.2021
  */
@@ -41,7 +79,15 @@ class ScheduledTaskQueueConsumer implements QueueConsumer<String> {
     private final ScheduledTaskDefinition scheduledTaskDefinition;
     private final ScheduledTaskLifecycleListener scheduledTaskLifecycleListener;
     private final ScheduledTaskQueueDao scheduledTaskQueueDao;
+    private final QueueIdMapper queueIdMapper;
+    private final SchedulerInstrumentation schedulerInstrumentation;
+    private final SchedulerTimeSource timeSource;
     private final Clock clock;
+    private final HeartbeatTimer heartbeatTimer;
+    @Nullable
+    private final HeartbeatIntervalEstimator heartbeatIntervalEstimator;
+    @Nullable
+    private final TypedStateCache typedStateCache;
 
     ScheduledTaskQueueConsumer(@Nonnull QueueConfig queueConfig,
                                @Nonnull ScheduledTaskDefinition scheduledTaskDefinition,
@@ -56,49 +102,409 @@ class ScheduledTaskQueueConsumer implements QueueConsumer<String> {
                                @Nonnull ScheduledTaskLifecycleListener scheduledTaskLifecycleListener,
                                @Nonnull ScheduledTaskQueueDao scheduledTaskQueueDao,
                                @Nonnull Clock clock) {
+        this(queueConfig, scheduledTaskDefinition, scheduledTaskLifecycleListener, scheduledTaskQueueDao,
+                new QueueIdMapper(), clock);
+    }
+
+    ScheduledTaskQueueConsumer(@Nonnull QueueConfig queueConfig,
+                               @Nonnull ScheduledTaskDefinition scheduledTaskDefinition,
+                               @Nonnull ScheduledTaskLifecycleListener scheduledTaskLifecycleListener,
+                               @Nonnull ScheduledTaskQueueDao scheduledTaskQueueDao,
+                               @Nonnull QueueIdMapper queueIdMapper,
+                               @Nonnull Clock clock) {
+        this(queueConfig, scheduledTaskDefinition, scheduledTaskLifecycleListener, scheduledTaskQueueDao,
+                queueIdMapper, NoopSchedulerInstrumentation.getInstance(), clock);
+    }
+
+    ScheduledTaskQueueConsumer(@Nonnull QueueConfig queueConfig,
+                               @Nonnull ScheduledTaskDefinition scheduledTaskDefinition,
+                               @Nonnull ScheduledTaskLifecycleListener scheduledTaskLifecycleListener,
+                               @Nonnull ScheduledTaskQueueDao scheduledTaskQueueDao,
+                               @Nonnull QueueIdMapper queueIdMapper,
+                               @Nonnull SchedulerInstrumentation schedulerInstrumentation,
+                               @Nonnull Clock clock) {
+        this(queueConfig, scheduledTaskDefinition, scheduledTaskLifecycleListener, scheduledTaskQueueDao,
+                queueIdMapper, schedulerInstrumentation, new SystemSchedulerTimeSource(clock));
+    }
+
+    ScheduledTaskQueueConsumer(@Nonnull QueueConfig queueConfig,
+                               @Nonnull ScheduledTaskDefinition scheduledTaskDefinition,
+                               @Nonnull ScheduledTaskLifecycleListener scheduledTaskLifecycleListener,
+                               @Nonnull ScheduledTaskQueueDao scheduledTaskQueueDao,
+                               @Nonnull QueueIdMapper queueIdMapper,
+                               @Nonnull SchedulerInstrumentation schedulerInstrumentation,
+                               @Nonnull SchedulerTimeSource timeSource) {
+        this(queueConfig, scheduledTaskDefinition, scheduledTaskLifecycleListener, scheduledTaskQueueDao,
+                queueIdMapper, schedulerInstrumentation, timeSource, new HeartbeatTimer(timeSource));
+    }
+
+    ScheduledTaskQueueConsumer(@Nonnull QueueConfig queueConfig,
+                               @Nonnull ScheduledTaskDefinition scheduledTaskDefinition,
+                               @Nonnull ScheduledTaskLifecycleListener scheduledTaskLifecycleListener,
+                               @Nonnull ScheduledTaskQueueDao scheduledTaskQueueDao,
+                               @Nonnull QueueIdMapper queueIdMapper,
+                               @Nonnull SchedulerInstrumentation schedulerInstrumentation,
+                               @Nonnull SchedulerTimeSource timeSource,
+                               @Nonnull HeartbeatTimer heartbeatTimer) {
         this.queueConfig = requireNonNull(queueConfig, "queueConfig");
         this.scheduledTaskDefinition = requireNonNull(scheduledTaskDefinition, "scheduledTaskDefinition");
         this.scheduledTaskLifecycleListener = requireNonNull(scheduledTaskLifecycleListener, "scheduledTaskLifecycleListener");
         this.scheduledTaskQueueDao = requireNonNull(scheduledTaskQueueDao, "scheduledTaskQueueDao");
-        this.clock = requireNonNull(clock, "clock");
+        this.queueIdMapper = requireNonNull(queueIdMapper, "queueIdMapper");
+        this.schedulerInstrumentation = requireNonNull(schedulerInstrumentation, "schedulerInstrumentation");
+        this.timeSource = requireNonNull(timeSource, "timeSource");
+        this.clock = timeSource.getClock();
+        this.heartbeatTimer = requireNonNull(heartbeatTimer, "heartbeatTimer");
+        this.heartbeatIntervalEstimator = scheduledTaskDefinition.getHeartbeatSettings().isAdaptiveInterval()
+                ? new HeartbeatIntervalEstimator(scheduledTaskDefinition.getHeartbeatSettings())
+                : null;
+        this.typedStateCache = scheduledTaskDefinition.getStateCodec()
+                .map(TypedStateCache::new)
+                .orElse(null);
+    }
+
+    /**
+     * Drops in-memory data of task records when the consumer is replaced or the task is unscheduled
+     */
+    void release() {
+        if (heartbeatIntervalEstimator != null) {
+            heartbeatIntervalEstimator.clear();
+        }
+        if (typedStateCache != null) {
+            typedStateCache.clear();
+        }
     }
 
     @Nonnull
     @Override
     public TaskExecutionResult execute(@Nonnull Task<String> task) {
+        String resumeProcessAt = task.getExtData().get(ScheduledTaskExtFields.RESUME_PROCESS_AT);
+        boolean oneOffExecution = resumeProcessAt != null;
+        LeaseSettings leaseSettings = scheduledTaskDefinition.getLeaseSettings().orElse(null);
+        if (leaseSettings != null && !oneOffExecution) {
+            return executeLeased(task, leaseSettings);
+        }
+
+        ScheduledTaskExecutionEvent executionEvent = new ScheduledTaskExecutionEvent();
+        executionEvent.begin();
+        QueueId taskQueueId = getTaskQueueId(task);
+        ScheduledTaskIdentity taskIdentity = queueIdMapper.toScheduledTaskIdentity(taskQueueId);
+        Instant executionStartTime = scheduledTaskQueueDao.getDatabaseCurrentTime();
+        Instant plannedExecutionTime = getPlannedExecutionTime(task);
+        TaskStateBuffer stateBuffer = createStateBuffer(taskQueueId, task);
         ScheduledTaskContext scheduledTaskContext = ScheduledTaskContext.builder()
                 .withCreatedAt(task.getCreatedAt().toInstant())
-                .withState(task.getPayload().orElse(null))
+                .withStateLoader(stateBuffer::getStoredState)
+                .withTypedStateLoader(() -> decodeState(taskQueueId, stateBuffer.getStoredState()))
                 .withAttemptsCount(task.getAttemptsCount())
                 .withSuccessfulAttemptsCount(task.getReenqueueAttemptsCount())
                 .withTotalAttemptsCount(task.getTotalAttemptsCount())
+                .withInstanceKey(getInstanceKey(taskQueueId))
+                .withPlannedExecutionTime(plannedExecutionTime)
+                .withExecutionEpoch(task.getTotalAttemptsCount())
+                .withCheckpointHandler(stateBuffer::checkpoint)
                 .build();
 
-        scheduledTaskLifecycleListener.started(scheduledTaskDefinition.getIdentity(), scheduledTaskContext);
-        log.debug("execute(): scheduledTaskIdentity={}, task={}", scheduledTaskDefinition.getIdentity(), task);
+        Duration scheduleLag = Duration.ZERO;
+        if (plannedExecutionTime != null) {
+            scheduleLag = Duration.between(plannedExecutionTime, executionStartTime);
+            schedulerInstrumentation.scheduleLagMeasured(taskIdentity, scheduleLag);
+        }
+        scheduledTaskLifecycleListener.started(taskIdentity, scheduledTaskContext, scheduleLag);
+        log.debug("execute(): scheduledTaskIdentity={}, task={}", taskIdentity, task);
 
         long start = clock.millis();
         ScheduledTaskExecutionContext internalContext = new ScheduledTaskExecutionContext();
         internalContext.setAttemptsCount(task.getAttemptsCount());
-        internalContext.setExecutionStartTime(scheduledTaskQueueDao.getDatabaseCurrentTime());
-        ScheduledTaskExecutionResult executionResult = executeTask(scheduledTaskContext, internalContext);
+        internalContext.setExecutionStartTime(executionStartTime);
+        internalContext.setTaskQueueName(taskQueueId.asString());
+        AtomicBoolean lockLost = new AtomicBoolean();
+        ScheduledTaskExecutionResult executionResult = executeTask(taskQueueId, taskIdentity, scheduledTaskContext,
+                internalContext, stateBuffer, lockLost);
         internalContext.setExecutionResultType(executionResult.getType());
+        internalContext.setWorkloadHints(executionResult.hasMoreWork(), executionResult.isIdle());
         internalContext.setProcessingTime(Duration.ofMillis(clock.millis() - start));
+        if (heartbeatIntervalEstimator != null) {
+            heartbeatIntervalEstimator.processingTimeMeasured(taskQueueId.asString(),
+                    internalContext.getProcessingTime().orElseThrow());
+        }
 
+        // a failed one-off execution is retried by the failure settings, the postponed date is kept until a success
         Duration nextExecutionDelay = executionResult.getNextExecutionTime()
                 .map(nextExecutionTime -> Duration.between(clock.instant(), nextExecutionTime))
-                .orElseGet(() -> scheduledTaskDefinition.getNextExecutionDelayProvider().getNextExecutionDelay(internalContext));
+                .orElseGet(() -> oneOffExecution && executionResult.getType() != ScheduledTaskExecutionResult.Type.ERROR
+                        ? getResumeExecutionDelay(Instant.parse(resumeProcessAt), internalContext)
+                        : scheduledTaskDefinition.getNextExecutionDelayProvider().getNextExecutionDelay(internalContext));
         Duration roundedNextExecutionDelay = roundToSeconds(nextExecutionDelay);
 
         log.debug("task executed: executionResult={}, nextExecutionDelay={}", executionResult, roundedNextExecutionDelay);
-        scheduledTaskLifecycleListener.finished(scheduledTaskDefinition.getIdentity(), scheduledTaskContext, executionResult,
-                clock.instant().plus(roundedNextExecutionDelay), internalContext.getProcessingTime().orElseThrow().toMillis());
+        Instant nextExecutionTime = clock.instant().plus(roundedNextExecutionDelay);
+
+        // db-queue postpones tasks unconditionally, so the task record is postponed directly and db-queue does nothing
+        int updatedRows = executionResult.getType() == ScheduledTaskExecutionResult.Type.ERROR
+                ? scheduledTaskQueueDao.postponeFailed(taskQueueId, roundedNextExecutionDelay,
+                        scheduledTaskContext.getExecutionEpoch())
+                : scheduledTaskQueueDao.reenqueue(taskQueueId, roundedNextExecutionDelay,
+                        scheduledTaskContext.getExecutionEpoch());
+        if (updatedRows == 0) {
+            reportLockLost(taskIdentity, scheduledTaskContext, lockLost);
+        }
+        // the execution is finished after the postponing, so listeners see the postponing within the execution
+        scheduledTaskLifecycleListener.finished(taskIdentity, scheduledTaskContext, executionResult,
+                nextExecutionTime, internalContext.getProcessingTime().orElseThrow().toMillis());
+        TaskExecutionResult taskExecutionResult = TaskExecutionResult.fail();
 
-        if (executionResult.getType() == ScheduledTaskExecutionResult.Type.ERROR) {
-            scheduledTaskQueueDao.updateNextProcessDate(queueConfig.getLocation().getQueueId(), roundedNextExecutionDelay);
+        executionEvent.end();
+        if (executionEvent.shouldCommit()) {
+            executionEvent.taskIdentity = taskIdentity.asString();
+            executionEvent.resultType = executionResult.getType().name();
+            executionEvent.oneOffExecution = oneOffExecution;
+            executionEvent.attemptsCount = task.getAttemptsCount();
+            executionEvent.scheduleLag = scheduleLag.toMillis();
+            executionEvent.nextExecutionDelay = roundedNextExecutionDelay.toMillis();
+            executionEvent.commit();
+        }
+        return taskExecutionResult;
+    }
+
+    /**
+     * Executes a task in the lease mode.
+     *
+     * <p>The picked task record is leased by postponing it conditionally on the total attempts counter, a pick by another
+     * node changes the counter and fences off further updates of the current one. While the lease is held, the task
+     * is executed locally by the schedule and the database is accessed only to renew the lease when a next execution
+     * falls into the second half of the lease. The task is released by the regular postponing when the hold duration
+     * ends, when a next execution is too far or when the thread is interrupted. A failed execution releases the task
+     * with the failure delay. A long execution renews the lease by heartbeats, so the task is not picked by another
+     * node while it runs.
+     *
+     * @param task picked task
+     * @param leaseSettings settings of the lease mode
+     * @return result of the task for {@code db-queue}, the task record is always postponed by the consumer itself
+     */
+    private TaskExecutionResult executeLeased(Task<String> task, LeaseSettings leaseSettings) {
+        QueueId taskQueueId = getTaskQueueId(task);
+        ScheduledTaskIdentity taskIdentity = queueIdMapper.toScheduledTaskIdentity(taskQueueId);
+        long executionEpoch = task.getTotalAttemptsCount();
+        Duration leaseDuration = leaseSettings.getLeaseDuration();
+        Duration renewalThreshold = leaseDuration.dividedBy(2L);
+
+        Duration databaseClockOffset = Duration.between(clock.instant(), scheduledTaskQueueDao.getDatabaseCurrentTime());
+        Instant leaseStartTime = clock.instant();
+        if (scheduledTaskQueueDao.updateNextProcessDate(taskQueueId, leaseDuration, executionEpoch) == 0) {
+            log.info("task lease is lost: identity={}", taskIdentity);
             return TaskExecutionResult.fail();
         }
-        return TaskExecutionResult.reenqueue(roundedNextExecutionDelay);
+        Instant leaseExpirationTime = leaseStartTime.plus(leaseDuration);
+        Instant holdExpirationTime = leaseStartTime.plus(leaseSettings.getHoldDuration());
+        log.debug("task lease acquired: identity={}, leaseExpirationTime={}", taskIdentity, leaseExpirationTime);
+
+        SchedulerTimeSource.Sleeper sleeper = timeSource.createSleeper();
+        AtomicBoolean lockLost = new AtomicBoolean();
+        TaskStateBuffer stateBuffer = createStateBuffer(taskQueueId, task);
+        long attemptsCount = task.getAttemptsCount();
+        long successfulAttemptsCount = task.getReenqueueAttemptsCount();
+        long totalAttemptsCount = task.getTotalAttemptsCount();
+        Instant plannedExecutionTime = getPlannedExecutionTime(task);
+        while (true) {
+            ScheduledTaskExecutionEvent executionEvent = new ScheduledTaskExecutionEvent();
+            executionEvent.begin();
+            Instant executionStartTime = clock.instant();
+            ScheduledTaskContext scheduledTaskContext = ScheduledTaskContext.builder()
+                    .withCreatedAt(task.getCreatedAt().toInstant())
+                    .withStateLoader(stateBuffer::getStoredState)
+                    .withTypedStateLoader(() -> decodeState(taskQueueId, stateBuffer.getStoredState()))
+                    .withAttemptsCount(attemptsCount)
+                    .withSuccessfulAttemptsCount(successfulAttemptsCount)
+                    .withTotalAttemptsCount(totalAttemptsCount)
+                    .withInstanceKey(getInstanceKey(taskQueueId))
+                    .withPlannedExecutionTime(plannedExecutionTime)
+                    .withExecutionEpoch(executionEpoch)
+                    .withCheckpointHandler(stateBuffer::checkpoint)
+                    .build();
+
+            Duration scheduleLag = Duration.ZERO;
+            if (plannedExecutionTime != null) {
+                scheduleLag = Duration.between(plannedExecutionTime, executionStartTime.plus(databaseClockOffset));
+                schedulerInstrumentation.scheduleLagMeasured(taskIdentity, scheduleLag);
+            }
+            scheduledTaskLifecycleListener.started(taskIdentity, scheduledTaskContext, scheduleLag);
+
+            ScheduledTaskExecutionContext internalContext = new ScheduledTaskExecutionContext();
+            internalContext.setAttemptsCount(attemptsCount);
+            internalContext.setExecutionStartTime(executionStartTime.plus(databaseClockOffset));
+            internalContext.setTaskQueueName(taskQueueId.asString());
+            // a long execution renews the lease by heartbeats once a half of the lease remains
+            HeartbeatLossTracker heartbeatLossTracker = new HeartbeatLossTracker(
+                    leaseDuration,
+                    renewalThreshold.dividedBy(2L),
+                    leaseExpirationTime,
+                    scheduledTaskDefinition.getHeartbeatSettings().isCancelOnHeartbeatLoss(),
+                    Thread.currentThread(),
+                    clock
+            );
+            Duration armingDelay = Duration.between(clock.instant(), leaseExpirationTime.minus(renewalThreshold));
+            ScheduledTaskExecutionResult executionResult = invokeTask(taskQueueId, taskIdentity, scheduledTaskContext,
+                    stateBuffer, lockLost, renewalThreshold, armingDelay.isNegative() ? Duration.ZERO : armingDelay,
+                    heartbeatLossTracker);
+            leaseExpirationTime = heartbeatLossTracker.getLockExpirationTime();
+            internalContext.setExecutionResultType(executionResult.getType());
+            internalContext.setWorkloadHints(executionResult.hasMoreWork(), executionResult.isIdle());
+            internalContext.setProcessingTime(Duration.between(executionStartTime, clock.instant()));
+
+            Duration nextExecutionDelay = executionResult.getNextExecutionTime()
+                    .map(nextExecutionTime -> Duration.between(clock.instant(), nextExecutionTime))
+                    .orElseGet(() -> scheduledTaskDefinition.getNextExecutionDelayProvider()
+                            .getNextExecutionDelay(internalContext));
+            Instant nextExecutionTime = clock.instant().plus(nextExecutionDelay);
+
+            log.debug("task executed locally: executionResult={}, nextExecutionDelay={}", executionResult,
+                    nextExecutionDelay);
+
+            // the lease is released or renewed before the execution is finished, so listeners see the database access
+            TaskExecutionResult leaseResult = null;
+            if (lockLost.get()) {
+                leaseResult = TaskExecutionResult.fail();
+            } else if (executionResult.getType() == ScheduledTaskExecutionResult.Type.ERROR) {
+                if (scheduledTaskQueueDao.postponeFailed(taskQueueId, roundToSeconds(nextExecutionDelay),
+                        executionEpoch) == 0) {
+                    reportLockLost(taskIdentity, scheduledTaskContext, lockLost);
+                }
+                leaseResult = TaskExecutionResult.fail();
+            } else if (!nextExecutionTime.isBefore(holdExpirationTime)
+                    || nextExecutionDelay.compareTo(renewalThreshold) > 0) {
+                leaseResult = releaseLease(taskQueueId, taskIdentity, scheduledTaskContext, nextExecutionTime, lockLost);
+            } else if (nextExecutionTime.plus(renewalThreshold).isAfter(leaseExpirationTime)) {
+                Instant leaseRenewalTime = clock.instant();
+                if (scheduledTaskQueueDao.updateNextProcessDate(taskQueueId, leaseDuration, executionEpoch) == 0) {
+                    reportLockLost(taskIdentity, scheduledTaskContext, lockLost);
+                    leaseResult = TaskExecutionResult.fail();
+                } else {
+                    leaseExpirationTime = leaseRenewalTime.plus(leaseDuration);
+                }
+            }
+            scheduledTaskLifecycleListener.finished(taskIdentity, scheduledTaskContext, executionResult,
+                    nextExecutionTime, internalContext.getProcessingTime().orElseThrow().toMillis());
+
+            executionEvent.end();
+            if (executionEvent.shouldCommit()) {
+                executionEvent.taskIdentity = taskIdentity.asString();
+                executionEvent.resultType = executionResult.getType().name();
+                executionEvent.oneOffExecution = false;
+                executionEvent.attemptsCount = attemptsCount;
+                executionEvent.scheduleLag = scheduleLag.toMillis();
+                executionEvent.nextExecutionDelay = nextExecutionDelay.toMillis();
+                executionEvent.commit();
+            }
+            if (leaseResult != null) {
+                return leaseResult;
+            }
+
+            try {
+                Duration waitDuration = Duration.between(clock.instant(), nextExecutionTime);
+                if (!waitDuration.isNegative()) {
+                    sleeper.sleep(waitDuration);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return releaseLease(taskQueueId, taskIdentity, scheduledTaskContext, nextExecutionTime, lockLost);
+            }
+
+            attemptsCount = 1L;
+            successfulAttemptsCount++;
+            totalAttemptsCount++;
+            plannedExecutionTime = nextExecutionTime.plus(databaseClockOffset);
+        }
+    }
+
+    private TaskExecutionResult releaseLease(QueueId taskQueueId,
+                                             ScheduledTaskIdentity taskIdentity,
+                                             ScheduledTaskContext scheduledTaskContext,
+                                             Instant nextExecutionTime,
+                                             AtomicBoolean lockLost) {
+        Duration nextExecutionDelay = Duration.between(clock.instant(), nextExecutionTime);
+        Duration roundedNextExecutionDelay = roundToSeconds(nextExecutionDelay.isNegative()
+                ? Duration.ZERO
+                : nextExecutionDelay);
+        if (scheduledTaskQueueDao.reenqueue(taskQueueId, roundedNextExecutionDelay,
+                scheduledTaskContext.getExecutionEpoch()) == 0) {
+            reportLockLost(taskIdentity, scheduledTaskContext, lockLost);
+        } else {
+            log.debug("task lease released: identity={}, nextExecutionDelay={}", taskIdentity, roundedNextExecutionDelay);
+        }
+        return TaskExecutionResult.fail();
+    }
+
+    /**
+     * Reports that the task was picked again or deleted while the current execution holds it
+     *
+     * @param taskIdentity identity of the executing task
+     * @param scheduledTaskContext context of the current execution
+     * @param lockLost flag of the current execution that the loss is already reported
+     */
+    private void reportLockLost(ScheduledTaskIdentity taskIdentity,
+                                ScheduledTaskContext scheduledTaskContext,
+                                AtomicBoolean lockLost) {
+        if (lockLost.compareAndSet(false, true)) {
+            log.warn("task lock lost: identity={}, executionEpoch={}", taskIdentity,
+                    scheduledTaskContext.getExecutionEpoch());
+            scheduledTaskLifecycleListener.lockLost(taskIdentity, scheduledTaskContext);
+        }
+    }
+
+    /**
+     * Resolves queue name of the task record.
+     *
+     * <p>Tasks of template instances have their own queue names that differ from the template queue.
+     *
+     * @param task executing task
+     * @return queue name of the task record
+     */
+    private QueueId getTaskQueueId(Task<String> task) {
+        String queueName = task.getExtData().get(ScheduledTaskExtFields.QUEUE_NAME);
+        return queueName == null ? queueConfig.getLocation().getQueueId() : new QueueId(queueName);
+    }
+
+    /**
+     * Resolves the instance key of a task template instance
+     *
+     * @param taskQueueId queue name of the task record
+     * @return instance key or null if the task is not a template instance
+     */
+    @Nullable
+    private String getInstanceKey(QueueId taskQueueId) {
+        return scheduledTaskDefinition.isTemplate()
+                ? queueIdMapper.toInstanceKey(queueConfig.getLocation().getQueueId(), taskQueueId).orElse(null)
+                : null;
+    }
+
+    /**
+     * Resolves the time the execution was planned for, namely next process date of the task record before picking
+     *
+     * @param task executing task
+     * @return planned execution time by the database clock or null if it is unknown
+     */
+    @Nullable
+    private Instant getPlannedExecutionTime(Task<String> task) {
+        String plannedProcessAt = task.getExtData().get(ScheduledTaskExtFields.PLANNED_PROCESS_AT);
+        return plannedProcessAt == null ? null : Instant.parse(plannedProcessAt);
+    }
+
+    /**
+     * Computes the delay until the regular execution that was postponed by the current one-off execution.
+     *
+     * <p>The postponed date is set by the database clock, so the delay is computed relative to the database clock too.
+     * A postponed date that has passed already makes the regular execution ready immediately.
+     *
+     * @param resumeProcessAt date of the postponed regular execution passed by the pick
+     * @param internalContext internal context of a current execution
+     * @return delay of the postponed regular execution
+     */
+    private Duration getResumeExecutionDelay(Instant resumeProcessAt, ScheduledTaskExecutionContext internalContext) {
+        Instant now = internalContext.getExecutionStartTime().orElseThrow()
+                .plus(internalContext.getProcessingTime().orElse(Duration.ZERO));
+        Duration resumeExecutionDelay = Duration.between(now, resumeProcessAt);
+        return resumeExecutionDelay.isNegative() ? Duration.ZERO : resumeExecutionDelay;
     }
 
     private Duration roundToSeconds(Duration duration) {
@@ -106,52 +512,261 @@ class ScheduledTaskQueueConsumer implements QueueConsumer<String> {
         return truncatedToSeconds.equals(duration) ? truncatedToSeconds : truncatedToSeconds.plusSeconds(1L);
     }
 
-    private ScheduledTaskExecutionResult executeTask(ScheduledTaskContext scheduledTaskContext,
-                                                     ScheduledTaskExecutionContext internalContext) {
-        HeartbeatAgent heartbeatAgent = createHeartbeatAgent(internalContext);
+    private ScheduledTaskExecutionResult executeTask(QueueId taskQueueId,
+                                                     ScheduledTaskIdentity taskIdentity,
+                                                     ScheduledTaskContext scheduledTaskContext,
+                                                     ScheduledTaskExecutionContext internalContext,
+                                                     TaskStateBuffer stateBuffer,
+                                                     AtomicBoolean lockLost) {
+        Duration heartbeatInterval = getHeartbeatInterval(internalContext);
+        Duration pickLockInterval = queueConfig.getSettings().getFailureSettings().getRetryInterval();
+        HeartbeatLossTracker heartbeatLossTracker = new HeartbeatLossTracker(
+                heartbeatInterval.multipliedBy(2L),
+                heartbeatInterval.dividedBy(2L),
+                clock.instant().plus(pickLockInterval),
+                scheduledTaskDefinition.getHeartbeatSettings().isCancelOnHeartbeatLoss(),
+                Thread.currentThread(),
+                clock
+        );
+        // the task is locked by the pick, heartbeats of a short execution would be wasted
+        return invokeTask(taskQueueId, taskIdentity, scheduledTaskContext, stateBuffer, lockLost, heartbeatInterval,
+                pickLockInterval.dividedBy(2L), heartbeatLossTracker);
+    }
+
+    /**
+     * Invokes the task and extends the lock of the task by heartbeats if the execution outlives the arming delay
+     *
+     * @param taskQueueId queue name of the task record
+     * @param taskIdentity identity of the executing task
+     * @param scheduledTaskContext context of the current execution
+     * @param stateBuffer stored state and the last checkpoint of the current execution
+     * @param lockLost flag of the current execution that the loss is already reported
+     * @param heartbeatInterval interval of heartbeats, every heartbeat locks the task for two intervals
+     * @param armingDelay delay of the first heartbeat
+     * @param heartbeatLossTracker tracker of failed heartbeats of the current execution
+     * @return execution result
+     */
+    private ScheduledTaskExecutionResult invokeTask(QueueId taskQueueId,
+                                                    ScheduledTaskIdentity taskIdentity,
+                                                    ScheduledTaskContext scheduledTaskContext,
+                                                    TaskStateBuffer stateBuffer,
+                                                    AtomicBoolean lockLost,
+                                                    Duration heartbeatInterval,
+                                                    Duration armingDelay,
+                                                    HeartbeatLossTracker heartbeatLossTracker) {
+        HeartbeatAgent heartbeatAgent = createHeartbeatAgent(taskQueueId, taskIdentity, scheduledTaskContext,
+                heartbeatInterval, heartbeatLossTracker, stateBuffer, lockLost);
+        HeartbeatTimer.Timeout heartbeatArming = heartbeatTimer.schedule(armingDelay, heartbeatAgent::start);
         try {
-            heartbeatAgent.start();
-            ScheduledTaskExecutionResult result = scheduledTaskDefinition.getScheduledTask().execute(scheduledTaskContext);
-            if (result.getState().isPresent()) {
-                scheduledTaskQueueDao.updatePayload(queueConfig.getLocation().getQueueId(), result.getState().orElseThrow());
+            return invokeTask(taskQueueId, taskIdentity, scheduledTaskContext, stateBuffer);
+        } finally {
+            heartbeatArming.cancel();
+            heartbeatAgent.stop();
+            if (heartbeatLossTracker.executionFinished()) {
+                log.warn("task execution cancelled on heartbeat loss: identity={}, executionEpoch={}", taskIdentity,
+                        scheduledTaskContext.getExecutionEpoch());
             }
-            return result;
+        }
+    }
+
+    private ScheduledTaskExecutionResult invokeTask(QueueId taskQueueId,
+                                                    ScheduledTaskIdentity taskIdentity,
+                                                    ScheduledTaskContext scheduledTaskContext,
+                                                    TaskStateBuffer stateBuffer) {
+        ScheduledTaskExecutionResult result;
+        try {
+            result = scheduledTaskDefinition.getScheduledTask().execute(scheduledTaskContext);
+            storeState(taskQueueId, encodeState(taskQueueId, result), stateBuffer);
         } catch (RuntimeException ex) {
-            scheduledTaskLifecycleListener.crashed(scheduledTaskDefinition.getIdentity(), scheduledTaskContext, ex);
+            scheduledTaskLifecycleListener.crashed(taskIdentity, scheduledTaskContext, ex);
             log.debug("failed to execute scheduled task: scheduledTask={}", scheduledTaskDefinition, ex);
-            return ScheduledTaskExecutionResult.error();
-        } finally {
-            heartbeatAgent.stop();
+            storeCheckpoint(taskQueueId, stateBuffer);
+            result = ScheduledTaskExecutionResult.error();
         }
+        // the execution might have modified the decoded state before it failed
+        if (typedStateCache != null && result.getType() != ScheduledTaskExecutionResult.Type.SUCCESS) {
+            typedStateCache.evict(taskQueueId.asString());
+        }
+        return result;
     }
 
     /**
-     * Creates heartbeat agent that helps to postpone next execution date-time of the task in case of time-consuming
-     * execution of the current one. That helps to prevent concurrent execution of the same task.
+     * Creates buffer of the task state, a state that is stored apart from the task record is loaded on the first access
+     *
+     * @param taskQueueId queue name of the task record
+     * @param task picked task
+     * @return buffer of the task state
+     */
+    private TaskStateBuffer createStateBuffer(QueueId taskQueueId, Task<String> task) {
+        String payload = task.getPayload().orElse(null);
+        if (payload == null && Boolean.parseBoolean(task.getExtData().get(ScheduledTaskExtFields.DETACHED_STATE))) {
+            return new TaskStateBuffer(() -> scheduledTaskQueueDao.findPayload(taskQueueId));
+        }
+        return new TaskStateBuffer(payload);
+    }
+
+    @Nullable
+    private Object decodeState(QueueId taskQueueId, @Nullable String state) {
+        return typedStateCache == null ? null : typedStateCache.decode(taskQueueId.asString(), state);
+    }
+
+    /**
+     * Resolves the state of an execution result to be stored, a typed state is encoded by the state codec of the task
+     *
+     * @param taskQueueId queue name of the task record
+     * @param result execution result
+     * @return state to be stored or null if the result has no state
+     */
+    @Nullable
+    private String encodeState(QueueId taskQueueId, ScheduledTaskExecutionResult result) {
+        Object typedState = result.getTypedState().orElse(null);
+        if (typedState == null) {
+            return result.getState().orElse(null);
+        }
+        if (typedStateCache == null) {
+            throw new IllegalStateException("typed state requires a state codec: scheduledTask=" + scheduledTaskDefinition);
+        }
+        return typedStateCache.encode(taskQueueId.asString(), typedState);
+    }
+
+    /**
+     * Stores the state of an execution result, the last checkpoint that is not stored by heartbeats otherwise.
+     *
+     * <p>Heartbeats store checkpoints under the lock of the state buffer, so a heartbeat in flight does not overwrite
+     * the state. A state that equals the stored one is not written.
+     *
+     * @param taskQueueId queue name of the task record
+     * @param state state of the execution result
+     * @param stateBuffer stored state and the last checkpoint of the current execution
+     */
+    private void storeState(QueueId taskQueueId,
+                            @Nullable String state,
+                            TaskStateBuffer stateBuffer) {
+        synchronized (stateBuffer) {
+            String checkpoint = stateBuffer.takeCheckpoint();
+            String newState = state != null ? state : checkpoint;
+            if (newState != null && !stateBuffer.isStored(newState)) {
+                scheduledTaskQueueDao.updatePayload(taskQueueId, newState);
+                stateBuffer.stateStored(newState);
+            }
+        }
+    }
+
+    private void storeCheckpoint(QueueId taskQueueId, TaskStateBuffer stateBuffer) {
+        try {
+            storeState(taskQueueId, null, stateBuffer);
+        } catch (RuntimeException ex) {
+            log.warn("failed to store checkpoint of the task: queueId={}", taskQueueId, ex);
+        }
+    }
+
+    /**
+     * Computes the heartbeat interval, namely the estimate by processing time of the task if the adaptive interval
+     * is enabled, otherwise a half of the failure delay but no less than the minimal interval
      *
      * @param internalContext internal context of a current execution
-     * @return prepared heartbeat agent
+     * @return heartbeat interval
      */
-    private HeartbeatAgent createHeartbeatAgent(ScheduledTaskExecutionContext internalContext) {
+    private Duration getHeartbeatInterval(ScheduledTaskExecutionContext internalContext) {
+        if (heartbeatIntervalEstimator != null) {
+            return heartbeatIntervalEstimator.getHeartbeatInterval(internalContext.getTaskQueueName().orElseThrow());
+        }
         ScheduledTaskExecutionContext failInternalContext = internalContext.copy();
         failInternalContext.setExecutionResultType(ScheduledTaskExecutionResult.Type.ERROR);
 
         Duration precomputeNextExecutionDelay =
                 scheduledTaskDefinition.getNextExecutionDelayProvider().getNextExecutionDelay(failInternalContext);
 
-        Duration heartbeatInterval = MIN_HEARTBEAT_INTERVAL.compareTo(precomputeNextExecutionDelay.dividedBy(2L)) > 0
+        return MIN_HEARTBEAT_INTERVAL.compareTo(precomputeNextExecutionDelay.dividedBy(2L)) > 0
                 ? MIN_HEARTBEAT_INTERVAL
                 : precomputeNextExecutionDelay.dividedBy(2L);
+    }
 
+    /**
+     * Creates heartbeat agent that helps to postpone next execution date-time of the task in case of time-consuming
+     * execution of the current one. That helps to prevent concurrent execution of the same task.
+     *
+     * @param taskQueueId queue name of the task record
+     * @param taskIdentity identity of the executing task
+     * @param scheduledTaskContext context of a current execution
+     * @param heartbeatInterval interval between successful heartbeats
+     * @param heartbeatLossTracker tracker of failed heartbeats of the current execution
+     * @param stateBuffer stored state and the last checkpoint of the current execution
+     * @param lockLost flag of the current execution that the loss of the task is reported
+     * @return prepared heartbeat agent
+     */
+    private HeartbeatAgent createHeartbeatAgent(QueueId taskQueueId,
+                                                ScheduledTaskIdentity taskIdentity,
+                                                ScheduledTaskContext scheduledTaskContext,
+                                                Duration heartbeatInterval,
+                                                HeartbeatLossTracker heartbeatLossTracker,
+                                                TaskStateBuffer stateBuffer,
+                                                AtomicBoolean lockLost) {
         return new HeartbeatAgent(
-                scheduledTaskDefinition.getIdentity().asString(),
+                taskIdentity.asString(),
                 heartbeatInterval,
-                () -> shiftNextExecutionTime(heartbeatInterval.multipliedBy(2L))
+                heartbeatInterval.dividedBy(2L),
+                () -> shiftNextExecutionTime(taskQueueId, taskIdentity, scheduledTaskContext,
+                        heartbeatInterval.multipliedBy(2L), heartbeatLossTracker, stateBuffer, lockLost),
+                timeSource
         );
     }
 
-    private void shiftNextExecutionTime(Duration interval) {
-        scheduledTaskQueueDao.updateNextProcessDate(queueConfig.getLocation().getQueueId(), interval);
+    private boolean shiftNextExecutionTime(QueueId taskQueueId,
+                                           ScheduledTaskIdentity taskIdentity,
+                                           ScheduledTaskContext scheduledTaskContext,
+                                           Duration interval,
+                                           HeartbeatLossTracker heartbeatLossTracker,
+                                           TaskStateBuffer stateBuffer,
+                                           AtomicBoolean lockLost) {
+        ScheduledTaskHeartbeatEvent heartbeatEvent = new ScheduledTaskHeartbeatEvent();
+        heartbeatEvent.begin();
+        Instant heartbeatStartTime = clock.instant();
+        long start = System.nanoTime();
+        int rowsUpdated = 0;
+        boolean successful = false;
+        String checkpoint = null;
+        try {
+            // checkpoints are coalesced, the last one is stored by the heartbeat update
+            synchronized (stateBuffer) {
+                checkpoint = stateBuffer.takeCheckpoint();
+                rowsUpdated = checkpoint == null
+                        ? scheduledTaskQueueDao.updateNextProcessDate(taskQueueId, interval,
+                                scheduledTaskContext.getExecutionEpoch())
+                        : scheduledTaskQueueDao.updateNextProcessDate(taskQueueId, interval,
+                                scheduledTaskContext.getExecutionEpoch(), checkpoint);
+                if (checkpoint != null && rowsUpdated > 0) {
+                    stateBuffer.stateStored(checkpoint);
+                }
+            }
+            successful = true;
+            schedulerInstrumentation.heartbeatFinished(taskIdentity, Duration.ofNanos(System.nanoTime() - start), null);
+            if (rowsUpdated == 0) {
+                reportLockLost(taskIdentity, scheduledTaskContext, lockLost);
+                scheduledTaskLifecycleListener.heartbeatFailed(taskIdentity, scheduledTaskContext,
+                        heartbeatLossTracker.heartbeatFailed(true), null);
+                return false;
+            }
+            heartbeatLossTracker.heartbeatSucceeded(heartbeatStartTime);
+            return true;
+        } catch (RuntimeException ex) {
+            schedulerInstrumentation.heartbeatFinished(taskIdentity, Duration.ofNanos(System.nanoTime() - start), ex);
+            if (checkpoint != null) {
+                // the checkpoint is retried unless a newer one is made
+                stateBuffer.restoreCheckpoint(checkpoint);
+            }
+            scheduledTaskLifecycleListener.heartbeatFailed(taskIdentity, scheduledTaskContext,
+                    heartbeatLossTracker.heartbeatFailed(false), ex);
+            throw ex;
+        } finally {
+            if (heartbeatEvent.shouldCommit()) {
+                heartbeatEvent.taskIdentity = taskIdentity.asString();
+                heartbeatEvent.nextExecutionDelay = interval.toMillis();
+                heartbeatEvent.rowsUpdated = rowsUpdated;
+                heartbeatEvent.successful = successful;
+                heartbeatEvent.commit();
+            }
+        }
     }
 
     @Nonnull
@@ -7,8 +7,12 @@ import ru.yoomoney.tech.dbqueue.api.impl.NoopPayloadTransformer;
 import ru.yoomoney.tech.dbqueue.api.impl.ShardingQueueProducer;
 import ru.yoomoney.tech.dbqueue.config.DatabaseAccessLayer;
 import ru.yoomoney.tech.dbqueue.scheduler.config.ScheduledTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerInstrumentation;
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerTimeSource;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.ScheduledTaskDefinition;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskQueueDao;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+import ru.yoomoney.tech.dbqueue.settings.ProcessingSettings;
 import ru.yoomoney.tech.dbqueue.settings.QueueConfig;
 import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
 import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
@@ -32,6 +36,9 @@ public class ScheduledTaskQueueFactory {
     private final ScheduledTaskQueueDao scheduledTaskQueueDao;
     private final QueueShardRouter<String, ? extends DatabaseAccessLayer> queueShardRouter;
     private final ScheduledTaskLifecycleListener scheduledTaskLifecycleListener;
+    private final SchedulerInstrumentation schedulerInstrumentation;
+    private final SchedulerTimeSource timeSource;
+    private final HeartbeatTimer heartbeatTimer;
 
     public ScheduledTaskQueueFactory(@Nonnull String queueTableName,
                                      @Nullable String idSequenceName,
@@ -39,7 +46,9 @@ public class ScheduledTaskQueueFactory {
                                      @Nonnull QueueSettings defaultQueueSettings,
                                      @Nonnull ScheduledTaskQueueDao scheduledTaskQueueDao,
                                      @Nonnull QueueShardRouter<String, ? extends DatabaseAccessLayer> queueShardRouter,
-                                     @Nonnull ScheduledTaskLifecycleListener scheduledTaskLifecycleListener) {
+                                     @Nonnull ScheduledTaskLifecycleListener scheduledTaskLifecycleListener,
+                                     @Nonnull SchedulerInstrumentation schedulerInstrumentation,
+                                     @Nonnull SchedulerTimeSource timeSource) {
         this.queueTableName = requireNonNull(queueTableName, "queueTableName");
         this.idSequenceName = idSequenceName;
         this.queueIdMapper = requireNonNull(queueIdMapper, "queueIdMapper");
@@ -47,6 +56,9 @@ public class ScheduledTaskQueueFactory {
         this.scheduledTaskQueueDao = requireNonNull(scheduledTaskQueueDao, "scheduledTaskQueueDao");
         this.queueShardRouter = requireNonNull(queueShardRouter, "queueShardRouter");
         this.scheduledTaskLifecycleListener = requireNonNull(scheduledTaskLifecycleListener, "scheduledTaskLifecycleListener");
+        this.schedulerInstrumentation = requireNonNull(schedulerInstrumentation, "schedulerInstrumentation");
+        this.timeSource = requireNonNull(timeSource, "timeSource");
+        this.heartbeatTimer = new HeartbeatTimer(timeSource);
     }
 
     /**
@@ -62,18 +74,44 @@ public class ScheduledTaskQueueFactory {
         QueueConsumer<String> queueConsumer = createQueueConsumer(queueConfig, scheduledTaskDefinition);
         QueueProducer<String> queueProducer = createQueueProducer(queueConfig);
 
+        if (scheduledTaskDefinition.isTemplate()) {
+            return new ScheduledTaskTemplateQueue(queueConfig, queueConsumer, queueProducer, queueIdMapper,
+                    scheduledTaskQueueDao, scheduledTaskDefinition);
+        }
         return new ScheduledTaskQueue(queueConfig, queueConsumer, queueProducer, scheduledTaskQueueDao, scheduledTaskDefinition);
     }
 
+    /**
+     * Creates a config of the scheduled task queue without processing threads.
+     *
+     * <p>{@code db-queue} does not allow to unregister a queue, so the config is used to release threads of
+     * an unscheduled task.
+     *
+     * @param taskIdentity identity of a scheduled task
+     * @return queue config without processing threads
+     */
+    public QueueConfig createReleasedQueueConfig(@Nonnull ScheduledTaskIdentity taskIdentity) {
+        requireNonNull(taskIdentity, "taskIdentity");
+        return createQueueConfig(taskIdentity, 0);
+    }
+
     private QueueConfig createQueueConfig(ScheduledTaskDefinition scheduledTaskDefinition) {
+        return createQueueConfig(scheduledTaskDefinition.getIdentity(), scheduledTaskDefinition.getThreadCount());
+    }
+
+    private QueueConfig createQueueConfig(ScheduledTaskIdentity taskIdentity, int threadCount) {
         return new QueueConfig(
                 QueueLocation.builder()
-                        .withQueueId(queueIdMapper.toQueueId(scheduledTaskDefinition.getIdentity()))
+                        .withQueueId(queueIdMapper.toQueueId(taskIdentity))
                         .withTableName(queueTableName)
                         .withIdSequence(idSequenceName)
                         .build(),
                 QueueSettings.builder()
-                        .withProcessingSettings(defaultQueueSettings.getProcessingSettings())
+                        .withProcessingSettings(ProcessingSettings.builder()
+                                .withProcessingMode(defaultQueueSettings.getProcessingSettings().getProcessingMode())
+                                .withThreadCount(threadCount)
+                                .build()
+                        )
                         .withPollSettings(defaultQueueSettings.getPollSettings())
                         .withFailureSettings(defaultQueueSettings.getFailureSettings())
                         .withReenqueueSettings(defaultQueueSettings.getReenqueueSettings())
@@ -84,7 +122,7 @@ public class ScheduledTaskQueueFactory {
 
     private QueueConsumer<String> createQueueConsumer(QueueConfig queueConfig, ScheduledTaskDefinition scheduledTaskDefinition) {
         return new ScheduledTaskQueueConsumer(queueConfig, scheduledTaskDefinition, scheduledTaskLifecycleListener,
-                scheduledTaskQueueDao);
+                scheduledTaskQueueDao, queueIdMapper, schedulerInstrumentation, timeSource, heartbeatTimer);
     }
 
     private QueueProducer<String> createQueueProducer(QueueConfig queueConfig) {
@@ -0,0 +1,81 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.queue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
+import ru.yoomoney.tech.dbqueue.api.QueueProducer;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.ScheduledTaskDefinition;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskQueueDao;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.ScheduledTaskExecutionContext;
+import ru.yoomoney.tech.dbqueue.settings.QueueConfig;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Queue of a task template - a single queue that executes all template instances.
+ *
+ * <p>Each instance has its own task record, that is why the queue initialises the records of all instances in bulk:
+ * existing records are loaded with a single query and only missing ones are enqueued by batched inserts.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class ScheduledTaskTemplateQueue extends ScheduledTaskQueue {
+    private static final Logger log = LoggerFactory.getLogger(ScheduledTaskTemplateQueue.class);
+
+    private final QueueConfig queueConfig;
+    private final QueueIdMapper queueIdMapper;
+    private final ScheduledTaskQueueDao scheduledQueueDao;
+    private final ScheduledTaskDefinition taskDefinition;
+
+    public ScheduledTaskTemplateQueue(@Nonnull QueueConfig queueConfig,
+                                      @Nonnull QueueConsumer<String> queueConsumer,
+                                      @Nonnull QueueProducer<String> queueProducer,
+                                      @Nonnull QueueIdMapper queueIdMapper,
+                                      @Nonnull ScheduledTaskQueueDao scheduledQueueDao,
+                                      @Nonnull ScheduledTaskDefinition taskDefinition) {
+        super(queueConfig, queueConsumer, queueProducer, scheduledQueueDao, taskDefinition);
+        this.queueConfig = requireNonNull(queueConfig, "queueConfig");
+        this.queueIdMapper = requireNonNull(queueIdMapper, "queueIdMapper");
+        this.scheduledQueueDao = requireNonNull(scheduledQueueDao, "scheduledQueueDao");
+        this.taskDefinition = requireNonNull(taskDefinition, "taskDefinition");
+    }
+
+    @Override
+    protected int doInitTask() {
+        QueueId templateQueueId = queueConfig.getLocation().getQueueId();
+        Set<String> enqueuedQueueNames = new HashSet<>(
+                scheduledQueueDao.findQueueNames(queueIdMapper.toInstanceQueueNamePrefix(templateQueueId)));
+
+        Duration nextExecutionDelay = roundToSeconds(
+                taskDefinition.getNextExecutionDelayProvider().getNextExecutionDelay(new ScheduledTaskExecutionContext()));
+        List<QueueId> missingQueueIds = new ArrayList<>();
+        for (String instanceKey : taskDefinition.getInstanceKeys().orElseThrow()) {
+            QueueId instanceQueueId = queueIdMapper.toInstanceQueueId(taskDefinition.getIdentity(), instanceKey);
+            if (!enqueuedQueueNames.contains(instanceQueueId.asString())) {
+                missingQueueIds.add(instanceQueueId);
+            }
+        }
+        int enqueuedCount = missingQueueIds.isEmpty()
+                ? 0
+                : scheduledQueueDao.enqueueQueueTasks(missingQueueIds, nextExecutionDelay,
+                        queueConfig.getLocation().getIdSequence().orElse(null));
+        log.debug("scheduled task template instances enqueued: taskDefinition={}, enqueuedCount={}, nextExecutionDelay={}",
+                taskDefinition, enqueuedCount, nextExecutionDelay);
+        return enqueuedCount;
+    }
+
+    private Duration roundToSeconds(Duration duration) {
+        Duration truncatedToSeconds = duration.truncatedTo(ChronoUnit.SECONDS);
+        return truncatedToSeconds.equals(duration) ? truncatedToSeconds : truncatedToSeconds.plusSeconds(1L);
+    }
+}
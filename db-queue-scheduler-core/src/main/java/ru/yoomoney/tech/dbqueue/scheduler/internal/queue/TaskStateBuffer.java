@@ -0,0 +1,97 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.queue;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * State of a picked task as it is stored in the task record along with the last checkpoint that is not stored yet.
+ *
+ * <p>The buffer allows to skip writes of a state that equals the stored one. Writes of the state are done under
+ * the lock of the buffer, so a heartbeat in flight does not overwrite a newer state.
+ *
+ * <p>A state that is stored apart from the task record is loaded on the first access. The state that is not loaded yet
+ * is never considered as stored, so the dirty checking does not load it.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class TaskStateBuffer {
+    private final AtomicReference<String> pendingCheckpoint = new AtomicReference<>();
+    @Nullable
+    private final Supplier<String> storedStateLoader;
+    @Nullable
+    private volatile String storedState;
+    private volatile boolean loaded;
+
+    TaskStateBuffer(@Nullable String storedState) {
+        this.storedStateLoader = null;
+        this.storedState = storedState;
+        this.loaded = true;
+    }
+
+    TaskStateBuffer(@Nonnull Supplier<String> storedStateLoader) {
+        this.storedStateLoader = requireNonNull(storedStateLoader, "storedStateLoader");
+    }
+
+    /**
+     * Registers a checkpoint, the previous one that is not stored yet is discarded
+     *
+     * @param state state of the checkpoint
+     */
+    void checkpoint(@Nonnull String state) {
+        pendingCheckpoint.set(requireNonNull(state, "state"));
+    }
+
+    /**
+     * Takes the last checkpoint to be stored
+     *
+     * @return the checkpoint or null if there is no checkpoint that differs from the stored state
+     */
+    @Nullable
+    String takeCheckpoint() {
+        String checkpoint = pendingCheckpoint.getAndSet(null);
+        return isStored(checkpoint) ? null : checkpoint;
+    }
+
+    /**
+     * Returns a checkpoint that failed to be stored unless a newer one is made
+     *
+     * @param checkpoint state of the checkpoint
+     */
+    void restoreCheckpoint(@Nonnull String checkpoint) {
+        pendingCheckpoint.compareAndSet(null, requireNonNull(checkpoint, "checkpoint"));
+    }
+
+    /**
+     * Checks if the state equals the stored one
+     *
+     * @param state state to check
+     * @return true if the state is stored
+     */
+    boolean isStored(@Nullable String state) {
+        return loaded && Objects.equals(state, storedState);
+    }
+
+    void stateStored(@Nonnull String state) {
+        this.storedState = requireNonNull(state, "state");
+        this.loaded = true;
+    }
+
+    @Nullable
+    String getStoredState() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    storedState = requireNonNull(storedStateLoader, "storedStateLoader").get();
+                    loaded = true;
+                }
+            }
+        }
+        return storedState;
+    }
+}
@@ -0,0 +1,101 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.queue;
+
+import ru.yoomoney.tech.dbqueue.scheduler.config.StateCodec;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.TaskRecordCache;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Cache of decoded typed states of scheduled tasks.
+ *
+ * <p>The cache keeps the last decoded or encoded state in a {@link TaskRecordCache}. A cached state is valid while
+ * the encoded state stored in the task record is the same, so a state is decoded only when it was changed by another
+ * node or by a checkpoint. The state is evicted when an execution does not succeed, since the execution might have
+ * modified the decoded state before it failed.
+ *
+ * <p>The cache is validated by the encoded state itself rather than by a version of the task record, so it saves
+ * decoding only: the pick still reads the whole encoded state from the tasks table and it is compared as a whole.
+ * A state table keeps the encoded state out of the pick, then it is read only when the task accesses its state.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class TypedStateCache {
+    private final StateCodec<Object> stateCodec;
+    private final TaskRecordCache<CachedState> states = new TaskRecordCache<>();
+
+    @SuppressWarnings("unchecked")
+    TypedStateCache(@Nonnull StateCodec<?> stateCodec) {
+        this.stateCodec = (StateCodec<Object>) requireNonNull(stateCodec, "stateCodec");
+    }
+
+    /**
+     * Decodes the state stored in the task record
+     *
+     * @param taskQueueName queue name of the task record
+     * @param encodedState state stored in the task record
+     * @return decoded state or null if the task has no state
+     */
+    @Nullable
+    Object decode(@Nonnull String taskQueueName, @Nullable String encodedState) {
+        requireNonNull(taskQueueName, "taskQueueName");
+        if (encodedState == null) {
+            states.remove(taskQueueName);
+            return null;
+        }
+        CachedState cachedState = states.get(taskQueueName);
+        if (cachedState != null && cachedState.encodedState.equals(encodedState)) {
+            return cachedState.state;
+        }
+        Object state = stateCodec.decode(encodedState);
+        states.put(taskQueueName, new CachedState(encodedState, state));
+        return state;
+    }
+
+    /**
+     * Encodes the state to be stored in the task record
+     *
+     * @param taskQueueName queue name of the task record
+     * @param state state of the task
+     * @return encoded state
+     */
+    @Nonnull
+    String encode(@Nonnull String taskQueueName, @Nonnull Object state) {
+        requireNonNull(taskQueueName, "taskQueueName");
+        String encodedState = stateCodec.encode(requireNonNull(state, "state"));
+        states.put(taskQueueName, new CachedState(encodedState, state));
+        return encodedState;
+    }
+
+    /**
+     * Evicts the cached state of the task record, so the stored state is decoded by the next execution
+     *
+     * @param taskQueueName queue name of the task record
+     */
+    void evict(@Nonnull String taskQueueName) {
+        states.remove(taskQueueName);
+    }
+
+    /**
+     * Evicts cached states of all task records
+     */
+    void clear() {
+        states.clear();
+    }
+
+    /**
+     * Decoded state along with the encoded one it is valid for
+     */
+    private static final class CachedState {
+        private final String encodedState;
+        private final Object state;
+
+        private CachedState(String encodedState, Object state) {
+            this.encodedState = encodedState;
+            this.state = state;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ru.yoomoney.tech.dbqueue.scheduler.internal.schedule;
 
+import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.impl.AdaptiveNextExecutionDelayProvider;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.impl.CronNextExecutionDelayProvider;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.impl.FailureAwareNextExecutionDelayProvider;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.impl.FixedDelayNextExecutionDelayProvider;
@@ -9,6 +10,7 @@ import ru.yoomoney.tech.dbqueue.scheduler.settings.ScheduleSettings;
 import ru.yoomoney.tech.dbqueue.scheduler.settings.ScheduledTaskSettings;
 
 import javax.annotation.Nonnull;
+import java.time.Clock;
 
 import static java.util.Objects.requireNonNull;
 
@@ -19,6 +21,21 @@ import static java.util.Objects.requireNonNull;
  * @since 20.10.2021
  */
 public class NextExecutionDelayProviderFactory {
+    private final Clock clock;
+
+    public NextExecutionDelayProviderFactory() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param clock clock that cron schedules are computed by
+     */
+    public NextExecutionDelayProviderFactory(@Nonnull Clock clock) {
+        this.clock = requireNonNull(clock, "clock");
+    }
+
     /**
      * Creates a next execution delay provider according to passed schedule settings
      *
@@ -30,9 +47,15 @@ public class NextExecutionDelayProviderFactory {
         NextExecutionDelayProvider executionDelayProvider =
                 createExecutionDelayProvider(scheduledTaskSettings.getScheduleSettings());
 
-        return scheduledTaskSettings.getFailureSettings().getRetryType() == FailRetryType.NONE
-                ? executionDelayProvider
-                : new FailureAwareNextExecutionDelayProvider(executionDelayProvider, scheduledTaskSettings.getFailureSettings());
+        if (scheduledTaskSettings.getFailureSettings().getRetryType() != FailRetryType.NONE) {
+            executionDelayProvider = new FailureAwareNextExecutionDelayProvider(executionDelayProvider,
+                    scheduledTaskSettings.getFailureSettings());
+        }
+        if (scheduledTaskSettings.getAdaptiveCadenceSettings().isPresent()) {
+            executionDelayProvider = new AdaptiveNextExecutionDelayProvider(executionDelayProvider,
+                    scheduledTaskSettings.getAdaptiveCadenceSettings().orElseThrow());
+        }
+        return executionDelayProvider;
     }
 
     private NextExecutionDelayProvider createExecutionDelayProvider(@Nonnull ScheduleSettings scheduleSettings) {
@@ -40,7 +63,8 @@ public class NextExecutionDelayProviderFactory {
         if (scheduleSettings.getCronSettings().isPresent()) {
             return new CronNextExecutionDelayProvider(
                     scheduleSettings.getCronSettings().orElseThrow().getCronExpression(),
-                    scheduleSettings.getCronSettings().orElseThrow().getZoneId()
+                    scheduleSettings.getCronSettings().orElseThrow().getZoneId(),
+                    clock
             );
         }
         if (scheduleSettings.getFixedDelay().isPresent()) {
@@ -29,6 +29,10 @@ public class ScheduledTaskExecutionContext {
     private ScheduledTaskExecutionResult.Type executionResultType;
     @Nullable
     private Long attemptsCount;
+    @Nullable
+    private String taskQueueName;
+    private boolean moreWork;
+    private boolean idle;
 
     public ScheduledTaskExecutionContext() {
     }
@@ -36,11 +40,17 @@ public class ScheduledTaskExecutionContext {
     private ScheduledTaskExecutionContext(@Nullable Instant executionStartTime,
                                           @Nullable Duration processingTime,
                                           @Nullable ScheduledTaskExecutionResult.Type executionResultType,
-                                          @Nullable Long attemptsCount) {
+                                          @Nullable Long attemptsCount,
+                                          @Nullable String taskQueueName,
+                                          boolean moreWork,
+                                          boolean idle) {
         this.executionStartTime = executionStartTime;
         this.processingTime = processingTime;
         this.executionResultType = executionResultType;
         this.attemptsCount = attemptsCount;
+        this.taskQueueName = taskQueueName;
+        this.moreWork = moreWork;
+        this.idle = idle;
     }
 
     public void setExecutionStartTime(@Nonnull Instant executionStartTime) {
@@ -59,6 +69,26 @@ public class ScheduledTaskExecutionContext {
         this.attemptsCount = attemptsCount;
     }
 
+    /**
+     * Sets queue name of the executing task record, it differs between instances of a task template
+     *
+     * @param taskQueueName queue name of the task record
+     */
+    public void setTaskQueueName(@Nullable String taskQueueName) {
+        this.taskQueueName = taskQueueName;
+    }
+
+    /**
+     * Sets workload hints of the execution result
+     *
+     * @param moreWork the task has more work to do
+     * @param idle the task has found nothing to do
+     */
+    public void setWorkloadHints(boolean moreWork, boolean idle) {
+        this.moreWork = moreWork;
+        this.idle = idle;
+    }
+
     @Nonnull
     public Optional<Instant> getExecutionStartTime() {
         return Optional.ofNullable(executionStartTime);
@@ -79,12 +109,26 @@ public class ScheduledTaskExecutionContext {
         return Optional.ofNullable(attemptsCount);
     }
 
+    @Nonnull
+    public Optional<String> getTaskQueueName() {
+        return Optional.ofNullable(taskQueueName);
+    }
+
+    public boolean hasMoreWork() {
+        return moreWork;
+    }
+
+    public boolean isIdle() {
+        return idle;
+    }
+
     /**
      * Copy current {@link ScheduledTaskExecutionContext}
      * @return new instance of the context
      */
     public ScheduledTaskExecutionContext copy() {
-        return new ScheduledTaskExecutionContext(executionStartTime, processingTime, executionResultType, attemptsCount);
+        return new ScheduledTaskExecutionContext(executionStartTime, processingTime, executionResultType, attemptsCount,
+                taskQueueName, moreWork, idle);
     }
 
     @Override
@@ -94,6 +138,9 @@ public class ScheduledTaskExecutionContext {
                 ", processingTime=" + processingTime +
                 ", executionResultType=" + executionResultType +
                 ", attemptsCount=" + attemptsCount +
+                ", taskQueueName=" + taskQueueName +
+                ", moreWork=" + moreWork +
+                ", idle=" + idle +
                 '}';
     }
 }
@@ -0,0 +1,106 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.schedule;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Bounded in-memory data of a scheduled task that is kept per task record.
+ *
+ * <p>The data is keyed by queue name of the task record, so instances of a task template share the owner of the cache
+ * but have their own entries. The least recently used entries are evicted beyond the max size, that is why the cache
+ * must only hold data that can be restored or estimated anew. The cache is owned by the consumer of the task, so its
+ * entries are dropped along with the consumer when the task is unscheduled or updated.
+ *
+ * @param <V> type of the data
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class TaskRecordCache<V> {
+    /**
+     * Default max count of task records, large enough for a task template with thousands of instances
+     */
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+
+    private final Map<String, V> values;
+
+    public TaskRecordCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public TaskRecordCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: maxSize=" + maxSize);
+        }
+        this.values = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Finds data of the task record
+     *
+     * @param taskQueueName queue name of the task record
+     * @return found data or null if the data is absent or evicted
+     */
+    @Nullable
+    public synchronized V get(@Nonnull String taskQueueName) {
+        return values.get(requireNonNull(taskQueueName, "taskQueueName"));
+    }
+
+    /**
+     * Replaces data of the task record
+     *
+     * @param taskQueueName queue name of the task record
+     * @param value new data
+     */
+    public synchronized void put(@Nonnull String taskQueueName, @Nonnull V value) {
+        values.put(requireNonNull(taskQueueName, "taskQueueName"), requireNonNull(value, "value"));
+    }
+
+    /**
+     * Computes data of the task record atomically
+     *
+     * @param taskQueueName queue name of the task record
+     * @param remappingFunction function of the previous data, that might be null, returns new data or null to remove
+     * @return new data or null if the data is removed
+     */
+    @Nullable
+    public synchronized V compute(@Nonnull String taskQueueName,
+                                  @Nonnull BiFunction<String, ? super V, ? extends V> remappingFunction) {
+        return values.compute(requireNonNull(taskQueueName, "taskQueueName"),
+                requireNonNull(remappingFunction, "remappingFunction"));
+    }
+
+    /**
+     * Removes data of the task record
+     *
+     * @param taskQueueName queue name of the task record
+     */
+    public synchronized void remove(@Nonnull String taskQueueName) {
+        values.remove(requireNonNull(taskQueueName, "taskQueueName"));
+    }
+
+    /**
+     * Removes data of all task records
+     */
+    public synchronized void clear() {
+        values.clear();
+    }
+
+    /**
+     * Counts task records with data
+     *
+     * @return count of task records
+     */
+    public synchronized int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,93 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.impl;
+
+import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.NextExecutionDelayProvider;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.ScheduledTaskExecutionContext;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.TaskRecordCache;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.AdaptiveCadenceSettings;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Composite provider that adapts delays of successful executions to workload hints of execution results.
+ *
+ * <p>The provider wraps the whole chain, so failed executions are delegated as is. Streaks of hints are kept in
+ * a {@link TaskRecordCache}. Tasks without a streak do not hold any memory.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class AdaptiveNextExecutionDelayProvider implements NextExecutionDelayProvider {
+    private static final String DEFAULT_TASK_QUEUE_NAME = "";
+    /**
+     * Delays are rounded to seconds, zero delays of idle tasks are stretched starting from a second
+     */
+    private static final Duration MIN_IDLE_DELAY = Duration.ofSeconds(1L);
+
+    private final NextExecutionDelayProvider delegate;
+    private final AdaptiveCadenceSettings adaptiveCadenceSettings;
+    private final TaskRecordCache<Streak> streaks = new TaskRecordCache<>();
+
+    public AdaptiveNextExecutionDelayProvider(@Nonnull NextExecutionDelayProvider delegate,
+                                              @Nonnull AdaptiveCadenceSettings adaptiveCadenceSettings) {
+        this.delegate = requireNonNull(delegate, "delegate");
+        this.adaptiveCadenceSettings = requireNonNull(adaptiveCadenceSettings, "adaptiveCadenceSettings");
+    }
+
+    @Override
+    public Duration getNextExecutionDelay(@Nonnull ScheduledTaskExecutionContext executionContext) {
+        requireNonNull(executionContext, "executionContext");
+        boolean successful = executionContext.getExecutionResultType()
+                .filter(ScheduledTaskExecutionResult.Type.SUCCESS::equals)
+                .isPresent();
+        if (!successful) {
+            return delegate.getNextExecutionDelay(executionContext);
+        }
+
+        String taskQueueName = executionContext.getTaskQueueName().orElse(DEFAULT_TASK_QUEUE_NAME);
+        if (executionContext.hasMoreWork()) {
+            Streak streak = streaks.compute(taskQueueName, (key, previous) ->
+                    previous == null || previous.idle ? new Streak(false, 1) : new Streak(false, previous.length + 1));
+            if (streak.length <= adaptiveCadenceSettings.getMaxMoreWorkExecutions()) {
+                return Duration.ZERO;
+            }
+            streaks.remove(taskQueueName);
+            return delegate.getNextExecutionDelay(executionContext);
+        }
+        if (executionContext.isIdle()) {
+            Streak streak = streaks.compute(taskQueueName, (key, previous) ->
+                    previous == null || !previous.idle ? new Streak(true, 1) : new Streak(true, previous.length + 1));
+            return stretch(delegate.getNextExecutionDelay(executionContext), streak.length);
+        }
+        streaks.remove(taskQueueName);
+        return delegate.getNextExecutionDelay(executionContext);
+    }
+
+    private Duration stretch(Duration delay, int idleExecutionsCount) {
+        Duration maxIdleDelay = adaptiveCadenceSettings.getMaxIdleDelay();
+        if (delay.compareTo(maxIdleDelay) >= 0) {
+            return delay;
+        }
+        double multiplier = Math.pow(adaptiveCadenceSettings.getIdleDelayMultiplier(), idleExecutionsCount);
+        double stretchedMillis = Math.max(delay.toMillis(), MIN_IDLE_DELAY.toMillis()) * multiplier;
+        return stretchedMillis >= maxIdleDelay.toMillis()
+                ? maxIdleDelay
+                : Duration.ofMillis((long) stretchedMillis);
+    }
+
+    /**
+     * Count of consecutive executions with the same hint
+     */
+    private static final class Streak {
+        private final boolean idle;
+        private final int length;
+
+        private Streak(boolean idle, int length) {
+            this.idle = idle;
+            this.length = length;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.time.Instant;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
 
@@ -19,6 +21,21 @@ public class ScheduledTaskContext {
      */
     @Nullable
     private final String state;
+    /**
+     * Current scheduled task state decoded by the state codec of the task
+     */
+    @Nullable
+    private final Object typedState;
+    /**
+     * Loader of the current state that is read only when the task accesses it
+     */
+    @Nullable
+    private final Supplier<String> stateLoader;
+    /**
+     * Loader of the current typed state that is read only when the task accesses it
+     */
+    @Nullable
+    private final Supplier<Object> typedStateLoader;
     /**
      * Date and time when the task was scheduled for the first time
      */
@@ -36,17 +53,50 @@ public class ScheduledTaskContext {
      * Sum of all attempts to execute the task, including all failed attempts
      */
     private final long totalAttemptsCount;
+    /**
+     * Key of the executing instance if the task is registered as a {@link ScheduledTaskTemplate}
+     */
+    @Nullable
+    private final String instanceKey;
+    /**
+     * Date and time the current execution was planned for, namely next execution time of the task before picking
+     */
+    @Nullable
+    private final Instant plannedExecutionTime;
+    /**
+     * Epoch of the current execution, it grows with every pick of the task
+     */
+    private final long executionEpoch;
+    /**
+     * Handler of checkpoints of the current execution
+     */
+    @Nullable
+    private final Consumer<String> checkpointHandler;
 
     private ScheduledTaskContext(@Nullable String state,
+                                 @Nullable Object typedState,
+                                 @Nullable Supplier<String> stateLoader,
+                                 @Nullable Supplier<Object> typedStateLoader,
                                  @Nonnull Instant createdAt,
                                  long attemptsCount,
                                  long successfulAttemptsCount,
-                                 long totalAttemptsCount) {
+                                 long totalAttemptsCount,
+                                 @Nullable String instanceKey,
+                                 @Nullable Instant plannedExecutionTime,
+                                 long executionEpoch,
+                                 @Nullable Consumer<String> checkpointHandler) {
         this.state = state;
+        this.typedState = typedState;
+        this.stateLoader = stateLoader;
+        this.typedStateLoader = typedStateLoader;
         this.createdAt = requireNonNull(createdAt, "createdAt");
         this.attemptsCount = attemptsCount;
         this.successfulAttemptsCount = successfulAttemptsCount;
         this.totalAttemptsCount = totalAttemptsCount;
+        this.instanceKey = instanceKey;
+        this.plannedExecutionTime = plannedExecutionTime;
+        this.executionEpoch = executionEpoch;
+        this.checkpointHandler = checkpointHandler;
     }
 
     /**
@@ -59,11 +109,40 @@ public class ScheduledTaskContext {
         return new Builder();
     }
 
+    /**
+     * Get current state of the task.
+     *
+     * <p>A state that is stored apart from the task record is read on the first access.
+     *
+     * @return current state or empty if the task has no state
+     */
     @Nonnull
     public Optional<String> getState() {
+        if (state == null && stateLoader != null) {
+            return Optional.ofNullable(stateLoader.get());
+        }
         return Optional.ofNullable(state);
     }
 
+    /**
+     * Get current state decoded by the state codec of the task, see
+     * {@link ru.yoomoney.tech.dbqueue.scheduler.settings.ScheduledTaskSettings#getStateCodec()}.
+     *
+     * <p>The decoded state is cached by the node and must not be modified in place.
+     *
+     * @param stateType type of the state
+     * @param <T> type of the state
+     * @return decoded state or empty if the task has no state or no state codec
+     */
+    @Nonnull
+    public <T> Optional<T> getTypedState(@Nonnull Class<T> stateType) {
+        requireNonNull(stateType, "stateType");
+        if (typedState == null && typedStateLoader != null) {
+            return Optional.ofNullable(typedStateLoader.get()).map(stateType::cast);
+        }
+        return Optional.ofNullable(typedState).map(stateType::cast);
+    }
+
     @Nonnull
     public Instant getCreatedAt() {
         return createdAt;
@@ -81,6 +160,57 @@ public class ScheduledTaskContext {
         return totalAttemptsCount;
     }
 
+    @Nonnull
+    public Optional<String> getInstanceKey() {
+        return Optional.ofNullable(instanceKey);
+    }
+
+    /**
+     * Get date and time the current execution was planned for.
+     *
+     * <p>The time is set by the database clock. The difference between the execution start and the planned time is
+     * the schedule lag that is passed to {@link ru.yoomoney.tech.dbqueue.scheduler.config.ScheduledTaskLifecycleListener#started}.
+     *
+     * @return planned execution time or empty if it is unknown
+     */
+    @Nonnull
+    public Optional<Instant> getPlannedExecutionTime() {
+        return Optional.ofNullable(plannedExecutionTime);
+    }
+
+    /**
+     * Get epoch of the current execution.
+     *
+     * <p>The epoch is incremented atomically by every pick of the task, so an execution with a lower epoch has lost
+     * the task to another one. Updates of the task record by the scheduler are conditional on the epoch, the task
+     * might pass the epoch to its downstream writes as a fencing token as well.
+     *
+     * @return epoch of the current execution
+     */
+    public long getExecutionEpoch() {
+        return executionEpoch;
+    }
+
+    /**
+     * Stores progress of a long-running execution.
+     *
+     * <p>Checkpoints are coalesced - only the last one is stored along with the next heartbeat of the task record,
+     * so they do not cost extra queries. A checkpoint that is not stored by a heartbeat is stored after the execution
+     * unless the execution result has its own state. The next execution - e.g. after a crash of the node - gets
+     * the last stored checkpoint as {@link #getState()}.
+     *
+     * <p>Checkpoints are ignored in the lease mode, where executions are short, and by a context that was not created
+     * by the scheduler.
+     *
+     * @param state state of the task to resume from
+     */
+    public void checkpoint(@Nonnull String state) {
+        requireNonNull(state, "state");
+        if (checkpointHandler != null) {
+            checkpointHandler.accept(state);
+        }
+    }
+
     @Override
     public String toString() {
         return "ScheduledTaskContext{" +
@@ -89,6 +219,9 @@ public class ScheduledTaskContext {
                 ", attemptsCount=" + attemptsCount +
                 ", successfulAttemptsCount=" + successfulAttemptsCount +
                 ", totalAttemptsCount=" + totalAttemptsCount +
+                ", instanceKey='" + instanceKey + '\'' +
+                ", plannedExecutionTime=" + plannedExecutionTime +
+                ", executionEpoch=" + executionEpoch +
                 '}';
     }
 
@@ -97,10 +230,17 @@ public class ScheduledTaskContext {
      */
     public static final class Builder {
         private String state;
+        private Object typedState;
+        private Supplier<String> stateLoader;
+        private Supplier<Object> typedStateLoader;
         private Instant createdAt;
         private long attemptsCount;
         private long successfulAttemptsCount;
         private long totalAttemptsCount;
+        private String instanceKey;
+        private Instant plannedExecutionTime;
+        private long executionEpoch;
+        private Consumer<String> checkpointHandler;
 
         private Builder() {
         }
@@ -110,6 +250,34 @@ public class ScheduledTaskContext {
             return this;
         }
 
+        public Builder withTypedState(@Nullable Object typedState) {
+            this.typedState = typedState;
+            return this;
+        }
+
+        /**
+         * Sets loader of the state that is called when the task accesses the state unless the state is set
+         *
+         * @param stateLoader loader of the state
+         * @return the same instance of {@link Builder}
+         */
+        public Builder withStateLoader(@Nullable Supplier<String> stateLoader) {
+            this.stateLoader = stateLoader;
+            return this;
+        }
+
+        /**
+         * Sets loader of the typed state that is called when the task accesses the typed state unless the typed state
+         * is set
+         *
+         * @param typedStateLoader loader of the typed state
+         * @return the same instance of {@link Builder}
+         */
+        public Builder withTypedStateLoader(@Nullable Supplier<Object> typedStateLoader) {
+            this.typedStateLoader = typedStateLoader;
+            return this;
+        }
+
         public Builder withCreatedAt(@Nonnull Instant createdAt) {
             this.createdAt = createdAt;
             return this;
@@ -130,6 +298,26 @@ public class ScheduledTaskContext {
             return this;
         }
 
+        public Builder withInstanceKey(@Nullable String instanceKey) {
+            this.instanceKey = instanceKey;
+            return this;
+        }
+
+        public Builder withPlannedExecutionTime(@Nullable Instant plannedExecutionTime) {
+            this.plannedExecutionTime = plannedExecutionTime;
+            return this;
+        }
+
+        public Builder withExecutionEpoch(long executionEpoch) {
+            this.executionEpoch = executionEpoch;
+            return this;
+        }
+
+        public Builder withCheckpointHandler(@Nullable Consumer<String> checkpointHandler) {
+            this.checkpointHandler = checkpointHandler;
+            return this;
+        }
+
         /**
          * Creates an object
          *
@@ -137,7 +325,9 @@ public class ScheduledTaskContext {
          */
         @Nonnull
         public ScheduledTaskContext build() {
-            return new ScheduledTaskContext(state, createdAt, attemptsCount, successfulAttemptsCount, totalAttemptsCount);
+            return new ScheduledTaskContext(state, typedState, stateLoader, typedStateLoader, createdAt, attemptsCount,
+                    successfulAttemptsCount, totalAttemptsCount, instanceKey, plannedExecutionTime, executionEpoch,
+                    checkpointHandler);
         }
     }
 }
@@ -16,8 +16,10 @@ import static java.util.Objects.requireNonNull;
  * @since 19.10.2021
  */
 public class ScheduledTaskExecutionResult {
-    private static final ScheduledTaskExecutionResult SUCCESS_RESULT = new ScheduledTaskExecutionResult(Type.SUCCESS, null, null);
-    private static final ScheduledTaskExecutionResult ERROR_RESULT = new ScheduledTaskExecutionResult(Type.ERROR, null, null);
+    private static final ScheduledTaskExecutionResult SUCCESS_RESULT =
+            new ScheduledTaskExecutionResult(Type.SUCCESS, null, null, null, false, false);
+    private static final ScheduledTaskExecutionResult ERROR_RESULT =
+            new ScheduledTaskExecutionResult(Type.ERROR, null, null, null, false, false);
 
     /**
      * Execution result type
@@ -39,10 +41,34 @@ public class ScheduledTaskExecutionResult {
     @Nullable
     private final String state;
 
-    private ScheduledTaskExecutionResult(@Nonnull Type type, @Nullable Instant nextExecutionTime, @Nullable String state) {
+    /**
+     * Scheduled task state to be encoded by the state codec of the task
+     */
+    @Nullable
+    private final Object typedState;
+
+    /**
+     * Hint that the task has not finished its work, eg: a backlog is not drained yet
+     */
+    private final boolean moreWork;
+
+    /**
+     * Hint that the task has found nothing to do
+     */
+    private final boolean idle;
+
+    private ScheduledTaskExecutionResult(@Nonnull Type type,
+                                         @Nullable Instant nextExecutionTime,
+                                         @Nullable String state,
+                                         @Nullable Object typedState,
+                                         boolean moreWork,
+                                         boolean idle) {
         this.type = requireNonNull(type, "type");
         this.nextExecutionTime = nextExecutionTime;
         this.state = state;
+        this.typedState = typedState;
+        this.moreWork = moreWork;
+        this.idle = idle;
     }
 
     /**
@@ -74,7 +100,22 @@ public class ScheduledTaskExecutionResult {
     @Nonnull
     public ScheduledTaskExecutionResult withState(@Nonnull String state) {
         requireNonNull(state, "state");
-        return new ScheduledTaskExecutionResult(type, nextExecutionTime, state);
+        return new ScheduledTaskExecutionResult(type, nextExecutionTime, state, null, moreWork, idle);
+    }
+
+    /**
+     * Set new state of a scheduled task that is encoded by the state codec of the task, see
+     * {@link ru.yoomoney.tech.dbqueue.scheduler.settings.ScheduledTaskSettings#getStateCodec()}.
+     *
+     * <p>The state is not stored if it is equal to the stored one after encoding.
+     *
+     * @param typedState state of the scheduled task
+     * @return new instance of {@link ScheduledTaskExecutionResult} with the new state
+     */
+    @Nonnull
+    public ScheduledTaskExecutionResult withTypedState(@Nonnull Object typedState) {
+        requireNonNull(typedState, "typedState");
+        return new ScheduledTaskExecutionResult(type, nextExecutionTime, null, typedState, moreWork, idle);
     }
 
     /**
@@ -86,7 +127,33 @@ public class ScheduledTaskExecutionResult {
     @Nonnull
     public ScheduledTaskExecutionResult shiftExecutionTime(@Nonnull Instant nextExecutionTime) {
         requireNonNull(nextExecutionTime, "nextExecutionTime");
-        return new ScheduledTaskExecutionResult(type, nextExecutionTime, state);
+        return new ScheduledTaskExecutionResult(type, nextExecutionTime, state, typedState, moreWork, idle);
+    }
+
+    /**
+     * Mark that the task has more work to do.
+     *
+     * <p>If adaptive cadence is configured ({@link ru.yoomoney.tech.dbqueue.scheduler.settings.AdaptiveCadenceSettings}),
+     * the task is executed again immediately up to the configured count of consecutive executions.
+     *
+     * @return new instance of {@link ScheduledTaskExecutionResult} with the hint
+     */
+    @Nonnull
+    public ScheduledTaskExecutionResult withMoreWork() {
+        return new ScheduledTaskExecutionResult(type, nextExecutionTime, state, typedState, true, false);
+    }
+
+    /**
+     * Mark that the task has found nothing to do.
+     *
+     * <p>If adaptive cadence is configured ({@link ru.yoomoney.tech.dbqueue.scheduler.settings.AdaptiveCadenceSettings}),
+     * the delay before the next execution is stretched for every consecutive idle execution up to the configured cap.
+     *
+     * @return new instance of {@link ScheduledTaskExecutionResult} with the hint
+     */
+    @Nonnull
+    public ScheduledTaskExecutionResult withIdle() {
+        return new ScheduledTaskExecutionResult(type, nextExecutionTime, state, typedState, false, true);
     }
 
     @Nonnull
@@ -99,17 +166,33 @@ public class ScheduledTaskExecutionResult {
         return Optional.ofNullable(state);
     }
 
+    @Nonnull
+    public Optional<Object> getTypedState() {
+        return Optional.ofNullable(typedState);
+    }
+
     @Nonnull
     public Optional<Instant> getNextExecutionTime() {
         return Optional.ofNullable(nextExecutionTime);
     }
 
+    public boolean hasMoreWork() {
+        return moreWork;
+    }
+
+    public boolean isIdle() {
+        return idle;
+    }
+
     @Override
     public String toString() {
         return "ScheduledTaskExecutionResult{" +
                 "type=" + type +
                 ", nextExecutionTime=" + nextExecutionTime +
                 ", state='" + state + '\'' +
+                ", typedState=" + typedState +
+                ", moreWork=" + moreWork +
+                ", idle=" + idle +
                 '}';
     }
 
@@ -12,6 +12,15 @@ import static java.util.Objects.requireNonNull;
  * @since 25.10.2021
  */
 public class ScheduledTaskIdentity {
+    /**
+     * Separator between a template task name and an instance key in identities of template instances.
+     *
+     * <p>Neither template names nor instance keys might contain the separator.
+     *
+     * @see ScheduledTaskTemplate
+     */
+    public static final String INSTANCE_KEY_SEPARATOR = "#";
+
     /**
      * Scheduled task name
      */
@@ -34,6 +43,19 @@ public class ScheduledTaskIdentity {
         return new ScheduledTaskIdentity(taskName);
     }
 
+    /**
+     * Builds identity of an instance of the task template
+     *
+     * @param instanceKey key of the instance
+     * @return identity of the template instance
+     * @see ScheduledTaskTemplate
+     */
+    @Nonnull
+    public ScheduledTaskIdentity instance(@Nonnull String instanceKey) {
+        requireNonNull(instanceKey, "instanceKey");
+        return new ScheduledTaskIdentity(taskName + INSTANCE_KEY_SEPARATOR + instanceKey);
+    }
+
     @Nonnull
     public String getTaskName() {
         return taskName;
@@ -0,0 +1,141 @@
+package ru.yoomoney.tech.dbqueue.scheduler.models;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Template of parameterized scheduled tasks - a single {@link ScheduledTask} executed independently for each instance key.
+ *
+ * <p>Each instance has its own schedule, state and attempts counters, but all instances share a single consumer, so
+ * resources consumed by the scheduler depend on the number of templates rather than instances.
+ * An executing instance is available via {@link ScheduledTaskContext#getInstanceKey()}.
+ *
+ * <p>Identity of an instance is {@code templateIdentity.instance(instanceKey)} that might be used for rescheduling or
+ * triggering a particular instance.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class ScheduledTaskTemplate {
+    /**
+     * Task that is executed for each instance
+     */
+    @Nonnull
+    private final ScheduledTask scheduledTask;
+
+    /**
+     * Keys of the template instances
+     */
+    @Nonnull
+    private final Set<String> instanceKeys;
+
+    /**
+     * Number of threads that execute the template instances
+     */
+    private final int threadCount;
+
+    private ScheduledTaskTemplate(@Nonnull ScheduledTask scheduledTask,
+                                  @Nonnull Set<String> instanceKeys,
+                                  int threadCount) {
+        this.scheduledTask = requireNonNull(scheduledTask, "scheduledTask");
+        this.instanceKeys = Collections.unmodifiableSet(requireNonNull(instanceKeys, "instanceKeys"));
+        this.threadCount = threadCount;
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("threadCount must be positive: threadCount=" + threadCount);
+        }
+        // instances are picked by the prefix of the template name, so the separator must be unambiguous
+        if (scheduledTask.getIdentity().getTaskName().contains(ScheduledTaskIdentity.INSTANCE_KEY_SEPARATOR)) {
+            throw new IllegalArgumentException("template name must not contain instance key separator: taskName="
+                    + scheduledTask.getIdentity().getTaskName());
+        }
+        instanceKeys.forEach(instanceKey -> {
+            if (instanceKey.isEmpty()) {
+                throw new IllegalArgumentException("instanceKey must not be empty");
+            }
+            if (instanceKey.contains(ScheduledTaskIdentity.INSTANCE_KEY_SEPARATOR)) {
+                throw new IllegalArgumentException("instanceKey must not contain instance key separator: instanceKey="
+                        + instanceKey);
+            }
+        });
+    }
+
+    /**
+     * Creates an object builder
+     *
+     * @return a new instance of {@link Builder}
+     */
+    @Nonnull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Nonnull
+    public ScheduledTaskIdentity getIdentity() {
+        return scheduledTask.getIdentity();
+    }
+
+    @Nonnull
+    public ScheduledTask getScheduledTask() {
+        return scheduledTask;
+    }
+
+    @Nonnull
+    public Set<String> getInstanceKeys() {
+        return instanceKeys;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduledTaskTemplate{" +
+                "identity=" + scheduledTask.getIdentity() +
+                ", instanceKeysCount=" + instanceKeys.size() +
+                ", threadCount=" + threadCount +
+                '}';
+    }
+
+    /**
+     * Builder for {@link ScheduledTaskTemplate}
+     */
+    public static final class Builder {
+        private ScheduledTask scheduledTask;
+        private Set<String> instanceKeys = new LinkedHashSet<>();
+        private int threadCount = 1;
+
+        private Builder() {
+        }
+
+        public Builder withScheduledTask(@Nonnull ScheduledTask scheduledTask) {
+            this.scheduledTask = scheduledTask;
+            return this;
+        }
+
+        public Builder withInstanceKeys(@Nonnull Collection<String> instanceKeys) {
+            this.instanceKeys = new LinkedHashSet<>(requireNonNull(instanceKeys, "instanceKeys"));
+            return this;
+        }
+
+        public Builder withThreadCount(int threadCount) {
+            this.threadCount = threadCount;
+            return this;
+        }
+
+        /**
+         * Creates an object
+         *
+         * @return configured instance of {@link ScheduledTaskTemplate}
+         */
+        @Nonnull
+        public ScheduledTaskTemplate build() {
+            return new ScheduledTaskTemplate(scheduledTask, instanceKeys, threadCount);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package ru.yoomoney.tech.dbqueue.scheduler.models.info;
+
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Persisted execution of a scheduled task
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class ScheduledTaskExecutionInfo {
+    /**
+     * Identity of the task
+     */
+    @Nonnull
+    private final ScheduledTaskIdentity identity;
+
+    /**
+     * Execution start time by the application clock
+     */
+    @Nonnull
+    private final Instant startedAt;
+
+    /**
+     * Execution finish time by the application clock
+     */
+    @Nonnull
+    private final Instant finishedAt;
+
+    /**
+     * Result of the execution
+     */
+    @Nonnull
+    private final ScheduledTaskExecutionResult.Type resultType;
+
+    /**
+     * Message of an error thrown by the task
+     */
+    @Nullable
+    private final String errorMessage;
+
+    private ScheduledTaskExecutionInfo(@Nonnull ScheduledTaskIdentity identity,
+                                       @Nonnull Instant startedAt,
+                                       @Nonnull Instant finishedAt,
+                                       @Nonnull ScheduledTaskExecutionResult.Type resultType,
+                                       @Nullable String errorMessage) {
+        this.identity = requireNonNull(identity, "identity");
+        this.startedAt = requireNonNull(startedAt, "startedAt");
+        this.finishedAt = requireNonNull(finishedAt, "finishedAt");
+        this.resultType = requireNonNull(resultType, "resultType");
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Creates an object builder
+     *
+     * @return a new instance of {@link Builder}
+     */
+    @Nonnull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Nonnull
+    public ScheduledTaskIdentity getIdentity() {
+        return identity;
+    }
+
+    @Nonnull
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    @Nonnull
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Get duration of the execution
+     *
+     * @return time elapsed from the start till the finish of the execution
+     */
+    @Nonnull
+    public Duration getDuration() {
+        return Duration.between(startedAt, finishedAt);
+    }
+
+    @Nonnull
+    public ScheduledTaskExecutionResult.Type getResultType() {
+        return resultType;
+    }
+
+    @Nonnull
+    public Optional<String> getErrorMessage() {
+        return Optional.ofNullable(errorMessage);
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduledTaskExecutionInfo{" +
+                "identity=" + identity +
+                ", startedAt=" + startedAt +
+                ", finishedAt=" + finishedAt +
+                ", resultType=" + resultType +
+                ", errorMessage=" + errorMessage +
+                '}';
+    }
+
+    /**
+     * Builder for {@link ScheduledTaskExecutionInfo}
+     */
+    public static final class Builder {
+        private ScheduledTaskIdentity identity;
+        private Instant startedAt;
+        private Instant finishedAt;
+        private ScheduledTaskExecutionResult.Type resultType;
+        private String errorMessage;
+
+        private Builder() {
+        }
+
+        public Builder withIdentity(@Nonnull ScheduledTaskIdentity identity) {
+            this.identity = identity;
+            return this;
+        }
+
+        public Builder withStartedAt(@Nonnull Instant startedAt) {
+            this.startedAt = startedAt;
+            return this;
+        }
+
+        public Builder withFinishedAt(@Nonnull Instant finishedAt) {
+            this.finishedAt = finishedAt;
+            return this;
+        }
+
+        public Builder withResultType(@Nonnull ScheduledTaskExecutionResult.Type resultType) {
+            this.resultType = resultType;
+            return this;
+        }
+
+        public Builder withErrorMessage(@Nullable String errorMessage) {
+            this.errorMessage = errorMessage;
+            return this;
+        }
+
+        /**
+         * Creates an object
+         *
+         * @return configured instance of {@link ScheduledTaskExecutionInfo}
+         */
+        @Nonnull
+        public ScheduledTaskExecutionInfo build() {
+            return new ScheduledTaskExecutionInfo(identity, startedAt, finishedAt, resultType, errorMessage);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package ru.yoomoney.tech.dbqueue.scheduler.models.info;
 import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
 
 import javax.annotation.Nonnull;
+import java.time.Duration;
 import java.time.Instant;
 
 import static java.util.Objects.requireNonNull;
@@ -26,11 +27,19 @@ public class ScheduledTaskInfo {
     @Nonnull
     private final Instant nextExecutionTime;
 
+    /**
+     * Replication lag observed right before the statistics are read
+     */
+    @Nonnull
+    private final Duration staleness;
+
 
     private ScheduledTaskInfo(@Nonnull ScheduledTaskIdentity identity,
-                              @Nonnull Instant nextExecutionTime) {
+                              @Nonnull Instant nextExecutionTime,
+                              @Nonnull Duration staleness) {
         this.identity = requireNonNull(identity, "identity");
         this.nextExecutionTime = requireNonNull(nextExecutionTime, "nextExecutionTime");
+        this.staleness = requireNonNull(staleness, "staleness");
     }
 
     /**
@@ -53,11 +62,26 @@ public class ScheduledTaskInfo {
         return nextExecutionTime;
     }
 
+    /**
+     * Gets time the statistics lag behind the primary database.
+     *
+     * <p>Statistics read from the primary database are not stale. Statistics read from a replica lag behind
+     * by the replication lag observed right before the read. The lag is measured before the read rather than with it,
+     * so it is a lower bound of how stale the statistics might be rather than an exact value.
+     *
+     * @return observed replication lag, zero if the statistics are read from the primary database
+     */
+    @Nonnull
+    public Duration getStaleness() {
+        return staleness;
+    }
+
     @Override
     public String toString() {
         return "ScheduledTaskInfo{" +
                 "identity=" + identity +
                 ", nextExecutionTime=" + nextExecutionTime +
+                ", staleness=" + staleness +
                 '}';
     }
 
@@ -67,6 +91,7 @@ public class ScheduledTaskInfo {
     public static final class Builder {
         private ScheduledTaskIdentity identity;
         private Instant nextExecutionTime;
+        private Duration staleness = Duration.ZERO;
 
         private Builder() {
         }
@@ -86,6 +111,11 @@ public class ScheduledTaskInfo {
             return this;
         }
 
+        public Builder withStaleness(@Nonnull Duration staleness) {
+            this.staleness = staleness;
+            return this;
+        }
+
         /**
          * Creates an object
          *
@@ -93,7 +123,7 @@ public class ScheduledTaskInfo {
          */
         @Nonnull
         public ScheduledTaskInfo build() {
-            return new ScheduledTaskInfo(identity, nextExecutionTime);
+            return new ScheduledTaskInfo(identity, nextExecutionTime, staleness);
         }
     }
 }
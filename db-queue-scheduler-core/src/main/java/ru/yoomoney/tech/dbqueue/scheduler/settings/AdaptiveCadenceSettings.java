@@ -0,0 +1,125 @@
+package ru.yoomoney.tech.dbqueue.scheduler.settings;
+
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Settings of the execution cadence driven by hints of successful execution results
+ *
+ * <p>A task that reports {@link ScheduledTaskExecutionResult#withMoreWork()} is executed again immediately, but no more
+ * than {@link #getMaxMoreWorkExecutions()} times in a row - then its schedule is applied. A task that reports
+ * {@link ScheduledTaskExecutionResult#withIdle()} has the scheduled delay multiplied by {@link #getIdleDelayMultiplier()}
+ * for every consecutive idle execution, but no more than {@link #getMaxIdleDelay()}. An execution without hints
+ * restores the regular schedule.
+ *
+ * <p>Streaks of hints are kept in memory of the node that executes the task.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class AdaptiveCadenceSettings {
+    /**
+     * Max count of consecutive immediate executions of a task that has more work
+     */
+    private final int maxMoreWorkExecutions;
+
+    /**
+     * Multiplier of the scheduled delay for every consecutive idle execution
+     */
+    private final double idleDelayMultiplier;
+
+    /**
+     * Max delay of an idle task
+     */
+    @Nonnull
+    private final Duration maxIdleDelay;
+
+    private AdaptiveCadenceSettings(int maxMoreWorkExecutions,
+                                    double idleDelayMultiplier,
+                                    @Nonnull Duration maxIdleDelay) {
+        this.maxIdleDelay = requireNonNull(maxIdleDelay, "maxIdleDelay");
+        if (maxMoreWorkExecutions < 0) {
+            throw new IllegalArgumentException("maxMoreWorkExecutions must not be negative: maxMoreWorkExecutions="
+                    + maxMoreWorkExecutions);
+        }
+        if (idleDelayMultiplier < 1.0) {
+            throw new IllegalArgumentException("idleDelayMultiplier must not be less than 1: idleDelayMultiplier="
+                    + idleDelayMultiplier);
+        }
+        this.maxMoreWorkExecutions = maxMoreWorkExecutions;
+        this.idleDelayMultiplier = idleDelayMultiplier;
+    }
+
+    /**
+     * Creates an object builder
+     *
+     * @return a new instance of {@link Builder}
+     */
+    @Nonnull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getMaxMoreWorkExecutions() {
+        return maxMoreWorkExecutions;
+    }
+
+    public double getIdleDelayMultiplier() {
+        return idleDelayMultiplier;
+    }
+
+    @Nonnull
+    public Duration getMaxIdleDelay() {
+        return maxIdleDelay;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveCadenceSettings{" +
+                "maxMoreWorkExecutions=" + maxMoreWorkExecutions +
+                ", idleDelayMultiplier=" + idleDelayMultiplier +
+                ", maxIdleDelay=" + maxIdleDelay +
+                '}';
+    }
+
+    /**
+     * Builder for {@link AdaptiveCadenceSettings}
+     */
+    public static final class Builder {
+        private int maxMoreWorkExecutions = 100;
+        private double idleDelayMultiplier = 2.0;
+        private Duration maxIdleDelay;
+
+        private Builder() {
+        }
+
+        public Builder withMaxMoreWorkExecutions(int maxMoreWorkExecutions) {
+            this.maxMoreWorkExecutions = maxMoreWorkExecutions;
+            return this;
+        }
+
+        public Builder withIdleDelayMultiplier(double idleDelayMultiplier) {
+            this.idleDelayMultiplier = idleDelayMultiplier;
+            return this;
+        }
+
+        public Builder withMaxIdleDelay(@Nonnull Duration maxIdleDelay) {
+            this.maxIdleDelay = maxIdleDelay;
+            return this;
+        }
+
+        /**
+         * Creates an object
+         *
+         * @return configured instance of {@link AdaptiveCadenceSettings}
+         */
+        @Nonnull
+        public AdaptiveCadenceSettings build() {
+            return new AdaptiveCadenceSettings(maxMoreWorkExecutions, idleDelayMultiplier, maxIdleDelay);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package ru.yoomoney.tech.dbqueue.scheduler.settings;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Settings of retries of transient database errors and of the circuit breaker of the node
+ *
+ * <p>Queries that fail with a transient error - a serialization failure, a deadlock or a lost connection - are retried
+ * with a jittered exponential backoff. Picks of tasks are not retried, they are repeated by polling. The circuit
+ * breaker is shared by all tasks of the node: it opens after {@link #getFailureThreshold()} consecutive transient
+ * errors, and while it is open no task is picked and queries are not retried. After {@link #getOpenDuration()}
+ * a single pick probes the database and closes the breaker on success.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class DatabaseResilienceSettings {
+    /**
+     * Max count of attempts of a query including the first one
+     */
+    private final int maxAttempts;
+
+    /**
+     * Backoff before the first retry
+     */
+    @Nonnull
+    private final Duration initialBackoff;
+
+    /**
+     * Upper bound of the backoff
+     */
+    @Nonnull
+    private final Duration maxBackoff;
+
+    /**
+     * Count of consecutive transient errors that opens the circuit breaker
+     */
+    private final int failureThreshold;
+
+    /**
+     * Duration the circuit breaker stays open before a probe
+     */
+    @Nonnull
+    private final Duration openDuration;
+
+    private DatabaseResilienceSettings(int maxAttempts,
+                                       @Nonnull Duration initialBackoff,
+                                       @Nonnull Duration maxBackoff,
+                                       int failureThreshold,
+                                       @Nonnull Duration openDuration) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = requireNonNull(initialBackoff, "initialBackoff");
+        this.maxBackoff = requireNonNull(maxBackoff, "maxBackoff");
+        this.failureThreshold = failureThreshold;
+        this.openDuration = requireNonNull(openDuration, "openDuration");
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be positive: maxAttempts=" + maxAttempts);
+        }
+        if (initialBackoff.isNegative() || initialBackoff.isZero()) {
+            throw new IllegalArgumentException("initialBackoff must be positive: initialBackoff=" + initialBackoff);
+        }
+        if (maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalArgumentException("maxBackoff must not be less than initialBackoff: initialBackoff="
+                    + initialBackoff + ", maxBackoff=" + maxBackoff);
+        }
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be positive: failureThreshold="
+                    + failureThreshold);
+        }
+        if (openDuration.isNegative() || openDuration.isZero()) {
+            throw new IllegalArgumentException("openDuration must be positive: openDuration=" + openDuration);
+        }
+    }
+
+    /**
+     * Creates an object builder
+     *
+     * @return a new instance of {@link Builder}
+     */
+    @Nonnull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    @Nonnull
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    @Nonnull
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    @Nonnull
+    public Duration getOpenDuration() {
+        return openDuration;
+    }
+
+    @Override
+    public String toString() {
+        return "DatabaseResilienceSettings{" +
+                "maxAttempts=" + maxAttempts +
+                ", initialBackoff=" + initialBackoff +
+                ", maxBackoff=" + maxBackoff +
+                ", failureThreshold=" + failureThreshold +
+                ", openDuration=" + openDuration +
+                '}';
+    }
+
+    /**
+     * Builder for {@link DatabaseResilienceSettings}
+     */
+    public static final class Builder {
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(100L);
+        private Duration maxBackoff = Duration.ofSeconds(2L);
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(30L);
+
+        private Builder() {
+        }
+
+        /**
+         * Sets max count of attempts of a query including the first one, 3 by default
+         *
+         * @param maxAttempts max count of attempts
+         * @return the same instance of {@link Builder}
+         */
+        public Builder withMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Sets backoff before the first retry, 100 milliseconds by default
+         *
+         * @param initialBackoff backoff before the first retry
+         * @return the same instance of {@link Builder}
+         */
+        public Builder withInitialBackoff(@Nonnull Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+            return this;
+        }
+
+        /**
+         * Sets upper bound of the backoff, 2 seconds by default
+         *
+         * @param maxBackoff upper bound of the backoff
+         * @return the same instance of {@link Builder}
+         */
+        public Builder withMaxBackoff(@Nonnull Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        /**
+         * Sets count of consecutive transient errors that opens the circuit breaker, 5 by default
+         *
+         * @param failureThreshold count of consecutive transient errors
+         * @return the same instance of {@link Builder}
+         */
+        public Builder withFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        /**
+         * Sets duration the circuit breaker stays open before a probe, 30 seconds by default
+         *
+         * @param openDuration duration of the open state
+         * @return the same instance of {@link Builder}
+         */
+        public Builder withOpenDuration(@Nonnull Duration openDuration) {
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        /**
+         * Creates an object
+         *
+         * @return configured instance of {@link DatabaseResilienceSettings}
+         */
+        @Nonnull
+        public DatabaseResilienceSettings build() {
+            return new DatabaseResilienceSettings(maxAttempts, initialBackoff, maxBackoff, failureThreshold,
+                    openDuration);
+        }
+    }
+}
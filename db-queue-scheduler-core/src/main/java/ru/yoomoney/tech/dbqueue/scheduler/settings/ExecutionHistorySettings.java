@@ -0,0 +1,194 @@
+package ru.yoomoney.tech.dbqueue.scheduler.settings;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Settings of the persisted execution history
+ *
+ * <p>Executions are buffered in memory and are written in batches by a background thread, so the history does not
+ * add a synchronous insert to every execution. Executions are dropped if the buffer is full. Records older than
+ * the retention period are deleted in chunks.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class ExecutionHistorySettings {
+    /**
+     * Table name that stores executions
+     */
+    @Nonnull
+    private final String tableName;
+
+    /**
+     * Period executions are kept for
+     */
+    @Nonnull
+    private final Duration retention;
+
+    /**
+     * Max count of executions that might be buffered
+     */
+    private final int bufferSize;
+
+    /**
+     * Max count of executions written in a single batch
+     */
+    private final int batchSize;
+
+    /**
+     * Max time an execution stays in the buffer
+     */
+    @Nonnull
+    private final Duration flushInterval;
+
+    /**
+     * Interval between deletions of outdated executions
+     */
+    @Nonnull
+    private final Duration pruneInterval;
+
+    /**
+     * Max count of executions deleted by a single query
+     */
+    private final int pruneChunkSize;
+
+    private ExecutionHistorySettings(@Nonnull String tableName,
+                                     @Nonnull Duration retention,
+                                     int bufferSize,
+                                     int batchSize,
+                                     @Nonnull Duration flushInterval,
+                                     @Nonnull Duration pruneInterval,
+                                     int pruneChunkSize) {
+        this.tableName = requireNonNull(tableName, "tableName");
+        this.retention = requireNonNull(retention, "retention");
+        this.flushInterval = requireNonNull(flushInterval, "flushInterval");
+        this.pruneInterval = requireNonNull(pruneInterval, "pruneInterval");
+        if (bufferSize <= 0 || batchSize <= 0 || pruneChunkSize <= 0) {
+            throw new IllegalArgumentException(String.format("sizes must be positive: bufferSize=%s, batchSize=%s, " +
+                    "pruneChunkSize=%s", bufferSize, batchSize, pruneChunkSize));
+        }
+        this.bufferSize = bufferSize;
+        this.batchSize = batchSize;
+        this.pruneChunkSize = pruneChunkSize;
+    }
+
+    /**
+     * Creates an object builder
+     *
+     * @return a new instance of {@link Builder}
+     */
+    @Nonnull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Nonnull
+    public String getTableName() {
+        return tableName;
+    }
+
+    @Nonnull
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Nonnull
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    @Nonnull
+    public Duration getPruneInterval() {
+        return pruneInterval;
+    }
+
+    public int getPruneChunkSize() {
+        return pruneChunkSize;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionHistorySettings{" +
+                "tableName='" + tableName + '\'' +
+                ", retention=" + retention +
+                ", bufferSize=" + bufferSize +
+                ", batchSize=" + batchSize +
+                ", flushInterval=" + flushInterval +
+                ", pruneInterval=" + pruneInterval +
+                ", pruneChunkSize=" + pruneChunkSize +
+                '}';
+    }
+
+    /**
+     * Builder for {@link ExecutionHistorySettings}
+     */
+    public static final class Builder {
+        private String tableName;
+        private Duration retention = Duration.ofDays(30L);
+        private int bufferSize = 10_000;
+        private int batchSize = 100;
+        private Duration flushInterval = Duration.ofSeconds(1L);
+        private Duration pruneInterval = Duration.ofHours(1L);
+        private int pruneChunkSize = 1_000;
+
+        private Builder() {
+        }
+
+        public Builder withTableName(@Nonnull String tableName) {
+            this.tableName = tableName;
+            return this;
+        }
+
+        public Builder withRetention(@Nonnull Duration retention) {
+            this.retention = retention;
+            return this;
+        }
+
+        public Builder withBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        public Builder withBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public Builder withFlushInterval(@Nonnull Duration flushInterval) {
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        public Builder withPruneInterval(@Nonnull Duration pruneInterval) {
+            this.pruneInterval = pruneInterval;
+            return this;
+        }
+
+        public Builder withPruneChunkSize(int pruneChunkSize) {
+            this.pruneChunkSize = pruneChunkSize;
+            return this;
+        }
+
+        /**
+         * Creates an object
+         *
+         * @return configured instance of {@link ExecutionHistorySettings}
+         */
+        @Nonnull
+        public ExecutionHistorySettings build() {
+            return new ExecutionHistorySettings(tableName, retention, bufferSize, batchSize, flushInterval,
+                    pruneInterval, pruneChunkSize);
+        }
+    }
+}
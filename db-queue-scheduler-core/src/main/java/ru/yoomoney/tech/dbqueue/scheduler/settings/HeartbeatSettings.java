@@ -0,0 +1,165 @@
+package ru.yoomoney.tech.dbqueue.scheduler.settings;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Settings of heartbeats that keep the task locked during a time-consuming execution
+ *
+ * <p>A heartbeat postpones the task record for two heartbeat intervals. Failed heartbeats are retried every half of
+ * the interval and reported to {@link ru.yoomoney.tech.dbqueue.scheduler.config.ScheduledTaskLifecycleListener#heartbeatFailed}.
+ *
+ * <p>By default the heartbeat interval is a half of the failure delay but no less than 10 seconds, so a task with a long
+ * failure delay stays locked for a long time after a crash of the node. The adaptive interval is an exponentially
+ * weighted moving average of processing time of the task bounded by {@link #getMinInterval()} and
+ * {@link #getMaxInterval()}. The max interval is used until the first execution is measured by the node.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class HeartbeatSettings {
+    private static final Duration MIN_INTERVAL_LOWER_BOUND = Duration.ofSeconds(1L);
+
+    /**
+     * Flag that enables interruption of the execution thread when the lock is lost or is about to expire
+     */
+    private final boolean cancelOnHeartbeatLoss;
+
+    /**
+     * Flag that enables the heartbeat interval derived from observed processing time
+     */
+    private final boolean adaptiveInterval;
+
+    /**
+     * Lower bound of the adaptive heartbeat interval
+     */
+    @Nonnull
+    private final Duration minInterval;
+
+    /**
+     * Upper bound of the adaptive heartbeat interval
+     */
+    @Nonnull
+    private final Duration maxInterval;
+
+    private HeartbeatSettings(boolean cancelOnHeartbeatLoss,
+                              boolean adaptiveInterval,
+                              @Nonnull Duration minInterval,
+                              @Nonnull Duration maxInterval) {
+        this.cancelOnHeartbeatLoss = cancelOnHeartbeatLoss;
+        this.adaptiveInterval = adaptiveInterval;
+        this.minInterval = requireNonNull(minInterval, "minInterval");
+        this.maxInterval = requireNonNull(maxInterval, "maxInterval");
+        if (minInterval.compareTo(MIN_INTERVAL_LOWER_BOUND) < 0) {
+            throw new IllegalArgumentException("minInterval must not be less than " + MIN_INTERVAL_LOWER_BOUND
+                    + ": minInterval=" + minInterval);
+        }
+        if (maxInterval.compareTo(minInterval) < 0) {
+            throw new IllegalArgumentException("maxInterval must not be less than minInterval: minInterval="
+                    + minInterval + ", maxInterval=" + maxInterval);
+        }
+    }
+
+    /**
+     * Creates an object builder
+     *
+     * @return a new instance of {@link Builder}
+     */
+    @Nonnull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Checks if the execution is cancelled on heartbeat loss.
+     *
+     * <p>The execution thread is interrupted when a heartbeat finds the task picked again or when the next retry
+     * of failed heartbeats would come after the lock expiration. The task is supposed to honour the interruption.
+     *
+     * @return true if the execution is cancelled otherwise false
+     */
+    public boolean isCancelOnHeartbeatLoss() {
+        return cancelOnHeartbeatLoss;
+    }
+
+    public boolean isAdaptiveInterval() {
+        return adaptiveInterval;
+    }
+
+    @Nonnull
+    public Duration getMinInterval() {
+        return minInterval;
+    }
+
+    @Nonnull
+    public Duration getMaxInterval() {
+        return maxInterval;
+    }
+
+    @Override
+    public String toString() {
+        return "HeartbeatSettings{" +
+                "cancelOnHeartbeatLoss=" + cancelOnHeartbeatLoss +
+                ", adaptiveInterval=" + adaptiveInterval +
+                ", minInterval=" + minInterval +
+                ", maxInterval=" + maxInterval +
+                '}';
+    }
+
+    /**
+     * Builder for {@link HeartbeatSettings}
+     */
+    public static final class Builder {
+        private boolean cancelOnHeartbeatLoss;
+        private boolean adaptiveInterval;
+        private Duration minInterval = Duration.ofSeconds(10L);
+        private Duration maxInterval = Duration.ofMinutes(10L);
+
+        private Builder() {
+        }
+
+        public Builder withCancelOnHeartbeatLoss(boolean cancelOnHeartbeatLoss) {
+            this.cancelOnHeartbeatLoss = cancelOnHeartbeatLoss;
+            return this;
+        }
+
+        public Builder withAdaptiveInterval(boolean adaptiveInterval) {
+            this.adaptiveInterval = adaptiveInterval;
+            return this;
+        }
+
+        /**
+         * Sets lower bound of the adaptive heartbeat interval, 10 seconds by default
+         *
+         * @param minInterval lower bound of the interval
+         * @return the same instance of {@link Builder}
+         */
+        public Builder withMinInterval(@Nonnull Duration minInterval) {
+            this.minInterval = minInterval;
+            return this;
+        }
+
+        /**
+         * Sets upper bound of the adaptive heartbeat interval, 10 minutes by default
+         *
+         * @param maxInterval upper bound of the interval
+         * @return the same instance of {@link Builder}
+         */
+        public Builder withMaxInterval(@Nonnull Duration maxInterval) {
+            this.maxInterval = maxInterval;
+            return this;
+        }
+
+        /**
+         * Creates an object
+         *
+         * @return configured instance of {@link HeartbeatSettings}
+         */
+        @Nonnull
+        public HeartbeatSettings build() {
+            return new HeartbeatSettings(cancelOnHeartbeatLoss, adaptiveInterval, minInterval, maxInterval);
+        }
+    }
+}
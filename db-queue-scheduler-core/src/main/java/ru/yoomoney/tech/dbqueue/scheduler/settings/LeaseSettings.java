@@ -0,0 +1,117 @@
+package ru.yoomoney.tech.dbqueue.scheduler.settings;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Settings of the lease mode of high-frequency tasks
+ *
+ * <p>A node that picks a task leases its record for {@link #getLeaseDuration()} and executes the task locally
+ * by the schedule while the lease is held. The lease is renewed by a single update when less than a half of it remains.
+ * After {@link #getHoldDuration()} the node releases the task by the regular postponing, so the task can move to
+ * another node and the scheduler can be paused.
+ *
+ * <p>Every execution must take less than a half of the lease duration, the record is not heartbeated between renewals.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class LeaseSettings {
+    private static final Duration MIN_LEASE_DURATION = Duration.ofSeconds(2L);
+    private static final long DEFAULT_HOLD_LEASES_COUNT = 10L;
+
+    /**
+     * Duration the task record is leased for by a single update
+     */
+    @Nonnull
+    private final Duration leaseDuration;
+
+    /**
+     * Duration a node holds the task before releasing it
+     */
+    @Nonnull
+    private final Duration holdDuration;
+
+    private LeaseSettings(@Nonnull Duration leaseDuration,
+                          @Nonnull Duration holdDuration) {
+        this.leaseDuration = requireNonNull(leaseDuration, "leaseDuration");
+        this.holdDuration = requireNonNull(holdDuration, "holdDuration");
+        if (leaseDuration.compareTo(MIN_LEASE_DURATION) < 0) {
+            throw new IllegalArgumentException("leaseDuration must not be less than " + MIN_LEASE_DURATION
+                    + ": leaseDuration=" + leaseDuration);
+        }
+        if (holdDuration.isNegative() || holdDuration.isZero()) {
+            throw new IllegalArgumentException("holdDuration must be positive: holdDuration=" + holdDuration);
+        }
+    }
+
+    /**
+     * Creates an object builder
+     *
+     * @return a new instance of {@link Builder}
+     */
+    @Nonnull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Nonnull
+    public Duration getLeaseDuration() {
+        return leaseDuration;
+    }
+
+    @Nonnull
+    public Duration getHoldDuration() {
+        return holdDuration;
+    }
+
+    @Override
+    public String toString() {
+        return "LeaseSettings{" +
+                "leaseDuration=" + leaseDuration +
+                ", holdDuration=" + holdDuration +
+                '}';
+    }
+
+    /**
+     * Builder for {@link LeaseSettings}
+     */
+    public static final class Builder {
+        private Duration leaseDuration;
+        private Duration holdDuration;
+
+        private Builder() {
+        }
+
+        public Builder withLeaseDuration(@Nonnull Duration leaseDuration) {
+            this.leaseDuration = leaseDuration;
+            return this;
+        }
+
+        /**
+         * Sets duration a node holds the task before releasing it, ten lease durations by default
+         *
+         * @param holdDuration duration of holding the task
+         * @return the same instance of {@link Builder}
+         */
+        public Builder withHoldDuration(@Nullable Duration holdDuration) {
+            this.holdDuration = holdDuration;
+            return this;
+        }
+
+        /**
+         * Creates an object
+         *
+         * @return configured instance of {@link LeaseSettings}
+         */
+        @Nonnull
+        public LeaseSettings build() {
+            requireNonNull(leaseDuration, "leaseDuration");
+            return new LeaseSettings(leaseDuration,
+                    holdDuration == null ? leaseDuration.multipliedBy(DEFAULT_HOLD_LEASES_COUNT) : holdDuration);
+        }
+    }
+}
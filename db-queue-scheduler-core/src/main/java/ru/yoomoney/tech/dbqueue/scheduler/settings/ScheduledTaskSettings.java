@@ -1,7 +1,10 @@
 package ru.yoomoney.tech.dbqueue.scheduler.settings;
 
+import ru.yoomoney.tech.dbqueue.scheduler.config.StateCodec;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Optional;
 
 import static java.util.Objects.requireNonNull;
 
@@ -29,12 +32,44 @@ public class ScheduledTaskSettings {
     @Nonnull
     private final ScheduleSettings scheduleSettings;
 
+    /**
+     * Settings of the execution cadence driven by execution results, null if the cadence is not adaptive
+     */
+    @Nullable
+    private final AdaptiveCadenceSettings adaptiveCadenceSettings;
+
+    /**
+     * Settings of the lease mode, null if every execution is picked from the database
+     */
+    @Nullable
+    private final LeaseSettings leaseSettings;
+
+    /**
+     * Settings of heartbeats of time-consuming executions
+     */
+    @Nonnull
+    private final HeartbeatSettings heartbeatSettings;
+
+    /**
+     * Codec of the typed state of the task
+     */
+    @Nullable
+    private final StateCodec<?> stateCodec;
+
     private ScheduledTaskSettings(boolean enabled,
                                   @Nonnull ScheduleSettings scheduleSettings,
-                                  @Nonnull FailureSettings failureSettings) {
+                                  @Nonnull FailureSettings failureSettings,
+                                  @Nullable AdaptiveCadenceSettings adaptiveCadenceSettings,
+                                  @Nullable LeaseSettings leaseSettings,
+                                  @Nonnull HeartbeatSettings heartbeatSettings,
+                                  @Nullable StateCodec<?> stateCodec) {
         this.enabled = enabled;
         this.scheduleSettings = requireNonNull(scheduleSettings, "scheduleSettings");
         this.failureSettings = requireNonNull(failureSettings, "failureSettings");
+        this.adaptiveCadenceSettings = adaptiveCadenceSettings;
+        this.leaseSettings = leaseSettings;
+        this.heartbeatSettings = requireNonNull(heartbeatSettings, "heartbeatSettings");
+        this.stateCodec = stateCodec;
     }
 
     /**
@@ -61,12 +96,36 @@ public class ScheduledTaskSettings {
         return failureSettings;
     }
 
+    @Nonnull
+    public Optional<AdaptiveCadenceSettings> getAdaptiveCadenceSettings() {
+        return Optional.ofNullable(adaptiveCadenceSettings);
+    }
+
+    @Nonnull
+    public Optional<LeaseSettings> getLeaseSettings() {
+        return Optional.ofNullable(leaseSettings);
+    }
+
+    @Nonnull
+    public HeartbeatSettings getHeartbeatSettings() {
+        return heartbeatSettings;
+    }
+
+    @Nonnull
+    public Optional<StateCodec<?>> getStateCodec() {
+        return Optional.ofNullable(stateCodec);
+    }
+
     @Override
     public String toString() {
         return "ScheduledTaskSettings{" +
                 "enabled=" + enabled +
                 ", failureSettings=" + failureSettings +
                 ", scheduleSettings=" + scheduleSettings +
+                ", adaptiveCadenceSettings=" + adaptiveCadenceSettings +
+                ", leaseSettings=" + leaseSettings +
+                ", heartbeatSettings=" + heartbeatSettings +
+                ", stateCodec=" + stateCodec +
                 '}';
     }
 
@@ -77,6 +136,10 @@ public class ScheduledTaskSettings {
         private boolean enabled = true;
         private ScheduleSettings scheduleSettings;
         private FailureSettings failureSettings;
+        private AdaptiveCadenceSettings adaptiveCadenceSettings;
+        private LeaseSettings leaseSettings;
+        private HeartbeatSettings heartbeatSettings = HeartbeatSettings.builder().build();
+        private StateCodec<?> stateCodec;
 
         private Builder() {
         }
@@ -96,6 +159,26 @@ public class ScheduledTaskSettings {
             return this;
         }
 
+        public Builder withAdaptiveCadenceSettings(@Nullable AdaptiveCadenceSettings adaptiveCadenceSettings) {
+            this.adaptiveCadenceSettings = adaptiveCadenceSettings;
+            return this;
+        }
+
+        public Builder withLeaseSettings(@Nullable LeaseSettings leaseSettings) {
+            this.leaseSettings = leaseSettings;
+            return this;
+        }
+
+        public Builder withHeartbeatSettings(@Nonnull HeartbeatSettings heartbeatSettings) {
+            this.heartbeatSettings = heartbeatSettings;
+            return this;
+        }
+
+        public Builder withStateCodec(@Nullable StateCodec<?> stateCodec) {
+            this.stateCodec = stateCodec;
+            return this;
+        }
+
         /**
          * Creates an object
          *
@@ -103,7 +186,8 @@ public class ScheduledTaskSettings {
          */
         @Nonnull
         public ScheduledTaskSettings build() {
-            return new ScheduledTaskSettings(enabled, scheduleSettings, failureSettings);
+            return new ScheduledTaskSettings(enabled, scheduleSettings, failureSettings, adaptiveCadenceSettings,
+                    leaseSettings, heartbeatSettings, stateCodec);
         }
     }
 }
@@ -0,0 +1,105 @@
+package ru.yoomoney.tech.dbqueue.scheduler.config.impl;
+
+import org.junit.jupiter.api.Test;
+import ru.yoomoney.tech.dbqueue.scheduler.config.ScheduledTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskContext;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class AsyncScheduledTaskLifecycleListenerTest {
+
+    private final ScheduledTaskIdentity taskIdentity = ScheduledTaskIdentity.of("task_name");
+    private final ScheduledTaskContext taskContext = ScheduledTaskContext.builder().withCreatedAt(Instant.now()).build();
+
+    @Test
+    public void should_dispatch_events_in_order() {
+        // given
+        DummyScheduledTaskLifecycleListener delegate = new DummyScheduledTaskLifecycleListener(new CountDownLatch(0));
+        AsyncScheduledTaskLifecycleListener listener = new AsyncScheduledTaskLifecycleListener(delegate, 2,
+                AsyncScheduledTaskLifecycleListener.OverflowPolicy.BLOCK);
+
+        // when
+        listener.started(taskIdentity, taskContext, Duration.ZERO);
+        listener.crashed(taskIdentity, taskContext, new RuntimeException());
+        listener.finished(taskIdentity, taskContext, ScheduledTaskExecutionResult.error(), Instant.now(), 0L);
+        listener.close();
+
+        // then
+        assertThat(delegate.events, equalTo(List.of("started", "crashed", "finished")));
+        assertThat(listener.getDroppedEventsCount(), equalTo(0L));
+    }
+
+    @Test
+    public void should_drop_events_when_buffer_is_full() throws InterruptedException {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        DummyScheduledTaskLifecycleListener delegate = new DummyScheduledTaskLifecycleListener(release);
+        AsyncScheduledTaskLifecycleListener listener = new AsyncScheduledTaskLifecycleListener(delegate, 1,
+                AsyncScheduledTaskLifecycleListener.OverflowPolicy.DROP);
+
+        // when
+        listener.started(taskIdentity, taskContext, Duration.ZERO);
+        assertThat(delegate.dispatching.await(5L, TimeUnit.SECONDS), equalTo(true));
+        listener.started(taskIdentity, taskContext, Duration.ZERO);
+        listener.started(taskIdentity, taskContext, Duration.ZERO);
+        release.countDown();
+        listener.close();
+        listener.started(taskIdentity, taskContext, Duration.ZERO);
+
+        // then
+        assertThat(delegate.events, equalTo(List.of("started", "started")));
+        assertThat(listener.getDroppedEventsCount(), equalTo(2L));
+    }
+
+    private static class DummyScheduledTaskLifecycleListener implements ScheduledTaskLifecycleListener {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch dispatching = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        DummyScheduledTaskLifecycleListener(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void started(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull ScheduledTaskContext taskContext) {
+            dispatching.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            events.add("started");
+        }
+
+        @Override
+        public void finished(@Nonnull ScheduledTaskIdentity taskIdentity,
+                             @Nonnull ScheduledTaskContext taskContext,
+                             @Nonnull ScheduledTaskExecutionResult executionResult,
+                             @Nonnull Instant nextExecutionTime, long processTaskTimeInMills) {
+            events.add("finished");
+        }
+
+        @Override
+        public void crashed(@Nonnull ScheduledTaskIdentity taskIdentity,
+                            @Nonnull ScheduledTaskContext taskContext,
+                            @Nullable Throwable exc) {
+            events.add("crashed");
+        }
+    }
+}
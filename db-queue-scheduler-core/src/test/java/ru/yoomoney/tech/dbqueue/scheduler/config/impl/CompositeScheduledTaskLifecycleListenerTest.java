@@ -8,6 +8,7 @@ import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -33,7 +34,7 @@ class CompositeScheduledTaskLifecycleListenerTest {
                 listener1, listener2));
 
         // when
-        listener.started(ScheduledTaskIdentity.of("task_name"), taskContext);
+        listener.started(ScheduledTaskIdentity.of("task_name"), taskContext, Duration.ZERO);
 
         // then
         assertThat(events, equalTo(List.of("1:started", "2:started")));
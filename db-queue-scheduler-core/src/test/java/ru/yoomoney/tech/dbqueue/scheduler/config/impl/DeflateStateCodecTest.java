@@ -0,0 +1,59 @@
+package ru.yoomoney.tech.dbqueue.scheduler.config.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class DeflateStateCodecTest {
+    private final DeflateStateCodec<String> codec = new DeflateStateCodec<>(StringStateCodec.getInstance(), 64);
+
+    @Test
+    void should_compress_large_state() {
+        // given
+        String state = "cursor=".repeat(100);
+
+        // when
+        String encodedState = codec.encode(state);
+
+        // then
+        assertThat(encodedState.startsWith("deflate:"), equalTo(true));
+        assertThat(encodedState.length() < state.length(), equalTo(true));
+        assertThat(codec.decode(encodedState), equalTo(state));
+    }
+
+    @Test
+    void should_keep_short_state_as_is() {
+        // when
+        String encodedState = codec.encode("cursor=1");
+
+        // then
+        assertThat(encodedState, equalTo("cursor=1"));
+        assertThat(codec.decode(encodedState), equalTo("cursor=1"));
+    }
+
+    @Test
+    void should_compress_short_state_with_prefix() {
+        // when
+        String encodedState = codec.encode("deflate:1");
+
+        // then
+        assertThat(encodedState.equals("deflate:1"), equalTo(false));
+        assertThat(codec.decode(encodedState), equalTo("deflate:1"));
+    }
+
+    @Test
+    void should_fail_on_truncated_state() {
+        // given
+        String encodedState = codec.encode("cursor=".repeat(100));
+
+        // then
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.decode(encodedState.substring(0, encodedState.length() / 2)));
+    }
+}
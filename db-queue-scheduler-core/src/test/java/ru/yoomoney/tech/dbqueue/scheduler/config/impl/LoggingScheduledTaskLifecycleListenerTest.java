@@ -11,6 +11,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
@@ -40,12 +41,12 @@ class LoggingScheduledTaskLifecycleListenerTest {
     @Test
     public void should_log_start_event() throws IOException {
         // when
-        listener.started(identity, taskContext);
+        listener.started(identity, taskContext, Duration.ofSeconds(2L));
 
         // then
         assertThat(
                 Files.readAllLines(LOG_PATH),
-                equalTo(List.of("INFO  [LoggingScheduledTaskLifecycleListener] task started: identity=taskIdentity"))
+                equalTo(List.of("INFO  [LoggingScheduledTaskLifecycleListener] task started: identity=taskIdentity, scheduleLag=PT2S"))
         );
     }
 
@@ -0,0 +1,205 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
+
+import org.junit.jupiter.api.Test;
+import ru.yoomoney.tech.dbqueue.api.EnqueueParams;
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.VirtualSchedulerTimeSource;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class InMemoryScheduledTaskQueueDaoTest {
+    private static final Instant START_TIME = Instant.parse("2026-10-19T00:00:00Z");
+
+    private final VirtualSchedulerTimeSource timeSource = new VirtualSchedulerTimeSource(START_TIME, ZoneOffset.UTC);
+    private final InMemoryScheduledTaskQueueDao scheduledTaskQueueDao =
+            new InMemoryScheduledTaskQueueDao(timeSource.getClock());
+    private final InMemoryDatabaseAccessLayer databaseAccessLayer =
+            new InMemoryDatabaseAccessLayer(scheduledTaskQueueDao);
+
+    @Test
+    void should_pick_task_when_it_is_ready() {
+        // given
+        QueueLocation location = queueLocation("queue");
+        long taskId = databaseAccessLayer.getQueueDao().enqueue(location,
+                new EnqueueParams<String>().withPayload("payload").withExecutionDelay(Duration.ofMinutes(1L)));
+
+        // when
+        TaskRecord notReadyTask = scheduledTaskQueueDao.pickTask(location.getQueueId(), Duration.ofHours(1L));
+        timeSource.advance(Duration.ofMinutes(1L));
+        TaskRecord readyTask = scheduledTaskQueueDao.pickTask(location.getQueueId(), Duration.ofHours(1L));
+
+        // then
+        assertThat(notReadyTask, nullValue());
+        assertThat(readyTask, notNullValue());
+        assertThat(readyTask.getId(), equalTo(taskId));
+        assertThat(readyTask.getPayload(), equalTo("payload"));
+        assertThat(readyTask.getAttemptsCount(), equalTo(1L));
+        assertThat(readyTask.getTotalAttemptsCount(), equalTo(1L));
+        assertThat(readyTask.getExtData().get(ScheduledTaskExtFields.PLANNED_PROCESS_AT),
+                equalTo(START_TIME.plus(Duration.ofMinutes(1L)).toString()));
+        assertThat(scheduledTaskQueueDao.findQueueTask(location.getQueueId()).orElseThrow().getNextProcessAt(),
+                equalTo(START_TIME.plus(Duration.ofMinutes(61L))));
+    }
+
+    @Test
+    void should_pick_earliest_ready_task_by_queue_name_prefix() {
+        // given
+        databaseAccessLayer.getQueueDao().enqueue(queueLocation("template.b"),
+                new EnqueueParams<String>().withExecutionDelay(Duration.ofMinutes(2L)));
+        databaseAccessLayer.getQueueDao().enqueue(queueLocation("template.a"),
+                new EnqueueParams<String>().withExecutionDelay(Duration.ofMinutes(3L)));
+        databaseAccessLayer.getQueueDao().enqueue(queueLocation("other"),
+                new EnqueueParams<String>().withExecutionDelay(Duration.ofMinutes(1L)));
+        timeSource.advance(Duration.ofMinutes(5L));
+
+        // when
+        TaskRecord firstTask = scheduledTaskQueueDao.pickTask("template.", Duration.ofHours(1L));
+        TaskRecord secondTask = scheduledTaskQueueDao.pickTask("template.", Duration.ofHours(1L));
+        TaskRecord thirdTask = scheduledTaskQueueDao.pickTask("template.", Duration.ofHours(1L));
+
+        // then
+        assertThat(firstTask.getExtData().get(ScheduledTaskExtFields.QUEUE_NAME), equalTo("template.b"));
+        assertThat(secondTask.getExtData().get(ScheduledTaskExtFields.QUEUE_NAME), equalTo("template.a"));
+        assertThat(thirdTask, nullValue());
+    }
+
+    @Test
+    void should_reenqueue_and_resume_triggered_task() {
+        // given
+        QueueLocation location = queueLocation("queue");
+        QueueId queueId = location.getQueueId();
+        databaseAccessLayer.getQueueDao().enqueue(location,
+                new EnqueueParams<String>().withExecutionDelay(Duration.ofHours(1L)));
+
+        // when
+        scheduledTaskQueueDao.triggerNow(queueId);
+        TaskRecord triggeredTask = scheduledTaskQueueDao.pickTask(queueId, Duration.ofMinutes(1L));
+        scheduledTaskQueueDao.reenqueue(queueId, Duration.ofMinutes(10L), triggeredTask.getTotalAttemptsCount());
+
+        // then
+        assertThat(triggeredTask.getExtData().get(ScheduledTaskExtFields.RESUME_PROCESS_AT),
+                equalTo(START_TIME.plus(Duration.ofHours(1L)).toString()));
+        ScheduledTaskRecord taskRecord = scheduledTaskQueueDao.findQueueTask(queueId).orElseThrow();
+        assertThat(taskRecord.getNextProcessAt(), equalTo(START_TIME.plus(Duration.ofMinutes(10L))));
+        assertThat(taskRecord.getResumeProcessAt().isPresent(), equalTo(false));
+        TaskRecord reenqueuedTask = scheduledTaskQueueDao.pickTask("queue", Duration.ofMinutes(1L));
+        assertThat(reenqueuedTask, nullValue());
+    }
+
+    @Test
+    void should_trigger_executing_task_when_it_is_released() {
+        // given
+        QueueLocation location = queueLocation("queue");
+        QueueId queueId = location.getQueueId();
+        databaseAccessLayer.getQueueDao().enqueue(location, new EnqueueParams<>());
+        TaskRecord executingTask = scheduledTaskQueueDao.pickTask(queueId, Duration.ofMinutes(1L));
+
+        // when
+        scheduledTaskQueueDao.triggerNow(queueId);
+        TaskRecord concurrentTask = scheduledTaskQueueDao.pickTask(queueId, Duration.ofMinutes(1L));
+        scheduledTaskQueueDao.reenqueue(queueId, Duration.ofMinutes(10L), executingTask.getTotalAttemptsCount());
+        TaskRecord triggeredTask = scheduledTaskQueueDao.pickTask(queueId, Duration.ofMinutes(1L));
+
+        // then
+        assertThat(concurrentTask, nullValue());
+        assertThat(triggeredTask.getExtData().get(ScheduledTaskExtFields.RESUME_PROCESS_AT),
+                equalTo(START_TIME.plus(Duration.ofMinutes(10L)).toString()));
+    }
+
+    @Test
+    void should_fence_off_updates_of_previous_pick() {
+        // given
+        QueueLocation location = queueLocation("queue");
+        databaseAccessLayer.getQueueDao().enqueue(location, new EnqueueParams<>());
+        TaskRecord firstPick = scheduledTaskQueueDao.pickTask(location.getQueueId(), Duration.ZERO);
+        TaskRecord secondPick = scheduledTaskQueueDao.pickTask(location.getQueueId(), Duration.ZERO);
+
+        // when
+        int firstPickUpdatedRows = scheduledTaskQueueDao.updateNextProcessDate(location.getQueueId(),
+                Duration.ofMinutes(1L), firstPick.getTotalAttemptsCount());
+        int firstPickReenqueuedRows = scheduledTaskQueueDao.reenqueue(location.getQueueId(),
+                Duration.ofMinutes(1L), firstPick.getTotalAttemptsCount());
+        int secondPickReenqueuedRows = scheduledTaskQueueDao.reenqueue(location.getQueueId(),
+                Duration.ofMinutes(2L), secondPick.getTotalAttemptsCount());
+
+        // then
+        assertThat(firstPickUpdatedRows, equalTo(0));
+        assertThat(firstPickReenqueuedRows, equalTo(0));
+        assertThat(secondPickReenqueuedRows, equalTo(1));
+        assertThat(scheduledTaskQueueDao.findQueueTask(location.getQueueId()).orElseThrow().getNextProcessAt(),
+                equalTo(START_TIME.plus(Duration.ofMinutes(2L))));
+    }
+
+    @Test
+    void should_store_checkpoint_along_with_heartbeat() {
+        // given
+        QueueLocation location = queueLocation("queue");
+        databaseAccessLayer.getQueueDao().enqueue(location, new EnqueueParams<>());
+        TaskRecord firstPick = scheduledTaskQueueDao.pickTask(location.getQueueId(), Duration.ZERO);
+
+        // when
+        int updatedRows = scheduledTaskQueueDao.updateNextProcessDate(location.getQueueId(), Duration.ZERO,
+                firstPick.getTotalAttemptsCount(), "checkpoint");
+        TaskRecord secondPick = scheduledTaskQueueDao.pickTask(location.getQueueId(), Duration.ZERO);
+        int staleUpdatedRows = scheduledTaskQueueDao.updateNextProcessDate(location.getQueueId(), Duration.ZERO,
+                firstPick.getTotalAttemptsCount(), "stale_checkpoint");
+
+        // then
+        assertThat(updatedRows, equalTo(1));
+        assertThat(staleUpdatedRows, equalTo(0));
+        assertThat(secondPick.getPayload(), equalTo("checkpoint"));
+    }
+
+    @Test
+    void should_delete_tasks() {
+        // given
+        long taskId = databaseAccessLayer.getQueueDao().enqueue(queueLocation("queue"), new EnqueueParams<>());
+        databaseAccessLayer.getQueueDao().enqueue(queueLocation("template.a"), new EnqueueParams<>());
+        databaseAccessLayer.getQueueDao().enqueue(queueLocation("template.b"), new EnqueueParams<>());
+
+        // when
+        int deletedCount = scheduledTaskQueueDao.deleteQueueTasks("template.");
+        boolean deleted = databaseAccessLayer.getQueueDao().deleteTask(queueLocation("queue"), taskId);
+
+        // then
+        assertThat(deletedCount, equalTo(2));
+        assertThat(deleted, equalTo(true));
+        assertThat(scheduledTaskQueueDao.findAll(), equalTo(List.of()));
+        assertThat(scheduledTaskQueueDao.pickTask("", Duration.ofMinutes(1L)), nullValue());
+    }
+
+    @Test
+    void should_reject_duplicate_queue_task() {
+        // given
+        databaseAccessLayer.getQueueDao().enqueue(queueLocation("queue"), new EnqueueParams<>());
+
+        // when
+        assertThrows(IllegalStateException.class,
+                () -> databaseAccessLayer.getQueueDao().enqueue(queueLocation("queue"), new EnqueueParams<>()));
+
+        // then
+        assertThat(scheduledTaskQueueDao.findQueueNames(""), equalTo(List.of("queue")));
+    }
+
+    private static QueueLocation queueLocation(String queueName) {
+        return QueueLocation.builder()
+                .withTableName("scheduled_tasks")
+                .withQueueId(new QueueId(queueName))
+                .build();
+    }
+}
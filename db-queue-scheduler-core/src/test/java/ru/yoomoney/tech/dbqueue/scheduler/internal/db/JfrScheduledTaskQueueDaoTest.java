@@ -0,0 +1,64 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class JfrScheduledTaskQueueDaoTest {
+    private static final String EVENT_NAME = "ru.yoomoney.tech.dbqueue.scheduler.Query";
+
+    @Test
+    void should_record_query_events() throws IOException {
+        ScheduledTaskQueueDao delegate = (ScheduledTaskQueueDao) Proxy.newProxyInstance(
+                ScheduledTaskQueueDao.class.getClassLoader(),
+                new Class<?>[]{ScheduledTaskQueueDao.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("deleteQueueTask")) {
+                        throw new IllegalStateException("fail");
+                    }
+                    return 3;
+                });
+        JfrScheduledTaskQueueDao dao = new JfrScheduledTaskQueueDao(delegate);
+
+        Path dump = Files.createTempFile("scheduler", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(EVENT_NAME);
+            recording.start();
+            dao.updateNextProcessDate(new QueueId("queue"), Duration.ofSeconds(1L));
+            assertThrows(IllegalStateException.class, () -> dao.deleteQueueTask(new QueueId("queue")));
+            recording.stop();
+            recording.dump(dump);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+                    .filter(event -> event.getEventType().getName().equals(EVENT_NAME))
+                    .collect(Collectors.toList());
+            assertThat(events.size(), equalTo(2));
+            assertThat(events.get(0).getString("queryName"), equalTo("updateNextProcessDate"));
+            assertThat(events.get(0).getString("queueName"), equalTo("queue"));
+            assertThat(events.get(0).getInt("rows"), equalTo(3));
+            assertThat(events.get(0).getBoolean("successful"), equalTo(true));
+            assertThat(events.get(1).getString("queryName"), equalTo("deleteQueueTask"));
+            assertThat(events.get(1).getBoolean("successful"), equalTo(false));
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
+
+import org.junit.jupiter.api.Test;
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerTimeSource;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.DatabaseResilienceSettings;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class ResilientScheduledTaskQueueDaoTest {
+    private static final QueueId QUEUE_ID = new QueueId("queue");
+
+    private final InstantTimeSource timeSource = new InstantTimeSource();
+
+    @Test
+    void should_retry_transient_errors() {
+        // given
+        AtomicInteger callsCount = new AtomicInteger();
+        ScheduledTaskQueueDao dao = resilientDao(failingDao(callsCount, 2,
+                new IllegalStateException(new SQLTransientConnectionException("connection reset"))), 5);
+
+        // when
+        int updatedCount = dao.updateNextProcessDate(QUEUE_ID, Duration.ofSeconds(1L));
+
+        // then
+        assertThat(updatedCount, equalTo(1));
+        assertThat(callsCount.get(), equalTo(3));
+    }
+
+    @Test
+    void should_retry_deadlocks() {
+        // given
+        AtomicInteger callsCount = new AtomicInteger();
+        ScheduledTaskQueueDao dao = resilientDao(failingDao(callsCount, 1,
+                new IllegalStateException(new SQLException("deadlock detected", "40P01"))), 5);
+
+        // when
+        int updatedCount = dao.updatePayload(QUEUE_ID, "state");
+
+        // then
+        assertThat(updatedCount, equalTo(1));
+        assertThat(callsCount.get(), equalTo(2));
+    }
+
+    @Test
+    void should_not_retry_permanent_errors() {
+        // given
+        AtomicInteger callsCount = new AtomicInteger();
+        ScheduledTaskQueueDao dao = resilientDao(failingDao(callsCount, 1,
+                new IllegalStateException(new SQLException("syntax error", "42601"))), 5);
+
+        // when
+        assertThrows(IllegalStateException.class, () -> dao.updateNextProcessDate(QUEUE_ID, Duration.ofSeconds(1L)));
+
+        // then
+        assertThat(callsCount.get(), equalTo(1));
+    }
+
+    @Test
+    void should_not_retry_inserts_of_tasks() {
+        // given
+        AtomicInteger callsCount = new AtomicInteger();
+        ScheduledTaskQueueDao dao = resilientDao(failingDao(callsCount, 1,
+                new IllegalStateException(new SQLTransientConnectionException("connection reset"))), 5);
+
+        // when
+        assertThrows(IllegalStateException.class,
+                () -> dao.enqueueQueueTasks(List.of(QUEUE_ID), Duration.ofSeconds(1L), null));
+
+        // then
+        assertThat(callsCount.get(), equalTo(1));
+    }
+
+    @Test
+    void should_skip_picks_while_circuit_breaker_is_open() {
+        // given
+        AtomicInteger callsCount = new AtomicInteger();
+        ScheduledTaskQueueDao dao = resilientDao(failingDao(callsCount, 3,
+                new IllegalStateException(new SQLTransientConnectionException("connection refused"))), 2);
+        assertThrows(IllegalStateException.class, () -> dao.pickTask(QUEUE_ID, Duration.ofSeconds(1L)));
+        assertThrows(IllegalStateException.class, () -> dao.pickTask(QUEUE_ID, Duration.ofSeconds(1L)));
+
+        // when
+        assertThat(dao.pickTask(QUEUE_ID, Duration.ofSeconds(1L)), nullValue());
+        timeSource.advance(Duration.ofSeconds(30L));
+        assertThrows(IllegalStateException.class, () -> dao.pickTask(QUEUE_ID, Duration.ofSeconds(1L)));
+        assertThat(dao.pickTask(QUEUE_ID, Duration.ofSeconds(1L)), nullValue());
+        timeSource.advance(Duration.ofSeconds(30L));
+        dao.pickTask(QUEUE_ID, Duration.ofSeconds(1L));
+        dao.pickTask(QUEUE_ID, Duration.ofSeconds(1L));
+
+        // then
+        assertThat(callsCount.get(), equalTo(5));
+    }
+
+    private ScheduledTaskQueueDao resilientDao(ScheduledTaskQueueDao delegate, int failureThreshold) {
+        return new ResilientScheduledTaskQueueDao(delegate, DatabaseResilienceSettings.builder()
+                .withMaxAttempts(3)
+                .withFailureThreshold(failureThreshold)
+                .withOpenDuration(Duration.ofSeconds(30L))
+                .build(), timeSource);
+    }
+
+    private static ScheduledTaskQueueDao failingDao(AtomicInteger callsCount, int failuresCount,
+                                                    RuntimeException error) {
+        return (ScheduledTaskQueueDao) Proxy.newProxyInstance(
+                ScheduledTaskQueueDao.class.getClassLoader(),
+                new Class<?>[]{ScheduledTaskQueueDao.class},
+                (proxy, method, args) -> {
+                    if (callsCount.incrementAndGet() <= failuresCount) {
+                        throw error;
+                    }
+                    return method.getReturnType() == int.class ? 1 : null;
+                });
+    }
+
+    /**
+     * Time source that elapses every wait instantly
+     */
+    private static final class InstantTimeSource implements SchedulerTimeSource {
+        private volatile Instant now = Instant.parse("2026-10-19T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Nonnull
+        @Override
+        public Clock getClock() {
+            return new Clock() {
+                @Override
+                public ZoneId getZone() {
+                    return ZoneId.of("UTC");
+                }
+
+                @Override
+                public Clock withZone(ZoneId zone) {
+                    return this;
+                }
+
+                @Override
+                public Instant instant() {
+                    return now;
+                }
+            };
+        }
+
+        @Nonnull
+        @Override
+        public Sleeper createSleeper() {
+            return new Sleeper() {
+                @Override
+                public boolean sleep(@Nonnull Duration duration) {
+                    advance(duration);
+                    return true;
+                }
+
+                @Override
+                public void wakeUp() {
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.history;
+
+import org.junit.jupiter.api.Test;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskExecutionHistoryDao;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskContext;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+import ru.yoomoney.tech.dbqueue.scheduler.models.info.ScheduledTaskExecutionInfo;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.ExecutionHistorySettings;
+
+import javax.annotation.Nonnull;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class ExecutionHistoryWriterTest {
+    private static final Instant NOW = Instant.parse("2026-10-19T10:00:00Z");
+
+    private final ScheduledTaskIdentity taskIdentity = ScheduledTaskIdentity.of("task_name");
+    private final ScheduledTaskContext taskContext = ScheduledTaskContext.builder().withCreatedAt(NOW).build();
+
+    @Test
+    void should_write_executions_in_batches_and_prune_outdated_ones() throws InterruptedException {
+        // given
+        DummyScheduledTaskExecutionHistoryDao dao = new DummyScheduledTaskExecutionHistoryDao(3);
+        ExecutionHistoryWriter writer = new ExecutionHistoryWriter(dao, ExecutionHistorySettings.builder()
+                .withTableName("scheduled_task_executions")
+                .withBatchSize(2)
+                .withPruneChunkSize(2)
+                .withRetention(Duration.ofDays(1L))
+                .withFlushInterval(Duration.ofMillis(100L))
+                .build(), Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // when
+        writer.start();
+        writer.started(taskIdentity, taskContext, Duration.ZERO);
+        writer.crashed(taskIdentity, taskContext, new IllegalStateException("failure"));
+        writer.finished(taskIdentity, taskContext, ScheduledTaskExecutionResult.error(), NOW, 10L);
+        writer.started(taskIdentity, taskContext, Duration.ZERO);
+        writer.finished(taskIdentity, taskContext, ScheduledTaskExecutionResult.success(), NOW, 20L);
+        writer.started(taskIdentity, taskContext, Duration.ZERO);
+        writer.finished(taskIdentity, taskContext, ScheduledTaskExecutionResult.success(), NOW, 30L);
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (dao.deleteCalls.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        writer.shutdown();
+        writer.finished(taskIdentity, taskContext, ScheduledTaskExecutionResult.success(), NOW, 40L);
+
+        // then
+        List<ScheduledTaskExecutionInfo> executions = new ArrayList<>();
+        dao.batches.forEach(executions::addAll);
+        assertThat(executions.size(), equalTo(3));
+        assertThat(dao.batches.stream().allMatch(batch -> batch.size() <= 2), equalTo(true));
+        assertThat(executions.get(0).getResultType(), equalTo(ScheduledTaskExecutionResult.Type.ERROR));
+        assertThat(executions.get(0).getErrorMessage().orElseThrow(),
+                equalTo("java.lang.IllegalStateException: failure"));
+        assertThat(executions.get(0).getStartedAt(), equalTo(NOW.minusMillis(10L)));
+        assertThat(executions.get(1).getErrorMessage().isPresent(), equalTo(false));
+        assertThat(writer.getDroppedExecutionsCount(), equalTo(1L));
+
+        assertThat(dao.deleteCalls.size(), equalTo(2));
+        assertThat(dao.deleteCalls.get(0), equalTo(NOW.minus(Duration.ofDays(1L))));
+    }
+
+    @Test
+    void should_clear_error_of_previous_execution_when_started_with_schedule_lag() throws InterruptedException {
+        // given
+        DummyScheduledTaskExecutionHistoryDao dao = new DummyScheduledTaskExecutionHistoryDao(0);
+        ExecutionHistoryWriter writer = new ExecutionHistoryWriter(dao, ExecutionHistorySettings.builder()
+                .withTableName("scheduled_task_executions")
+                .withBatchSize(1)
+                .withFlushInterval(Duration.ofMillis(100L))
+                .build(), Clock.fixed(NOW, ZoneOffset.UTC));
+        writer.crashed(taskIdentity, taskContext, new IllegalStateException("failure"));
+
+        // when
+        writer.start();
+        writer.started(taskIdentity, taskContext, Duration.ofSeconds(1L));
+        writer.finished(taskIdentity, taskContext, ScheduledTaskExecutionResult.error(), NOW, 10L);
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (dao.batches.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        writer.shutdown();
+
+        // then
+        assertThat(dao.batches.size(), equalTo(1));
+        assertThat(dao.batches.get(0).get(0).getErrorMessage().isPresent(), equalTo(false));
+    }
+
+    private static class DummyScheduledTaskExecutionHistoryDao implements ScheduledTaskExecutionHistoryDao {
+        private final List<List<ScheduledTaskExecutionInfo>> batches = new CopyOnWriteArrayList<>();
+        private final List<Instant> deleteCalls = new CopyOnWriteArrayList<>();
+        private int outdatedCount;
+
+        DummyScheduledTaskExecutionHistoryDao(int outdatedCount) {
+            this.outdatedCount = outdatedCount;
+        }
+
+        @Override
+        public void insert(@Nonnull List<ScheduledTaskExecutionInfo> executions) {
+            batches.add(new ArrayList<>(executions));
+        }
+
+        @Override
+        public List<ScheduledTaskExecutionInfo> findLatest(@Nonnull ScheduledTaskIdentity identity, int limit) {
+            return List.of();
+        }
+
+        @Override
+        public int deleteFinishedBefore(@Nonnull Instant finishedBefore, int chunkSize) {
+            deleteCalls.add(finishedBefore);
+            int deletedCount = Math.min(outdatedCount, chunkSize);
+            outdatedCount -= deletedCount;
+            return deletedCount;
+        }
+    }
+}
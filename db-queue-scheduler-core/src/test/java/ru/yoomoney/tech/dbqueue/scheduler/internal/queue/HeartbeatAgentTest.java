@@ -1,8 +1,13 @@
 package ru.yoomoney.tech.dbqueue.scheduler.internal.queue;
 
 import org.junit.jupiter.api.Test;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.VirtualSchedulerTimeSource;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -49,4 +54,46 @@ class HeartbeatAgentTest {
         Thread.sleep(100L);
         assertThat(threadRef.get().isAlive(), equalTo(false));
     }
-}
\ No newline at end of file
+
+    @Test
+    void should_do_heartbeat_by_virtual_time() throws InterruptedException {
+        VirtualSchedulerTimeSource timeSource = new VirtualSchedulerTimeSource(Instant.now(), ZoneOffset.UTC);
+        Semaphore heartbeats = new Semaphore(0);
+        HeartbeatAgent heartbeatAgent = new HeartbeatAgent("name", Duration.ofMinutes(10L), heartbeats::release,
+                timeSource);
+
+        heartbeatAgent.start();
+        assertThat(heartbeats.tryAcquire(5L, TimeUnit.SECONDS), equalTo(true));
+        assertThat(timeSource.awaitSleepers(1, Duration.ofSeconds(5L)), equalTo(true));
+
+        timeSource.advance(Duration.ofMinutes(9L));
+        assertThat(heartbeats.tryAcquire(100L, TimeUnit.MILLISECONDS), equalTo(false));
+
+        timeSource.advance(Duration.ofMinutes(1L));
+        assertThat(heartbeats.tryAcquire(5L, TimeUnit.SECONDS), equalTo(true));
+
+        heartbeatAgent.stop();
+        timeSource.advance(Duration.ofMinutes(10L));
+        assertThat(heartbeats.tryAcquire(100L, TimeUnit.MILLISECONDS), equalTo(false));
+    }
+
+    @Test
+    void should_retry_failed_heartbeat_by_virtual_time() throws InterruptedException {
+        VirtualSchedulerTimeSource timeSource = new VirtualSchedulerTimeSource(Instant.now(), ZoneOffset.UTC);
+        Semaphore heartbeats = new Semaphore(0);
+        HeartbeatAgent heartbeatAgent = new HeartbeatAgent("name", Duration.ofMinutes(10L), Duration.ofMinutes(1L),
+                () -> {
+                    heartbeats.release();
+                    return false;
+                }, timeSource);
+
+        heartbeatAgent.start();
+        assertThat(heartbeats.tryAcquire(5L, TimeUnit.SECONDS), equalTo(true));
+        assertThat(timeSource.awaitSleepers(1, Duration.ofSeconds(5L)), equalTo(true));
+
+        timeSource.advance(Duration.ofMinutes(1L));
+        assertThat(heartbeats.tryAcquire(5L, TimeUnit.SECONDS), equalTo(true));
+
+        heartbeatAgent.stop();
+    }
+}
@@ -0,0 +1,48 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.queue;
+
+import org.junit.jupiter.api.Test;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.HeartbeatSettings;
+
+import java.time.Duration;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class HeartbeatIntervalEstimatorTest {
+    private final HeartbeatIntervalEstimator estimator = new HeartbeatIntervalEstimator(HeartbeatSettings.builder()
+            .withAdaptiveInterval(true)
+            .withMinInterval(Duration.ofSeconds(10L))
+            .withMaxInterval(Duration.ofMinutes(5L))
+            .build());
+
+    @Test
+    void should_use_max_interval_when_task_was_not_measured() {
+        assertThat(estimator.getHeartbeatInterval("task"), equalTo(Duration.ofMinutes(5L)));
+    }
+
+    @Test
+    void should_follow_average_processing_time() {
+        estimator.processingTimeMeasured("task", Duration.ofSeconds(60L));
+        assertThat(estimator.getHeartbeatInterval("task"), equalTo(Duration.ofSeconds(60L)));
+
+        estimator.processingTimeMeasured("task", Duration.ofSeconds(160L));
+        assertThat(estimator.getHeartbeatInterval("task"), equalTo(Duration.ofSeconds(90L)));
+
+        estimator.processingTimeMeasured("task", Duration.ofMillis(89_500L));
+        assertThat(estimator.getHeartbeatInterval("task"), equalTo(Duration.ofSeconds(90L)));
+        assertThat(estimator.getHeartbeatInterval("other_task"), equalTo(Duration.ofMinutes(5L)));
+    }
+
+    @Test
+    void should_bound_interval() {
+        estimator.processingTimeMeasured("fast_task", Duration.ofMillis(100L));
+        estimator.processingTimeMeasured("slow_task", Duration.ofHours(1L));
+
+        assertThat(estimator.getHeartbeatInterval("fast_task"), equalTo(Duration.ofSeconds(10L)));
+        assertThat(estimator.getHeartbeatInterval("slow_task"), equalTo(Duration.ofMinutes(5L)));
+    }
+}
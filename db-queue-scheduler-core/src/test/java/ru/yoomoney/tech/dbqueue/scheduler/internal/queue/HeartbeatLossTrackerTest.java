@@ -0,0 +1,89 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.queue;
+
+import org.junit.jupiter.api.Test;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.VirtualSchedulerTimeSource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class HeartbeatLossTrackerTest {
+    private final VirtualSchedulerTimeSource timeSource = new VirtualSchedulerTimeSource(
+            Instant.parse("2026-10-19T00:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void should_count_consecutive_failures() {
+        HeartbeatLossTracker tracker = createTracker(false);
+
+        assertThat(tracker.heartbeatFailed(false), equalTo(1));
+        assertThat(tracker.heartbeatFailed(true), equalTo(2));
+        tracker.heartbeatSucceeded(timeSource.getClock().instant());
+        assertThat(tracker.heartbeatFailed(false), equalTo(1));
+
+        timeSource.advance(Duration.ofMinutes(1L));
+        tracker.heartbeatFailed(true);
+        assertThat(tracker.executionFinished(), equalTo(false));
+        assertThat(Thread.currentThread().isInterrupted(), equalTo(false));
+    }
+
+    @Test
+    void should_cancel_execution_when_lock_is_about_to_expire() {
+        HeartbeatLossTracker tracker = createTracker(true);
+
+        timeSource.advance(Duration.ofSeconds(10L));
+        tracker.heartbeatFailed(false);
+        assertThat(Thread.currentThread().isInterrupted(), equalTo(false));
+
+        timeSource.advance(Duration.ofSeconds(5L));
+        tracker.heartbeatFailed(false);
+        assertThat(Thread.currentThread().isInterrupted(), equalTo(true));
+
+        assertThat(tracker.executionFinished(), equalTo(true));
+        assertThat(Thread.currentThread().isInterrupted(), equalTo(false));
+    }
+
+    @Test
+    void should_extend_lock_by_successful_heartbeat() {
+        HeartbeatLossTracker tracker = createTracker(true);
+
+        timeSource.advance(Duration.ofSeconds(10L));
+        tracker.heartbeatSucceeded(timeSource.getClock().instant());
+        timeSource.advance(Duration.ofSeconds(10L));
+        tracker.heartbeatFailed(false);
+
+        assertThat(tracker.executionFinished(), equalTo(false));
+    }
+
+    @Test
+    void should_cancel_execution_when_lock_is_lost() {
+        HeartbeatLossTracker tracker = createTracker(true);
+
+        tracker.heartbeatFailed(true);
+
+        assertThat(tracker.executionFinished(), equalTo(true));
+        assertThat(Thread.currentThread().isInterrupted(), equalTo(false));
+    }
+
+    @Test
+    void should_not_cancel_finished_execution() {
+        HeartbeatLossTracker tracker = createTracker(true);
+
+        assertThat(tracker.executionFinished(), equalTo(false));
+        tracker.heartbeatFailed(true);
+
+        assertThat(Thread.currentThread().isInterrupted(), equalTo(false));
+    }
+
+    private HeartbeatLossTracker createTracker(boolean cancellationEnabled) {
+        return new HeartbeatLossTracker(Duration.ofSeconds(20L), Duration.ofSeconds(5L),
+                timeSource.getClock().instant().plus(Duration.ofSeconds(20L)), cancellationEnabled,
+                Thread.currentThread(), timeSource.getClock());
+    }
+}
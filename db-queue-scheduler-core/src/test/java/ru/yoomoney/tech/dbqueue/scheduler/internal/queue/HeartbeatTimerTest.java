@@ -0,0 +1,86 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.queue;
+
+import org.junit.jupiter.api.Test;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.VirtualSchedulerTimeSource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class HeartbeatTimerTest {
+    private final VirtualSchedulerTimeSource timeSource = new VirtualSchedulerTimeSource(
+            Instant.parse("2026-10-19T00:00:00Z"), ZoneOffset.UTC);
+    private final HeartbeatTimer heartbeatTimer = new HeartbeatTimer(timeSource);
+
+    @Test
+    void should_run_actions_by_virtual_time() throws InterruptedException {
+        Semaphore actions = new Semaphore(0);
+
+        heartbeatTimer.schedule(Duration.ofMinutes(1L), actions::release);
+        assertThat(timeSource.awaitSleepers(1, Duration.ofSeconds(5L)), equalTo(true));
+
+        timeSource.advance(Duration.ofSeconds(59L));
+        assertThat(actions.tryAcquire(100L, TimeUnit.MILLISECONDS), equalTo(false));
+
+        timeSource.advance(Duration.ofSeconds(1L));
+        assertThat(actions.tryAcquire(5L, TimeUnit.SECONDS), equalTo(true));
+
+        heartbeatTimer.schedule(Duration.ofMinutes(1L), actions::release);
+        assertThat(timeSource.awaitSleepers(1, Duration.ofSeconds(5L)), equalTo(true));
+        timeSource.advance(Duration.ofMinutes(1L));
+        assertThat(actions.tryAcquire(5L, TimeUnit.SECONDS), equalTo(true));
+    }
+
+    @Test
+    void should_not_run_cancelled_action() throws InterruptedException {
+        Semaphore actions = new Semaphore(0);
+
+        HeartbeatTimer.Timeout timeout = heartbeatTimer.schedule(Duration.ofMinutes(1L), actions::release);
+        assertThat(timeSource.awaitSleepers(1, Duration.ofSeconds(5L)), equalTo(true));
+        timeout.cancel();
+        timeSource.advance(Duration.ofMinutes(1L));
+
+        assertThat(actions.tryAcquire(100L, TimeUnit.MILLISECONDS), equalTo(false));
+    }
+
+    @Test
+    void should_reuse_timer_thread_while_it_is_kept_alive() throws InterruptedException {
+        Semaphore actions = new Semaphore(0);
+        AtomicReference<Thread> firstThread = new AtomicReference<>();
+        AtomicReference<Thread> secondThread = new AtomicReference<>();
+
+        heartbeatTimer.schedule(Duration.ofSeconds(1L), () -> {
+            firstThread.set(Thread.currentThread());
+            actions.release();
+        });
+        assertThat(timeSource.awaitSleepers(1, Duration.ofSeconds(5L)), equalTo(true));
+        timeSource.advance(Duration.ofSeconds(1L));
+        assertThat(actions.tryAcquire(5L, TimeUnit.SECONDS), equalTo(true));
+
+        assertThat(timeSource.awaitSleepers(1, Duration.ofSeconds(5L)), equalTo(true));
+        timeSource.advance(HeartbeatTimer.KEEP_ALIVE.minusSeconds(1L));
+        heartbeatTimer.schedule(Duration.ofSeconds(1L), () -> {
+            secondThread.set(Thread.currentThread());
+            actions.release();
+        });
+        assertThat(timeSource.awaitSleepers(1, Duration.ofSeconds(5L)), equalTo(true));
+        timeSource.advance(Duration.ofSeconds(1L));
+        assertThat(actions.tryAcquire(5L, TimeUnit.SECONDS), equalTo(true));
+        assertThat(secondThread.get(), equalTo(firstThread.get()));
+
+        assertThat(timeSource.awaitSleepers(1, Duration.ofSeconds(5L)), equalTo(true));
+        timeSource.advance(HeartbeatTimer.KEEP_ALIVE);
+        firstThread.get().join(TimeUnit.SECONDS.toMillis(5L));
+        assertThat(firstThread.get().isAlive(), equalTo(false));
+    }
+}
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Test;
 import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
 import ru.yoomoney.tech.dbqueue.settings.QueueId;
 
+import java.util.Optional;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 
@@ -27,4 +29,16 @@ class QueueIdMapperTest {
 
         assertThat(queueIdMapper.toQueueId(scheduledTaskIdentity), equalTo(new QueueId("queueId")));
     }
+
+    @Test
+    void should_map_template_instance_to_QueueId_and_back() {
+        ScheduledTaskIdentity templateIdentity = ScheduledTaskIdentity.of("template");
+
+        QueueId instanceQueueId = queueIdMapper.toInstanceQueueId(templateIdentity, "key#1");
+
+        assertThat(instanceQueueId, equalTo(new QueueId("template#key#1")));
+        assertThat(queueIdMapper.toInstanceQueueNamePrefix(new QueueId("template")), equalTo("template#"));
+        assertThat(queueIdMapper.toInstanceKey(new QueueId("template"), instanceQueueId), equalTo(Optional.of("key#1")));
+        assertThat(queueIdMapper.toInstanceKey(new QueueId("other"), instanceQueueId), equalTo(Optional.empty()));
+    }
 }
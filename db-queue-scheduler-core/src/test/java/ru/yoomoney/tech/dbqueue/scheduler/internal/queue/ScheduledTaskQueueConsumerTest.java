@@ -3,12 +3,20 @@ package ru.yoomoney.tech.dbqueue.scheduler.internal.queue;
 import org.junit.jupiter.api.Test;
 import ru.yoomoney.tech.dbqueue.api.Task;
 import ru.yoomoney.tech.dbqueue.api.TaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
 import ru.yoomoney.tech.dbqueue.config.QueueShardId;
 import ru.yoomoney.tech.dbqueue.scheduler.config.ScheduledTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.scheduler.config.StateCodec;
 import ru.yoomoney.tech.dbqueue.scheduler.config.impl.NoopScheduledTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.NoopSchedulerInstrumentation;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.VirtualSchedulerTimeSource;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.ScheduledTaskDefinition;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskExtFields;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskQueueDao;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskRecord;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.impl.CronNextExecutionDelayProvider;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.impl.FailureAwareNextExecutionDelayProvider;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.impl.FixedDelayNextExecutionDelayProvider;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.impl.FixedRateNextExecutionDelayProvider;
 import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTask;
 import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskContext;
@@ -16,6 +24,7 @@ import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
 import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
 import ru.yoomoney.tech.dbqueue.scheduler.models.SimpleScheduledTask;
 import ru.yoomoney.tech.dbqueue.scheduler.settings.FailureSettings;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.LeaseSettings;
 import ru.yoomoney.tech.dbqueue.settings.ExtSettings;
 import ru.yoomoney.tech.dbqueue.settings.FailRetryType;
 import ru.yoomoney.tech.dbqueue.settings.PollSettings;
@@ -36,9 +45,15 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -119,6 +134,7 @@ class ScheduledTaskQueueConsumerTest {
         assertThat(contextRef.get().getAttemptsCount(), equalTo(1L));
         assertThat(contextRef.get().getSuccessfulAttemptsCount(), equalTo(2L));
         assertThat(contextRef.get().getTotalAttemptsCount(), equalTo(3L));
+        assertThat(contextRef.get().getExecutionEpoch(), equalTo(3L));
         assertThat(contextRef.get().getCreatedAt(), equalTo(LocalDateTime.of(2010, 1, 1, 0, 0, 0).toInstant(ZoneOffset.UTC)));
     }
 
@@ -150,10 +166,604 @@ class ScheduledTaskQueueConsumerTest {
         assertThat(taskExecutionResult.getActionType(), equalTo(TaskExecutionResult.Type.FAIL));
     }
 
+    @Test
+    @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
+    public void should_store_last_checkpoint_when_task_crashes() {
+        // given
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task",
+                context -> {
+                    context.checkpoint("step-1");
+                    context.checkpoint("step-2");
+                    throw new RuntimeException("test exception");
+                }
+        );
+        ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
+                .withScheduledTask(scheduledTask)
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                .withNextExecutionTimeProvider(new FixedRateNextExecutionDelayProvider(Duration.ZERO))
+                .build();
+        DummyScheduledTaskQueueDao scheduledTaskQueueDao = new DummyScheduledTaskQueueDao();
+        ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
+                dummyQueueConfig(),
+                scheduledTaskDefinition,
+                NoopScheduledTaskLifecycleListener.getInstance(),
+                scheduledTaskQueueDao
+        );
+
+        // when
+        scheduledTaskQueueConsumer.execute(dummyTask());
+
+        // then
+        assertThat(scheduledTaskQueueDao.payload, equalTo("step-2"));
+    }
+
+    @Test
+    @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
+    public void should_prefer_result_state_over_checkpoint() {
+        // given
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task",
+                context -> {
+                    context.checkpoint("step-1");
+                    return ScheduledTaskExecutionResult.success().withState("done");
+                }
+        );
+        ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
+                .withScheduledTask(scheduledTask)
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                .withNextExecutionTimeProvider(new FixedRateNextExecutionDelayProvider(Duration.ZERO))
+                .build();
+        DummyScheduledTaskQueueDao scheduledTaskQueueDao = new DummyScheduledTaskQueueDao();
+        ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
+                dummyQueueConfig(),
+                scheduledTaskDefinition,
+                NoopScheduledTaskLifecycleListener.getInstance(),
+                scheduledTaskQueueDao
+        );
+
+        // when
+        scheduledTaskQueueConsumer.execute(dummyTask());
+
+        // then
+        assertThat(scheduledTaskQueueDao.payload, equalTo("done"));
+    }
+
+    @Test
+    @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
+    public void should_not_store_unchanged_state() {
+        // given
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task",
+                context -> ScheduledTaskExecutionResult.success().withState(context.getState().orElseThrow())
+        );
+        ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
+                .withScheduledTask(scheduledTask)
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                .withNextExecutionTimeProvider(new FixedRateNextExecutionDelayProvider(Duration.ZERO))
+                .build();
+        DummyScheduledTaskQueueDao scheduledTaskQueueDao = new DummyScheduledTaskQueueDao();
+        ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
+                dummyQueueConfig(),
+                scheduledTaskDefinition,
+                NoopScheduledTaskLifecycleListener.getInstance(),
+                scheduledTaskQueueDao
+        );
+
+        // when
+        scheduledTaskQueueConsumer.execute(dummyTask());
+
+        // then
+        assertThat(scheduledTaskQueueDao.payloadUpdatesCount, equalTo(0));
+    }
+
+    @Test
+    @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
+    public void should_decode_typed_state_only_when_stored_state_changes() {
+        // given
+        AtomicInteger decodesCount = new AtomicInteger();
+        StateCodec<Integer> stateCodec = new StateCodec<>() {
+            @Nonnull
+            @Override
+            public String encode(@Nonnull Integer state) {
+                return state.toString();
+            }
+
+            @Nonnull
+            @Override
+            public Integer decode(@Nonnull String encodedState) {
+                decodesCount.incrementAndGet();
+                return encodedState.isEmpty() ? 0 : Integer.valueOf(encodedState);
+            }
+        };
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task",
+                context -> ScheduledTaskExecutionResult.success()
+                        .withTypedState(context.getTypedState(Integer.class).orElseThrow() + 1)
+        );
+        ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
+                .withScheduledTask(scheduledTask)
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                .withNextExecutionTimeProvider(new FixedRateNextExecutionDelayProvider(Duration.ZERO))
+                .withStateCodec(stateCodec)
+                .build();
+        DummyScheduledTaskQueueDao scheduledTaskQueueDao = new DummyScheduledTaskQueueDao();
+        ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
+                dummyQueueConfig(),
+                scheduledTaskDefinition,
+                NoopScheduledTaskLifecycleListener.getInstance(),
+                scheduledTaskQueueDao
+        );
+
+        // when
+        scheduledTaskQueueConsumer.execute(dummyTask());
+        scheduledTaskQueueConsumer.execute(Task.<String>builder(new QueueShardId("shardId"))
+                .withPayload(scheduledTaskQueueDao.payload)
+                .build());
+
+        // then
+        assertThat(scheduledTaskQueueDao.payload, equalTo("2"));
+        assertThat(scheduledTaskQueueDao.payloadUpdatesCount, equalTo(2));
+        assertThat(decodesCount.get(), equalTo(1));
+    }
+
+    @Test
+    @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
+    public void should_decode_typed_state_again_after_failed_execution() {
+        // given
+        AtomicInteger decodesCount = new AtomicInteger();
+        StateCodec<List<String>> stateCodec = new StateCodec<>() {
+            @Nonnull
+            @Override
+            public String encode(@Nonnull List<String> state) {
+                return String.join(",", state);
+            }
+
+            @Nonnull
+            @Override
+            public List<String> decode(@Nonnull String encodedState) {
+                decodesCount.incrementAndGet();
+                return new ArrayList<>(List.of(encodedState.split(",")));
+            }
+        };
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task",
+                context -> {
+                    @SuppressWarnings("unchecked")
+                    List<String> state = context.getTypedState(List.class).orElseThrow();
+                    state.add("modified");
+                    return ScheduledTaskExecutionResult.error();
+                }
+        );
+        ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
+                .withScheduledTask(scheduledTask)
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                .withNextExecutionTimeProvider(new FixedRateNextExecutionDelayProvider(Duration.ZERO))
+                .withStateCodec(stateCodec)
+                .build();
+        DummyScheduledTaskQueueDao scheduledTaskQueueDao = new DummyScheduledTaskQueueDao();
+        ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
+                dummyQueueConfig(),
+                scheduledTaskDefinition,
+                NoopScheduledTaskLifecycleListener.getInstance(),
+                scheduledTaskQueueDao
+        );
+        Task<String> task = Task.<String>builder(new QueueShardId("shardId"))
+                .withPayload("stored")
+                .build();
+
+        // when
+        scheduledTaskQueueConsumer.execute(task);
+        scheduledTaskQueueConsumer.execute(task);
+
+        // then
+        assertThat(decodesCount.get(), equalTo(2));
+        assertThat(scheduledTaskQueueDao.payloadUpdatesCount, equalTo(0));
+    }
+
+    @Test
+    @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
+    public void should_read_detached_state_only_when_task_accesses_it() {
+        // given
+        AtomicReference<String> readState = new AtomicReference<>();
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task",
+                context -> {
+                    if (context.getAttemptsCount() > 1L) {
+                        readState.set(context.getState().orElseThrow());
+                        readState.set(context.getState().orElseThrow());
+                    }
+                    return ScheduledTaskExecutionResult.success();
+                }
+        );
+        ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
+                .withScheduledTask(scheduledTask)
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                .withNextExecutionTimeProvider(new FixedRateNextExecutionDelayProvider(Duration.ZERO))
+                .build();
+        DummyScheduledTaskQueueDao scheduledTaskQueueDao = new DummyScheduledTaskQueueDao();
+        scheduledTaskQueueDao.payload = "detached";
+        ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
+                dummyQueueConfig(),
+                scheduledTaskDefinition,
+                NoopScheduledTaskLifecycleListener.getInstance(),
+                scheduledTaskQueueDao
+        );
+
+        // when
+        scheduledTaskQueueConsumer.execute(detachedStateTask(1L));
+        int firstExecutionReadsCount = scheduledTaskQueueDao.payloadReadsCount;
+        scheduledTaskQueueConsumer.execute(detachedStateTask(2L));
+
+        // then
+        assertThat(firstExecutionReadsCount, equalTo(0));
+        assertThat(scheduledTaskQueueDao.payloadReadsCount, equalTo(1));
+        assertThat(readState.get(), equalTo("detached"));
+    }
+
     @Test
     public void should_postpone_execution_according_to_nextExectutionTimeProvider() {
         // given
-        Clock clock = Clock.fixed(Instant.now(), ZoneId.systemDefault());
+        Clock clock = Clock.fixed(Instant.now(), ZoneId.systemDefault());
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task",
+                context -> ScheduledTaskExecutionResult.success()
+        );
+        ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
+                .withScheduledTask(scheduledTask)
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                .withNextExecutionTimeProvider(new FixedRateNextExecutionDelayProvider(Duration.ofDays(1L)))
+                .build();
+        DummyScheduledTaskQueueDao scheduledTaskQueueDao = new DummyScheduledTaskQueueDao();
+        ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
+                dummyQueueConfig(),
+                scheduledTaskDefinition,
+                NoopScheduledTaskLifecycleListener.getInstance(),
+                scheduledTaskQueueDao,
+                clock
+        );
+
+        // when
+        TaskExecutionResult taskExecutionResult = scheduledTaskQueueConsumer.execute(dummyTask());
+
+        // then
+        assertThat(taskExecutionResult.getActionType(), equalTo(TaskExecutionResult.Type.FAIL));
+        assertThat(scheduledTaskQueueDao.reenqueueDelay, equalTo(Duration.ofDays(1L)));
+    }
+
+    @Test
+    public void should_postpone_execution_according_to_overridden_next_execution_time() {
+        // given
+        Clock clock = Clock.fixed(Instant.now(), ZoneId.systemDefault());
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task",
+                context -> ScheduledTaskExecutionResult.success().shiftExecutionTime(clock.instant().plus(Duration.ofDays(10L)))
+        );
+        ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
+                .withScheduledTask(scheduledTask)
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                .withNextExecutionTimeProvider(new FixedRateNextExecutionDelayProvider(Duration.ofDays(1L)))
+                .build();
+        DummyScheduledTaskQueueDao scheduledTaskQueueDao = new DummyScheduledTaskQueueDao();
+        ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
+                dummyQueueConfig(),
+                scheduledTaskDefinition,
+                NoopScheduledTaskLifecycleListener.getInstance(),
+                scheduledTaskQueueDao,
+                clock
+        );
+
+        // when
+        TaskExecutionResult taskExecutionResult = scheduledTaskQueueConsumer.execute(dummyTask());
+
+        // then
+        assertThat(taskExecutionResult.getActionType(), equalTo(TaskExecutionResult.Type.FAIL));
+        assertThat(scheduledTaskQueueDao.reenqueueDelay, equalTo(Duration.ofDays(10L)));
+    }
+
+    @Test
+    @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
+    public void should_resume_regular_schedule_after_one_off_execution() {
+        // given
+        Instant now = Instant.now();
+        Clock clock = Clock.fixed(now, ZoneId.systemDefault());
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task",
+                context -> ScheduledTaskExecutionResult.success()
+        );
+        ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
+                .withScheduledTask(scheduledTask)
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                .withNextExecutionTimeProvider(new FixedRateNextExecutionDelayProvider(Duration.ofDays(1L)))
+                .build();
+        DummyScheduledTaskQueueDao scheduledTaskQueueDao = new DummyScheduledTaskQueueDao();
+        scheduledTaskQueueDao.databaseCurrentTime = now;
+        ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
+                dummyQueueConfig(),
+                scheduledTaskDefinition,
+                NoopScheduledTaskLifecycleListener.getInstance(),
+                scheduledTaskQueueDao,
+                clock
+        );
+        Task<String> task = Task.<String>builder(new QueueShardId("shardId"))
+                .withPayload("")
+                .withExtData(Map.of(ScheduledTaskExtFields.RESUME_PROCESS_AT, now.plus(Duration.ofHours(3L)).toString()))
+                .build();
+
+        // when
+        TaskExecutionResult taskExecutionResult = scheduledTaskQueueConsumer.execute(task);
+
+        // then
+        assertThat(taskExecutionResult.getActionType(), equalTo(TaskExecutionResult.Type.FAIL));
+        assertThat(scheduledTaskQueueDao.reenqueueDelay, equalTo(Duration.ofHours(3L)));
+    }
+
+    @Test
+    @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
+    public void should_resume_overdue_regular_schedule_immediately() {
+        // given
+        Instant now = Instant.now();
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task",
+                context -> ScheduledTaskExecutionResult.success()
+        );
+        ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
+                .withScheduledTask(scheduledTask)
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                .withNextExecutionTimeProvider(new FixedRateNextExecutionDelayProvider(Duration.ofDays(1L)))
+                .build();
+        DummyScheduledTaskQueueDao scheduledTaskQueueDao = new DummyScheduledTaskQueueDao();
+        scheduledTaskQueueDao.databaseCurrentTime = now;
+        ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
+                dummyQueueConfig(),
+                scheduledTaskDefinition,
+                NoopScheduledTaskLifecycleListener.getInstance(),
+                scheduledTaskQueueDao,
+                Clock.fixed(now, ZoneId.systemDefault())
+        );
+        Task<String> task = Task.<String>builder(new QueueShardId("shardId"))
+                .withPayload("")
+                .withExtData(Map.of(ScheduledTaskExtFields.RESUME_PROCESS_AT, now.minus(Duration.ofHours(3L)).toString()))
+                .build();
+
+        // when
+        scheduledTaskQueueConsumer.execute(task);
+
+        // then
+        assertThat(scheduledTaskQueueDao.reenqueueDelay, equalTo(Duration.ZERO));
+    }
+
+    @Test
+    @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
+    public void should_retry_failed_one_off_execution_according_to_failure_settings() {
+        // given
+        Instant now = Instant.now();
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task",
+                context -> ScheduledTaskExecutionResult.error()
+        );
+        ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
+                .withScheduledTask(scheduledTask)
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofMinutes(5L)))
+                .withNextExecutionTimeProvider(new FailureAwareNextExecutionDelayProvider(
+                        new FixedRateNextExecutionDelayProvider(Duration.ofDays(1L)),
+                        FailureSettings.linearBackoff(Duration.ofMinutes(5L))))
+                .build();
+        DummyScheduledTaskQueueDao scheduledTaskQueueDao = new DummyScheduledTaskQueueDao();
+        scheduledTaskQueueDao.databaseCurrentTime = now;
+        ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
+                dummyQueueConfig(),
+                scheduledTaskDefinition,
+                NoopScheduledTaskLifecycleListener.getInstance(),
+                scheduledTaskQueueDao,
+                Clock.fixed(now, ZoneId.systemDefault())
+        );
+        Task<String> task = Task.<String>builder(new QueueShardId("shardId"))
+                .withPayload("")
+                .withAttemptsCount(1L)
+                .withExtData(Map.of(ScheduledTaskExtFields.RESUME_PROCESS_AT, now.plus(Duration.ofHours(3L)).toString()))
+                .build();
+
+        // when
+        scheduledTaskQueueConsumer.execute(task);
+
+        // then
+        assertThat(scheduledTaskQueueDao.failureDelay, equalTo(Duration.ofMinutes(5L)));
+        assertThat(scheduledTaskQueueDao.reenqueueDelay, equalTo(null));
+    }
+
+    @Test
+    @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
+    public void should_execute_task_template_instance() {
+        // given
+        AtomicReference<ScheduledTaskContext> contextRef = new AtomicReference<>();
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "queueId",
+                context -> {
+                    contextRef.set(context);
+                    return ScheduledTaskExecutionResult.success();
+                }
+        );
+        ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
+                .withScheduledTask(scheduledTask)
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                .withNextExecutionTimeProvider(new FixedRateNextExecutionDelayProvider(Duration.ofDays(1L)))
+                .withInstanceKeys(Set.of("merchant-1"))
+                .build();
+        DummyScheduledTaskQueueDao scheduledTaskQueueDao = new DummyScheduledTaskQueueDao();
+        DummyScheduledTaskLifecycleListener listener = new DummyScheduledTaskLifecycleListener();
+        ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
+                dummyQueueConfig(),
+                scheduledTaskDefinition,
+                listener,
+                scheduledTaskQueueDao
+        );
+        Map<String, String> extData = new HashMap<>();
+        extData.put(ScheduledTaskExtFields.QUEUE_NAME, "queueId#merchant-1");
+        extData.put(ScheduledTaskExtFields.RESUME_PROCESS_AT, null);
+        Task<String> task = Task.<String>builder(new QueueShardId("shardId"))
+                .withPayload("")
+                .withExtData(extData)
+                .build();
+
+        // when
+        TaskExecutionResult taskExecutionResult = scheduledTaskQueueConsumer.execute(task);
+
+        // then
+        assertThat(contextRef.get().getInstanceKey(), equalTo(Optional.of("merchant-1")));
+        assertThat(listener.startedTaskIdentity, equalTo(ScheduledTaskIdentity.of("queueId").instance("merchant-1")));
+        assertThat(taskExecutionResult.getActionType(), equalTo(TaskExecutionResult.Type.FAIL));
+        assertThat(scheduledTaskQueueDao.reenqueuedQueueId, equalTo(new QueueId("queueId#merchant-1")));
+    }
+
+    @Test
+    @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
+    public void should_receive_lifecycle_events() {
+        // given
+        Clock clock = Clock.fixed(Instant.now(), ZoneId.systemDefault());
+        RuntimeException exception = new RuntimeException("test exception");
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task",
+                context -> {
+                    throw exception;
+                }
+        );
+        ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
+                .withScheduledTask(scheduledTask)
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                .withNextExecutionTimeProvider(new FixedRateNextExecutionDelayProvider(Duration.ofDays(1L)))
+                .build();
+        DummyScheduledTaskLifecycleListener listener = new DummyScheduledTaskLifecycleListener();
+        ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
+                dummyQueueConfig(),
+                scheduledTaskDefinition,
+                listener,
+                new DummyScheduledTaskQueueDao(),
+                clock
+        );
+
+        // when
+        scheduledTaskQueueConsumer.execute(dummyTask());
+
+        // then
+        assertThat(listener.startedTaskIdentity, equalTo(ScheduledTaskIdentity.of("scheduled-task")));
+        assertThat(listener.finishedTaskIdentity, equalTo(ScheduledTaskIdentity.of("scheduled-task")));
+        assertThat(listener.crashedTaskIdentity, equalTo(ScheduledTaskIdentity.of("scheduled-task")));
+        assertThat(listener.executionResult, equalTo(ScheduledTaskExecutionResult.error()));
+        assertThat(listener.processTaskTimeInMills, equalTo(0L));
+        assertThat(listener.nextExecutionTime, notNullValue());
+        assertThat(listener.throwable, equalTo(exception));
+    }
+
+    @Test
+    public void should_pass_planned_execution_time_and_schedule_lag() {
+        // given
+        ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
+                .withScheduledTask(SimpleScheduledTask.create("queueId", context -> ScheduledTaskExecutionResult.success()))
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                .withNextExecutionTimeProvider(new FixedRateNextExecutionDelayProvider(Duration.ofDays(1L)))
+                .build();
+        DummyScheduledTaskQueueDao scheduledTaskQueueDao = new DummyScheduledTaskQueueDao();
+        scheduledTaskQueueDao.databaseCurrentTime = Instant.parse("2010-01-01T00:00:05Z");
+        AtomicReference<Duration> scheduleLagRef = new AtomicReference<>();
+        DummyScheduledTaskLifecycleListener listener = new DummyScheduledTaskLifecycleListener();
+        ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
+                dummyQueueConfig(),
+                scheduledTaskDefinition,
+                listener,
+                scheduledTaskQueueDao,
+                new QueueIdMapper(),
+                new NoopSchedulerInstrumentation() {
+                    @Override
+                    public void scheduleLagMeasured(@Nonnull ScheduledTaskIdentity taskIdentity,
+                                                    @Nonnull Duration scheduleLag) {
+                        scheduleLagRef.set(scheduleLag);
+                    }
+                },
+                Clock.systemDefaultZone()
+        );
+        Map<String, String> extData = new HashMap<>();
+        extData.put(ScheduledTaskExtFields.PLANNED_PROCESS_AT, "2010-01-01T00:00:00Z");
+        Task<String> task = Task.<String>builder(new QueueShardId("shardId"))
+                .withPayload("")
+                .withExtData(extData)
+                .build();
+
+        // when
+        scheduledTaskQueueConsumer.execute(task);
+
+        // then
+        assertThat(listener.startedTaskContext.getPlannedExecutionTime(),
+                equalTo(Optional.of(Instant.parse("2010-01-01T00:00:00Z"))));
+        assertThat(listener.scheduleLag, equalTo(Duration.ofSeconds(5L)));
+        assertThat(scheduleLagRef.get(), equalTo(Duration.ofSeconds(5L)));
+    }
+
+    @Test
+    void should_simulate_week_of_cron_schedule_with_retries_by_virtual_time() {
+        // given
+        Instant weekStart = Instant.parse("2026-10-19T00:00:00Z");
+        VirtualSchedulerTimeSource timeSource = new VirtualSchedulerTimeSource(weekStart, ZoneOffset.UTC);
+        List<Instant> executionTimes = new ArrayList<>();
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task",
+                context -> {
+                    Instant now = timeSource.getClock().instant();
+                    executionTimes.add(now);
+                    // fails once a day at 03:00
+                    return now.atZone(ZoneOffset.UTC).getHour() == 3 && context.getAttemptsCount() == 1L
+                            ? ScheduledTaskExecutionResult.error()
+                            : ScheduledTaskExecutionResult.success();
+                }
+        );
+        ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
+                .withScheduledTask(scheduledTask)
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofMinutes(5L)))
+                .withNextExecutionTimeProvider(new FailureAwareNextExecutionDelayProvider(
+                        new CronNextExecutionDelayProvider("0 0 * * * *", ZoneOffset.UTC, timeSource.getClock()),
+                        FailureSettings.linearBackoff(Duration.ofMinutes(5L))))
+                .build();
+        DummyScheduledTaskQueueDao scheduledTaskQueueDao = new DummyScheduledTaskQueueDao();
+        ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
+                dummyQueueConfig(),
+                scheduledTaskDefinition,
+                NoopScheduledTaskLifecycleListener.getInstance(),
+                scheduledTaskQueueDao,
+                new QueueIdMapper(),
+                NoopSchedulerInstrumentation.getInstance(),
+                timeSource
+        );
+
+        // when
+        long attemptsCount = 1L;
+        while (timeSource.getClock().instant().isBefore(weekStart.plus(Duration.ofDays(7L)))) {
+            scheduledTaskQueueDao.databaseCurrentTime = timeSource.getClock().instant();
+            scheduledTaskQueueDao.reenqueueDelay = null;
+            scheduledTaskQueueConsumer.execute(Task.<String>builder(new QueueShardId("shardId"))
+                    .withAttemptsCount(attemptsCount)
+                    .withCreatedAt(weekStart.atZone(ZoneOffset.UTC))
+                    .build());
+            if (scheduledTaskQueueDao.reenqueueDelay == null) {
+                attemptsCount++;
+                timeSource.advance(scheduledTaskQueueDao.nextProcessDelay);
+            } else {
+                attemptsCount = 1L;
+                timeSource.advance(scheduledTaskQueueDao.reenqueueDelay);
+            }
+        }
+
+        // then
+        assertThat(executionTimes.size(), equalTo(7 * 24 + 7));
+        assertThat(executionTimes.get(3), equalTo(weekStart.plus(Duration.ofHours(3L))));
+        assertThat(executionTimes.get(4), equalTo(weekStart.plus(Duration.ofHours(3L)).plus(Duration.ofMinutes(5L))));
+        assertThat(executionTimes.get(5), equalTo(weekStart.plus(Duration.ofHours(4L))));
+        assertThat(executionTimes.get(executionTimes.size() - 1), equalTo(weekStart.plus(Duration.ofDays(7L)).minus(Duration.ofHours(1L))));
+    }
+
+    @Test
+    @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
+    void should_report_lock_lost_when_task_was_picked_again() {
+        // given
         ScheduledTask scheduledTask = SimpleScheduledTask.create(
                 "scheduled-task",
                 context -> ScheduledTaskExecutionResult.success()
@@ -163,88 +773,265 @@ class ScheduledTaskQueueConsumerTest {
                 .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
                 .withNextExecutionTimeProvider(new FixedRateNextExecutionDelayProvider(Duration.ofDays(1L)))
                 .build();
+        DummyScheduledTaskQueueDao scheduledTaskQueueDao = new DummyScheduledTaskQueueDao();
+        // the task was picked again by another node
+        scheduledTaskQueueDao.executionEpoch = 4L;
+        DummyScheduledTaskLifecycleListener listener = new DummyScheduledTaskLifecycleListener();
+        ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
+                dummyQueueConfig(),
+                scheduledTaskDefinition,
+                listener,
+                scheduledTaskQueueDao
+        );
+
+        // when
+        scheduledTaskQueueConsumer.execute(Task.<String>builder(new QueueShardId("shardId"))
+                .withTotalAttemptsCount(3L)
+                .build());
+
+        // then
+        assertThat(scheduledTaskQueueDao.reenqueueDelay, equalTo(null));
+        assertThat(listener.lockLostTaskIdentity, equalTo(listener.startedTaskIdentity));
+        assertThat(listener.lockLostTaskContext.getExecutionEpoch(), equalTo(3L));
+    }
+
+    @Test
+    void should_execute_task_locally_while_lease_is_held() {
+        // given
+        AtomicInteger executionsCount = new AtomicInteger();
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task",
+                context -> {
+                    executionsCount.incrementAndGet();
+                    return ScheduledTaskExecutionResult.success();
+                }
+        );
+        ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
+                .withScheduledTask(scheduledTask)
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                .withNextExecutionTimeProvider(new FixedDelayNextExecutionDelayProvider(Duration.ofMillis(100L)))
+                .withLeaseSettings(LeaseSettings.builder()
+                        .withLeaseDuration(Duration.ofSeconds(2L))
+                        .withHoldDuration(Duration.ofSeconds(1L))
+                        .build())
+                .build();
+        DummyScheduledTaskQueueDao scheduledTaskQueueDao = new DummyScheduledTaskQueueDao();
+        scheduledTaskQueueDao.executionEpoch = 3L;
         ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
                 dummyQueueConfig(),
                 scheduledTaskDefinition,
                 NoopScheduledTaskLifecycleListener.getInstance(),
-                new DummyScheduledTaskQueueDao(),
-                clock
+                scheduledTaskQueueDao
         );
 
         // when
-        TaskExecutionResult taskExecutionResult = scheduledTaskQueueConsumer.execute(dummyTask());
+        TaskExecutionResult result = scheduledTaskQueueConsumer.execute(Task.<String>builder(new QueueShardId("shardId"))
+                .withTotalAttemptsCount(3L)
+                .build());
 
         // then
-        assertThat(taskExecutionResult.getActionType(), equalTo(TaskExecutionResult.Type.REENQUEUE));
-        assertThat(taskExecutionResult.getExecutionDelay().get(), equalTo(Duration.ofDays(1L)));
+        assertThat(result.getActionType(), equalTo(TaskExecutionResult.Type.FAIL));
+        assertThat(executionsCount.get() > 1, equalTo(true));
+        assertThat(scheduledTaskQueueDao.nextProcessDelays, equalTo(List.of(Duration.ofSeconds(2L))));
+        assertThat(scheduledTaskQueueDao.reenqueueDelay, notNullValue());
     }
 
     @Test
-    public void should_postpone_execution_according_to_overridden_next_execution_time() {
+    void should_renew_lease_while_long_execution_is_running() {
         // given
-        Clock clock = Clock.fixed(Instant.now(), ZoneId.systemDefault());
         ScheduledTask scheduledTask = SimpleScheduledTask.create(
                 "scheduled-task",
-                context -> ScheduledTaskExecutionResult.success().shiftExecutionTime(clock.instant().plus(Duration.ofDays(10L)))
+                context -> {
+                    try {
+                        Thread.sleep(1500L);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return ScheduledTaskExecutionResult.success();
+                }
         );
         ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
                 .withScheduledTask(scheduledTask)
                 .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
-                .withNextExecutionTimeProvider(new FixedRateNextExecutionDelayProvider(Duration.ofDays(1L)))
+                .withNextExecutionTimeProvider(new FixedDelayNextExecutionDelayProvider(Duration.ofMillis(100L)))
+                .withLeaseSettings(LeaseSettings.builder()
+                        .withLeaseDuration(Duration.ofSeconds(2L))
+                        .withHoldDuration(Duration.ofSeconds(1L))
+                        .build())
                 .build();
+        DummyScheduledTaskQueueDao scheduledTaskQueueDao = new DummyScheduledTaskQueueDao();
+        scheduledTaskQueueDao.executionEpoch = 3L;
         ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
                 dummyQueueConfig(),
                 scheduledTaskDefinition,
                 NoopScheduledTaskLifecycleListener.getInstance(),
-                new DummyScheduledTaskQueueDao(),
-                clock
+                scheduledTaskQueueDao
         );
 
         // when
-        TaskExecutionResult taskExecutionResult = scheduledTaskQueueConsumer.execute(dummyTask());
+        scheduledTaskQueueConsumer.execute(Task.<String>builder(new QueueShardId("shardId"))
+                .withTotalAttemptsCount(3L)
+                .build());
 
         // then
-        assertThat(taskExecutionResult.getActionType(), equalTo(TaskExecutionResult.Type.REENQUEUE));
-        assertThat(taskExecutionResult.getExecutionDelay().get(), equalTo(Duration.ofDays(10L)));
+        assertThat(scheduledTaskQueueDao.nextProcessDelays.size() > 1, equalTo(true));
+        assertThat(Set.copyOf(scheduledTaskQueueDao.nextProcessDelays), equalTo(Set.of(Duration.ofSeconds(2L))));
+        assertThat(scheduledTaskQueueDao.reenqueueDelay, notNullValue());
     }
 
     @Test
     @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
-    public void should_receive_lifecycle_events() {
+    void should_execute_task_template_instance_while_lease_is_held() {
+        // given
+        List<Optional<String>> instanceKeys = new CopyOnWriteArrayList<>();
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "queueId",
+                context -> {
+                    instanceKeys.add(context.getInstanceKey());
+                    return ScheduledTaskExecutionResult.success();
+                }
+        );
+        ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
+                .withScheduledTask(scheduledTask)
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                .withNextExecutionTimeProvider(new FixedDelayNextExecutionDelayProvider(Duration.ofMillis(100L)))
+                .withInstanceKeys(Set.of("merchant-1"))
+                .withLeaseSettings(LeaseSettings.builder()
+                        .withLeaseDuration(Duration.ofSeconds(2L))
+                        .withHoldDuration(Duration.ofSeconds(1L))
+                        .build())
+                .build();
+        DummyScheduledTaskQueueDao scheduledTaskQueueDao = new DummyScheduledTaskQueueDao();
+        scheduledTaskQueueDao.executionEpoch = 3L;
+        ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
+                dummyQueueConfig(),
+                scheduledTaskDefinition,
+                NoopScheduledTaskLifecycleListener.getInstance(),
+                scheduledTaskQueueDao
+        );
+        Map<String, String> extData = new HashMap<>();
+        extData.put(ScheduledTaskExtFields.QUEUE_NAME, "queueId#merchant-1");
+
+        // when
+        scheduledTaskQueueConsumer.execute(Task.<String>builder(new QueueShardId("shardId"))
+                .withExtData(extData)
+                .withTotalAttemptsCount(3L)
+                .build());
+
+        // then
+        assertThat(instanceKeys.size() > 1, equalTo(true));
+        assertThat(Set.copyOf(instanceKeys), equalTo(Set.of(Optional.of("merchant-1"))));
+        assertThat(scheduledTaskQueueDao.reenqueuedQueueId, equalTo(new QueueId("queueId#merchant-1")));
+    }
+
+    @Test
+    @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
+    void should_store_last_checkpoint_when_leased_task_crashes() {
         // given
-        Clock clock = Clock.fixed(Instant.now(), ZoneId.systemDefault());
-        RuntimeException exception = new RuntimeException("test exception");
         ScheduledTask scheduledTask = SimpleScheduledTask.create(
                 "scheduled-task",
                 context -> {
-                    throw exception;
+                    context.checkpoint("step-1");
+                    context.checkpoint("step-2");
+                    throw new RuntimeException("test exception");
                 }
         );
         ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
                 .withScheduledTask(scheduledTask)
                 .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
-                .withNextExecutionTimeProvider(new FixedRateNextExecutionDelayProvider(Duration.ofDays(1L)))
+                .withNextExecutionTimeProvider(new FixedDelayNextExecutionDelayProvider(Duration.ofMillis(100L)))
+                .withLeaseSettings(LeaseSettings.builder().withLeaseDuration(Duration.ofSeconds(2L)).build())
                 .build();
-        DummyScheduledTaskLifecycleListener listener = new DummyScheduledTaskLifecycleListener();
+        DummyScheduledTaskQueueDao scheduledTaskQueueDao = new DummyScheduledTaskQueueDao();
+        scheduledTaskQueueDao.executionEpoch = 3L;
         ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
                 dummyQueueConfig(),
                 scheduledTaskDefinition,
-                listener,
-                new DummyScheduledTaskQueueDao(),
-                clock
+                NoopScheduledTaskLifecycleListener.getInstance(),
+                scheduledTaskQueueDao
         );
 
         // when
-        scheduledTaskQueueConsumer.execute(dummyTask());
+        scheduledTaskQueueConsumer.execute(Task.<String>builder(new QueueShardId("shardId"))
+                .withPayload("")
+                .withTotalAttemptsCount(3L)
+                .build());
 
         // then
-        assertThat(listener.startedTaskIdentity, equalTo(ScheduledTaskIdentity.of("scheduled-task")));
-        assertThat(listener.finishedTaskIdentity, equalTo(ScheduledTaskIdentity.of("scheduled-task")));
-        assertThat(listener.crashedTaskIdentity, equalTo(ScheduledTaskIdentity.of("scheduled-task")));
-        assertThat(listener.executionResult, equalTo(ScheduledTaskExecutionResult.error()));
-        assertThat(listener.processTaskTimeInMills, equalTo(0L));
-        assertThat(listener.nextExecutionTime, notNullValue());
-        assertThat(listener.throwable, equalTo(exception));
+        assertThat(scheduledTaskQueueDao.payload, equalTo("step-2"));
+    }
+
+    @Test
+    void should_not_execute_task_when_lease_is_lost() {
+        // given
+        AtomicInteger executionsCount = new AtomicInteger();
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task",
+                context -> {
+                    executionsCount.incrementAndGet();
+                    return ScheduledTaskExecutionResult.success();
+                }
+        );
+        ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
+                .withScheduledTask(scheduledTask)
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                .withNextExecutionTimeProvider(new FixedDelayNextExecutionDelayProvider(Duration.ofMillis(100L)))
+                .withLeaseSettings(LeaseSettings.builder().withLeaseDuration(Duration.ofSeconds(2L)).build())
+                .build();
+        DummyScheduledTaskQueueDao scheduledTaskQueueDao = new DummyScheduledTaskQueueDao();
+        // the task was picked again by another node
+        scheduledTaskQueueDao.executionEpoch = 4L;
+        ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
+                dummyQueueConfig(),
+                scheduledTaskDefinition,
+                NoopScheduledTaskLifecycleListener.getInstance(),
+                scheduledTaskQueueDao
+        );
+
+        // when
+        scheduledTaskQueueConsumer.execute(Task.<String>builder(new QueueShardId("shardId"))
+                .withTotalAttemptsCount(3L)
+                .build());
+
+        // then
+        assertThat(executionsCount.get(), equalTo(0));
+        assertThat(scheduledTaskQueueDao.reenqueueDelay, equalTo(null));
+    }
+
+    @Test
+    void should_release_lease_with_failure_delay_when_task_fails() {
+        // given
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task",
+                context -> ScheduledTaskExecutionResult.error()
+        );
+        ScheduledTaskDefinition scheduledTaskDefinition = ScheduledTaskDefinition.builder()
+                .withScheduledTask(scheduledTask)
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofMinutes(5L)))
+                .withNextExecutionTimeProvider(new FailureAwareNextExecutionDelayProvider(
+                        new FixedDelayNextExecutionDelayProvider(Duration.ofMillis(100L)),
+                        FailureSettings.linearBackoff(Duration.ofMinutes(5L))))
+                .withLeaseSettings(LeaseSettings.builder().withLeaseDuration(Duration.ofSeconds(2L)).build())
+                .build();
+        DummyScheduledTaskQueueDao scheduledTaskQueueDao = new DummyScheduledTaskQueueDao();
+        scheduledTaskQueueDao.executionEpoch = 3L;
+        ScheduledTaskQueueConsumer scheduledTaskQueueConsumer = new ScheduledTaskQueueConsumer(
+                dummyQueueConfig(),
+                scheduledTaskDefinition,
+                NoopScheduledTaskLifecycleListener.getInstance(),
+                scheduledTaskQueueDao
+        );
+
+        // when
+        scheduledTaskQueueConsumer.execute(Task.<String>builder(new QueueShardId("shardId"))
+                .withAttemptsCount(1L)
+                .withTotalAttemptsCount(3L)
+                .build());
+
+        // then
+        assertThat(scheduledTaskQueueDao.nextProcessDelays,
+                equalTo(List.of(Duration.ofSeconds(2L), Duration.ofMinutes(5L))));
+        assertThat(scheduledTaskQueueDao.reenqueueDelay, equalTo(null));
     }
 
     private Task<String> dummyTask() {
@@ -253,6 +1040,13 @@ class ScheduledTaskQueueConsumerTest {
                 .build();
     }
 
+    private Task<String> detachedStateTask(long attemptsCount) {
+        return Task.<String>builder(new QueueShardId("shardId"))
+                .withAttemptsCount(attemptsCount)
+                .withExtData(Map.of(ScheduledTaskExtFields.DETACHED_STATE, "true"))
+                .build();
+    }
+
     private QueueConfig dummyQueueConfig() {
         return new QueueConfig(
                 QueueLocation.builder()
@@ -286,6 +1080,17 @@ class ScheduledTaskQueueConsumerTest {
     }
 
     private static class DummyScheduledTaskQueueDao implements ScheduledTaskQueueDao {
+        private Instant databaseCurrentTime;
+        private QueueId reenqueuedQueueId;
+        private Duration nextProcessDelay;
+        private Duration reenqueueDelay;
+        private Duration failureDelay;
+        private long executionEpoch;
+        private String payload;
+        private int payloadUpdatesCount;
+        private int payloadReadsCount;
+        private final List<Duration> nextProcessDelays = new ArrayList<>();
+
         @Override
         public Optional<ScheduledTaskRecord> findQueueTask(@Nonnull QueueId queueId) {
             return Optional.of(ScheduledTaskRecord.builder()
@@ -297,14 +1102,109 @@ class ScheduledTaskQueueConsumerTest {
 
         @Override
         public int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay) {
+            nextProcessDelay = executionDelay;
+            return 0;
+        }
+
+        @Override
+        public int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay,
+                                         long executionEpoch) {
+            if (this.executionEpoch != executionEpoch) {
+                return 0;
+            }
+            nextProcessDelay = executionDelay;
+            nextProcessDelays.add(executionDelay);
+            return 1;
+        }
+
+        @Override
+        public int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay,
+                                         long executionEpoch, @Nullable String payload) {
+            int updatedRows = updateNextProcessDate(queueId, executionDelay, executionEpoch);
+            if (updatedRows > 0) {
+                this.payload = payload;
+            }
+            return updatedRows;
+        }
+
+        @Override
+        public int reenqueue(@Nonnull QueueId queueId, @Nonnull Duration executionDelay) {
+            reenqueuedQueueId = queueId;
             return 0;
         }
 
+        @Override
+        public int reenqueue(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch) {
+            if (this.executionEpoch != executionEpoch) {
+                return 0;
+            }
+            reenqueuedQueueId = queueId;
+            reenqueueDelay = executionDelay;
+            return 1;
+        }
+
+        @Override
+        public int postponeFailed(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch) {
+            int updatedRows = updateNextProcessDate(queueId, executionDelay, executionEpoch);
+            if (updatedRows > 0) {
+                failureDelay = executionDelay;
+            }
+            return updatedRows;
+        }
+
         @Override
         public int updatePayload(@Nonnull QueueId queueId, @Nullable String payload) {
+            this.payload = payload;
+            payloadUpdatesCount++;
+            return 1;
+        }
+
+        @Nullable
+        @Override
+        public String findPayload(@Nonnull QueueId queueId) {
+            payloadReadsCount++;
+            return payload;
+        }
+
+        @Override
+        public int triggerNow(@Nonnull QueueId queueId) {
+            return 0;
+        }
+
+
+        @Override
+        public int deleteQueueTask(@Nonnull QueueId queueId) {
+            return 0;
+        }
+
+        @Override
+        public int deleteQueueTasks(@Nonnull String queueNamePrefix) {
+            return 0;
+        }
+
+        @Nullable
+        @Override
+        public TaskRecord pickTask(@Nonnull QueueId queueId, @Nonnull Duration retryInterval) {
+            return null;
+        }
+
+        @Nullable
+        @Override
+        public TaskRecord pickTask(@Nonnull String queueNamePrefix, @Nonnull Duration retryInterval) {
+            return null;
+        }
+
+        @Override
+        public int enqueueQueueTasks(@Nonnull List<QueueId> queueIds, @Nonnull Duration executionDelay,
+                                     @Nullable String idSequence) {
             return 0;
         }
 
+        @Override
+        public List<String> findQueueNames(@Nonnull String queueNamePrefix) {
+            return Collections.emptyList();
+        }
+
         @Override
         public List<ScheduledTaskRecord> findAll() {
             return Collections.emptyList();
@@ -312,22 +1212,35 @@ class ScheduledTaskQueueConsumerTest {
 
         @Override
         public Instant getDatabaseCurrentTime() {
-            return Instant.now();
+            return databaseCurrentTime == null ? Instant.now() : databaseCurrentTime;
         }
     }
 
     private static class DummyScheduledTaskLifecycleListener implements ScheduledTaskLifecycleListener {
         private ScheduledTaskIdentity startedTaskIdentity;
+        private ScheduledTaskContext startedTaskContext;
+        private Duration scheduleLag;
         private ScheduledTaskIdentity finishedTaskIdentity;
         private ScheduledTaskIdentity crashedTaskIdentity;
         private ScheduledTaskExecutionResult executionResult;
         private Instant nextExecutionTime;
         private Long processTaskTimeInMills;
         private Throwable throwable;
+        private ScheduledTaskIdentity lockLostTaskIdentity;
+        private ScheduledTaskContext lockLostTaskContext;
 
         @Override
         public void started(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull ScheduledTaskContext taskContext) {
+            started(taskIdentity, taskContext, Duration.ZERO);
+        }
+
+        @Override
+        public void started(@Nonnull ScheduledTaskIdentity taskIdentity,
+                            @Nonnull ScheduledTaskContext taskContext,
+                            @Nonnull Duration scheduleLag) {
             this.startedTaskIdentity = taskIdentity;
+            this.startedTaskContext = taskContext;
+            this.scheduleLag = scheduleLag;
         }
 
         @Override
@@ -349,5 +1262,11 @@ class ScheduledTaskQueueConsumerTest {
             this.crashedTaskIdentity = taskIdentity;
             this.throwable = exc;
         }
+
+        @Override
+        public void lockLost(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull ScheduledTaskContext taskContext) {
+            this.lockLostTaskIdentity = taskIdentity;
+            this.lockLostTaskContext = taskContext;
+        }
     }
 }
\ No newline at end of file
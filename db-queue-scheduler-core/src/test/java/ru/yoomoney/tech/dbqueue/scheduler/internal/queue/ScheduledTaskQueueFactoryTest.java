@@ -3,6 +3,8 @@ package ru.yoomoney.tech.dbqueue.scheduler.internal.queue;
 import org.junit.jupiter.api.Test;
 import ru.yoomoney.tech.dbqueue.api.impl.SingleQueueShardRouter;
 import ru.yoomoney.tech.dbqueue.scheduler.config.impl.NoopScheduledTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.NoopSchedulerInstrumentation;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.SystemSchedulerTimeSource;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.ScheduledTaskDefinition;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskQueueDao;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.impl.FixedRateNextExecutionDelayProvider;
@@ -38,7 +40,9 @@ class ScheduledTaskQueueFactoryTest {
             dummyQueueSettings(),
             mock(ScheduledTaskQueueDao.class),
             mock(SingleQueueShardRouter.class),
-            NoopScheduledTaskLifecycleListener.getInstance()
+            NoopScheduledTaskLifecycleListener.getInstance(),
+            NoopSchedulerInstrumentation.getInstance(),
+            SystemSchedulerTimeSource.getInstance()
     );
 
     @Test
@@ -1,10 +1,12 @@
 package ru.yoomoney.tech.dbqueue.scheduler.internal.schedule;
 
 import org.junit.jupiter.api.Test;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.impl.AdaptiveNextExecutionDelayProvider;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.impl.CronNextExecutionDelayProvider;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.impl.FailureAwareNextExecutionDelayProvider;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.impl.FixedDelayNextExecutionDelayProvider;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.impl.FixedRateNextExecutionDelayProvider;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.AdaptiveCadenceSettings;
 import ru.yoomoney.tech.dbqueue.scheduler.settings.FailureSettings;
 import ru.yoomoney.tech.dbqueue.scheduler.settings.ScheduleSettings;
 import ru.yoomoney.tech.dbqueue.scheduler.settings.ScheduledTaskSettings;
@@ -81,4 +83,22 @@ class NextExecutionDelayProviderFactoryTest {
         // then
         assertThat(executionTimeProvider, instanceOf(FailureAwareNextExecutionDelayProvider.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void should_create_AdaptiveNextExecutionDelayProvider() {
+        // given
+        ScheduledTaskSettings scheduledTaskSettings = ScheduledTaskSettings.builder()
+                .withScheduleSettings(ScheduleSettings.fixedRate(Duration.ZERO))
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ZERO))
+                .withAdaptiveCadenceSettings(AdaptiveCadenceSettings.builder()
+                        .withMaxIdleDelay(Duration.ofMinutes(1L))
+                        .build())
+                .build();
+
+        // when
+        NextExecutionDelayProvider executionTimeProvider = factory.createExecutionDelayProvider(scheduledTaskSettings);
+
+        // then
+        assertThat(executionTimeProvider, instanceOf(AdaptiveNextExecutionDelayProvider.class));
+    }
+}
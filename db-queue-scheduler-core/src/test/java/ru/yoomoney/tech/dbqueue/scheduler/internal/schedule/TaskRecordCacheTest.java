@@ -0,0 +1,47 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class TaskRecordCacheTest {
+
+    @Test
+    void should_evict_least_recently_used_task_record() {
+        // given
+        TaskRecordCache<Integer> cache = new TaskRecordCache<>(2);
+        cache.put("template#1", 1);
+        cache.put("template#2", 2);
+        cache.get("template#1");
+
+        // when
+        cache.put("template#3", 3);
+
+        // then
+        assertThat(cache.size(), equalTo(2));
+        assertThat(cache.get("template#1"), equalTo(1));
+        assertThat(cache.get("template#2"), nullValue());
+        assertThat(cache.get("template#3"), equalTo(3));
+    }
+
+    @Test
+    void should_remove_task_record_when_computed_value_is_null() {
+        // given
+        TaskRecordCache<Integer> cache = new TaskRecordCache<>();
+        cache.compute("task", (key, previous) -> previous == null ? 1 : previous + 1);
+        cache.compute("task", (key, previous) -> previous == null ? 1 : previous + 1);
+
+        // when
+        Integer removedValue = cache.compute("task", (key, previous) -> null);
+
+        // then
+        assertThat(removedValue, nullValue());
+        assertThat(cache.size(), equalTo(0));
+    }
+}
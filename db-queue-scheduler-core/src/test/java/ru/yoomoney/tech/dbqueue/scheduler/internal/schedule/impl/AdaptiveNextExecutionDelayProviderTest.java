@@ -0,0 +1,94 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.impl;
+
+import org.junit.jupiter.api.Test;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.ScheduledTaskExecutionContext;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.AdaptiveCadenceSettings;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.FailureSettings;
+
+import java.time.Duration;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class AdaptiveNextExecutionDelayProviderTest {
+    private final AdaptiveNextExecutionDelayProvider provider = new AdaptiveNextExecutionDelayProvider(
+            new FailureAwareNextExecutionDelayProvider(
+                    new FixedDelayNextExecutionDelayProvider(Duration.ofMinutes(1L)),
+                    FailureSettings.linearBackoff(Duration.ofSeconds(30L))
+            ),
+            AdaptiveCadenceSettings.builder()
+                    .withMaxMoreWorkExecutions(2)
+                    .withIdleDelayMultiplier(2.0)
+                    .withMaxIdleDelay(Duration.ofMinutes(5L))
+                    .build()
+    );
+
+    @Test
+    void should_execute_immediately_while_task_has_more_work() {
+        // when
+        Duration firstDelay = provider.getNextExecutionDelay(context("task", ScheduledTaskExecutionResult.Type.SUCCESS,
+                true, false));
+        Duration secondDelay = provider.getNextExecutionDelay(context("task", ScheduledTaskExecutionResult.Type.SUCCESS,
+                true, false));
+        Duration thirdDelay = provider.getNextExecutionDelay(context("task", ScheduledTaskExecutionResult.Type.SUCCESS,
+                true, false));
+        Duration fourthDelay = provider.getNextExecutionDelay(context("task", ScheduledTaskExecutionResult.Type.SUCCESS,
+                true, false));
+
+        // then
+        assertThat(firstDelay, equalTo(Duration.ZERO));
+        assertThat(secondDelay, equalTo(Duration.ZERO));
+        assertThat(thirdDelay, equalTo(Duration.ofMinutes(1L)));
+        assertThat(fourthDelay, equalTo(Duration.ZERO));
+    }
+
+    @Test
+    void should_stretch_delay_while_task_is_idle() {
+        // when
+        Duration firstDelay = provider.getNextExecutionDelay(context("task", ScheduledTaskExecutionResult.Type.SUCCESS,
+                false, true));
+        Duration secondDelay = provider.getNextExecutionDelay(context("task", ScheduledTaskExecutionResult.Type.SUCCESS,
+                false, true));
+        Duration thirdDelay = provider.getNextExecutionDelay(context("task", ScheduledTaskExecutionResult.Type.SUCCESS,
+                false, true));
+        Duration otherTaskDelay = provider.getNextExecutionDelay(context("other_task",
+                ScheduledTaskExecutionResult.Type.SUCCESS, false, false));
+        Duration regularDelay = provider.getNextExecutionDelay(context("task", ScheduledTaskExecutionResult.Type.SUCCESS,
+                false, false));
+
+        // then
+        assertThat(firstDelay, equalTo(Duration.ofMinutes(2L)));
+        assertThat(secondDelay, equalTo(Duration.ofMinutes(4L)));
+        assertThat(thirdDelay, equalTo(Duration.ofMinutes(5L)));
+        assertThat(otherTaskDelay, equalTo(Duration.ofMinutes(1L)));
+        assertThat(regularDelay, equalTo(Duration.ofMinutes(1L)));
+    }
+
+    @Test
+    void should_not_adapt_failed_execution() {
+        // when
+        Duration delay = provider.getNextExecutionDelay(context("task", ScheduledTaskExecutionResult.Type.ERROR,
+                true, false));
+
+        // then
+        assertThat(delay, equalTo(Duration.ofSeconds(30L)));
+    }
+
+    private static ScheduledTaskExecutionContext context(String taskQueueName,
+                                                         ScheduledTaskExecutionResult.Type resultType,
+                                                         boolean moreWork,
+                                                         boolean idle) {
+        ScheduledTaskExecutionContext context = new ScheduledTaskExecutionContext();
+        context.setTaskQueueName(taskQueueName);
+        context.setExecutionResultType(resultType);
+        context.setAttemptsCount(1L);
+        context.setProcessingTime(Duration.ZERO);
+        context.setWorkloadHints(moreWork, idle);
+        return context;
+    }
+}
@@ -0,0 +1,101 @@
+package ru.yoomoney.tech.dbqueue.scheduler;
+
+import ru.yoomoney.tech.dbqueue.scheduler.config.ScheduledTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerInstrumentation;
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerTimeSource;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.NoopScheduledTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.NoopSchedulerInstrumentation;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.SystemSchedulerTimeSource;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.ScheduledTaskManagerBuilder;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.InMemoryDatabaseAccessLayer;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.InMemoryScheduledTaskQueueDao;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.NextExecutionDelayProviderFactory;
+
+import javax.annotation.Nonnull;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Entry point for the library configuration without a database
+ *
+ * <p>Scheduled tasks are stored in memory of the current process, so executions are not coordinated between nodes and
+ * the schedule is lost on restart. The configurator is supposed to be used in development mode and in tests.
+ *
+ * <p>Next process dates are set by the clock of {@link SchedulerTimeSource}, so a virtual time makes tasks ready
+ * for execution as well.
+ *
+ * <p>Example:
+ *
+ * <pre> {@code
+ *  Scheduler scheduler = new InMemorySchedulerConfigurator()
+ *       .configure();
+ *  scheduler.start();
+ * }</pre>
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class InMemorySchedulerConfigurator implements SchedulerConfigurator {
+    private static final String TABLE_NAME = "scheduled_tasks";
+
+    private ScheduledTaskLifecycleListener scheduledTaskLifecycleListener = NoopScheduledTaskLifecycleListener.getInstance();
+    private SchedulerInstrumentation schedulerInstrumentation = NoopSchedulerInstrumentation.getInstance();
+    private SchedulerTimeSource timeSource = SystemSchedulerTimeSource.getInstance();
+
+    /**
+     * Sets {@link ScheduledTaskLifecycleListener} for observing task execution
+     *
+     * @param scheduledTaskLifecycleListener listener of scheduled task lifecycles
+     * @return the same instance of {@link InMemorySchedulerConfigurator}
+     */
+    public InMemorySchedulerConfigurator withScheduledTaskLifecycleListener(
+            @Nonnull ScheduledTaskLifecycleListener scheduledTaskLifecycleListener
+    ) {
+        this.scheduledTaskLifecycleListener = requireNonNull(scheduledTaskLifecycleListener, "scheduledTaskLifecycleListener");
+        return this;
+    }
+
+    /**
+     * Sets {@link SchedulerInstrumentation} for observing scheduler internals
+     *
+     * @param schedulerInstrumentation instrumentation of scheduler internals
+     * @return the same instance of {@link InMemorySchedulerConfigurator}
+     */
+    public InMemorySchedulerConfigurator withSchedulerInstrumentation(@Nonnull SchedulerInstrumentation schedulerInstrumentation) {
+        this.schedulerInstrumentation = requireNonNull(schedulerInstrumentation, "schedulerInstrumentation");
+        return this;
+    }
+
+    /**
+     * Sets {@link SchedulerTimeSource} the scheduler internals read the time and wait by.
+     *
+     * <p>Polling of db-queue waits by the real time regardless of the time source.
+     *
+     * @param timeSource source of time
+     * @return the same instance of {@link InMemorySchedulerConfigurator}
+     */
+    public InMemorySchedulerConfigurator withTimeSource(@Nonnull SchedulerTimeSource timeSource) {
+        this.timeSource = requireNonNull(timeSource, "timeSource");
+        return this;
+    }
+
+    @Override
+    public Scheduler configure() {
+        requireNonNull(scheduledTaskLifecycleListener, "scheduledTaskLifecycleListener");
+        requireNonNull(schedulerInstrumentation, "schedulerInstrumentation");
+        requireNonNull(timeSource, "timeSource");
+
+        InMemoryScheduledTaskQueueDao scheduledTaskQueueDao = new InMemoryScheduledTaskQueueDao(timeSource.getClock());
+        ScheduledTaskManagerBuilder scheduledTaskManagerBuilder = new ScheduledTaskManagerBuilder()
+                .withTableName(TABLE_NAME)
+                .withScheduledTaskQueueDao(scheduledTaskQueueDao)
+                .withDatabaseAccessLayer(new InMemoryDatabaseAccessLayer(scheduledTaskQueueDao))
+                .withScheduledTaskLifecycleListener(scheduledTaskLifecycleListener)
+                .withSchedulerInstrumentation(schedulerInstrumentation)
+                .withTimeSource(timeSource);
+        return new DefaultScheduler(
+                scheduledTaskManagerBuilder.build(),
+                new NextExecutionDelayProviderFactory(timeSource.getClock())
+        );
+    }
+}
@@ -0,0 +1,125 @@
+package ru.yoomoney.tech.dbqueue.scheduler;
+
+import org.junit.jupiter.api.Test;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.VirtualSchedulerTimeSource;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTask;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.scheduler.models.SimpleScheduledTask;
+import ru.yoomoney.tech.dbqueue.scheduler.models.info.ScheduledTaskInfo;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.FailureSettings;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.ScheduleSettings;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.ScheduledTaskSettings;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class InMemorySchedulerConfiguratorTest {
+
+    @Test
+    void should_execute_scheduled_task_without_database() {
+        // given
+        Scheduler scheduler = new InMemorySchedulerConfigurator().configure();
+        AtomicInteger executionsCount = new AtomicInteger();
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task",
+                context -> {
+                    executionsCount.incrementAndGet();
+                    return ScheduledTaskExecutionResult.success();
+                }
+        );
+
+        // when
+        scheduler.start();
+        scheduler.schedule(
+                scheduledTask,
+                ScheduledTaskSettings.builder()
+                        .withScheduleSettings(ScheduleSettings.fixedDelay(Duration.ZERO))
+                        .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                        .build()
+        );
+
+        // then
+        await().atMost(Duration.ofSeconds(10L)).until(() -> executionsCount.get() >= 2);
+        List<ScheduledTaskInfo> scheduledTaskInfo = scheduler.getScheduledTaskInfo();
+        assertThat(scheduledTaskInfo.size(), equalTo(1));
+        assertThat(scheduledTaskInfo.get(0).getIdentity(), equalTo(scheduledTask.getIdentity()));
+        scheduler.shutdown();
+    }
+
+    @Test
+    void should_execute_scheduled_task_by_virtual_time() {
+        // given
+        VirtualSchedulerTimeSource timeSource = new VirtualSchedulerTimeSource(
+                Instant.parse("2026-10-19T00:00:00Z"), ZoneOffset.UTC);
+        Scheduler scheduler = new InMemorySchedulerConfigurator()
+                .withTimeSource(timeSource)
+                .configure();
+        AtomicInteger executionsCount = new AtomicInteger();
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task",
+                context -> {
+                    executionsCount.incrementAndGet();
+                    return ScheduledTaskExecutionResult.success();
+                }
+        );
+
+        // when
+        scheduler.start();
+        scheduler.schedule(
+                scheduledTask,
+                ScheduledTaskSettings.builder()
+                        .withScheduleSettings(ScheduleSettings.cron("0 0 * * * *", ZoneOffset.UTC))
+                        .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                        .build()
+        );
+        timeSource.advance(Duration.ofHours(1L));
+
+        // then
+        await().atMost(Duration.ofSeconds(10L)).until(() -> scheduler.getScheduledTaskInfo().get(0)
+                .getNextExecutionTime().equals(Instant.parse("2026-10-19T02:00:00Z")));
+        assertThat(executionsCount.get(), equalTo(1));
+        scheduler.shutdown();
+    }
+
+    @Test
+    void should_reschedule_task_by_virtual_time() {
+        // given
+        VirtualSchedulerTimeSource timeSource = new VirtualSchedulerTimeSource(
+                Instant.parse("2026-10-19T00:00:00Z"), ZoneOffset.UTC);
+        Scheduler scheduler = new InMemorySchedulerConfigurator()
+                .withTimeSource(timeSource)
+                .configure();
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task",
+                context -> ScheduledTaskExecutionResult.success()
+        );
+        scheduler.start();
+        scheduler.schedule(
+                scheduledTask,
+                ScheduledTaskSettings.builder()
+                        .withScheduleSettings(ScheduleSettings.cron("0 0 0 1 1 *", ZoneOffset.UTC))
+                        .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                        .build()
+        );
+        timeSource.advance(Duration.ofDays(10L));
+
+        // when
+        scheduler.reschedule(scheduledTask.getIdentity(), Instant.parse("2026-10-29T01:00:00Z"));
+
+        // then
+        assertThat(scheduler.getScheduledTaskInfo().get(0).getNextExecutionTime(),
+                equalTo(Instant.parse("2026-10-29T01:00:00Z")));
+        scheduler.shutdown();
+    }
+}
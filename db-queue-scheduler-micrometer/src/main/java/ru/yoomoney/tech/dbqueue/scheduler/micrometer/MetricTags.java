@@ -0,0 +1,59 @@
+package ru.yoomoney.tech.dbqueue.scheduler.micrometer;
+
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskContext;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Names and values of tags of scheduler meters
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+final class MetricTags {
+    static final String TASK = "task";
+    static final String RESULT = "result";
+    static final String QUERY = "query";
+
+    static final String SUCCESS = "success";
+    static final String ERROR = "error";
+
+    private MetricTags() {
+    }
+
+    /**
+     * Maps a task identity to the task tag value.
+     *
+     * <p>Instances of a task template are reported under the template identity in order to keep the number of
+     * time series independent of the number of instances. Template names do not contain the separator, so the template
+     * identity is the part before the first separator. A regular task whose name contains the separator is reported
+     * under the same part, use {@link #toTaskTag(ScheduledTaskIdentity, ScheduledTaskContext)} when the context of
+     * the execution is known.
+     *
+     * @param taskIdentity identity of a task or a template instance
+     * @return task tag value
+     */
+    @Nonnull
+    static String toTaskTag(@Nonnull ScheduledTaskIdentity taskIdentity) {
+        String taskName = taskIdentity.asString();
+        int separatorIndex = taskName.indexOf(ScheduledTaskIdentity.INSTANCE_KEY_SEPARATOR);
+        return separatorIndex < 0 ? taskName : taskName.substring(0, separatorIndex);
+    }
+
+    /**
+     * Maps a task identity to the task tag value by the instance key of the execution
+     *
+     * @param taskIdentity identity of a task or a template instance
+     * @param taskContext context of the execution
+     * @return task tag value
+     */
+    @Nonnull
+    static String toTaskTag(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull ScheduledTaskContext taskContext) {
+        String taskName = taskIdentity.asString();
+        return taskContext.getInstanceKey()
+                .map(instanceKey -> taskName.substring(0, taskName.length() - instanceKey.length()
+                        - ScheduledTaskIdentity.INSTANCE_KEY_SEPARATOR.length()))
+                .orElse(taskName);
+    }
+}
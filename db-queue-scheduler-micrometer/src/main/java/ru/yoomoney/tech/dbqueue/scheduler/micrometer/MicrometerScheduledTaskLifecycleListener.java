@@ -0,0 +1,75 @@
+package ru.yoomoney.tech.dbqueue.scheduler.micrometer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import ru.yoomoney.tech.dbqueue.scheduler.config.ScheduledTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskContext;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Task lifecycle listener that records task execution metrics via micrometer.
+ *
+ * <p>Recorded meters:
+ * <ul>
+ *     <li>{@code dbqueue.scheduler.task.execution} - timer of task executions with a histogram,
+ *     tagged by {@code task} and {@code result} ({@code success} or {@code error});</li>
+ *     <li>{@code dbqueue.scheduler.task.crashes} - counter of unexpected errors thrown by tasks, tagged by {@code task}.</li>
+ * </ul>
+ *
+ * <p>Use together with {@link MicrometerSchedulerInstrumentation} to observe scheduler internals.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class MicrometerScheduledTaskLifecycleListener implements ScheduledTaskLifecycleListener {
+    static final String EXECUTION_METER_NAME = "dbqueue.scheduler.task.execution";
+    static final String CRASHES_METER_NAME = "dbqueue.scheduler.task.crashes";
+
+    private final MeterRegistry meterRegistry;
+
+    public MicrometerScheduledTaskLifecycleListener(@Nonnull MeterRegistry meterRegistry) {
+        this.meterRegistry = requireNonNull(meterRegistry, "meterRegistry");
+    }
+
+    @Override
+    public void started(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull ScheduledTaskContext taskContext) {
+        // execution time is passed on finish
+    }
+
+    @Override
+    public void finished(@Nonnull ScheduledTaskIdentity taskIdentity,
+                         @Nonnull ScheduledTaskContext taskContext,
+                         @Nonnull ScheduledTaskExecutionResult executionResult,
+                         @Nonnull Instant nextExecutionTime,
+                         long processTaskTimeInMills) {
+        Timer.builder(EXECUTION_METER_NAME)
+                .description("Scheduled task executions")
+                .tag(MetricTags.TASK, MetricTags.toTaskTag(taskIdentity, taskContext))
+                .tag(MetricTags.RESULT, executionResult.getType() == ScheduledTaskExecutionResult.Type.ERROR
+                        ? MetricTags.ERROR
+                        : MetricTags.SUCCESS)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(processTaskTimeInMills, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void crashed(@Nonnull ScheduledTaskIdentity taskIdentity,
+                        @Nonnull ScheduledTaskContext taskContext,
+                        @Nullable Throwable exc) {
+        Counter.builder(CRASHES_METER_NAME)
+                .description("Unexpected errors thrown by scheduled tasks")
+                .tag(MetricTags.TASK, MetricTags.toTaskTag(taskIdentity, taskContext))
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,73 @@
+package ru.yoomoney.tech.dbqueue.scheduler.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerInstrumentation;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Instrumentation of scheduler internals that records metrics via micrometer.
+ *
+ * <p>Recorded meters:
+ * <ul>
+ *     <li>{@code dbqueue.scheduler.task.lag} - timer of delays between planned and actual task execution starts,
+ *     tagged by {@code task}. Growing lag means the scheduler is falling behind;</li>
+ *     <li>{@code dbqueue.scheduler.task.heartbeat} - timer of heartbeats of running tasks,
+ *     tagged by {@code task} and {@code result} ({@code success} or {@code error});</li>
+ *     <li>{@code dbqueue.scheduler.query} - timer of database queries,
+ *     tagged by {@code query} and {@code result} ({@code success} or {@code error}).</li>
+ * </ul>
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class MicrometerSchedulerInstrumentation implements SchedulerInstrumentation {
+    static final String LAG_METER_NAME = "dbqueue.scheduler.task.lag";
+    static final String HEARTBEAT_METER_NAME = "dbqueue.scheduler.task.heartbeat";
+    static final String QUERY_METER_NAME = "dbqueue.scheduler.query";
+
+    private final MeterRegistry meterRegistry;
+
+    public MicrometerSchedulerInstrumentation(@Nonnull MeterRegistry meterRegistry) {
+        this.meterRegistry = requireNonNull(meterRegistry, "meterRegistry");
+    }
+
+    @Override
+    public void scheduleLagMeasured(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull Duration scheduleLag) {
+        Timer.builder(LAG_METER_NAME)
+                .description("Delay between planned and actual start of scheduled task executions")
+                .tag(MetricTags.TASK, MetricTags.toTaskTag(taskIdentity))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                // the lag is measured by the database clock, a slightly early start is not a lag
+                .record(scheduleLag.isNegative() ? Duration.ZERO : scheduleLag);
+    }
+
+    @Override
+    public void heartbeatFinished(@Nonnull ScheduledTaskIdentity taskIdentity,
+                                  @Nonnull Duration latency,
+                                  @Nullable Throwable exc) {
+        Timer.builder(HEARTBEAT_METER_NAME)
+                .description("Heartbeats of running scheduled tasks")
+                .tag(MetricTags.TASK, MetricTags.toTaskTag(taskIdentity))
+                .tag(MetricTags.RESULT, exc == null ? MetricTags.SUCCESS : MetricTags.ERROR)
+                .register(meterRegistry)
+                .record(latency);
+    }
+
+    @Override
+    public void queryFinished(@Nonnull String queryName, @Nonnull Duration duration, @Nullable Throwable exc) {
+        Timer.builder(QUERY_METER_NAME)
+                .description("Database queries of the scheduler")
+                .tag(MetricTags.QUERY, queryName)
+                .tag(MetricTags.RESULT, exc == null ? MetricTags.SUCCESS : MetricTags.ERROR)
+                .register(meterRegistry)
+                .record(duration);
+    }
+}
@@ -0,0 +1,91 @@
+package ru.yoomoney.tech.dbqueue.scheduler.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskContext;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class MicrometerScheduledTaskLifecycleListenerTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MicrometerScheduledTaskLifecycleListener listener =
+            new MicrometerScheduledTaskLifecycleListener(meterRegistry);
+
+    @Test
+    void should_record_task_executions() {
+        // given
+        ScheduledTaskIdentity taskIdentity = ScheduledTaskIdentity.of("scheduled_task");
+        ScheduledTaskContext taskContext = ScheduledTaskContext.builder().withCreatedAt(Instant.now()).build();
+
+        // when
+        listener.started(taskIdentity, taskContext, Duration.ZERO);
+        listener.finished(taskIdentity, taskContext, ScheduledTaskExecutionResult.success(), Instant.now(), 100L);
+        listener.started(taskIdentity, taskContext, Duration.ZERO);
+        listener.crashed(taskIdentity, taskContext, new RuntimeException());
+        listener.finished(taskIdentity, taskContext, ScheduledTaskExecutionResult.error(), Instant.now(), 50L);
+
+        // then
+        Timer successTimer = meterRegistry.get(MicrometerScheduledTaskLifecycleListener.EXECUTION_METER_NAME)
+                .tags("task", "scheduled_task", "result", "success")
+                .timer();
+        assertThat(successTimer.count(), equalTo(1L));
+        assertThat(successTimer.totalTime(TimeUnit.MILLISECONDS), equalTo(100.0));
+        assertThat(meterRegistry.get(MicrometerScheduledTaskLifecycleListener.EXECUTION_METER_NAME)
+                .tags("task", "scheduled_task", "result", "error")
+                .timer()
+                .count(), equalTo(1L));
+        assertThat(meterRegistry.get(MicrometerScheduledTaskLifecycleListener.CRASHES_METER_NAME)
+                .tags("task", "scheduled_task")
+                .counter()
+                .count(), equalTo(1.0));
+    }
+
+    @Test
+    void should_record_template_instances_under_template_identity() {
+        // given
+        ScheduledTaskIdentity templateIdentity = ScheduledTaskIdentity.of("scheduled_task");
+
+        // when
+        listener.finished(templateIdentity.instance("1"),
+                ScheduledTaskContext.builder().withCreatedAt(Instant.now()).withInstanceKey("1").build(),
+                ScheduledTaskExecutionResult.success(), Instant.now(), 0L);
+        listener.finished(templateIdentity.instance("2"),
+                ScheduledTaskContext.builder().withCreatedAt(Instant.now()).withInstanceKey("2").build(),
+                ScheduledTaskExecutionResult.success(), Instant.now(), 0L);
+
+        // then
+        assertThat(meterRegistry.get(MicrometerScheduledTaskLifecycleListener.EXECUTION_METER_NAME)
+                .tags("task", "scheduled_task", "result", "success")
+                .timer()
+                .count(), equalTo(2L));
+    }
+
+    @Test
+    void should_record_task_with_instance_key_separator_under_its_identity() {
+        // given
+        ScheduledTaskIdentity taskIdentity = ScheduledTaskIdentity.of("scheduled_task#vip");
+        ScheduledTaskContext taskContext = ScheduledTaskContext.builder().withCreatedAt(Instant.now()).build();
+
+        // when
+        listener.finished(taskIdentity, taskContext, ScheduledTaskExecutionResult.success(), Instant.now(), 0L);
+
+        // then
+        assertThat(meterRegistry.get(MicrometerScheduledTaskLifecycleListener.EXECUTION_METER_NAME)
+                .tags("task", "scheduled_task#vip", "result", "success")
+                .timer()
+                .count(), equalTo(1L));
+    }
+}
@@ -0,0 +1,64 @@
+package ru.yoomoney.tech.dbqueue.scheduler.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class MicrometerSchedulerInstrumentationTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MicrometerSchedulerInstrumentation instrumentation = new MicrometerSchedulerInstrumentation(meterRegistry);
+
+    @Test
+    void should_record_schedule_lag() {
+        // when
+        instrumentation.scheduleLagMeasured(ScheduledTaskIdentity.of("scheduled_task"), Duration.ofSeconds(3L));
+        instrumentation.scheduleLagMeasured(ScheduledTaskIdentity.of("scheduled_task"), Duration.ofSeconds(-1L));
+
+        // then
+        assertThat(meterRegistry.get(MicrometerSchedulerInstrumentation.LAG_METER_NAME)
+                .tags("task", "scheduled_task")
+                .timer()
+                .totalTime(TimeUnit.SECONDS), equalTo(3.0));
+    }
+
+    @Test
+    void should_record_heartbeats() {
+        // when
+        instrumentation.heartbeatFinished(ScheduledTaskIdentity.of("scheduled_task"), Duration.ofMillis(10L), null);
+        instrumentation.heartbeatFinished(ScheduledTaskIdentity.of("scheduled_task"), Duration.ofMillis(10L),
+                new RuntimeException());
+
+        // then
+        assertThat(meterRegistry.get(MicrometerSchedulerInstrumentation.HEARTBEAT_METER_NAME)
+                .tags("task", "scheduled_task", "result", "success")
+                .timer()
+                .count(), equalTo(1L));
+        assertThat(meterRegistry.get(MicrometerSchedulerInstrumentation.HEARTBEAT_METER_NAME)
+                .tags("task", "scheduled_task", "result", "error")
+                .timer()
+                .count(), equalTo(1L));
+    }
+
+    @Test
+    void should_record_queries() {
+        // when
+        instrumentation.queryFinished("findQueueTask", Duration.ofMillis(5L), null);
+
+        // then
+        assertThat(meterRegistry.get(MicrometerSchedulerInstrumentation.QUERY_METER_NAME)
+                .tags("query", "findQueueTask", "result", "success")
+                .timer()
+                .count(), equalTo(1L));
+    }
+}
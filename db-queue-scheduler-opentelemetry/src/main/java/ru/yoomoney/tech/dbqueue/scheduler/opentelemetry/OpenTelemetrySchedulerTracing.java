@@ -0,0 +1,171 @@
+package ru.yoomoney.tech.dbqueue.scheduler.opentelemetry;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import ru.yoomoney.tech.dbqueue.scheduler.config.ScheduledTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerInstrumentation;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskContext;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * OpenTelemetry tracing of scheduled tasks.
+ *
+ * <p>Each execution is traced by a root span that lasts from {@link #started} till {@link #finished}. Heartbeats and
+ * database queries of the executing task record, including the postponing after the execution, are traced by child
+ * spans, which makes it possible to tell the time spent by the scheduler from the time spent by the task itself.
+ *
+ * <p>Spans are bound to executions by task identity rather than by thread: the scheduler guarantees that the same task
+ * is not executed concurrently, whereas listener and instrumentation methods might be called by different threads,
+ * eg: heartbeats. That is why the execution span is not made current - spans created by the task itself are not its
+ * children.
+ *
+ * <p>The instance is both a listener and an instrumentation and must be registered as both.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class OpenTelemetrySchedulerTracing implements ScheduledTaskLifecycleListener, SchedulerInstrumentation {
+    private static final String INSTRUMENTATION_NAME = "ru.yoomoney.tech.dbqueue.scheduler";
+
+    static final AttributeKey<String> TASK = AttributeKey.stringKey("scheduler.task");
+    static final AttributeKey<String> INSTANCE_KEY = AttributeKey.stringKey("scheduler.instance_key");
+    static final AttributeKey<Long> LAG = AttributeKey.longKey("scheduler.lag");
+    static final AttributeKey<Long> ATTEMPT = AttributeKey.longKey("scheduler.attempt");
+    static final AttributeKey<String> RESULT = AttributeKey.stringKey("scheduler.result");
+    static final AttributeKey<String> QUERY = AttributeKey.stringKey("scheduler.query");
+
+    private final Tracer tracer;
+    private final Clock clock;
+    private final Map<ScheduledTaskIdentity, Span> executionSpans = new ConcurrentHashMap<>();
+
+    public OpenTelemetrySchedulerTracing(@Nonnull OpenTelemetry openTelemetry) {
+        this(openTelemetry, Clock.systemUTC());
+    }
+
+    OpenTelemetrySchedulerTracing(@Nonnull OpenTelemetry openTelemetry, @Nonnull Clock clock) {
+        this.tracer = requireNonNull(openTelemetry, "openTelemetry").getTracer(INSTRUMENTATION_NAME);
+        this.clock = requireNonNull(clock, "clock");
+    }
+
+    @Override
+    public void started(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull ScheduledTaskContext taskContext) {
+        started(taskIdentity, taskContext, Duration.ZERO);
+    }
+
+    @Override
+    public void started(@Nonnull ScheduledTaskIdentity taskIdentity,
+                        @Nonnull ScheduledTaskContext taskContext,
+                        @Nonnull Duration scheduleLag) {
+        Span span = tracer.spanBuilder("scheduler " + taskIdentity.asString())
+                .setNoParent()
+                .setSpanKind(SpanKind.CONSUMER)
+                .setAttribute(TASK, taskIdentity.asString())
+                .setAttribute(LAG, scheduleLag.toMillis())
+                .setAttribute(ATTEMPT, taskContext.getAttemptsCount())
+                .startSpan();
+        taskContext.getInstanceKey().ifPresent(instanceKey -> span.setAttribute(INSTANCE_KEY, instanceKey));
+        Span previousSpan = executionSpans.put(taskIdentity, span);
+        if (previousSpan != null) {
+            // the previous execution has not been finished properly, eg: the application thread was interrupted
+            previousSpan.end();
+        }
+    }
+
+    @Override
+    public void finished(@Nonnull ScheduledTaskIdentity taskIdentity,
+                         @Nonnull ScheduledTaskContext taskContext,
+                         @Nonnull ScheduledTaskExecutionResult executionResult,
+                         @Nonnull Instant nextExecutionTime,
+                         long processTaskTimeInMills) {
+        Span span = executionSpans.remove(taskIdentity);
+        if (span == null) {
+            return;
+        }
+        span.setAttribute(RESULT, executionResult.getType().name().toLowerCase());
+        if (executionResult.getType() == ScheduledTaskExecutionResult.Type.ERROR) {
+            span.setStatus(StatusCode.ERROR);
+        }
+        span.end();
+    }
+
+    @Override
+    public void crashed(@Nonnull ScheduledTaskIdentity taskIdentity,
+                        @Nonnull ScheduledTaskContext taskContext,
+                        @Nullable Throwable exc) {
+        Span span = executionSpans.get(taskIdentity);
+        if (span == null || exc == null) {
+            return;
+        }
+        span.recordException(exc);
+    }
+
+    @Override
+    public void scheduleLagMeasured(@Nonnull ScheduledTaskIdentity taskIdentity, @Nonnull Duration scheduleLag) {
+        // the lag is recorded as an attribute of the execution span
+    }
+
+    @Override
+    public void heartbeatFinished(@Nonnull ScheduledTaskIdentity taskIdentity,
+                                  @Nonnull Duration latency,
+                                  @Nullable Throwable exc) {
+        recordChildSpan(taskIdentity, "scheduler heartbeat", null, latency, exc);
+    }
+
+    @Override
+    public void queryFinished(@Nonnull String queryName, @Nonnull Duration duration, @Nullable Throwable exc) {
+        // queries that are not bound to a task are not traced
+    }
+
+    @Override
+    public void queryFinished(@Nonnull String queryName,
+                              @Nullable ScheduledTaskIdentity taskIdentity,
+                              @Nonnull Duration duration,
+                              @Nullable Throwable exc) {
+        if (taskIdentity == null) {
+            return;
+        }
+        recordChildSpan(taskIdentity, "scheduler query " + queryName, queryName, duration, exc);
+    }
+
+    private void recordChildSpan(ScheduledTaskIdentity taskIdentity,
+                                 String spanName,
+                                 @Nullable String queryName,
+                                 Duration duration,
+                                 @Nullable Throwable exc) {
+        Span parentSpan = executionSpans.get(taskIdentity);
+        if (parentSpan == null) {
+            return;
+        }
+        Instant end = clock.instant();
+        Span span = tracer.spanBuilder(spanName)
+                .setParent(Context.root().with(parentSpan))
+                .setSpanKind(SpanKind.CLIENT)
+                .setStartTimestamp(end.minus(duration))
+                .setAttribute(TASK, taskIdentity.asString())
+                .startSpan();
+        if (queryName != null) {
+            span.setAttribute(QUERY, queryName);
+        }
+        if (exc != null) {
+            span.recordException(exc);
+            span.setStatus(StatusCode.ERROR);
+        }
+        span.end(end);
+    }
+}
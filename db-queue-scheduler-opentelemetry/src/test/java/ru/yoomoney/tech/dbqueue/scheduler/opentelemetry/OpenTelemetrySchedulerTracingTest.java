@@ -0,0 +1,122 @@
+package ru.yoomoney.tech.dbqueue.scheduler.opentelemetry;
+
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.Test;
+import ru.yoomoney.tech.dbqueue.scheduler.InMemorySchedulerConfigurator;
+import ru.yoomoney.tech.dbqueue.scheduler.Scheduler;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTask;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskContext;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+import ru.yoomoney.tech.dbqueue.scheduler.models.SimpleScheduledTask;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.FailureSettings;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.ScheduleSettings;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.ScheduledTaskSettings;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class OpenTelemetrySchedulerTracingTest {
+    private final InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+    private final OpenTelemetrySdk openTelemetry = OpenTelemetrySdk.builder()
+            .setTracerProvider(SdkTracerProvider.builder()
+                    .addSpanProcessor(SimpleSpanProcessor.create(spanExporter))
+                    .build())
+            .build();
+
+    @Test
+    void should_trace_execution_with_child_spans_across_threads() {
+        // given
+        OpenTelemetrySchedulerTracing tracing = new OpenTelemetrySchedulerTracing(openTelemetry);
+        ScheduledTaskIdentity taskIdentity = ScheduledTaskIdentity.of("scheduled_task");
+        ScheduledTaskContext taskContext = ScheduledTaskContext.builder()
+                .withCreatedAt(Instant.now())
+                .withAttemptsCount(2L)
+                .build();
+
+        // when
+        tracing.started(taskIdentity, taskContext, Duration.ofMillis(1500L));
+        CompletableFuture.runAsync(() -> {
+            tracing.heartbeatFinished(taskIdentity, Duration.ofMillis(5L), null);
+            tracing.queryFinished("updatePayload", taskIdentity, Duration.ofMillis(3L), null);
+            tracing.queryFinished("findAll", null, Duration.ofMillis(3L), null);
+        }).join();
+        CompletableFuture.runAsync(() -> tracing.finished(taskIdentity, taskContext,
+                ScheduledTaskExecutionResult.error(), Instant.now(), 10L)).join();
+
+        // then
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        assertThat(spans.size(), equalTo(3));
+
+        SpanData executionSpan = spans.get(2);
+        assertThat(executionSpan.getName(), equalTo("scheduler scheduled_task"));
+        assertThat(executionSpan.getParentSpanContext().isValid(), equalTo(false));
+        assertThat(executionSpan.getAttributes().get(OpenTelemetrySchedulerTracing.LAG), equalTo(1500L));
+        assertThat(executionSpan.getAttributes().get(OpenTelemetrySchedulerTracing.ATTEMPT), equalTo(2L));
+        assertThat(executionSpan.getAttributes().get(OpenTelemetrySchedulerTracing.RESULT), equalTo("error"));
+        assertThat(executionSpan.getStatus().getStatusCode(), equalTo(StatusCode.ERROR));
+
+        assertThat(spans.get(0).getName(), equalTo("scheduler heartbeat"));
+        assertThat(spans.get(1).getName(), equalTo("scheduler query updatePayload"));
+        assertThat(spans.get(0).getParentSpanId(), equalTo(executionSpan.getSpanId()));
+        assertThat(spans.get(1).getParentSpanId(), equalTo(executionSpan.getSpanId()));
+        assertThat(spans.get(1).getTraceId(), equalTo(executionSpan.getTraceId()));
+    }
+
+    @Test
+    void should_trace_postponing_of_task_record_within_execution() {
+        // given
+        OpenTelemetrySchedulerTracing tracing = new OpenTelemetrySchedulerTracing(openTelemetry);
+        Scheduler scheduler = new InMemorySchedulerConfigurator()
+                .withScheduledTaskLifecycleListener(tracing)
+                .withSchedulerInstrumentation(tracing)
+                .configure();
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled_task",
+                context -> ScheduledTaskExecutionResult.success()
+        );
+
+        // when
+        scheduler.start();
+        scheduler.schedule(
+                scheduledTask,
+                ScheduledTaskSettings.builder()
+                        .withScheduleSettings(ScheduleSettings.fixedDelay(Duration.ZERO))
+                        .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                        .build()
+        );
+        await().atMost(Duration.ofSeconds(10L)).until(() -> spanExporter.getFinishedSpanItems().stream()
+                .anyMatch(span -> span.getName().equals("scheduler query reenqueue")));
+        scheduler.shutdown();
+
+        // then
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        Set<String> executionSpanIds = spans.stream()
+                .filter(span -> span.getName().equals("scheduler scheduled_task"))
+                .map(SpanData::getSpanId)
+                .collect(Collectors.toSet());
+        SpanData reenqueueSpan = spans.stream()
+                .filter(span -> span.getName().equals("scheduler query reenqueue"))
+                .findFirst()
+                .orElseThrow();
+        assertThat(executionSpanIds.contains(reenqueueSpan.getParentSpanId()), equalTo(true));
+        assertThat(reenqueueSpan.getAttributes().get(OpenTelemetrySchedulerTracing.QUERY), equalTo("reenqueue"));
+    }
+}
@@ -1,20 +1,37 @@
 package ru.yoomoney.tech.dbqueue.scheduler;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.transaction.support.TransactionOperations;
 import ru.yoomoney.tech.dbqueue.config.DatabaseAccessLayer;
 import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
 import ru.yoomoney.tech.dbqueue.scheduler.config.DatabaseDialect;
 import ru.yoomoney.tech.dbqueue.scheduler.config.ScheduledTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerInstrumentation;
+import ru.yoomoney.tech.dbqueue.scheduler.config.SchedulerTimeSource;
 import ru.yoomoney.tech.dbqueue.scheduler.config.impl.NoopScheduledTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.NoopSchedulerInstrumentation;
+import ru.yoomoney.tech.dbqueue.scheduler.config.impl.SystemSchedulerTimeSource;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.ScheduledTaskManagerBuilder;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskExtFields;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskQueueDao;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.db.DefaultScheduledTaskQueueDao;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.DefaultScheduledTaskExecutionHistoryDao;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ReplicaRouter;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ReplicaScheduledTaskExecutionHistoryDao;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ReplicaScheduledTaskQueueDao;
+import ru.yoomoney.tech.dbqueue.scheduler.internal.db.ScheduledTaskExecutionHistoryDao;
 import ru.yoomoney.tech.dbqueue.scheduler.internal.schedule.NextExecutionDelayProviderFactory;
+import ru.yoomoney.tech.dbqueue.scheduler.schema.SchemaAdvisor;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.DatabaseResilienceSettings;
+import ru.yoomoney.tech.dbqueue.scheduler.settings.ExecutionHistorySettings;
 import ru.yoomoney.tech.dbqueue.spring.dao.SpringDatabaseAccessLayer;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.List;
 
 import static java.util.Objects.requireNonNull;
 
@@ -40,12 +57,22 @@ import static java.util.Objects.requireNonNull;
  * @since 25.10.2021
  */
 public class SpringSchedulerConfigurator implements SchedulerConfigurator {
+    private static final Logger log = LoggerFactory.getLogger(SpringSchedulerConfigurator.class);
+
     private String tableName;
     private String idSequenceName;
+    private String stateTableName;
     private DatabaseDialect databaseDialect;
     private JdbcOperations jdbcOperations;
     private TransactionOperations transactionOperations;
     private ScheduledTaskLifecycleListener scheduledTaskLifecycleListener = NoopScheduledTaskLifecycleListener.getInstance();
+    private SchedulerInstrumentation schedulerInstrumentation = NoopSchedulerInstrumentation.getInstance();
+    private SchedulerTimeSource timeSource = SystemSchedulerTimeSource.getInstance();
+    private ExecutionHistorySettings executionHistorySettings;
+    private boolean schemaValidation = true;
+    private JdbcOperations replicaJdbcOperations;
+    private Duration maxReplicaLag;
+    private DatabaseResilienceSettings databaseResilienceSettings;
 
     /**
      * Sets backed table name for storing scheduled tasks.
@@ -60,9 +87,11 @@ public class SpringSchedulerConfigurator implements SchedulerConfigurator {
      *     next_process_at   TIMESTAMP WITH TIME ZONE DEFAULT now(),
      *     attempt           INTEGER                  DEFAULT 0,
      *     reenqueue_attempt INTEGER                  DEFAULT 0,
-     *     total_attempt     INTEGER                  DEFAULT 0
+     *     total_attempt     INTEGER                  DEFAULT 0,
+     *     resume_process_at TIMESTAMP WITH TIME ZONE,
+     *     execution_state   SMALLINT
      *  );
-     *  CREATE UNIQUE INDEX scheduled_tasks_uq ON scheduled_tasks (queue_name);
+     *  CREATE UNIQUE INDEX scheduled_tasks_uq ON scheduled_tasks (queue_name text_pattern_ops);
      *  }</pre>
      *
      * @param tableName table name that stores scheduled tasks
@@ -85,6 +114,30 @@ public class SpringSchedulerConfigurator implements SchedulerConfigurator {
         return this;
     }
 
+    /**
+     * Sets name of the table that stores states of tasks apart from the tasks table.
+     *
+     * <p>The table keeps rows of the tasks table narrow, so heartbeats and postponing of tasks with large states do not
+     * rewrite the states. A state is read only when the task accesses it. States left in the tasks table take
+     * precedence, so they must be moved to the state table by a one-time migration before the table is enabled,
+     * {@link #configure()} fails otherwise.
+     *
+     * <p>PostgreSQL table schema:</p>
+     * <pre>{@code
+     *  CREATE TABLE scheduled_task_states (
+     *     queue_name TEXT NOT NULL PRIMARY KEY,
+     *     state      TEXT
+     *  );
+     *  }</pre>
+     *
+     * @param stateTableName table name that stores states of tasks or null to store states in the tasks table
+     * @return the same instance of {@link SpringSchedulerConfigurator}
+     */
+    public SpringSchedulerConfigurator withStateTableName(@Nullable String stateTableName) {
+        this.stateTableName = stateTableName;
+        return this;
+    }
+
     /**
      * Sets database dialect.
      *
@@ -136,6 +189,113 @@ public class SpringSchedulerConfigurator implements SchedulerConfigurator {
         return this;
     }
 
+    /**
+     * Sets {@link SchedulerInstrumentation} for observing scheduler internals: scheduling lag, heartbeats and
+     * database queries
+     *
+     * @param schedulerInstrumentation instrumentation of scheduler internals
+     * @return the same instance of {@link SpringSchedulerConfigurator}
+     */
+    public SpringSchedulerConfigurator withSchedulerInstrumentation(@Nonnull SchedulerInstrumentation schedulerInstrumentation) {
+        this.schedulerInstrumentation = requireNonNull(schedulerInstrumentation, "schedulerInstrumentation");
+        return this;
+    }
+
+    /**
+     * Sets {@link SchedulerTimeSource} the scheduler internals read the time and wait by: computing of cron schedules,
+     * heartbeats, timestamps of the execution history.
+     *
+     * <p>Next process dates of the tasks table are set by the database clock, and polling of db-queue waits by the
+     * real time regardless of the time source.
+     *
+     * @param timeSource source of time
+     * @return the same instance of {@link SpringSchedulerConfigurator}
+     */
+    public SpringSchedulerConfigurator withTimeSource(@Nonnull SchedulerTimeSource timeSource) {
+        this.timeSource = requireNonNull(timeSource, "timeSource");
+        return this;
+    }
+
+    /**
+     * Enables the persisted execution history.
+     *
+     * <p>PostgreSQL table schema:</p>
+     * <pre>{@code
+     *  CREATE TABLE scheduled_task_executions (
+     *     queue_name    TEXT NOT NULL,
+     *     started_at    TIMESTAMP WITH TIME ZONE NOT NULL,
+     *     finished_at   TIMESTAMP WITH TIME ZONE NOT NULL,
+     *     result        VARCHAR(16) NOT NULL,
+     *     error_message TEXT
+     *  );
+     *  CREATE INDEX scheduled_task_executions_queue_idx ON scheduled_task_executions (queue_name, finished_at);
+     *  CREATE INDEX scheduled_task_executions_finished_idx ON scheduled_task_executions (finished_at);
+     *  }</pre>
+     *
+     * @param executionHistorySettings settings of the execution history
+     * @return the same instance of {@link SpringSchedulerConfigurator}
+     */
+    public SpringSchedulerConfigurator withExecutionHistorySettings(
+            @Nonnull ExecutionHistorySettings executionHistorySettings
+    ) {
+        this.executionHistorySettings = requireNonNull(executionHistorySettings, "executionHistorySettings");
+        return this;
+    }
+
+    /**
+     * Sets the flag of the tasks table validation on configuration, enabled by default.
+     *
+     * <p>The live schema is compared with the layout advised by {@link SchemaAdvisor}, every deviation is logged
+     * as a warning. The validation never fails the configuration.
+     *
+     * @param schemaValidation true if the tasks table is validated otherwise false
+     * @return the same instance of {@link SpringSchedulerConfigurator}
+     */
+    public SpringSchedulerConfigurator withSchemaValidation(boolean schemaValidation) {
+        this.schemaValidation = schemaValidation;
+        return this;
+    }
+
+    /**
+     * Sets a read-only replica of the database for statistics of tasks and the execution history.
+     *
+     * <p>{@link Scheduler#getScheduledTaskInfo()} and {@link Scheduler#getExecutionHistory} read from the replica,
+     * so frequent dashboard refreshes do not compete with polling and updates of task records on the primary database.
+     * The replication lag is measured by the replica before every read and is reported as
+     * {@link ru.yoomoney.tech.dbqueue.scheduler.models.info.ScheduledTaskInfo#getStaleness()}. When the lag exceeds
+     * the max lag or cannot be measured, or the replica fails, the data is read from the primary database.
+     *
+     * <p>The replica user must be able to read the replication lag: {@code pg_last_xact_replay_timestamp()}
+     * on PostgreSQL, {@code sys.dm_hadr_database_replica_states} on MSSQL, {@code v$dataguard_stats} on Oracle.
+     *
+     * @param replicaJdbcOperations database access object of the replica
+     * @param maxReplicaLag max acceptable replication lag
+     * @return the same instance of {@link SpringSchedulerConfigurator}
+     */
+    public SpringSchedulerConfigurator withReplicaJdbcOperations(@Nonnull JdbcOperations replicaJdbcOperations,
+                                                                 @Nonnull Duration maxReplicaLag) {
+        this.replicaJdbcOperations = requireNonNull(replicaJdbcOperations, "replicaJdbcOperations");
+        this.maxReplicaLag = requireNonNull(maxReplicaLag, "maxReplicaLag");
+        return this;
+    }
+
+    /**
+     * Enables retries of transient database errors and the circuit breaker of the node.
+     *
+     * <p>Serialization failures, deadlocks and lost connections of the tasks table queries are retried with a jittered
+     * backoff, so a database blip neither turns a successful execution into a failure nor reaches the fatal crash
+     * timeout of db-queue. While the database is unhealthy, the node stops picking tasks altogether.
+     *
+     * @param databaseResilienceSettings settings of retries and of the circuit breaker
+     * @return the same instance of {@link SpringSchedulerConfigurator}
+     */
+    public SpringSchedulerConfigurator withDatabaseResilienceSettings(
+            @Nonnull DatabaseResilienceSettings databaseResilienceSettings
+    ) {
+        this.databaseResilienceSettings = requireNonNull(databaseResilienceSettings, "databaseResilienceSettings");
+        return this;
+    }
+
     @Override
     public Scheduler configure() {
         requireNonNull(tableName, "tableName");
@@ -143,32 +303,113 @@ public class SpringSchedulerConfigurator implements SchedulerConfigurator {
         requireNonNull(jdbcOperations, "jdbcOperations");
         requireNonNull(transactionOperations, "transactionOperations");
         requireNonNull(scheduledTaskLifecycleListener, "scheduledTaskLifecycleListener");
+        requireNonNull(schedulerInstrumentation, "schedulerInstrumentation");
+        requireNonNull(timeSource, "timeSource");
 
+        QueueTableSchema queueTableSchema = QueueTableSchema.builder()
+                .withExtFields(ScheduledTaskExtFields.ALL)
+                .build();
+        if (schemaValidation) {
+            validateSchema();
+        }
         DatabaseAccessLayer databaseAccessLayer = new SpringDatabaseAccessLayer(
                 mapDatabaseDialect(databaseDialect),
-                QueueTableSchema.builder().build(),
+                queueTableSchema,
                 jdbcOperations,
                 transactionOperations
         );
-        ScheduledTaskQueueDao scheduledTaskQueueDao = new DefaultScheduledTaskQueueDao(
+        DefaultScheduledTaskQueueDao defaultScheduledTaskQueueDao = new DefaultScheduledTaskQueueDao(
                 tableName,
                 databaseDialect,
                 jdbcOperations,
                 transactionOperations,
-                QueueTableSchema.builder().build()
+                queueTableSchema,
+                stateTableName
         );
+        if (stateTableName != null) {
+            checkStatesMoved(defaultScheduledTaskQueueDao);
+        }
+        ScheduledTaskQueueDao scheduledTaskQueueDao = defaultScheduledTaskQueueDao;
+        ReplicaRouter replicaRouter = replicaJdbcOperations == null
+                ? null
+                : new ReplicaRouter(databaseDialect, replicaJdbcOperations, maxReplicaLag);
+        if (replicaRouter != null) {
+            scheduledTaskQueueDao = new ReplicaScheduledTaskQueueDao(
+                    scheduledTaskQueueDao,
+                    new DefaultScheduledTaskQueueDao(
+                            tableName,
+                            databaseDialect,
+                            replicaJdbcOperations,
+                            transactionOperations,
+                            queueTableSchema,
+                            stateTableName
+                    ),
+                    replicaRouter
+            );
+        }
+        ScheduledTaskManagerBuilder scheduledTaskManagerBuilder = new ScheduledTaskManagerBuilder()
+                .withTableName(tableName)
+                .withIdSequenceName(idSequenceName)
+                .withScheduledTaskQueueDao(scheduledTaskQueueDao)
+                .withDatabaseAccessLayer(databaseAccessLayer)
+                .withScheduledTaskLifecycleListener(scheduledTaskLifecycleListener)
+                .withSchedulerInstrumentation(schedulerInstrumentation)
+                .withTimeSource(timeSource);
+        if (executionHistorySettings != null) {
+            ScheduledTaskExecutionHistoryDao executionHistoryDao = new DefaultScheduledTaskExecutionHistoryDao(
+                    executionHistorySettings.getTableName(),
+                    databaseDialect,
+                    jdbcOperations,
+                    transactionOperations
+            );
+            if (replicaRouter != null) {
+                executionHistoryDao = new ReplicaScheduledTaskExecutionHistoryDao(
+                        executionHistoryDao,
+                        new DefaultScheduledTaskExecutionHistoryDao(
+                                executionHistorySettings.getTableName(),
+                                databaseDialect,
+                                replicaJdbcOperations,
+                                transactionOperations
+                        ),
+                        replicaRouter
+                );
+            }
+            scheduledTaskManagerBuilder.withExecutionHistory(executionHistoryDao, executionHistorySettings);
+        }
+        if (databaseResilienceSettings != null) {
+            scheduledTaskManagerBuilder.withDatabaseResilienceSettings(databaseResilienceSettings);
+        }
         return new DefaultScheduler(
-                new ScheduledTaskManagerBuilder()
-                        .withTableName(tableName)
-                        .withIdSequenceName(idSequenceName)
-                        .withScheduledTaskQueueDao(scheduledTaskQueueDao)
-                        .withDatabaseAccessLayer(databaseAccessLayer)
-                        .withScheduledTaskLifecycleListener(scheduledTaskLifecycleListener)
-                        .build(),
-                new NextExecutionDelayProviderFactory()
+                scheduledTaskManagerBuilder.build(),
+                new NextExecutionDelayProviderFactory(timeSource.getClock())
         );
     }
 
+    /**
+     * Checks that no state is left in the tasks table, such states would take precedence over the state table
+     * and hide all writes of the states
+     *
+     * @param scheduledTaskQueueDao dao of the tasks table
+     */
+    private void checkStatesMoved(DefaultScheduledTaskQueueDao scheduledTaskQueueDao) {
+        List<String> queueNames = scheduledTaskQueueDao.findQueueNamesWithAttachedStates();
+        if (!queueNames.isEmpty()) {
+            throw new IllegalStateException("states are left in the tasks table, move them to the state table " +
+                    "by the one-time migration: tableName=" + tableName + ", stateTableName=" + stateTableName +
+                    ", count=" + queueNames.size() +
+                    ", queueNames=" + queueNames.subList(0, Math.min(queueNames.size(), 10)));
+        }
+    }
+
+    private void validateSchema() {
+        try {
+            new SchemaAdvisor(databaseDialect, tableName, idSequenceName).validate(jdbcOperations)
+                    .forEach(deviation -> log.warn("tasks table deviates from the advised schema: {}", deviation));
+        } catch (RuntimeException ex) {
+            log.warn("failed to validate schema of the tasks table: tableName={}", tableName, ex);
+        }
+    }
+
     private ru.yoomoney.tech.dbqueue.config.DatabaseDialect mapDatabaseDialect(DatabaseDialect databaseDialect) {
         switch (databaseDialect) {
             case POSTGRESQL:
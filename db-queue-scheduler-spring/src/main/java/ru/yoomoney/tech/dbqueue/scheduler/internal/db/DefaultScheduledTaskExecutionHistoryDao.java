@@ -0,0 +1,148 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
+
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+import ru.yoomoney.tech.dbqueue.scheduler.config.DatabaseDialect;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+import ru.yoomoney.tech.dbqueue.scheduler.models.info.ScheduledTaskExecutionInfo;
+
+import javax.annotation.Nonnull;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Spring implementation of {@link ScheduledTaskExecutionHistoryDao}.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class DefaultScheduledTaskExecutionHistoryDao implements ScheduledTaskExecutionHistoryDao {
+
+    private final String tableName;
+    private final DatabaseDialect databaseDialect;
+    private final TransactionOperations transactionOperations;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public DefaultScheduledTaskExecutionHistoryDao(@Nonnull String tableName,
+                                                   @Nonnull DatabaseDialect databaseDialect,
+                                                   @Nonnull JdbcOperations jdbcOperations,
+                                                   @Nonnull TransactionOperations transactionOperations) {
+        requireNonNull(tableName, "tableName");
+        requireNonNull(databaseDialect, "databaseDialect");
+        requireNonNull(jdbcOperations, "jdbcOperations");
+        requireNonNull(transactionOperations, "transactionOperations");
+
+        this.tableName = tableName;
+        this.databaseDialect = databaseDialect;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcOperations);
+        this.transactionOperations = transactionOperations;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void insert(@Nonnull List<ScheduledTaskExecutionInfo> executions) {
+        requireNonNull(executions, "executions");
+        if (executions.isEmpty()) {
+            return;
+        }
+
+        String insertQuery = String.format(
+                "insert into %s (queue_name, started_at, finished_at, result, error_message) " +
+                        "values (:queueName, :startedAt, :finishedAt, :result, :errorMessage)",
+                tableName
+        );
+        Map<String, Object>[] batchParams = new Map[executions.size()];
+        for (int i = 0; i < executions.size(); i++) {
+            ScheduledTaskExecutionInfo execution = executions.get(i);
+            Map<String, Object> params = new HashMap<>();
+            params.put("queueName", execution.getIdentity().asString());
+            params.put("startedAt", Timestamp.from(execution.getStartedAt()));
+            params.put("finishedAt", Timestamp.from(execution.getFinishedAt()));
+            params.put("result", execution.getResultType().name());
+            params.put("errorMessage", execution.getErrorMessage().orElse(null));
+            batchParams[i] = params;
+        }
+        transactionOperations.execute(status -> namedParameterJdbcTemplate.batchUpdate(insertQuery, batchParams));
+    }
+
+    @Override
+    public List<ScheduledTaskExecutionInfo> findLatest(@Nonnull ScheduledTaskIdentity identity, int limit) {
+        requireNonNull(identity, "identity");
+
+        String columns = " queue_name, started_at, finished_at, result, error_message ";
+        String condition = " where queue_name = :queueName order by finished_at desc";
+        String findLatestQuery;
+        switch (databaseDialect) {
+            case H2:
+            case POSTGRESQL:
+                findLatestQuery = "select" + columns + "from " + tableName + condition + " limit :limit";
+                break;
+            case MSSQL:
+                findLatestQuery = "select top (:limit)" + columns + "from " + tableName + condition;
+                break;
+            case ORACLE_11G:
+                findLatestQuery = "select * from (select" + columns + "from " + tableName + condition + ") " +
+                        "where rownum <= :limit";
+                break;
+            default:
+                throw new IllegalStateException("got unexpected databaseDialect: dialect=" + databaseDialect);
+        }
+        return namedParameterJdbcTemplate.query(
+                findLatestQuery,
+                Map.of("queueName", identity.asString(), "limit", limit),
+                (rs, index) -> mapExecution(rs)
+        );
+    }
+
+    private ScheduledTaskExecutionInfo mapExecution(ResultSet rs) throws SQLException {
+        return ScheduledTaskExecutionInfo.builder()
+                .withIdentity(ScheduledTaskIdentity.of(rs.getString("queue_name")))
+                .withStartedAt(rs.getTimestamp("started_at").toInstant())
+                .withFinishedAt(rs.getTimestamp("finished_at").toInstant())
+                .withResultType(ScheduledTaskExecutionResult.Type.valueOf(rs.getString("result")))
+                .withErrorMessage(rs.getString("error_message"))
+                .build();
+    }
+
+    @Override
+    public int deleteFinishedBefore(@Nonnull Instant finishedBefore, int chunkSize) {
+        requireNonNull(finishedBefore, "finishedBefore");
+
+        String deleteQuery;
+        switch (databaseDialect) {
+            case POSTGRESQL:
+                // postgres does not support limit in delete statements
+                deleteQuery = String.format("delete from %s where ctid in " +
+                        "(select ctid from %s where finished_at < :finishedBefore limit :chunkSize)", tableName, tableName);
+                break;
+            case H2:
+                deleteQuery = String.format("delete from %s where finished_at < :finishedBefore limit :chunkSize",
+                        tableName);
+                break;
+            case MSSQL:
+                deleteQuery = String.format("delete top (:chunkSize) from %s where finished_at < :finishedBefore",
+                        tableName);
+                break;
+            case ORACLE_11G:
+                deleteQuery = String.format("delete from %s where finished_at < :finishedBefore and rownum <= :chunkSize",
+                        tableName);
+                break;
+            default:
+                throw new IllegalStateException("got unexpected databaseDialect: dialect=" + databaseDialect);
+        }
+        Integer deletedRows = transactionOperations.execute(status -> namedParameterJdbcTemplate.update(
+                deleteQuery,
+                Map.<String, Object>of("finishedBefore", Timestamp.from(finishedBefore), "chunkSize", chunkSize)
+        ));
+        return deletedRows == null ? 0 : deletedRows;
+    }
+}
@@ -3,18 +3,26 @@ package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.transaction.support.TransactionOperations;
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
 import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
 import ru.yoomoney.tech.dbqueue.scheduler.config.DatabaseDialect;
 import ru.yoomoney.tech.dbqueue.settings.QueueId;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 import static java.util.Collections.emptyMap;
@@ -25,22 +33,41 @@ import static java.util.Objects.requireNonNull;
  *
  * Spring is not connected to the library by default - use {@code db-queue-scheduler-spring} module.
  *
+ * <p>States of tasks might be kept in a separate table referenced by queue name, so heartbeats and postponing update
+ * narrow rows of the tasks table only. The pick does not read such states, they are read by
+ * {@link #findPayload(QueueId)} when a task accesses its state. States are written to the state table only, while
+ * a state left in the payload column of the tasks table is still read by the pick and takes precedence. Such states
+ * must be moved by a one-time migration, they are found by {@link #findQueueNamesWithAttachedStates()}.
+ *
  * @author Petr Zinin pgzinin@yoomoney.ru
  * @since 25.10.2021
  */
 public class DefaultScheduledTaskQueueDao implements ScheduledTaskQueueDao {
+    private static final int ENQUEUE_BATCH_SIZE = 500;
 
     private final String tableName;
     private final DatabaseDialect databaseDialect;
     private final QueueTableSchema queueTableSchema;
     private final TransactionOperations transactionOperations;
+    private final JdbcOperations jdbcOperations;
     private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    @Nullable
+    private final String stateTableName;
 
     public DefaultScheduledTaskQueueDao(@Nonnull String tableName,
                                         @Nonnull DatabaseDialect databaseDialect,
                                         @Nonnull JdbcOperations jdbcOperations,
                                         @Nonnull TransactionOperations transactionOperations,
                                         @Nonnull QueueTableSchema queueTableSchema) {
+        this(tableName, databaseDialect, jdbcOperations, transactionOperations, queueTableSchema, null);
+    }
+
+    public DefaultScheduledTaskQueueDao(@Nonnull String tableName,
+                                        @Nonnull DatabaseDialect databaseDialect,
+                                        @Nonnull JdbcOperations jdbcOperations,
+                                        @Nonnull TransactionOperations transactionOperations,
+                                        @Nonnull QueueTableSchema queueTableSchema,
+                                        @Nullable String stateTableName) {
         requireNonNull(tableName, "tableName");
         requireNonNull(databaseDialect, "databaseDialect");
         requireNonNull(jdbcOperations, "jdbcOperations");
@@ -49,9 +76,11 @@ public class DefaultScheduledTaskQueueDao implements ScheduledTaskQueueDao {
 
         this.queueTableSchema = queueTableSchema;
         this.databaseDialect = databaseDialect;
+        this.jdbcOperations = jdbcOperations;
         this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcOperations);
         this.transactionOperations = transactionOperations;
         this.tableName = tableName;
+        this.stateTableName = stateTableName;
     }
 
     @Override
@@ -62,17 +91,14 @@ public class DefaultScheduledTaskQueueDao implements ScheduledTaskQueueDao {
                 "select " + queueTableSchema.getIdField() + " as id" +
                 "     , " + queueTableSchema.getQueueNameField() + " as queue_name" +
                 "     , " + queueTableSchema.getNextProcessAtField() + " as next_process_at" +
+                "     , " + ScheduledTaskExtFields.RESUME_PROCESS_AT + " as resume_process_at" +
                 "  from " + tableName +
                 " where " + queueTableSchema.getQueueNameField() + " = :queueName";
 
         return namedParameterJdbcTemplate.query(
                 findQueueTaskQuery,
                 Map.of("queueName", queueId.asString()),
-                (rs, index) -> ScheduledTaskRecord.builder()
-                        .withId(rs.getLong("id"))
-                        .withQueueName(rs.getString("queue_name"))
-                        .withNextProcessAt(rs.getTimestamp("next_process_at").toInstant())
-                        .build()
+                (rs, index) -> mapScheduledTaskRecord(rs)
         ).stream().findFirst();
     }
 
@@ -89,36 +115,163 @@ public class DefaultScheduledTaskQueueDao implements ScheduledTaskQueueDao {
         return updatedRows == null ? 0 : updatedRows;
     }
 
-    private String createUpdateNextProcessDateQuery() {
-        switch (databaseDialect) {
-            case POSTGRESQL:
-                return String.format(
-                        "update %s set %s = now() + :executionDelay * INTERVAL '1 SECOND' where %s = :queueName",
-                        tableName, queueTableSchema.getNextProcessAtField(), queueTableSchema.getQueueNameField());
+    @Override
+    public int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch) {
+        requireNonNull(queueId, "queueId");
+        requireNonNull(executionDelay, "executionDelay");
 
-            case MSSQL:
-                return String.format(
-                        "update %s set %s = dateadd(ss, :executionDelay, SYSDATETIMEOFFSET()) where %s = :queueName",
-                        tableName, queueTableSchema.getNextProcessAtField(), queueTableSchema.getQueueNameField());
+        String rescheduleQuery = createUpdateNextProcessDateQuery() + createTotalAttemptCondition();
+        Integer updatedRows = transactionOperations.execute(status -> namedParameterJdbcTemplate.update(
+                rescheduleQuery,
+                Map.<String, Object>of("queueName", queueId.asString(), "executionDelay", executionDelay.getSeconds(),
+                        "totalAttempt", executionEpoch)
+        ));
+        return updatedRows == null ? 0 : updatedRows;
+    }
 
-            case ORACLE_11G:
-                return String.format(
-                        "update %s set %s = CURRENT_TIMESTAMP + :executionDelay * INTERVAL '1' SECOND where %s = :queueName",
-                        tableName, queueTableSchema.getNextProcessAtField(), queueTableSchema.getQueueNameField());
+    @Override
+    public int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch,
+                                     @Nullable String payload) {
+        requireNonNull(queueId, "queueId");
+        requireNonNull(executionDelay, "executionDelay");
 
-            case H2:
-                return String.format(
-                        "update %s set %s = TIMESTAMPADD(SECOND, :executionDelay , NOW()) where %s = :queueName",
-                        tableName, queueTableSchema.getNextProcessAtField(), queueTableSchema.getQueueNameField());
-            default:
-                throw new IllegalStateException("got unexpected databaseDialect: dialect=" + databaseDialect);
+        if (stateTableName != null) {
+            Integer updatedRows = transactionOperations.execute(status -> {
+                int rows = updateNextProcessDate(queueId, executionDelay, executionEpoch);
+                if (rows > 0) {
+                    storeDetachedState(stateTableName, queueId, payload);
+                }
+                return rows;
+            });
+            return updatedRows == null ? 0 : updatedRows;
         }
+        String rescheduleQuery = String.format("update %s set %s = %s, %s = :payload where %s = :queueName",
+                tableName,
+                queueTableSchema.getNextProcessAtField(),
+                getDelayedCurrentTimeExpression("executionDelay"),
+                queueTableSchema.getPayloadField(),
+                queueTableSchema.getQueueNameField()) + createTotalAttemptCondition();
+        Map<String, Object> params = new HashMap<>();
+        params.put("queueName", queueId.asString());
+        params.put("executionDelay", executionDelay.getSeconds());
+        params.put("totalAttempt", executionEpoch);
+        params.put("payload", payload);
+        Integer updatedRows = transactionOperations.execute(status -> namedParameterJdbcTemplate.update(
+                rescheduleQuery, params));
+        return updatedRows == null ? 0 : updatedRows;
+    }
+
+    private String createUpdateNextProcessDateQuery() {
+        return String.format("update %s set %s = %s where %s = :queueName",
+                tableName,
+                queueTableSchema.getNextProcessAtField(),
+                getDelayedCurrentTimeExpression("executionDelay"),
+                queueTableSchema.getQueueNameField());
+    }
+
+    @Override
+    public int reenqueue(@Nonnull QueueId queueId, @Nonnull Duration executionDelay) {
+        requireNonNull(queueId, "queueId");
+        requireNonNull(executionDelay, "executionDelay");
+
+        String reenqueueQuery = createReenqueueQuery();
+        Integer updatedRows = transactionOperations.execute(status -> namedParameterJdbcTemplate.update(
+                reenqueueQuery,
+                Map.<String, Object>of("queueName", queueId.asString(), "executionDelay", executionDelay.getSeconds())
+        ));
+        return updatedRows == null ? 0 : updatedRows;
+    }
+
+    @Override
+    public int reenqueue(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch) {
+        requireNonNull(queueId, "queueId");
+        requireNonNull(executionDelay, "executionDelay");
+
+        String reenqueueQuery = String.format(
+                "update %s set %s = %s, %s = %s, %s = null, %s = 0, %s = %s + 1 where %s = :queueName",
+                tableName,
+                queueTableSchema.getNextProcessAtField(),
+                createReleasedNextProcessDateExpression(),
+                ScheduledTaskExtFields.RESUME_PROCESS_AT,
+                String.format("case when %s = %d then %s else null end",
+                        ScheduledTaskExtFields.EXECUTION_STATE,
+                        ScheduledTaskExtFields.EXECUTING_TRIGGERED,
+                        getDelayedCurrentTimeExpression("executionDelay")),
+                ScheduledTaskExtFields.EXECUTION_STATE,
+                queueTableSchema.getAttemptField(),
+                queueTableSchema.getReenqueueAttemptField(),
+                queueTableSchema.getReenqueueAttemptField(),
+                queueTableSchema.getQueueNameField()
+        ) + createTotalAttemptCondition();
+        Integer updatedRows = transactionOperations.execute(status -> namedParameterJdbcTemplate.update(
+                reenqueueQuery,
+                Map.<String, Object>of("queueName", queueId.asString(), "executionDelay", executionDelay.getSeconds(),
+                        "totalAttempt", executionEpoch)
+        ));
+        return updatedRows == null ? 0 : updatedRows;
+    }
+
+    @Override
+    public int postponeFailed(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch) {
+        requireNonNull(queueId, "queueId");
+        requireNonNull(executionDelay, "executionDelay");
+
+        String postponeFailedQuery = String.format(
+                "update %s set %s = %s, %s = null where %s = :queueName",
+                tableName,
+                queueTableSchema.getNextProcessAtField(),
+                createReleasedNextProcessDateExpression(),
+                ScheduledTaskExtFields.EXECUTION_STATE,
+                queueTableSchema.getQueueNameField()
+        ) + createTotalAttemptCondition();
+        Integer updatedRows = transactionOperations.execute(status -> namedParameterJdbcTemplate.update(
+                postponeFailedQuery,
+                Map.<String, Object>of("queueName", queueId.asString(), "executionDelay", executionDelay.getSeconds(),
+                        "totalAttempt", executionEpoch)
+        ));
+        return updatedRows == null ? 0 : updatedRows;
+    }
+
+    /**
+     * Creates expression of the next process date of a task released by an execution, a task triggered during the
+     * execution is made ready
+     *
+     * @return next process date expression
+     */
+    private String createReleasedNextProcessDateExpression() {
+        return String.format("case when %s = %d then %s else %s end",
+                ScheduledTaskExtFields.EXECUTION_STATE,
+                ScheduledTaskExtFields.EXECUTING_TRIGGERED,
+                getCurrentTimeExpression(),
+                getDelayedCurrentTimeExpression("executionDelay"));
+    }
+
+    private String createReenqueueQuery() {
+        return String.format(
+                "update %s set %s = %s, %s = 0, %s = %s + 1 where %s = :queueName",
+                tableName,
+                queueTableSchema.getNextProcessAtField(),
+                getDelayedCurrentTimeExpression("executionDelay"),
+                queueTableSchema.getAttemptField(),
+                queueTableSchema.getReenqueueAttemptField(),
+                queueTableSchema.getReenqueueAttemptField(),
+                queueTableSchema.getQueueNameField()
+        );
+    }
+
+    private String createTotalAttemptCondition() {
+        return " and " + queueTableSchema.getTotalAttemptField() + " = :totalAttempt";
     }
 
     @Override
     public int updatePayload(@Nonnull QueueId queueId, @Nullable String payload) {
         requireNonNull(queueId, "queueId");
 
+        if (stateTableName != null) {
+            Integer updatedRows = transactionOperations.execute(status ->
+                    storeDetachedState(stateTableName, queueId, payload));
+            return updatedRows == null ? 0 : updatedRows;
+        }
         String updatePayloadQuery = String.format(
                 "update %s set %s = :payload where %s = :queueName",
                 tableName,
@@ -133,24 +286,362 @@ public class DefaultScheduledTaskQueueDao implements ScheduledTaskQueueDao {
         return updatedRows == null ? 0 : updatedRows;
     }
 
+    /**
+     * Stores a state in the state table by a single upsert statement.
+     *
+     * @param stateTableName name of the state table
+     * @param queueId identity of the queue
+     * @param payload state of the task
+     * @return count of upserted rows of the state table
+     */
+    private int storeDetachedState(String stateTableName, QueueId queueId, @Nullable String payload) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("queueName", queueId.asString());
+        params.put("state", payload);
+        return namedParameterJdbcTemplate.update(createUpsertStateQuery(stateTableName), params);
+    }
+
+    private String createUpsertStateQuery(String stateTableName) {
+        switch (databaseDialect) {
+            case POSTGRESQL:
+                return String.format("insert into %s (queue_name, state) values (:queueName, :state)" +
+                        " on conflict (queue_name) do update set state = excluded.state", stateTableName);
+            case MSSQL:
+                return String.format("merge into %s with (holdlock) as t" +
+                        " using (select :queueName as queue_name) as s on t.queue_name = s.queue_name" +
+                        " when matched then update set state = :state" +
+                        " when not matched then insert (queue_name, state) values (s.queue_name, :state);",
+                        stateTableName);
+            case ORACLE_11G:
+                // the state is bound to the columns directly, so a CLOB state is not limited by a select from dual
+                return String.format("merge into %s t" +
+                        " using (select :queueName as queue_name from dual) s on (t.queue_name = s.queue_name)" +
+                        " when matched then update set t.state = :state" +
+                        " when not matched then insert (queue_name, state) values (s.queue_name, :state)",
+                        stateTableName);
+            case H2:
+                return String.format("merge into %s (queue_name, state) key (queue_name) values (:queueName, :state)",
+                        stateTableName);
+            default:
+                throw new IllegalStateException("got unexpected databaseDialect: dialect=" + databaseDialect);
+        }
+    }
+
+    /**
+     * Finds task records that keep states in the tasks table although the state table is used
+     *
+     * @return queue names of the task records, empty if the state table is not used
+     */
+    @Nonnull
+    public List<String> findQueueNamesWithAttachedStates() {
+        if (stateTableName == null) {
+            return List.of();
+        }
+        return jdbcOperations.queryForList(String.format("select %s from %s where %s is not null",
+                queueTableSchema.getQueueNameField(),
+                tableName,
+                queueTableSchema.getPayloadField()), String.class);
+    }
+
+    @Nullable
+    @Override
+    public String findPayload(@Nonnull QueueId queueId) {
+        requireNonNull(queueId, "queueId");
+
+        String findPayloadQuery = stateTableName == null
+                ? String.format("select %s from %s where %s = :queueName",
+                        queueTableSchema.getPayloadField(), tableName, queueTableSchema.getQueueNameField())
+                : String.format("select state from %s where queue_name = :queueName", stateTableName);
+        return namedParameterJdbcTemplate.queryForList(
+                findPayloadQuery,
+                Map.of("queueName", queueId.asString()),
+                String.class
+        ).stream().filter(Objects::nonNull).findFirst().orElse(null);
+    }
+
+    @Override
+    public int triggerNow(@Nonnull QueueId queueId) {
+        requireNonNull(queueId, "queueId");
+
+        // a held task keeps its next process date, the trigger is applied when the execution releases the task
+        String triggerNowQuery = String.format(
+                "update %s set %s = case when %s is null then coalesce(%s, %s) else %s end" +
+                        ", %s = case when %s is null then %s else %s end" +
+                        ", %s = case when %s is null then null else %d end" +
+                        " where %s = :queueName",
+                tableName,
+                ScheduledTaskExtFields.RESUME_PROCESS_AT,
+                ScheduledTaskExtFields.EXECUTION_STATE,
+                ScheduledTaskExtFields.RESUME_PROCESS_AT,
+                queueTableSchema.getNextProcessAtField(),
+                ScheduledTaskExtFields.RESUME_PROCESS_AT,
+                queueTableSchema.getNextProcessAtField(),
+                ScheduledTaskExtFields.EXECUTION_STATE,
+                getCurrentTimeExpression(),
+                queueTableSchema.getNextProcessAtField(),
+                ScheduledTaskExtFields.EXECUTION_STATE,
+                ScheduledTaskExtFields.EXECUTION_STATE,
+                ScheduledTaskExtFields.EXECUTING_TRIGGERED,
+                queueTableSchema.getQueueNameField()
+        );
+        Integer updatedRows = transactionOperations.execute(status -> namedParameterJdbcTemplate.update(
+                triggerNowQuery,
+                Map.of("queueName", queueId.asString())
+        ));
+        return updatedRows == null ? 0 : updatedRows;
+    }
+
+    @Override
+    public int deleteQueueTask(@Nonnull QueueId queueId) {
+        requireNonNull(queueId, "queueId");
+
+        String deleteQueueTaskQuery = String.format(
+                "delete from %s where %s = :queueName",
+                tableName,
+                queueTableSchema.getQueueNameField()
+        );
+        Integer deletedRows = transactionOperations.execute(status -> {
+            if (stateTableName != null) {
+                namedParameterJdbcTemplate.update(
+                        String.format("delete from %s where queue_name = :queueName", stateTableName),
+                        Map.of("queueName", queueId.asString()));
+            }
+            return namedParameterJdbcTemplate.update(deleteQueueTaskQuery, Map.of("queueName", queueId.asString()));
+        });
+        return deletedRows == null ? 0 : deletedRows;
+    }
+
+    @Override
+    public int deleteQueueTasks(@Nonnull String queueNamePrefix) {
+        requireNonNull(queueNamePrefix, "queueNamePrefix");
+
+        String deleteQueueTasksQuery = String.format(
+                "delete from %s where %s like :queueNamePattern escape '\\'",
+                tableName,
+                queueTableSchema.getQueueNameField()
+        );
+        Map<String, Object> params = Map.of("queueNamePattern", escapeLikePattern(queueNamePrefix) + '%');
+        Integer deletedRows = transactionOperations.execute(status -> {
+            if (stateTableName != null) {
+                namedParameterJdbcTemplate.update(String.format(
+                        "delete from %s where queue_name like :queueNamePattern escape '\\'", stateTableName), params);
+            }
+            return namedParameterJdbcTemplate.update(deleteQueueTasksQuery, params);
+        });
+        return deletedRows == null ? 0 : deletedRows;
+    }
+
+    @Nullable
+    @Override
+    public TaskRecord pickTask(@Nonnull QueueId queueId, @Nonnull Duration retryInterval) {
+        requireNonNull(queueId, "queueId");
+        requireNonNull(retryInterval, "retryInterval");
+
+        return pickTask(queueTableSchema.getQueueNameField() + " = ?", queueId.asString(), retryInterval);
+    }
+
+    @Nullable
+    @Override
+    public TaskRecord pickTask(@Nonnull String queueNamePrefix, @Nonnull Duration retryInterval) {
+        requireNonNull(queueNamePrefix, "queueNamePrefix");
+        requireNonNull(retryInterval, "retryInterval");
+
+        return pickTask(queueTableSchema.getQueueNameField() + " like ? escape '\\'",
+                escapeLikePattern(queueNamePrefix) + '%', retryInterval);
+    }
+
+    @Nullable
+    private TaskRecord pickTask(String queueNameCondition, String queueNameParam, Duration retryInterval) {
+        String pickTaskQuery = createPickTaskQuery(queueNameCondition);
+        // the fetch is limited, otherwise Oracle locks all the rows of the first fetch
+        TaskRecord taskRecord = jdbcOperations.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(pickTaskQuery);
+                    statement.setMaxRows(1);
+                    statement.setFetchSize(1);
+                    statement.setString(1, queueNameParam);
+                    return statement;
+                },
+                rs -> rs.next() ? mapTaskRecord(rs) : null
+        );
+        if (taskRecord == null) {
+            return null;
+        }
+
+        // a trigger of a task held by a crashed execution is kept for the new one
+        String postponeQuery = String.format(
+                "update %s set %s = %s, %s = %s + 1, %s = %s + 1, %s = coalesce(%s, %d) where %s = :id",
+                tableName,
+                queueTableSchema.getNextProcessAtField(),
+                getDelayedCurrentTimeExpression("retryInterval"),
+                queueTableSchema.getAttemptField(),
+                queueTableSchema.getAttemptField(),
+                queueTableSchema.getTotalAttemptField(),
+                queueTableSchema.getTotalAttemptField(),
+                ScheduledTaskExtFields.EXECUTION_STATE,
+                ScheduledTaskExtFields.EXECUTION_STATE,
+                ScheduledTaskExtFields.EXECUTING,
+                queueTableSchema.getIdField()
+        );
+        namedParameterJdbcTemplate.update(
+                postponeQuery,
+                Map.<String, Object>of("id", taskRecord.getId(), "retryInterval", retryInterval.getSeconds())
+        );
+        return TaskRecord.builder()
+                .withId(taskRecord.getId())
+                .withPayload(taskRecord.getPayload())
+                .withCreatedAt(taskRecord.getCreatedAt())
+                .withNextProcessAt(taskRecord.getNextProcessAt())
+                .withAttemptsCount(taskRecord.getAttemptsCount() + 1L)
+                .withReenqueueAttemptsCount(taskRecord.getReenqueueAttemptsCount())
+                .withTotalAttemptsCount(taskRecord.getTotalAttemptsCount() + 1L)
+                .withExtData(taskRecord.getExtData())
+                .build();
+    }
+
+    private String createPickTaskQuery(String queueNameCondition) {
+        String columns = ' ' +
+                queueTableSchema.getIdField() + " as id" +
+                ", " + queueTableSchema.getQueueNameField() + " as queue_name" +
+                ", " + queueTableSchema.getPayloadField() + " as payload" +
+                ", " + queueTableSchema.getCreatedAtField() + " as created_at" +
+                ", " + queueTableSchema.getNextProcessAtField() + " as next_process_at" +
+                ", " + queueTableSchema.getAttemptField() + " as attempt" +
+                ", " + queueTableSchema.getReenqueueAttemptField() + " as reenqueue_attempt" +
+                ", " + queueTableSchema.getTotalAttemptField() + " as total_attempt" +
+                ", " + ScheduledTaskExtFields.RESUME_PROCESS_AT + " as resume_process_at ";
+        String condition = String.format(" where %s and %s <= %s ",
+                queueNameCondition,
+                queueTableSchema.getNextProcessAtField(),
+                getCurrentTimeExpression());
+        String order = " order by " + queueTableSchema.getNextProcessAtField();
+
+        switch (databaseDialect) {
+            case POSTGRESQL:
+                return "select" + columns + "from " + tableName + condition + order + " limit 1 for update skip locked";
+            case MSSQL:
+                return "select top (1)" + columns + "from " + tableName + " with (updlock, readpast, rowlock)" + condition + order;
+            case ORACLE_11G:
+                // rownum is evaluated before skipping locked rows, so the fetch of the statement is limited instead
+                return "select" + columns + "from " + tableName + condition + order + " for update skip locked";
+            case H2:
+                return "select" + columns + "from " + tableName + condition + order + " limit 1 for update";
+            default:
+                throw new IllegalStateException("got unexpected databaseDialect: dialect=" + databaseDialect);
+        }
+    }
+
+    private TaskRecord mapTaskRecord(ResultSet rs) throws SQLException {
+        Timestamp resumeProcessAt = rs.getTimestamp("resume_process_at");
+        Map<String, String> extData = new HashMap<>();
+        extData.put(ScheduledTaskExtFields.QUEUE_NAME, rs.getString("queue_name"));
+        extData.put(ScheduledTaskExtFields.PLANNED_PROCESS_AT, rs.getTimestamp("next_process_at").toInstant().toString());
+        extData.put(ScheduledTaskExtFields.RESUME_PROCESS_AT,
+                resumeProcessAt == null ? null : resumeProcessAt.toInstant().toString());
+        if (stateTableName != null) {
+            extData.put(ScheduledTaskExtFields.DETACHED_STATE, Boolean.TRUE.toString());
+        }
+        return TaskRecord.builder()
+                .withId(rs.getLong("id"))
+                .withPayload(rs.getString("payload"))
+                .withCreatedAt(ZonedDateTime.ofInstant(rs.getTimestamp("created_at").toInstant(), ZoneId.systemDefault()))
+                .withNextProcessAt(ZonedDateTime.ofInstant(rs.getTimestamp("next_process_at").toInstant(),
+                        ZoneId.systemDefault()))
+                .withAttemptsCount(rs.getLong("attempt"))
+                .withReenqueueAttemptsCount(rs.getLong("reenqueue_attempt"))
+                .withTotalAttemptsCount(rs.getLong("total_attempt"))
+                .withExtData(extData)
+                .build();
+    }
+
+    @Override
+    public int enqueueQueueTasks(@Nonnull List<QueueId> queueIds, @Nonnull Duration executionDelay,
+                                 @Nullable String idSequence) {
+        requireNonNull(queueIds, "queueIds");
+        requireNonNull(executionDelay, "executionDelay");
+
+        boolean idSequenceRequired = databaseDialect == DatabaseDialect.ORACLE_11G;
+        if (idSequenceRequired && idSequence == null) {
+            throw new IllegalArgumentException("id sequence is required: databaseDialect=" + databaseDialect);
+        }
+        String enqueueQuery = "insert into " + tableName + " (" +
+                (idSequenceRequired ? queueTableSchema.getIdField() + ", " : "") +
+                queueTableSchema.getQueueNameField() + ", " +
+                queueTableSchema.getNextProcessAtField() + ", " +
+                queueTableSchema.getAttemptField() + ", " +
+                queueTableSchema.getReenqueueAttemptField() + ", " +
+                queueTableSchema.getTotalAttemptField() + ") values (" +
+                (idSequenceRequired ? idSequence + ".nextval, " : "") +
+                ":queueName, " + getDelayedCurrentTimeExpression("executionDelay") + ", 0, 0, 0)";
+        Integer enqueuedRows = transactionOperations.execute(status -> {
+            int rows = 0;
+            for (int from = 0; from < queueIds.size(); from += ENQUEUE_BATCH_SIZE) {
+                List<QueueId> batch = queueIds.subList(from, Math.min(from + ENQUEUE_BATCH_SIZE, queueIds.size()));
+                @SuppressWarnings("unchecked")
+                Map<String, Object>[] batchParams = batch.stream()
+                        .map(queueId -> Map.<String, Object>of("queueName", queueId.asString(),
+                                "executionDelay", executionDelay.getSeconds()))
+                        .toArray(Map[]::new);
+                for (int batchRows : namedParameterJdbcTemplate.batchUpdate(enqueueQuery, batchParams)) {
+                    // some drivers do not report counts of batched statements
+                    rows += batchRows == Statement.SUCCESS_NO_INFO ? 1 : batchRows;
+                }
+            }
+            return rows;
+        });
+        return enqueuedRows == null ? 0 : enqueuedRows;
+    }
+
+    @Override
+    public List<String> findQueueNames(@Nonnull String queueNamePrefix) {
+        requireNonNull(queueNamePrefix, "queueNamePrefix");
+
+        String findQueueNamesQuery = String.format(
+                "select %s from %s where %s like :queueNamePattern escape '\\'",
+                queueTableSchema.getQueueNameField(),
+                tableName,
+                queueTableSchema.getQueueNameField()
+        );
+        return namedParameterJdbcTemplate.queryForList(
+                findQueueNamesQuery,
+                Map.of("queueNamePattern", escapeLikePattern(queueNamePrefix) + '%'),
+                String.class
+        );
+    }
+
+    private String escapeLikePattern(String value) {
+        String escapedValue = value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        // square brackets are wildcards only in MSSQL, other databases forbid escaping them
+        return databaseDialect == DatabaseDialect.MSSQL ? escapedValue.replace("[", "\\[") : escapedValue;
+    }
+
     @Override
     public List<ScheduledTaskRecord> findAll() {
         String findAllQuery = ' ' +
                 "select " + queueTableSchema.getIdField() + " as id" +
                 "     , " + queueTableSchema.getQueueNameField() + " as queue_name" +
                 "     , " + queueTableSchema.getNextProcessAtField() + " as next_process_at" +
+                "     , " + ScheduledTaskExtFields.RESUME_PROCESS_AT + " as resume_process_at" +
                 "  from " + tableName;
 
         return namedParameterJdbcTemplate.query(
                 findAllQuery,
-                (rs, index) -> ScheduledTaskRecord.builder()
-                        .withId(rs.getLong("id"))
-                        .withQueueName(rs.getString("queue_name"))
-                        .withNextProcessAt(rs.getTimestamp("next_process_at").toInstant())
-                        .build()
+                (rs, index) -> mapScheduledTaskRecord(rs)
         );
     }
 
+    private ScheduledTaskRecord mapScheduledTaskRecord(ResultSet rs) throws SQLException {
+        Timestamp resumeProcessAt = rs.getTimestamp("resume_process_at");
+        return ScheduledTaskRecord.builder()
+                .withId(rs.getLong("id"))
+                .withQueueName(rs.getString("queue_name"))
+                .withNextProcessAt(rs.getTimestamp("next_process_at").toInstant())
+                .withResumeProcessAt(resumeProcessAt == null ? null : resumeProcessAt.toInstant())
+                .build();
+    }
+
     @Override
     public Instant getDatabaseCurrentTime() {
         Timestamp databaseTime = namedParameterJdbcTemplate
@@ -161,6 +652,35 @@ public class DefaultScheduledTaskQueueDao implements ScheduledTaskQueueDao {
         return databaseTime.toInstant();
     }
 
+    private String getDelayedCurrentTimeExpression(String delayParameterName) {
+        switch (databaseDialect) {
+            case POSTGRESQL:
+                return "now() + :" + delayParameterName + " * INTERVAL '1 SECOND'";
+            case MSSQL:
+                return "dateadd(ss, :" + delayParameterName + ", SYSDATETIMEOFFSET())";
+            case ORACLE_11G:
+                return "CURRENT_TIMESTAMP + :" + delayParameterName + " * INTERVAL '1' SECOND";
+            case H2:
+                return "TIMESTAMPADD(SECOND, :" + delayParameterName + " , NOW())";
+            default:
+                throw new IllegalStateException("got unexpected databaseDialect: dialect=" + databaseDialect);
+        }
+    }
+
+    private String getCurrentTimeExpression() {
+        switch (databaseDialect) {
+            case H2:
+            case POSTGRESQL:
+                return "now()";
+            case MSSQL:
+                return "SYSDATETIMEOFFSET()";
+            case ORACLE_11G:
+                return "CURRENT_TIMESTAMP";
+            default:
+                throw new IllegalStateException("got unexpected databaseDialect: dialect=" + databaseDialect);
+        }
+    }
+
     private String createGetDatabaseCurrentTimeQuery() {
         switch (databaseDialect) {
             case H2:
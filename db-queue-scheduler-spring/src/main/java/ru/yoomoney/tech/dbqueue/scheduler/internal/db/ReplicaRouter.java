@@ -0,0 +1,137 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcOperations;
+import ru.yoomoney.tech.dbqueue.scheduler.config.DatabaseDialect;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Router of read-only queries to a replica of the database.
+ *
+ * <p>The replication lag is measured by the replica right before every read. A query is routed to the primary
+ * database when the lag exceeds the max lag, is unknown, or the replica fails. Lag of a PostgreSQL replica is the time
+ * since the last replayed transaction - the tasks table is updated constantly, so an idle primary is not the case.
+ * Lag of MSSQL and Oracle is reported by Always On availability groups and Active Data Guard. H2 has no replicas.
+ *
+ * <p>A replica that fails, eg: its user lacks rights to read the lag, is not accessed for {@link #SUSPENSION_INTERVAL},
+ * so a failure is logged once per interval rather than by every read.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class ReplicaRouter {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRouter.class);
+
+    /**
+     * Interval the replica is not accessed for after a failure
+     */
+    static final Duration SUSPENSION_INTERVAL = Duration.ofMinutes(1L);
+
+    private final DatabaseDialect databaseDialect;
+    private final JdbcOperations replicaJdbcOperations;
+    private final Duration maxReplicaLag;
+    private final LongSupplier nanoTime;
+    private volatile long suspendedUntilNanos;
+    private volatile boolean suspended;
+
+    public ReplicaRouter(@Nonnull DatabaseDialect databaseDialect,
+                         @Nonnull JdbcOperations replicaJdbcOperations,
+                         @Nonnull Duration maxReplicaLag) {
+        this(databaseDialect, replicaJdbcOperations, maxReplicaLag, System::nanoTime);
+    }
+
+    ReplicaRouter(@Nonnull DatabaseDialect databaseDialect,
+                  @Nonnull JdbcOperations replicaJdbcOperations,
+                  @Nonnull Duration maxReplicaLag,
+                  @Nonnull LongSupplier nanoTime) {
+        this.nanoTime = requireNonNull(nanoTime, "nanoTime");
+        this.databaseDialect = requireNonNull(databaseDialect, "databaseDialect");
+        this.replicaJdbcOperations = requireNonNull(replicaJdbcOperations, "replicaJdbcOperations");
+        this.maxReplicaLag = requireNonNull(maxReplicaLag, "maxReplicaLag");
+        if (maxReplicaLag.isNegative()) {
+            throw new IllegalArgumentException("maxReplicaLag must not be negative: maxReplicaLag=" + maxReplicaLag);
+        }
+    }
+
+    /**
+     * Reads data from the replica when its lag is acceptable otherwise from the primary database
+     *
+     * @param replicaRead read from the replica, accepts the observed replication lag
+     * @param primaryRead read from the primary database
+     * @param <T> type of the data
+     * @return read data
+     */
+    public <T> T read(@Nonnull Function<Duration, T> replicaRead, @Nonnull Supplier<T> primaryRead) {
+        requireNonNull(replicaRead, "replicaRead");
+        requireNonNull(primaryRead, "primaryRead");
+        if (suspended && nanoTime.getAsLong() - suspendedUntilNanos < 0) {
+            return primaryRead.get();
+        }
+        Duration replicaLag;
+        try {
+            replicaLag = findReplicaLag();
+        } catch (RuntimeException ex) {
+            suspend("failed to measure replica lag, reading from the primary database", ex);
+            return primaryRead.get();
+        }
+        if (replicaLag == null || replicaLag.compareTo(maxReplicaLag) > 0) {
+            log.debug("replica lag exceeds the max lag, reading from the primary database: replicaLag={}, " +
+                    "maxReplicaLag={}", replicaLag, maxReplicaLag);
+            return primaryRead.get();
+        }
+        T data;
+        try {
+            data = replicaRead.apply(replicaLag);
+        } catch (RuntimeException ex) {
+            suspend("failed to read from the replica, reading from the primary database", ex);
+            return primaryRead.get();
+        }
+        suspended = false;
+        return data;
+    }
+
+    private void suspend(String message, RuntimeException ex) {
+        suspendedUntilNanos = nanoTime.getAsLong() + SUSPENSION_INTERVAL.toNanos();
+        suspended = true;
+        log.warn(message + ": suspensionInterval={}", SUSPENSION_INTERVAL, ex);
+    }
+
+    @Nullable
+    private Duration findReplicaLag() {
+        // a database that does not replicate anything has no rows of lag
+        List<Double> lagSeconds = replicaJdbcOperations.queryForList(createReplicaLagQuery(), Double.class);
+        if (lagSeconds.isEmpty()) {
+            return Duration.ZERO;
+        }
+        Double lag = lagSeconds.get(0);
+        return lag == null ? null : Duration.ofMillis((long) Math.ceil(Math.max(lag, 0.0) * 1000.0));
+    }
+
+    private String createReplicaLagQuery() {
+        switch (databaseDialect) {
+            case POSTGRESQL:
+                return "select extract(epoch from now() - pg_last_xact_replay_timestamp()) where pg_is_in_recovery()";
+            case MSSQL:
+                return "select secondary_lag_seconds from sys.dm_hadr_database_replica_states" +
+                        " where database_id = db_id() and is_local = 1";
+            case ORACLE_11G:
+                return "select extract(day from lag) * 86400 + extract(hour from lag) * 3600" +
+                        " + extract(minute from lag) * 60 + extract(second from lag)" +
+                        "  from (select to_dsinterval(value) as lag from v$dataguard_stats where name = 'apply lag')";
+            case H2:
+                return "select 0 from dual where 1 = 0";
+            default:
+                throw new IllegalStateException("got unexpected databaseDialect: dialect=" + databaseDialect);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
+
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+import ru.yoomoney.tech.dbqueue.scheduler.models.info.ScheduledTaskExecutionInfo;
+
+import javax.annotation.Nonnull;
+import java.time.Instant;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link ScheduledTaskExecutionHistoryDao} that reads the execution history from a replica of the database
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class ReplicaScheduledTaskExecutionHistoryDao implements ScheduledTaskExecutionHistoryDao {
+    private final ScheduledTaskExecutionHistoryDao primaryDao;
+    private final ScheduledTaskExecutionHistoryDao replicaDao;
+    private final ReplicaRouter replicaRouter;
+
+    public ReplicaScheduledTaskExecutionHistoryDao(@Nonnull ScheduledTaskExecutionHistoryDao primaryDao,
+                                                   @Nonnull ScheduledTaskExecutionHistoryDao replicaDao,
+                                                   @Nonnull ReplicaRouter replicaRouter) {
+        this.primaryDao = requireNonNull(primaryDao, "primaryDao");
+        this.replicaDao = requireNonNull(replicaDao, "replicaDao");
+        this.replicaRouter = requireNonNull(replicaRouter, "replicaRouter");
+    }
+
+    @Override
+    public void insert(@Nonnull List<ScheduledTaskExecutionInfo> executions) {
+        primaryDao.insert(executions);
+    }
+
+    @Override
+    public List<ScheduledTaskExecutionInfo> findLatest(@Nonnull ScheduledTaskIdentity identity, int limit) {
+        return replicaRouter.read(
+                replicaLag -> replicaDao.findLatest(identity, limit),
+                () -> primaryDao.findLatest(identity, limit)
+        );
+    }
+
+    @Override
+    public int deleteFinishedBefore(@Nonnull Instant finishedBefore, int chunkSize) {
+        return primaryDao.deleteFinishedBefore(finishedBefore, chunkSize);
+    }
+}
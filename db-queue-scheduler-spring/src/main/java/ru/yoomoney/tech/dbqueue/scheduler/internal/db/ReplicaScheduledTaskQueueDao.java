@@ -0,0 +1,144 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
+
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link ScheduledTaskQueueDao} that reads statistics of all tasks from a replica of the database.
+ *
+ * <p>Polling and updates of task records are lock-sensitive and are always sent to the primary database. Records read
+ * from the replica carry the replication lag as their staleness.
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class ReplicaScheduledTaskQueueDao implements ScheduledTaskQueueDao {
+    private final ScheduledTaskQueueDao primaryDao;
+    private final ScheduledTaskQueueDao replicaDao;
+    private final ReplicaRouter replicaRouter;
+
+    public ReplicaScheduledTaskQueueDao(@Nonnull ScheduledTaskQueueDao primaryDao,
+                                        @Nonnull ScheduledTaskQueueDao replicaDao,
+                                        @Nonnull ReplicaRouter replicaRouter) {
+        this.primaryDao = requireNonNull(primaryDao, "primaryDao");
+        this.replicaDao = requireNonNull(replicaDao, "replicaDao");
+        this.replicaRouter = requireNonNull(replicaRouter, "replicaRouter");
+    }
+
+    @Override
+    public Optional<ScheduledTaskRecord> findQueueTask(@Nonnull QueueId queueId) {
+        return primaryDao.findQueueTask(queueId);
+    }
+
+    @Override
+    public int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay) {
+        return primaryDao.updateNextProcessDate(queueId, executionDelay);
+    }
+
+    @Override
+    public int reenqueue(@Nonnull QueueId queueId, @Nonnull Duration executionDelay) {
+        return primaryDao.reenqueue(queueId, executionDelay);
+    }
+
+    @Override
+    public int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch) {
+        return primaryDao.updateNextProcessDate(queueId, executionDelay, executionEpoch);
+    }
+
+    @Override
+    public int updateNextProcessDate(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch,
+                                     @Nullable String payload) {
+        return primaryDao.updateNextProcessDate(queueId, executionDelay, executionEpoch, payload);
+    }
+
+    @Override
+    public int reenqueue(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch) {
+        return primaryDao.reenqueue(queueId, executionDelay, executionEpoch);
+    }
+
+    @Override
+    public int updatePayload(@Nonnull QueueId queueId, @Nullable String payload) {
+        return primaryDao.updatePayload(queueId, payload);
+    }
+
+    @Nullable
+    @Override
+    public String findPayload(@Nonnull QueueId queueId) {
+        return primaryDao.findPayload(queueId);
+    }
+
+    @Override
+    public int triggerNow(@Nonnull QueueId queueId) {
+        return primaryDao.triggerNow(queueId);
+    }
+
+    @Override
+    public int postponeFailed(@Nonnull QueueId queueId, @Nonnull Duration executionDelay, long executionEpoch) {
+        return primaryDao.postponeFailed(queueId, executionDelay, executionEpoch);
+    }
+
+    @Override
+    public int deleteQueueTask(@Nonnull QueueId queueId) {
+        return primaryDao.deleteQueueTask(queueId);
+    }
+
+    @Override
+    public int deleteQueueTasks(@Nonnull String queueNamePrefix) {
+        return primaryDao.deleteQueueTasks(queueNamePrefix);
+    }
+
+    @Nullable
+    @Override
+    public TaskRecord pickTask(@Nonnull QueueId queueId, @Nonnull Duration retryInterval) {
+        return primaryDao.pickTask(queueId, retryInterval);
+    }
+
+    @Nullable
+    @Override
+    public TaskRecord pickTask(@Nonnull String queueNamePrefix, @Nonnull Duration retryInterval) {
+        return primaryDao.pickTask(queueNamePrefix, retryInterval);
+    }
+
+    @Override
+    public int enqueueQueueTasks(@Nonnull List<QueueId> queueIds, @Nonnull Duration executionDelay,
+                                 @Nullable String idSequence) {
+        return primaryDao.enqueueQueueTasks(queueIds, executionDelay, idSequence);
+    }
+
+    @Override
+    public List<String> findQueueNames(@Nonnull String queueNamePrefix) {
+        // missing instances of task templates are enqueued by the names, stale names would enqueue them twice
+        return primaryDao.findQueueNames(queueNamePrefix);
+    }
+
+    @Override
+    public List<ScheduledTaskRecord> findAll() {
+        return replicaRouter.read(
+                replicaLag -> replicaDao.findAll().stream()
+                        .map(record -> ScheduledTaskRecord.builder()
+                                .withId(record.getId())
+                                .withQueueName(record.getQueueName())
+                                .withNextProcessAt(record.getNextProcessAt())
+                                .withResumeProcessAt(record.getResumeProcessAt().orElse(null))
+                                .withStaleness(replicaLag)
+                                .build())
+                        .collect(Collectors.toList()),
+                primaryDao::findAll
+        );
+    }
+
+    @Override
+    public Instant getDatabaseCurrentTime() {
+        return primaryDao.getDatabaseCurrentTime();
+    }
+}
@@ -0,0 +1,307 @@
+package ru.yoomoney.tech.dbqueue.scheduler.schema;
+
+import org.springframework.jdbc.core.JdbcOperations;
+import ru.yoomoney.tech.dbqueue.scheduler.config.DatabaseDialect;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Advisor of the tasks table layout tuned for each database dialect.
+ *
+ * <p>The tasks table is small - a row per task - but sees constant updates of next process dates by picks, heartbeats
+ * and postponing. Tasks are polled by queue name or by queue name prefix of task templates, so the unique index on
+ * queue name serves all queries. The advised layout is:
+ * <ul>
+ *     <li>PostgreSQL - the unique index supports prefix search by a pattern operator class or C collation,
+ *     otherwise a prefix is searched by a scan of the table. Next process date is not indexed and fill factor
+ *     leaves room in pages, so updates are HOT and do not touch indexes. Autovacuum is triggered by a fixed count
+ *     of dead rows instead of a fraction of the small table.</li>
+ *     <li>MSSQL - the table is clustered by queue name, so polling seeks the clustered index directly.</li>
+ *     <li>Oracle - the id sequence is cached.</li>
+ *     <li>H2 - the unique index only, the live schema is not validated.</li>
+ * </ul>
+ *
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+public class SchemaAdvisor {
+    private static final String QUEUE_NAME_COLUMN = "queue_name";
+    private static final String NEXT_PROCESS_AT_COLUMN = "next_process_at";
+    private static final int MAX_FILL_FACTOR = 90;
+    private static final long MIN_SEQUENCE_CACHE_SIZE = 20L;
+
+    private final DatabaseDialect databaseDialect;
+    private final String tableName;
+    @Nullable
+    private final String idSequenceName;
+
+    /**
+     * Constructor
+     *
+     * @param databaseDialect type of the database
+     * @param tableName name of the tasks table
+     * @param idSequenceName name of the sequence generating ids of the tasks table, required by Oracle only
+     */
+    public SchemaAdvisor(@Nonnull DatabaseDialect databaseDialect,
+                         @Nonnull String tableName,
+                         @Nullable String idSequenceName) {
+        this.databaseDialect = requireNonNull(databaseDialect, "databaseDialect");
+        this.tableName = requireNonNull(tableName, "tableName");
+        this.idSequenceName = idSequenceName;
+    }
+
+    /**
+     * Generates DDL of the tuned tasks table
+     *
+     * @return DDL statements in the order of execution
+     */
+    @Nonnull
+    public List<String> generateDdl() {
+        String indexName = tableName.replace('.', '_') + "_uq";
+        switch (databaseDialect) {
+            case POSTGRESQL:
+                return List.of(
+                        "CREATE TABLE " + tableName + " (\n" +
+                                "  id                BIGSERIAL PRIMARY KEY,\n" +
+                                "  queue_name        TEXT NOT NULL,\n" +
+                                "  payload           TEXT,\n" +
+                                "  created_at        TIMESTAMP WITH TIME ZONE DEFAULT now(),\n" +
+                                "  next_process_at   TIMESTAMP WITH TIME ZONE DEFAULT now(),\n" +
+                                "  attempt           INTEGER                  DEFAULT 0,\n" +
+                                "  reenqueue_attempt INTEGER                  DEFAULT 0,\n" +
+                                "  total_attempt     INTEGER                  DEFAULT 0,\n" +
+                                "  resume_process_at TIMESTAMP WITH TIME ZONE,\n" +
+                                "  execution_state   SMALLINT\n" +
+                                ") WITH (\n" +
+                                "  fillfactor = 70,\n" +
+                                "  autovacuum_vacuum_scale_factor = 0,\n" +
+                                "  autovacuum_vacuum_threshold = 1000,\n" +
+                                "  autovacuum_analyze_scale_factor = 0,\n" +
+                                "  autovacuum_analyze_threshold = 1000\n" +
+                                ")",
+                        "CREATE UNIQUE INDEX " + indexName + " ON " + tableName + " (queue_name text_pattern_ops)"
+                );
+            case MSSQL:
+                return List.of(
+                        "CREATE TABLE " + tableName + " (\n" +
+                                "  id                INT IDENTITY(1,1) NOT NULL,\n" +
+                                "  queue_name        VARCHAR(100) NOT NULL,\n" +
+                                "  payload           TEXT,\n" +
+                                "  created_at        DATETIMEOFFSET NOT NULL  DEFAULT SYSDATETIMEOFFSET(),\n" +
+                                "  next_process_at   DATETIMEOFFSET NOT NULL  DEFAULT SYSDATETIMEOFFSET(),\n" +
+                                "  attempt           INTEGER NOT NULL         DEFAULT 0,\n" +
+                                "  reenqueue_attempt INTEGER NOT NULL         DEFAULT 0,\n" +
+                                "  total_attempt     INTEGER NOT NULL         DEFAULT 0,\n" +
+                                "  resume_process_at DATETIMEOFFSET,\n" +
+                                "  execution_state   SMALLINT,\n" +
+                                "  PRIMARY KEY NONCLUSTERED (id)\n" +
+                                ")",
+                        "CREATE UNIQUE CLUSTERED INDEX " + indexName + " ON " + tableName + " (queue_name)"
+                );
+            case ORACLE_11G:
+                return List.of(
+                        "CREATE TABLE " + tableName + " (\n" +
+                                "  id                NUMBER(38) NOT NULL PRIMARY KEY,\n" +
+                                "  queue_name        VARCHAR2(128) NOT NULL,\n" +
+                                "  payload           CLOB,\n" +
+                                "  created_at        TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,\n" +
+                                "  next_process_at   TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,\n" +
+                                "  attempt           NUMBER(38)                  DEFAULT 0,\n" +
+                                "  reenqueue_attempt NUMBER(38)                  DEFAULT 0,\n" +
+                                "  total_attempt     NUMBER(38)                  DEFAULT 0,\n" +
+                                "  resume_process_at TIMESTAMP WITH TIME ZONE,\n" +
+                                "  execution_state   NUMBER(1)\n" +
+                                ")",
+                        "CREATE UNIQUE INDEX " + indexName + " ON " + tableName + " (queue_name)",
+                        "CREATE SEQUENCE " + (idSequenceName == null ? tableName + "_seq" : idSequenceName)
+                                + " CACHE 100"
+                );
+            case H2:
+                return List.of(
+                        "CREATE TABLE " + tableName + " (\n" +
+                                "  id                BIGSERIAL PRIMARY KEY,\n" +
+                                "  queue_name        VARCHAR(100) NOT NULL,\n" +
+                                "  payload           VARCHAR(100),\n" +
+                                "  created_at        TIMESTAMP WITH TIME ZONE DEFAULT now(),\n" +
+                                "  next_process_at   TIMESTAMP WITH TIME ZONE DEFAULT now(),\n" +
+                                "  attempt           INTEGER                  DEFAULT 0,\n" +
+                                "  reenqueue_attempt INTEGER                  DEFAULT 0,\n" +
+                                "  total_attempt     INTEGER                  DEFAULT 0,\n" +
+                                "  resume_process_at TIMESTAMP WITH TIME ZONE,\n" +
+                                "  execution_state   SMALLINT\n" +
+                                ")",
+                        "CREATE UNIQUE INDEX " + indexName + " ON " + tableName + " (queue_name)"
+                );
+            default:
+                throw new IllegalStateException("got unexpected databaseDialect: dialect=" + databaseDialect);
+        }
+    }
+
+    /**
+     * Validates the live schema of the tasks table against the advised layout
+     *
+     * @param jdbcOperations access to the database
+     * @return descriptions of deviations from the advised layout, empty if there are none
+     */
+    @Nonnull
+    public List<String> validate(@Nonnull JdbcOperations jdbcOperations) {
+        requireNonNull(jdbcOperations, "jdbcOperations");
+        if (databaseDialect == DatabaseDialect.H2) {
+            return List.of();
+        }
+
+        List<String> deviations = new ArrayList<>();
+        List<Index> indexes = findIndexes(jdbcOperations);
+        Index queueNameIndex = indexes.stream()
+                .filter(index -> index.unique && index.columns.equals(List.of(QUEUE_NAME_COLUMN)))
+                .min(Comparator.comparing(index -> !index.prefixSearch))
+                .orElse(null);
+        if (queueNameIndex == null) {
+            deviations.add("unique index on queue_name is missing: tableName=" + tableName);
+        }
+        switch (databaseDialect) {
+            case POSTGRESQL:
+                if (queueNameIndex != null && !queueNameIndex.prefixSearch) {
+                    deviations.add("unique index on queue_name does not support prefix search, "
+                            + "use text_pattern_ops or C collation: tableName=" + tableName
+                            + ", indexName=" + queueNameIndex.name);
+                }
+                indexes.stream()
+                        .filter(index -> index.columns.contains(NEXT_PROCESS_AT_COLUMN))
+                        .forEach(index -> deviations.add("index on next_process_at prevents HOT updates: tableName="
+                                + tableName + ", indexName=" + index.name));
+                validateStorageParameters(jdbcOperations, deviations);
+                break;
+            case MSSQL:
+                if (queueNameIndex != null && !queueNameIndex.clustered) {
+                    deviations.add("table is not clustered by queue_name: tableName=" + tableName);
+                }
+                break;
+            case ORACLE_11G:
+                validateSequenceCache(jdbcOperations, deviations);
+                break;
+            default:
+                throw new IllegalStateException("got unexpected databaseDialect: dialect=" + databaseDialect);
+        }
+        return deviations;
+    }
+
+    private List<Index> findIndexes(JdbcOperations jdbcOperations) {
+        Map<String, Index> indexes = new TreeMap<>();
+        jdbcOperations.query(createFindIndexesQuery(), rs -> {
+            Index index = indexes.computeIfAbsent(rs.getString("index_name"), Index::new);
+            index.unique |= rs.getBoolean("is_unique");
+            index.clustered |= rs.getBoolean("is_clustered");
+            index.prefixSearch &= rs.getBoolean("supports_prefix_search");
+            index.columns.add(rs.getString("column_name").toLowerCase());
+        }, databaseDialect == DatabaseDialect.ORACLE_11G ? getUnqualifiedTableName() : tableName);
+        return new ArrayList<>(indexes.values());
+    }
+
+    private String createFindIndexesQuery() {
+        switch (databaseDialect) {
+            case POSTGRESQL:
+                // LIKE 'prefix%' uses a btree index only with a pattern operator class or C collation,
+                // the default collation of a column is the collation of the database
+                return "select ic.relname as index_name, i.indisunique as is_unique, false as is_clustered" +
+                        ", a.attname as column_name, k.ord as column_position" +
+                        ", (oc.opcname in ('text_pattern_ops', 'varchar_pattern_ops', 'bpchar_pattern_ops')" +
+                        "   or coalesce(case when co.collname = 'default' then d.datcollate else co.collname end, '')" +
+                        "   in ('C', 'POSIX')) as supports_prefix_search" +
+                        "  from pg_index i" +
+                        "  join pg_class ic on ic.oid = i.indexrelid" +
+                        "  cross join lateral unnest(i.indkey::int2[], i.indclass::oid[], i.indcollation::oid[])" +
+                        "    with ordinality as k(attnum, opclass, collation, ord)" +
+                        "  join pg_attribute a on a.attrelid = i.indrelid and a.attnum = k.attnum" +
+                        "  join pg_opclass oc on oc.oid = k.opclass" +
+                        "  left join pg_collation co on co.oid = k.collation" +
+                        "  join pg_database d on d.datname = current_database()" +
+                        " where i.indrelid = to_regclass(?::cstring)" +
+                        " order by ic.relname, k.ord";
+            case MSSQL:
+                return "select i.name as index_name, i.is_unique" +
+                        ", case when i.type = 1 then 1 else 0 end as is_clustered" +
+                        ", c.name as column_name, ic.key_ordinal as column_position, 1 as supports_prefix_search" +
+                        "  from sys.indexes i" +
+                        "  join sys.index_columns ic on ic.object_id = i.object_id and ic.index_id = i.index_id" +
+                        "  join sys.columns c on c.object_id = ic.object_id and c.column_id = ic.column_id" +
+                        " where i.object_id = object_id(?) and ic.key_ordinal > 0" +
+                        " order by i.name, ic.key_ordinal";
+            case ORACLE_11G:
+                return "select i.index_name, case when i.uniqueness = 'UNIQUE' then 1 else 0 end as is_unique" +
+                        ", 0 as is_clustered, c.column_name, c.column_position, 1 as supports_prefix_search" +
+                        "  from user_indexes i" +
+                        "  join user_ind_columns c on c.index_name = i.index_name" +
+                        " where i.table_name = upper(?)" +
+                        " order by i.index_name, c.column_position";
+            default:
+                throw new IllegalStateException("got unexpected databaseDialect: dialect=" + databaseDialect);
+        }
+    }
+
+    private void validateStorageParameters(JdbcOperations jdbcOperations, List<String> deviations) {
+        Map<String, String> storageParameters = jdbcOperations.queryForList(
+                "select array_to_string(reloptions, ',') from pg_class where oid = to_regclass(?::cstring)",
+                String.class, tableName
+        ).stream()
+                .filter(reloptions -> reloptions != null && !reloptions.isEmpty())
+                .flatMap(reloptions -> Arrays.stream(reloptions.split(",")))
+                .map(option -> option.split("=", 2))
+                .filter(option -> option.length == 2)
+                .collect(Collectors.toMap(option -> option[0], option -> option[1], (first, second) -> second));
+        String fillFactor = storageParameters.get("fillfactor");
+        if (fillFactor == null || Integer.parseInt(fillFactor) > MAX_FILL_FACTOR) {
+            deviations.add("fillfactor leaves no room for HOT updates: tableName=" + tableName
+                    + ", fillfactor=" + (fillFactor == null ? "100" : fillFactor));
+        }
+        if (!storageParameters.containsKey("autovacuum_vacuum_scale_factor")
+                && !storageParameters.containsKey("autovacuum_vacuum_threshold")) {
+            deviations.add("autovacuum is not tuned for frequent updates: tableName=" + tableName);
+        }
+    }
+
+    private void validateSequenceCache(JdbcOperations jdbcOperations, List<String> deviations) {
+        if (idSequenceName == null) {
+            return;
+        }
+        List<Long> cacheSizes = jdbcOperations.queryForList(
+                "select cache_size from user_sequences where sequence_name = upper(?)",
+                Long.class, idSequenceName.substring(idSequenceName.lastIndexOf('.') + 1)
+        );
+        if (cacheSizes.isEmpty()) {
+            deviations.add("id sequence is missing: idSequenceName=" + idSequenceName);
+        } else if (cacheSizes.get(0) < MIN_SEQUENCE_CACHE_SIZE) {
+            deviations.add("id sequence is not cached: idSequenceName=" + idSequenceName
+                    + ", cacheSize=" + cacheSizes.get(0));
+        }
+    }
+
+    private String getUnqualifiedTableName() {
+        return tableName.substring(tableName.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Index of the tasks table
+     */
+    private static final class Index {
+        private final String name;
+        private final List<String> columns = new ArrayList<>();
+        private boolean unique;
+        private boolean clustered;
+        private boolean prefixSearch = true;
+
+        private Index(String name) {
+            this.name = name;
+        }
+    }
+}
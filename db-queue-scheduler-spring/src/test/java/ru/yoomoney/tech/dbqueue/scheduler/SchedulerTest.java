@@ -5,7 +5,9 @@ import org.junit.jupiter.params.provider.MethodSource;
 import ru.yoomoney.tech.dbqueue.scheduler.config.DatabaseDialect;
 import ru.yoomoney.tech.dbqueue.scheduler.db.DatabaseAccess;
 import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTask;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskContext;
 import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskTemplate;
 import ru.yoomoney.tech.dbqueue.scheduler.models.SimpleScheduledTask;
 import ru.yoomoney.tech.dbqueue.scheduler.models.info.ScheduledTaskInfo;
 import ru.yoomoney.tech.dbqueue.scheduler.settings.FailureSettings;
@@ -20,10 +22,14 @@ import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import static org.awaitility.Awaitility.await;
@@ -68,6 +74,157 @@ public class SchedulerTest extends BaseTest {
         await().atMost(Duration.ofSeconds(5L)).until(executed::get);
     }
 
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_pass_planned_execution_time(DatabaseAccess databaseAccess) {
+        // given
+        Scheduler scheduler = createScheduler(databaseAccess);
+        AtomicReference<ScheduledTaskContext> contextRef = new AtomicReference<>();
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task" + uniqueCounter.incrementAndGet(),
+                context -> {
+                    contextRef.set(context);
+                    return ScheduledTaskExecutionResult.success();
+                }
+        );
+
+        // when
+        scheduler.start();
+        scheduler.schedule(
+                scheduledTask,
+                ScheduledTaskSettings.builder()
+                        .withScheduleSettings(ScheduleSettings.fixedDelay(Duration.ofHours(1L)))
+                        .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                        .build()
+        );
+        scheduler.pause();
+        scheduler.reschedule(scheduledTask.getIdentity(), Instant.now());
+        Instant plannedExecutionTime = findNextExecutionDate(databaseAccess, scheduledTask.getIdentity().asString());
+        scheduler.unpause();
+
+        // then
+        await().atMost(Duration.ofSeconds(5L)).until(() -> contextRef.get() != null);
+        assertThat(contextRef.get().getPlannedExecutionTime(), equalTo(Optional.of(plannedExecutionTime)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_schedule_task_template_instances(DatabaseAccess databaseAccess) {
+        // given
+        Scheduler scheduler = createScheduler(databaseAccess);
+        Set<String> executedInstanceKeys = ConcurrentHashMap.newKeySet();
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task" + uniqueCounter.incrementAndGet(),
+                context -> {
+                    executedInstanceKeys.add(context.getInstanceKey().orElseThrow());
+                    return ScheduledTaskExecutionResult.success();
+                }
+        );
+
+        // when
+        scheduler.start();
+        scheduler.schedule(
+                ScheduledTaskTemplate.builder()
+                        .withScheduledTask(scheduledTask)
+                        .withInstanceKeys(List.of("1", "2", "3"))
+                        .build(),
+                ScheduledTaskSettings.builder()
+                        .withScheduleSettings(ScheduleSettings.fixedDelay(Duration.ofSeconds(0L)))
+                        .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                        .build()
+        );
+
+        // then
+        await().atMost(Duration.ofSeconds(10L)).until(() -> executedInstanceKeys.equals(Set.of("1", "2", "3")));
+        assertThat(
+                databaseAccess.getJdbcTemplate().queryForObject("select count(1) from scheduled_tasks where queue_name like ?",
+                        Long.class, scheduledTask.getIdentity().asString() + "#%"),
+                equalTo(3L)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_update_task_template_instances(DatabaseAccess databaseAccess) {
+        // given
+        Scheduler scheduler = createScheduler(databaseAccess);
+        Set<String> executedInstanceKeys = ConcurrentHashMap.newKeySet();
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task" + uniqueCounter.incrementAndGet(),
+                context -> {
+                    executedInstanceKeys.add(context.getInstanceKey().orElseThrow());
+                    return ScheduledTaskExecutionResult.success();
+                }
+        );
+        ScheduledTaskSettings scheduledTaskSettings = ScheduledTaskSettings.builder()
+                .withScheduleSettings(ScheduleSettings.fixedDelay(Duration.ofSeconds(0L)))
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                .build();
+        scheduler.start();
+        scheduler.schedule(
+                ScheduledTaskTemplate.builder().withScheduledTask(scheduledTask).withInstanceKeys(List.of("1", "2")).build(),
+                scheduledTaskSettings
+        );
+        await().atMost(Duration.ofSeconds(10L)).until(() -> executedInstanceKeys.equals(Set.of("1", "2")));
+
+        // when
+        scheduler.update(
+                ScheduledTaskTemplate.builder().withScheduledTask(scheduledTask).withInstanceKeys(List.of("2", "3")).build(),
+                scheduledTaskSettings
+        );
+        executedInstanceKeys.clear();
+
+        // then
+        await().atMost(Duration.ofSeconds(10L)).until(() -> executedInstanceKeys.containsAll(Set.of("2", "3")));
+        assertThat(
+                databaseAccess.getJdbcTemplate().queryForList("select queue_name from scheduled_tasks where queue_name like ?",
+                        String.class, scheduledTask.getIdentity().asString() + "#%").stream()
+                        .collect(Collectors.toSet()),
+                equalTo(Set.of(scheduledTask.getIdentity().asString() + "#2", scheduledTask.getIdentity().asString() + "#3"))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_unschedule_task_and_schedule_it_again(DatabaseAccess databaseAccess) {
+        // given
+        Scheduler scheduler = createScheduler(databaseAccess);
+        AtomicInteger counter = new AtomicInteger();
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task" + uniqueCounter.incrementAndGet(),
+                context -> {
+                    counter.incrementAndGet();
+                    return ScheduledTaskExecutionResult.success();
+                }
+        );
+        ScheduledTaskSettings scheduledTaskSettings = ScheduledTaskSettings.builder()
+                .withScheduleSettings(ScheduleSettings.fixedDelay(Duration.ofSeconds(0L)))
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                .build();
+        scheduler.start();
+        scheduler.schedule(scheduledTask, scheduledTaskSettings);
+        await().atMost(Duration.ofSeconds(5L)).until(() -> counter.get() > 0);
+
+        // when
+        scheduler.unschedule(scheduledTask.getIdentity(), true);
+
+        // then
+        assertThat(
+                databaseAccess.getJdbcTemplate().queryForObject("select count(1) from scheduled_tasks where queue_name=?",
+                        Long.class, scheduledTask.getIdentity().asString()),
+                equalTo(0L)
+        );
+        assertThat(scheduler.getScheduledTaskInfo().stream()
+                .noneMatch(info -> info.getIdentity().equals(scheduledTask.getIdentity())), equalTo(true));
+
+        // when
+        counter.set(0);
+        scheduler.schedule(scheduledTask, scheduledTaskSettings);
+
+        // then
+        await().atMost(Duration.ofSeconds(5L)).until(() -> counter.get() > 0);
+    }
+
     @ParameterizedTest
     @MethodSource("databaseAccessStream")
     void should_update_scheduled_task_state(DatabaseAccess databaseAccess) {
@@ -238,6 +395,43 @@ public class SchedulerTest extends BaseTest {
                         .build()));
     }
 
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_throw_exception_when_task_collides_with_template_instances(DatabaseAccess databaseAccess) {
+        // given
+        Scheduler scheduler = createScheduler(databaseAccess);
+        String templateName = "scheduled-task" + uniqueCounter.incrementAndGet();
+        ScheduledTaskSettings scheduledTaskSettings = ScheduledTaskSettings.builder()
+                .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                .withScheduleSettings(ScheduleSettings.fixedDelay(Duration.ofSeconds(1L)))
+                .build();
+        ScheduledTask collidingTask = SimpleScheduledTask.create(templateName + "#vip",
+                context -> ScheduledTaskExecutionResult.success());
+        ScheduledTaskTemplate scheduledTaskTemplate = ScheduledTaskTemplate.builder()
+                .withScheduledTask(SimpleScheduledTask.create(templateName,
+                        context -> ScheduledTaskExecutionResult.success()))
+                .withInstanceKeys(List.of("1"))
+                .build();
+
+        // when
+        scheduler.schedule(scheduledTaskTemplate, scheduledTaskSettings);
+
+        // then
+        assertThrows(RuntimeException.class, () -> scheduler.schedule(collidingTask, scheduledTaskSettings));
+        scheduler.unschedule(scheduledTaskTemplate.getIdentity(), true);
+        scheduler.schedule(collidingTask, scheduledTaskSettings);
+        assertThrows(RuntimeException.class, () -> scheduler.schedule(scheduledTaskTemplate, scheduledTaskSettings));
+        assertThrows(IllegalArgumentException.class, () -> ScheduledTaskTemplate.builder()
+                .withScheduledTask(collidingTask)
+                .withInstanceKeys(List.of("1"))
+                .build());
+        assertThrows(IllegalArgumentException.class, () -> ScheduledTaskTemplate.builder()
+                .withScheduledTask(SimpleScheduledTask.create(templateName + "-eu",
+                        context -> ScheduledTaskExecutionResult.success()))
+                .withInstanceKeys(List.of("eu#1"))
+                .build());
+    }
+
     @ParameterizedTest
     @MethodSource("databaseAccessStream")
     void should_get_tasks_info(DatabaseAccess databaseAccess) {
@@ -296,6 +490,47 @@ public class SchedulerTest extends BaseTest {
         await().atMost(Duration.ofSeconds(5L)).until(executed::get);
     }
 
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_trigger_task_now_and_resume_schedule(DatabaseAccess databaseAccess) {
+        // given
+        Scheduler scheduler = createScheduler(databaseAccess);
+        AtomicInteger counter = new AtomicInteger();
+        ScheduledTask scheduledTask = SimpleScheduledTask.create(
+                "scheduled-task" + uniqueCounter.incrementAndGet(),
+                context -> {
+                    counter.incrementAndGet();
+                    return ScheduledTaskExecutionResult.success();
+                }
+        );
+
+        // when
+        scheduler.start();
+        scheduler.schedule(
+                scheduledTask,
+                ScheduledTaskSettings.builder()
+                        .withFailureSettings(FailureSettings.linearBackoff(Duration.ofHours(1L)))
+                        .withScheduleSettings(ScheduleSettings.fixedDelay(Duration.ofDays(1L)))
+                        .build()
+        );
+        scheduler.reschedule(scheduledTask.getIdentity(), Instant.now().plus(Duration.ofDays(2L)));
+        scheduler.triggerNow(scheduledTask.getIdentity());
+
+        // then
+        await().atMost(Duration.ofSeconds(5L)).until(() -> counter.get() == 1);
+        await().atMost(Duration.ofSeconds(5L)).until(() ->
+                findNextExecutionDate(databaseAccess, scheduledTask.getIdentity().asString())
+                        .isAfter(Instant.now().plus(Duration.ofDays(1L)).plus(Duration.ofHours(12L))));
+    }
+
+    private Instant findNextExecutionDate(DatabaseAccess databaseAccess, String queueName) {
+        return databaseAccess.getJdbcTemplate().queryForObject(
+                "select next_process_at from scheduled_tasks where queue_name = ?",
+                Timestamp.class,
+                queueName
+        ).toInstant();
+    }
+
     @ParameterizedTest
     @MethodSource("databaseAccessStream")
     void should_retry_failed_task(DatabaseAccess databaseAccess) {
@@ -22,10 +22,29 @@ public class H2DatabaseAccessConfigurator {
             "  next_process_at   TIMESTAMP WITH TIME ZONE DEFAULT now()," +
             "  attempt           INTEGER                  DEFAULT 0," +
             "  reenqueue_attempt INTEGER                  DEFAULT 0," +
-            "  total_attempt     INTEGER                  DEFAULT 0" +
+            "  total_attempt     INTEGER                  DEFAULT 0," +
+            "  resume_process_at TIMESTAMP WITH TIME ZONE," +
+            "  execution_state   SMALLINT" +
             ");" +
             "CREATE UNIQUE INDEX scheduled_tasks_uq ON scheduled_tasks (queue_name);";
 
+    private static final String EXECUTIONS_TABLE_DDL = "" +
+            "CREATE TABLE scheduled_task_executions (" +
+            "  queue_name    VARCHAR(100) NOT NULL," +
+            "  started_at    TIMESTAMP WITH TIME ZONE NOT NULL," +
+            "  finished_at   TIMESTAMP WITH TIME ZONE NOT NULL," +
+            "  result        VARCHAR(16) NOT NULL," +
+            "  error_message VARCHAR(1000)" +
+            ");" +
+            "CREATE INDEX scheduled_task_executions_queue_idx ON scheduled_task_executions (queue_name, finished_at);" +
+            "CREATE INDEX scheduled_task_executions_finished_idx ON scheduled_task_executions (finished_at);";
+
+    private static final String STATES_TABLE_DDL = "" +
+            "CREATE TABLE scheduled_task_states (" +
+            "  queue_name VARCHAR(100) NOT NULL PRIMARY KEY," +
+            "  state      VARCHAR(1000)" +
+            ");";
+
     public static DatabaseAccess configure() {
         JdbcDataSource dataSource = new JdbcDataSource();
         dataSource.setURL("jdbc:h2:~/scheduled_task_h2");
@@ -36,6 +55,8 @@ public class H2DatabaseAccessConfigurator {
         TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
         transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("DROP ALL OBJECTS DELETE FILES"));
         transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(TASKS_TABLE_DDL));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(EXECUTIONS_TABLE_DDL));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(STATES_TABLE_DDL));
         return new DatabaseAccess(DatabaseDialect.H2, jdbcTemplate, transactionTemplate);
     }
 }
@@ -24,10 +24,28 @@ public class MsSqlDatabaseAccessConfigurator {
             "  attempt           INTEGER NOT NULL         DEFAULT 0," +
             "  reenqueue_attempt INTEGER NOT NULL         DEFAULT 0," +
             "  total_attempt     INTEGER NOT NULL         DEFAULT 0," +
+            "  resume_process_at DATETIMEOFFSET," +
+            "  execution_state   SMALLINT," +
             "  PRIMARY KEY (id)" +
             ')';
     private static final String INDEX_DDL = "CREATE UNIQUE INDEX scheduled_tasks_uq ON scheduled_tasks (queue_name)";
 
+    private static final String EXECUTIONS_TABLE_DDL = "" +
+            "CREATE TABLE scheduled_task_executions (" +
+            "  queue_name    VARCHAR(100) NOT NULL," +
+            "  started_at    DATETIMEOFFSET NOT NULL," +
+            "  finished_at   DATETIMEOFFSET NOT NULL," +
+            "  result        VARCHAR(16) NOT NULL," +
+            "  error_message VARCHAR(1000)" +
+            ')';
+    private static final String EXECUTIONS_INDEX_DDL = "" +
+            "CREATE INDEX scheduled_task_executions_queue_idx ON scheduled_task_executions (queue_name, finished_at)";
+    private static final String STATES_TABLE_DDL = "" +
+            "CREATE TABLE scheduled_task_states (" +
+            "  queue_name VARCHAR(100) NOT NULL PRIMARY KEY," +
+            "  state      TEXT" +
+            ')';
+
     public static DatabaseAccess configure(MSSQLServerContainer<?> container) {
         SQLServerDataSource dataSource = new SQLServerDataSource();
         dataSource.setServerName(container.getHost());
@@ -39,6 +57,9 @@ public class MsSqlDatabaseAccessConfigurator {
         TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
         transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(TASKS_TABLE_DDL));
         transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(INDEX_DDL));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(EXECUTIONS_TABLE_DDL));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(STATES_TABLE_DDL));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(EXECUTIONS_INDEX_DDL));
         return new DatabaseAccess(DatabaseDialect.MSSQL, jdbcTemplate, transactionTemplate);
     }
 }
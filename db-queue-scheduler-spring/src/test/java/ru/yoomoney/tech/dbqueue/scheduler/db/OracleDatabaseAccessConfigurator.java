@@ -25,10 +25,28 @@ public class OracleDatabaseAccessConfigurator {
             "  next_process_at   TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP," +
             "  attempt           NUMBER(38)                  DEFAULT 0," +
             "  reenqueue_attempt NUMBER(38)                  DEFAULT 0," +
-            "  total_attempt     NUMBER(38)                  DEFAULT 0" +
+            "  total_attempt     NUMBER(38)                  DEFAULT 0," +
+            "  resume_process_at TIMESTAMP WITH TIME ZONE," +
+            "  execution_state   NUMBER(1)" +
             ')';
     private static final String INDEX_DDL = "CREATE UNIQUE INDEX scheduled_tasks_uq ON scheduled_tasks (queue_name)";
+
+    private static final String EXECUTIONS_TABLE_DDL = "" +
+            "CREATE TABLE scheduled_task_executions (" +
+            "  queue_name    VARCHAR2(128) NOT NULL," +
+            "  started_at    TIMESTAMP WITH TIME ZONE NOT NULL," +
+            "  finished_at   TIMESTAMP WITH TIME ZONE NOT NULL," +
+            "  result        VARCHAR2(16) NOT NULL," +
+            "  error_message VARCHAR2(1000)" +
+            ')';
+    private static final String EXECUTIONS_INDEX_DDL = "" +
+            "CREATE INDEX scheduled_task_executions_queue_idx ON scheduled_task_executions (queue_name, finished_at)";
     private static final String SEQUENCE_DDL = "CREATE SEQUENCE scheduled_tasks_seq";
+    private static final String STATES_TABLE_DDL = "" +
+            "CREATE TABLE scheduled_task_states (" +
+            "  queue_name VARCHAR2(128) NOT NULL PRIMARY KEY," +
+            "  state      CLOB" +
+            ')';
 
     public static DatabaseAccess configure(OracleContainer container) {
         OracleConnectionPoolDataSource dataSource;
@@ -45,6 +63,9 @@ public class OracleDatabaseAccessConfigurator {
         TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
         transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(TASKS_TABLE_DDL));
         transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(INDEX_DDL));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(EXECUTIONS_TABLE_DDL));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(STATES_TABLE_DDL));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(EXECUTIONS_INDEX_DDL));
         transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(SEQUENCE_DDL));
         return new DatabaseAccess(DatabaseDialect.ORACLE_11G, jdbcTemplate, transactionTemplate);
     }
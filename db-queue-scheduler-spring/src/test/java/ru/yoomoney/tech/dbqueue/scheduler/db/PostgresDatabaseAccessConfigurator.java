@@ -23,9 +23,28 @@ public class PostgresDatabaseAccessConfigurator {
             "  next_process_at   TIMESTAMP WITH TIME ZONE DEFAULT now()," +
             "  attempt           INTEGER                  DEFAULT 0," +
             "  reenqueue_attempt INTEGER                  DEFAULT 0," +
-            "  total_attempt     INTEGER                  DEFAULT 0" +
+            "  total_attempt     INTEGER                  DEFAULT 0," +
+            "  resume_process_at TIMESTAMP WITH TIME ZONE," +
+            "  execution_state   SMALLINT" +
             ");" +
-            "CREATE UNIQUE INDEX scheduled_tasks_uq ON scheduled_tasks (queue_name);";
+            "CREATE UNIQUE INDEX scheduled_tasks_uq ON scheduled_tasks (queue_name text_pattern_ops);";
+
+    private static final String EXECUTIONS_TABLE_DDL = "" +
+            "CREATE TABLE scheduled_task_executions (" +
+            "  queue_name    TEXT NOT NULL," +
+            "  started_at    TIMESTAMP WITH TIME ZONE NOT NULL," +
+            "  finished_at   TIMESTAMP WITH TIME ZONE NOT NULL," +
+            "  result        VARCHAR(16) NOT NULL," +
+            "  error_message TEXT" +
+            ");" +
+            "CREATE INDEX scheduled_task_executions_queue_idx ON scheduled_task_executions (queue_name, finished_at);" +
+            "CREATE INDEX scheduled_task_executions_finished_idx ON scheduled_task_executions (finished_at);";
+
+    private static final String STATES_TABLE_DDL = "" +
+            "CREATE TABLE scheduled_task_states (" +
+            "  queue_name TEXT NOT NULL PRIMARY KEY," +
+            "  state      TEXT" +
+            ");";
 
     public static DatabaseAccess configure(PostgreSQLContainer<?> container) {
         PGSimpleDataSource dataSource = new PGSimpleDataSource();
@@ -36,6 +55,8 @@ public class PostgresDatabaseAccessConfigurator {
         JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
         TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
         transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(TASKS_TABLE_DDL));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(EXECUTIONS_TABLE_DDL));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(STATES_TABLE_DDL));
         return new DatabaseAccess(DatabaseDialect.POSTGRESQL, jdbcTemplate, transactionTemplate);
     }
 }
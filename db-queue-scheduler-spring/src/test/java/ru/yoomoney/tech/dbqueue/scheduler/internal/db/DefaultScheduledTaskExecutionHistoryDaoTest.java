@@ -0,0 +1,102 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import ru.yoomoney.tech.dbqueue.scheduler.BaseTest;
+import ru.yoomoney.tech.dbqueue.scheduler.db.DatabaseAccess;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.scheduler.models.ScheduledTaskIdentity;
+import ru.yoomoney.tech.dbqueue.scheduler.models.info.ScheduledTaskExecutionInfo;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class DefaultScheduledTaskExecutionHistoryDaoTest extends BaseTest {
+
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_find_latest_executions(DatabaseAccess databaseAccess) {
+        // given
+        ScheduledTaskExecutionHistoryDao executionHistoryDao = executionHistoryDao(databaseAccess);
+        ScheduledTaskIdentity identity = ScheduledTaskIdentity.of("queue-" + uniqueCounter.incrementAndGet());
+        ScheduledTaskIdentity otherIdentity = ScheduledTaskIdentity.of("queue-" + uniqueCounter.incrementAndGet());
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        // when
+        executionHistoryDao.insert(List.of(
+                execution(identity, now.minusSeconds(30L), ScheduledTaskExecutionResult.Type.SUCCESS, null),
+                execution(identity, now.minusSeconds(20L), ScheduledTaskExecutionResult.Type.ERROR, "failure"),
+                execution(identity, now.minusSeconds(10L), ScheduledTaskExecutionResult.Type.SUCCESS, null),
+                execution(otherIdentity, now, ScheduledTaskExecutionResult.Type.SUCCESS, null)
+        ));
+
+        // then
+        List<ScheduledTaskExecutionInfo> executions = executionHistoryDao.findLatest(identity, 2);
+        assertThat(executions.size(), equalTo(2));
+        assertThat(executions.get(0).getIdentity(), equalTo(identity));
+        assertThat(executions.get(0).getFinishedAt(), equalTo(now.minusSeconds(10L)));
+        assertThat(executions.get(0).getStartedAt(), equalTo(now.minusSeconds(11L)));
+        assertThat(executions.get(0).getResultType(), equalTo(ScheduledTaskExecutionResult.Type.SUCCESS));
+        assertThat(executions.get(1).getFinishedAt(), equalTo(now.minusSeconds(20L)));
+        assertThat(executions.get(1).getResultType(), equalTo(ScheduledTaskExecutionResult.Type.ERROR));
+        assertThat(executions.get(1).getErrorMessage().orElseThrow(), equalTo("failure"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_delete_outdated_executions_in_chunks(DatabaseAccess databaseAccess) {
+        // given
+        ScheduledTaskExecutionHistoryDao executionHistoryDao = executionHistoryDao(databaseAccess);
+        ScheduledTaskIdentity identity = ScheduledTaskIdentity.of("queue-" + uniqueCounter.incrementAndGet());
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Instant outdated = now.minus(3650L, ChronoUnit.DAYS);
+        executionHistoryDao.insert(List.of(
+                execution(identity, outdated.minusSeconds(3L), ScheduledTaskExecutionResult.Type.SUCCESS, null),
+                execution(identity, outdated.minusSeconds(2L), ScheduledTaskExecutionResult.Type.SUCCESS, null),
+                execution(identity, outdated.minusSeconds(1L), ScheduledTaskExecutionResult.Type.SUCCESS, null),
+                execution(identity, now, ScheduledTaskExecutionResult.Type.SUCCESS, null)
+        ));
+
+        // when
+        int firstChunk = executionHistoryDao.deleteFinishedBefore(outdated, 2);
+        int secondChunk = executionHistoryDao.deleteFinishedBefore(outdated, 2);
+
+        // then
+        assertThat(firstChunk, equalTo(2));
+        assertThat(secondChunk, equalTo(1));
+        assertThat(executionHistoryDao.findLatest(identity, 10).stream()
+                .map(ScheduledTaskExecutionInfo::getFinishedAt)
+                .collect(Collectors.toList()), equalTo(List.of(now)));
+    }
+
+    private static ScheduledTaskExecutionInfo execution(ScheduledTaskIdentity identity,
+                                                        Instant finishedAt,
+                                                        ScheduledTaskExecutionResult.Type resultType,
+                                                        String errorMessage) {
+        return ScheduledTaskExecutionInfo.builder()
+                .withIdentity(identity)
+                .withStartedAt(finishedAt.minusSeconds(1L))
+                .withFinishedAt(finishedAt)
+                .withResultType(resultType)
+                .withErrorMessage(errorMessage)
+                .build();
+    }
+
+    private ScheduledTaskExecutionHistoryDao executionHistoryDao(DatabaseAccess databaseAccess) {
+        return new DefaultScheduledTaskExecutionHistoryDao(
+                "scheduled_task_executions",
+                databaseAccess.getDatabaseDialect(),
+                databaseAccess.getJdbcTemplate(),
+                databaseAccess.getTransactionTemplate()
+        );
+    }
+}
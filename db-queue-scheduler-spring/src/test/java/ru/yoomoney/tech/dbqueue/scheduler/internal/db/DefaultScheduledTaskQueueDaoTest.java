@@ -3,6 +3,7 @@ package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import ru.yoomoney.tech.dbqueue.api.EnqueueParams;
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
 import ru.yoomoney.tech.dbqueue.config.DatabaseAccessLayer;
 import ru.yoomoney.tech.dbqueue.config.DatabaseDialect;
 import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
@@ -12,17 +13,25 @@ import ru.yoomoney.tech.dbqueue.settings.QueueId;
 import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
 import ru.yoomoney.tech.dbqueue.spring.dao.SpringDatabaseAccessLayer;
 
+import javax.annotation.Nullable;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 
@@ -142,6 +151,348 @@ class DefaultScheduledTaskQueueDaoTest extends BaseTest {
         assertThat(payload3, nullValue());
     }
 
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_trigger_task_now_and_keep_regular_next_processing_date(DatabaseAccess databaseAccess) {
+        // given
+        ScheduledTaskQueueDao scheduledTaskQueueDao = scheduledTaskQueueDao(databaseAccess);
+        DatabaseAccessLayer databaseAccessLayer = databaseAccessLayer(databaseAccess);
+        QueueLocation location = queueLocation(databaseAccess, "queue-" + uniqueCounter.incrementAndGet());
+        databaseAccessLayer.getQueueDao().enqueue(location, EnqueueParams.create(""));
+        scheduledTaskQueueDao.updateNextProcessDate(location.getQueueId(), Duration.ofDays(1L));
+        Instant regularNextProcessAt = scheduledTaskQueueDao.findQueueTask(location.getQueueId()).orElseThrow()
+                .getNextProcessAt();
+
+        // when
+        scheduledTaskQueueDao.triggerNow(location.getQueueId());
+        scheduledTaskQueueDao.triggerNow(location.getQueueId());
+
+        // then
+        ScheduledTaskRecord triggeredRecord = scheduledTaskQueueDao.findQueueTask(location.getQueueId()).orElseThrow();
+        assertThat(triggeredRecord.getNextProcessAt(), lessThan(Instant.now().plus(ALLOWABLE_DATE_COMPARISON_ERROR)));
+        assertThat(triggeredRecord.getResumeProcessAt().orElseThrow(), equalTo(regularNextProcessAt));
+
+        // when
+        TaskRecord triggeredTask = databaseAccess.getTransactionTemplate().execute(status ->
+                scheduledTaskQueueDao.pickTask(location.getQueueId(), Duration.ofMinutes(1L)));
+        int reenqueuedRows = scheduledTaskQueueDao.reenqueue(location.getQueueId(), Duration.ofDays(1L),
+                triggeredTask.getTotalAttemptsCount());
+
+        // then
+        ScheduledTaskRecord resumedRecord = scheduledTaskQueueDao.findQueueTask(location.getQueueId()).orElseThrow();
+        assertThat(triggeredTask.getExtData().get(ScheduledTaskExtFields.RESUME_PROCESS_AT), notNullValue());
+        assertThat(reenqueuedRows, equalTo(1));
+        assertThat(resumedRecord.getResumeProcessAt().isPresent(), equalTo(false));
+    }
+
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_not_unlock_executing_task_on_trigger(DatabaseAccess databaseAccess) {
+        // given
+        ScheduledTaskQueueDao scheduledTaskQueueDao = scheduledTaskQueueDao(databaseAccess);
+        DatabaseAccessLayer databaseAccessLayer = databaseAccessLayer(databaseAccess);
+        QueueLocation location = queueLocation(databaseAccess, "queue-" + uniqueCounter.incrementAndGet());
+        databaseAccessLayer.getQueueDao().enqueue(location, EnqueueParams.create(""));
+        TaskRecord executingTask = databaseAccess.getTransactionTemplate().execute(status ->
+                scheduledTaskQueueDao.pickTask(location.getQueueId(), Duration.ofHours(1L)));
+
+        // when
+        scheduledTaskQueueDao.triggerNow(location.getQueueId());
+        TaskRecord concurrentTask = databaseAccess.getTransactionTemplate().execute(status ->
+                scheduledTaskQueueDao.pickTask(location.getQueueId(), Duration.ofHours(1L)));
+        int reenqueuedRows = scheduledTaskQueueDao.reenqueue(location.getQueueId(), Duration.ofDays(1L),
+                executingTask.getTotalAttemptsCount());
+        TaskRecord triggeredTask = databaseAccess.getTransactionTemplate().execute(status ->
+                scheduledTaskQueueDao.pickTask(location.getQueueId(), Duration.ofHours(1L)));
+
+        // then
+        assertThat(concurrentTask, nullValue());
+        assertThat(reenqueuedRows, equalTo(1));
+        assertThat(triggeredTask, notNullValue());
+        assertThat(Instant.parse(triggeredTask.getExtData().get(ScheduledTaskExtFields.RESUME_PROCESS_AT)),
+                greaterThan(Instant.now().plus(Duration.ofDays(1L)).minus(ALLOWABLE_DATE_COMPARISON_ERROR)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_make_task_triggered_during_failed_execution_ready(DatabaseAccess databaseAccess) {
+        // given
+        ScheduledTaskQueueDao scheduledTaskQueueDao = scheduledTaskQueueDao(databaseAccess);
+        DatabaseAccessLayer databaseAccessLayer = databaseAccessLayer(databaseAccess);
+        QueueLocation location = queueLocation(databaseAccess, "queue-" + uniqueCounter.incrementAndGet());
+        databaseAccessLayer.getQueueDao().enqueue(location, EnqueueParams.create(""));
+        TaskRecord executingTask = databaseAccess.getTransactionTemplate().execute(status ->
+                scheduledTaskQueueDao.pickTask(location.getQueueId(), Duration.ofHours(1L)));
+
+        // when
+        scheduledTaskQueueDao.triggerNow(location.getQueueId());
+        int postponedRows = scheduledTaskQueueDao.postponeFailed(location.getQueueId(), Duration.ofDays(1L),
+                executingTask.getTotalAttemptsCount());
+        int stalePostponedRows = scheduledTaskQueueDao.postponeFailed(location.getQueueId(), Duration.ofDays(1L),
+                executingTask.getTotalAttemptsCount() - 1L);
+        TaskRecord retriedTask = databaseAccess.getTransactionTemplate().execute(status ->
+                scheduledTaskQueueDao.pickTask(location.getQueueId(), Duration.ofHours(1L)));
+
+        // then
+        assertThat(postponedRows, equalTo(1));
+        assertThat(stalePostponedRows, equalTo(0));
+        assertThat(retriedTask.getAttemptsCount(), equalTo(2L));
+    }
+
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_pick_ready_task_by_queue_name_prefix(DatabaseAccess databaseAccess) {
+        // given
+        ScheduledTaskQueueDao scheduledTaskQueueDao = scheduledTaskQueueDao(databaseAccess);
+        DatabaseAccessLayer databaseAccessLayer = databaseAccessLayer(databaseAccess);
+        String template = "template_" + uniqueCounter.incrementAndGet();
+        QueueLocation readyLocation = queueLocation(databaseAccess, template + "#ready");
+        QueueLocation postponedLocation = queueLocation(databaseAccess, template + "#postponed");
+        QueueLocation otherLocation = queueLocation(databaseAccess, template + "1#other");
+        databaseAccessLayer.getQueueDao().enqueue(readyLocation, EnqueueParams.create("payload"));
+        databaseAccessLayer.getQueueDao().enqueue(postponedLocation,
+                EnqueueParams.create("").withExecutionDelay(Duration.ofHours(1L)));
+        databaseAccessLayer.getQueueDao().enqueue(otherLocation, EnqueueParams.create(""));
+
+        // when
+        TaskRecord pickedTask = databaseAccess.getTransactionTemplate().execute(status ->
+                scheduledTaskQueueDao.pickTask(template + "#", Duration.ofMinutes(1L)));
+        TaskRecord notPickedTask = databaseAccess.getTransactionTemplate().execute(status ->
+                scheduledTaskQueueDao.pickTask(template + "#", Duration.ofMinutes(1L)));
+
+        // then
+        assertThat(pickedTask, notNullValue());
+        assertThat(pickedTask.getPayload(), equalTo("payload"));
+        assertThat(pickedTask.getAttemptsCount(), equalTo(1L));
+        assertThat(pickedTask.getExtData().get(ScheduledTaskExtFields.QUEUE_NAME), equalTo(template + "#ready"));
+        assertThat(notPickedTask, nullValue());
+
+        ScheduledTaskRecord pickedRecord = scheduledTaskQueueDao.findQueueTask(readyLocation.getQueueId()).orElseThrow();
+        assertThat(pickedRecord.getNextProcessAt(), greaterThan(Instant.now().minus(ALLOWABLE_DATE_COMPARISON_ERROR)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_pick_ready_task_by_queue_name(DatabaseAccess databaseAccess) {
+        // given
+        ScheduledTaskQueueDao scheduledTaskQueueDao = scheduledTaskQueueDao(databaseAccess);
+        DatabaseAccessLayer databaseAccessLayer = databaseAccessLayer(databaseAccess);
+        QueueLocation location = queueLocation(databaseAccess, "queue-" + uniqueCounter.incrementAndGet());
+        databaseAccessLayer.getQueueDao().enqueue(location, EnqueueParams.create("payload"));
+        Instant plannedProcessAt = scheduledTaskQueueDao.findQueueTask(location.getQueueId()).orElseThrow().getNextProcessAt();
+
+        // when
+        TaskRecord pickedTask = databaseAccess.getTransactionTemplate().execute(status ->
+                scheduledTaskQueueDao.pickTask(location.getQueueId(), Duration.ofMinutes(1L)));
+        TaskRecord notPickedTask = databaseAccess.getTransactionTemplate().execute(status ->
+                scheduledTaskQueueDao.pickTask(location.getQueueId(), Duration.ofMinutes(1L)));
+
+        // then
+        assertThat(pickedTask, notNullValue());
+        assertThat(pickedTask.getPayload(), equalTo("payload"));
+        assertThat(pickedTask.getExtData().get(ScheduledTaskExtFields.PLANNED_PROCESS_AT), equalTo(plannedProcessAt.toString()));
+        assertThat(notPickedTask, nullValue());
+    }
+
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_find_queue_names_by_prefix(DatabaseAccess databaseAccess) {
+        // given
+        ScheduledTaskQueueDao scheduledTaskQueueDao = scheduledTaskQueueDao(databaseAccess);
+        DatabaseAccessLayer databaseAccessLayer = databaseAccessLayer(databaseAccess);
+        String template = "template_" + uniqueCounter.incrementAndGet();
+
+        // when
+        databaseAccessLayer.getQueueDao().enqueue(queueLocation(databaseAccess, template + "#1"), EnqueueParams.create(""));
+        databaseAccessLayer.getQueueDao().enqueue(queueLocation(databaseAccess, template + "#2"), EnqueueParams.create(""));
+        databaseAccessLayer.getQueueDao().enqueue(queueLocation(databaseAccess, template + "1#3"), EnqueueParams.create(""));
+
+        // then
+        assertThat(new HashSet<>(scheduledTaskQueueDao.findQueueNames(template + "#")),
+                equalTo(Set.of(template + "#1", template + "#2")));
+    }
+
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_enqueue_queue_tasks_in_batches(DatabaseAccess databaseAccess) {
+        // given
+        ScheduledTaskQueueDao scheduledTaskQueueDao = scheduledTaskQueueDao(databaseAccess);
+        String template = "template_" + uniqueCounter.incrementAndGet();
+        List<QueueId> queueIds = IntStream.rangeClosed(1, 501)
+                .mapToObj(instanceKey -> new QueueId(template + "#" + instanceKey))
+                .collect(Collectors.toList());
+
+        // when
+        int enqueuedCount = scheduledTaskQueueDao.enqueueQueueTasks(queueIds, Duration.ofHours(1L),
+                queueLocation(databaseAccess, template).getIdSequence().orElse(null));
+
+        // then
+        assertThat(enqueuedCount, equalTo(501));
+        assertThat(new HashSet<>(scheduledTaskQueueDao.findQueueNames(template + "#")),
+                equalTo(queueIds.stream().map(QueueId::asString).collect(Collectors.toSet())));
+        TaskRecord notPickedTask = databaseAccess.getTransactionTemplate().execute(status ->
+                scheduledTaskQueueDao.pickTask(template + "#", Duration.ofMinutes(1L)));
+        assertThat(notPickedTask, nullValue());
+    }
+
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_delete_queue_tasks(DatabaseAccess databaseAccess) {
+        // given
+        ScheduledTaskQueueDao scheduledTaskQueueDao = scheduledTaskQueueDao(databaseAccess);
+        DatabaseAccessLayer databaseAccessLayer = databaseAccessLayer(databaseAccess);
+        String template = "template_" + uniqueCounter.incrementAndGet();
+        QueueLocation taskLocation = queueLocation(databaseAccess, template);
+        databaseAccessLayer.getQueueDao().enqueue(taskLocation, EnqueueParams.create(""));
+        databaseAccessLayer.getQueueDao().enqueue(queueLocation(databaseAccess, template + "#1"), EnqueueParams.create(""));
+        databaseAccessLayer.getQueueDao().enqueue(queueLocation(databaseAccess, template + "#2"), EnqueueParams.create(""));
+
+        // when
+        int deletedInstancesCount = scheduledTaskQueueDao.deleteQueueTasks(template + "#");
+        int deletedTasksCount = scheduledTaskQueueDao.deleteQueueTask(taskLocation.getQueueId());
+
+        // then
+        assertThat(deletedInstancesCount, equalTo(2));
+        assertThat(deletedTasksCount, equalTo(1));
+        assertThat(scheduledTaskQueueDao.findQueueNames(template), equalTo(List.of()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_reenqueue_task(DatabaseAccess databaseAccess) {
+        // given
+        ScheduledTaskQueueDao scheduledTaskQueueDao = scheduledTaskQueueDao(databaseAccess);
+        DatabaseAccessLayer databaseAccessLayer = databaseAccessLayer(databaseAccess);
+        QueueLocation location = queueLocation(databaseAccess, "queue-" + uniqueCounter.incrementAndGet());
+        databaseAccessLayer.getQueueDao().enqueue(location, EnqueueParams.create(""));
+
+        // when
+        scheduledTaskQueueDao.reenqueue(location.getQueueId(), Duration.ofHours(1L));
+
+        // then
+        ScheduledTaskRecord record = scheduledTaskQueueDao.findQueueTask(location.getQueueId()).orElseThrow();
+        Instant expectedNextProcessAt = Instant.now().plus(Duration.ofHours(1L));
+        assertThat(record.getNextProcessAt(), lessThan(expectedNextProcessAt.plus(ALLOWABLE_DATE_COMPARISON_ERROR)));
+        assertThat(record.getNextProcessAt(), greaterThan(expectedNextProcessAt.minus(ALLOWABLE_DATE_COMPARISON_ERROR)));
+        assertThat(
+                databaseAccess.getJdbcTemplate().queryForObject(
+                        "select reenqueue_attempt from scheduled_tasks where queue_name=?",
+                        Long.class,
+                        location.getQueueId().asString()),
+                equalTo(1L)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_fence_off_updates_of_previous_pick(DatabaseAccess databaseAccess) {
+        // given
+        ScheduledTaskQueueDao scheduledTaskQueueDao = scheduledTaskQueueDao(databaseAccess);
+        DatabaseAccessLayer databaseAccessLayer = databaseAccessLayer(databaseAccess);
+        QueueLocation location = queueLocation(databaseAccess, "queue-" + uniqueCounter.incrementAndGet());
+        databaseAccessLayer.getQueueDao().enqueue(location, EnqueueParams.create(""));
+        TaskRecord firstPick = databaseAccess.getTransactionTemplate().execute(status ->
+                scheduledTaskQueueDao.pickTask(location.getQueueId(), Duration.ZERO));
+        TaskRecord secondPick = databaseAccess.getTransactionTemplate().execute(status ->
+                scheduledTaskQueueDao.pickTask(location.getQueueId(), Duration.ZERO));
+
+        // when
+        int firstPickUpdatedRows = scheduledTaskQueueDao.updateNextProcessDate(location.getQueueId(),
+                Duration.ofHours(1L), firstPick.getTotalAttemptsCount());
+        int firstPickReenqueuedRows = scheduledTaskQueueDao.reenqueue(location.getQueueId(),
+                Duration.ofHours(1L), firstPick.getTotalAttemptsCount());
+        int secondPickUpdatedRows = scheduledTaskQueueDao.updateNextProcessDate(location.getQueueId(),
+                Duration.ofHours(1L), secondPick.getTotalAttemptsCount());
+        int secondPickReenqueuedRows = scheduledTaskQueueDao.reenqueue(location.getQueueId(),
+                Duration.ofHours(1L), secondPick.getTotalAttemptsCount());
+
+        // then
+        assertThat(firstPickUpdatedRows, equalTo(0));
+        assertThat(firstPickReenqueuedRows, equalTo(0));
+        assertThat(secondPickUpdatedRows, equalTo(1));
+        assertThat(secondPickReenqueuedRows, equalTo(1));
+    }
+
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_store_checkpoint_along_with_heartbeat(DatabaseAccess databaseAccess) {
+        // given
+        ScheduledTaskQueueDao scheduledTaskQueueDao = scheduledTaskQueueDao(databaseAccess);
+        DatabaseAccessLayer databaseAccessLayer = databaseAccessLayer(databaseAccess);
+        QueueLocation location = queueLocation(databaseAccess, "queue-" + uniqueCounter.incrementAndGet());
+        databaseAccessLayer.getQueueDao().enqueue(location, EnqueueParams.create(""));
+        TaskRecord firstPick = databaseAccess.getTransactionTemplate().execute(status ->
+                scheduledTaskQueueDao.pickTask(location.getQueueId(), Duration.ZERO));
+
+        // when
+        int updatedRows = scheduledTaskQueueDao.updateNextProcessDate(location.getQueueId(), Duration.ZERO,
+                firstPick.getTotalAttemptsCount(), "checkpoint");
+        TaskRecord secondPick = databaseAccess.getTransactionTemplate().execute(status ->
+                scheduledTaskQueueDao.pickTask(location.getQueueId(), Duration.ZERO));
+        int staleUpdatedRows = scheduledTaskQueueDao.updateNextProcessDate(location.getQueueId(), Duration.ZERO,
+                firstPick.getTotalAttemptsCount(), "stale_checkpoint");
+
+        // then
+        assertThat(updatedRows, equalTo(1));
+        assertThat(staleUpdatedRows, equalTo(0));
+        assertThat(secondPick.getPayload(), equalTo("checkpoint"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_store_state_in_state_table(DatabaseAccess databaseAccess) {
+        // given
+        ScheduledTaskQueueDao scheduledTaskQueueDao = scheduledTaskQueueDao(databaseAccess, "scheduled_task_states");
+        DatabaseAccessLayer databaseAccessLayer = databaseAccessLayer(databaseAccess);
+        QueueLocation location = queueLocation(databaseAccess, "queue-" + uniqueCounter.incrementAndGet());
+        databaseAccessLayer.getQueueDao().enqueue(location, new EnqueueParams<>());
+        TaskRecord firstPick = databaseAccess.getTransactionTemplate().execute(status ->
+                scheduledTaskQueueDao.pickTask(location.getQueueId(), Duration.ZERO));
+
+        // when
+        int updatedRows = scheduledTaskQueueDao.updatePayload(location.getQueueId(), "state");
+        int heartbeatUpdatedRows = scheduledTaskQueueDao.updateNextProcessDate(location.getQueueId(), Duration.ZERO,
+                firstPick.getTotalAttemptsCount(), "checkpoint");
+        TaskRecord secondPick = databaseAccess.getTransactionTemplate().execute(status ->
+                scheduledTaskQueueDao.pickTask(location.getQueueId(), Duration.ZERO));
+        String storedState = scheduledTaskQueueDao.findPayload(location.getQueueId());
+        scheduledTaskQueueDao.deleteQueueTask(location.getQueueId());
+
+        // then
+        assertThat(firstPick.getPayload(), nullValue());
+        assertThat(updatedRows, equalTo(1));
+        assertThat(heartbeatUpdatedRows, equalTo(1));
+        assertThat(secondPick.getPayload(), nullValue());
+        assertThat(secondPick.getExtData().get(ScheduledTaskExtFields.DETACHED_STATE), equalTo("true"));
+        assertThat(storedState, equalTo("checkpoint"));
+        assertThat(scheduledTaskQueueDao.findPayload(location.getQueueId()), nullValue());
+    }
+
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_find_states_left_in_tasks_table(DatabaseAccess databaseAccess) {
+        // given
+        DefaultScheduledTaskQueueDao scheduledTaskQueueDao = (DefaultScheduledTaskQueueDao) scheduledTaskQueueDao(
+                databaseAccess, "scheduled_task_states");
+        DatabaseAccessLayer databaseAccessLayer = databaseAccessLayer(databaseAccess);
+        QueueLocation legacyLocation = queueLocation(databaseAccess, "queue-" + uniqueCounter.incrementAndGet());
+        QueueLocation detachedLocation = queueLocation(databaseAccess, "queue-" + uniqueCounter.incrementAndGet());
+        databaseAccessLayer.getQueueDao().enqueue(legacyLocation, EnqueueParams.create("legacy_state"));
+        databaseAccessLayer.getQueueDao().enqueue(detachedLocation, new EnqueueParams<>());
+        scheduledTaskQueueDao.updatePayload(detachedLocation.getQueueId(), "state");
+
+        // when
+        List<String> queueNames = scheduledTaskQueueDao.findQueueNamesWithAttachedStates();
+        scheduledTaskQueueDao.deleteQueueTask(legacyLocation.getQueueId());
+        scheduledTaskQueueDao.deleteQueueTask(detachedLocation.getQueueId());
+
+        // then
+        assertThat(queueNames, hasItem(legacyLocation.getQueueId().asString()));
+        assertThat(queueNames, not(hasItem(detachedLocation.getQueueId().asString())));
+        assertThat(((DefaultScheduledTaskQueueDao) scheduledTaskQueueDao(databaseAccess))
+                .findQueueNamesWithAttachedStates(), empty());
+    }
+
     @ParameterizedTest
     @MethodSource("databaseAccessStream")
     void should_find_all_tasks(DatabaseAccess databaseAccess) {
@@ -188,12 +539,17 @@ class DefaultScheduledTaskQueueDaoTest extends BaseTest {
     }
 
     private ScheduledTaskQueueDao scheduledTaskQueueDao(DatabaseAccess databaseAccess) {
+        return scheduledTaskQueueDao(databaseAccess, null);
+    }
+
+    private ScheduledTaskQueueDao scheduledTaskQueueDao(DatabaseAccess databaseAccess, @Nullable String stateTableName) {
         return new DefaultScheduledTaskQueueDao(
                 "scheduled_tasks",
                 databaseAccess.getDatabaseDialect(),
                 databaseAccess.getJdbcTemplate(),
                 databaseAccess.getTransactionTemplate(),
-                QueueTableSchema.builder().build()
+                QueueTableSchema.builder().build(),
+                stateTableName
         );
     }
 
@@ -0,0 +1,123 @@
+package ru.yoomoney.tech.dbqueue.scheduler.internal.db;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
+import ru.yoomoney.tech.dbqueue.scheduler.BaseTest;
+import ru.yoomoney.tech.dbqueue.scheduler.config.DatabaseDialect;
+import ru.yoomoney.tech.dbqueue.scheduler.schema.SchemaAdvisor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class ReplicaScheduledTaskQueueDaoTest extends BaseTest {
+
+    @Test
+    void should_read_all_tasks_from_replica() {
+        // given
+        JdbcTemplate replicaJdbcTemplate = replicaJdbcTemplate("replica-" + uniqueCounter.incrementAndGet());
+        new SchemaAdvisor(DatabaseDialect.H2, "scheduled_tasks", null).generateDdl()
+                .forEach(replicaJdbcTemplate::execute);
+        String queueName = "queue-" + uniqueCounter.incrementAndGet();
+        replicaJdbcTemplate.update("insert into scheduled_tasks (queue_name) values (?)", queueName);
+
+        // when
+        Map<String, ScheduledTaskRecord> records = replicaDao(replicaJdbcTemplate).findAll().stream()
+                .collect(Collectors.toMap(ScheduledTaskRecord::getQueueName, Function.identity()));
+
+        // then
+        assertThat(records.keySet(), equalTo(Set.of(queueName)));
+        assertThat(records.get(queueName).getStaleness(), equalTo(Duration.ZERO));
+    }
+
+    @Test
+    void should_read_all_tasks_from_primary_when_replica_fails() {
+        // given
+        JdbcTemplate replicaJdbcTemplate = replicaJdbcTemplate("replica-" + uniqueCounter.incrementAndGet());
+        String queueName = "queue-" + uniqueCounter.incrementAndGet();
+        h2.getJdbcTemplate().update("insert into scheduled_tasks (queue_name) values (?)", queueName);
+
+        // when
+        List<String> queueNames = replicaDao(replicaJdbcTemplate).findAll().stream()
+                .map(ScheduledTaskRecord::getQueueName)
+                .collect(Collectors.toList());
+
+        // then
+        assertThat(queueNames.contains(queueName), equalTo(true));
+    }
+
+    @Test
+    void should_not_access_failed_replica_within_suspension_interval() {
+        // given
+        JdbcTemplate replicaJdbcTemplate = replicaJdbcTemplate("replica-" + uniqueCounter.incrementAndGet());
+        AtomicLong nanoTime = new AtomicLong();
+        ScheduledTaskQueueDao replicaDao = replicaDao(replicaJdbcTemplate,
+                new ReplicaRouter(DatabaseDialect.H2, replicaJdbcTemplate, Duration.ofSeconds(5L), nanoTime::get));
+        replicaDao.findAll();
+        new SchemaAdvisor(DatabaseDialect.H2, "scheduled_tasks", null).generateDdl()
+                .forEach(replicaJdbcTemplate::execute);
+        String queueName = "queue-" + uniqueCounter.incrementAndGet();
+        replicaJdbcTemplate.update("insert into scheduled_tasks (queue_name) values (?)", queueName);
+
+        // when
+        nanoTime.addAndGet(ReplicaRouter.SUSPENSION_INTERVAL.toNanos() - 1L);
+        boolean suspendedReadFromReplica = replicaDao.findAll().stream()
+                .anyMatch(record -> record.getQueueName().equals(queueName));
+        nanoTime.incrementAndGet();
+        boolean resumedReadFromReplica = replicaDao.findAll().stream()
+                .anyMatch(record -> record.getQueueName().equals(queueName));
+
+        // then
+        assertThat(suspendedReadFromReplica, equalTo(false));
+        assertThat(resumedReadFromReplica, equalTo(true));
+    }
+
+    private static ScheduledTaskQueueDao replicaDao(JdbcTemplate replicaJdbcTemplate) {
+        return replicaDao(replicaJdbcTemplate,
+                new ReplicaRouter(DatabaseDialect.H2, replicaJdbcTemplate, Duration.ofSeconds(5L)));
+    }
+
+    private static ScheduledTaskQueueDao replicaDao(JdbcTemplate replicaJdbcTemplate, ReplicaRouter replicaRouter) {
+        TransactionTemplate replicaTransactionTemplate = new TransactionTemplate(
+                new DataSourceTransactionManager(replicaJdbcTemplate.getDataSource()));
+        return new ReplicaScheduledTaskQueueDao(
+                scheduledTaskQueueDao(h2.getJdbcTemplate(), h2.getTransactionTemplate()),
+                scheduledTaskQueueDao(replicaJdbcTemplate, replicaTransactionTemplate),
+                replicaRouter
+        );
+    }
+
+    private static ScheduledTaskQueueDao scheduledTaskQueueDao(JdbcTemplate jdbcTemplate,
+                                                               TransactionTemplate transactionTemplate) {
+        return new DefaultScheduledTaskQueueDao(
+                "scheduled_tasks",
+                DatabaseDialect.H2,
+                jdbcTemplate,
+                transactionTemplate,
+                QueueTableSchema.builder().build()
+        );
+    }
+
+    private static JdbcTemplate replicaJdbcTemplate(String databaseName) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        dataSource.setPassword("sa");
+        return new JdbcTemplate(dataSource);
+    }
+}
@@ -0,0 +1,123 @@
+package ru.yoomoney.tech.dbqueue.scheduler.schema;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import ru.yoomoney.tech.dbqueue.scheduler.BaseTest;
+import ru.yoomoney.tech.dbqueue.scheduler.config.DatabaseDialect;
+import ru.yoomoney.tech.dbqueue.scheduler.db.DatabaseAccess;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+
+/**
+ * @author agent agent@local
+ * @since 19.10.2026
+ */
+class SchemaAdvisorTest extends BaseTest {
+
+    @ParameterizedTest
+    @MethodSource("databaseAccessStream")
+    void should_not_warn_about_generated_schema(DatabaseAccess databaseAccess) {
+        // given
+        String tableName = "tuned_tasks_" + uniqueCounter.incrementAndGet();
+        SchemaAdvisor schemaAdvisor = new SchemaAdvisor(databaseAccess.getDatabaseDialect(), tableName,
+                tableName + "_seq");
+        schemaAdvisor.generateDdl().forEach(statement -> databaseAccess.getTransactionTemplate()
+                .executeWithoutResult(status -> databaseAccess.getJdbcTemplate().execute(statement)));
+
+        // when
+        List<String> deviations = schemaAdvisor.validate(databaseAccess.getJdbcTemplate());
+
+        // then
+        assertThat(deviations, empty());
+    }
+
+    @Test
+    void should_warn_about_untuned_postgresql_schema() {
+        // when
+        List<String> deviations = new SchemaAdvisor(DatabaseDialect.POSTGRESQL, "scheduled_tasks", null)
+                .validate(postgres.getJdbcTemplate());
+
+        // then
+        assertThat(deviations.size(), equalTo(2));
+        assertThat(deviations.get(0), containsString("fillfactor"));
+        assertThat(deviations.get(1), containsString("autovacuum"));
+    }
+
+    @Test
+    void should_warn_about_postgresql_index_preventing_hot_updates() {
+        // given
+        String tableName = "tuned_tasks_" + uniqueCounter.incrementAndGet();
+        SchemaAdvisor schemaAdvisor = new SchemaAdvisor(DatabaseDialect.POSTGRESQL, tableName, null);
+        schemaAdvisor.generateDdl().forEach(statement -> postgres.getJdbcTemplate().execute(statement));
+        postgres.getJdbcTemplate().execute("CREATE INDEX " + tableName + "_next_idx ON " + tableName
+                + " (queue_name, next_process_at)");
+
+        // when
+        List<String> deviations = schemaAdvisor.validate(postgres.getJdbcTemplate());
+
+        // then
+        assertThat(deviations, equalTo(List.of("index on next_process_at prevents HOT updates: tableName="
+                + tableName + ", indexName=" + tableName + "_next_idx")));
+    }
+
+    @Test
+    void should_warn_about_postgresql_index_without_prefix_search() {
+        // given
+        String tableName = "tuned_tasks_" + uniqueCounter.incrementAndGet();
+        SchemaAdvisor schemaAdvisor = new SchemaAdvisor(DatabaseDialect.POSTGRESQL, tableName, null);
+        postgres.getJdbcTemplate().execute(schemaAdvisor.generateDdl().get(0));
+        postgres.getJdbcTemplate().execute("CREATE UNIQUE INDEX " + tableName + "_uq ON " + tableName
+                + " (queue_name)");
+
+        // when
+        List<String> deviations = schemaAdvisor.validate(postgres.getJdbcTemplate());
+
+        // then
+        assertThat(deviations, equalTo(List.of("unique index on queue_name does not support prefix search, "
+                + "use text_pattern_ops or C collation: tableName=" + tableName + ", indexName=" + tableName + "_uq")));
+    }
+
+    @Test
+    void should_not_warn_about_postgresql_index_with_c_collation() {
+        // given
+        String tableName = "tuned_tasks_" + uniqueCounter.incrementAndGet();
+        SchemaAdvisor schemaAdvisor = new SchemaAdvisor(DatabaseDialect.POSTGRESQL, tableName, null);
+        postgres.getJdbcTemplate().execute(schemaAdvisor.generateDdl().get(0));
+        postgres.getJdbcTemplate().execute("CREATE UNIQUE INDEX " + tableName + "_uq ON " + tableName
+                + " (queue_name COLLATE \"C\")");
+
+        // when
+        List<String> deviations = schemaAdvisor.validate(postgres.getJdbcTemplate());
+
+        // then
+        assertThat(deviations, empty());
+    }
+
+    @Test
+    void should_warn_about_unclustered_mssql_schema() {
+        // when
+        List<String> deviations = new SchemaAdvisor(DatabaseDialect.MSSQL, "scheduled_tasks", null)
+                .validate(mssql.getJdbcTemplate());
+
+        // then
+        assertThat(deviations, equalTo(List.of("table is not clustered by queue_name: tableName=scheduled_tasks")));
+    }
+
+    @Test
+    void should_warn_about_missing_oracle_objects() {
+        // when
+        List<String> deviations = new SchemaAdvisor(DatabaseDialect.ORACLE_11G, "missing_tasks", "missing_tasks_seq")
+                .validate(oracle.getJdbcTemplate());
+
+        // then
+        assertThat(deviations, hasItem("unique index on queue_name is missing: tableName=missing_tasks"));
+        assertThat(deviations, hasItem("id sequence is missing: idSequenceName=missing_tasks_seq"));
+    }
+}
@@ -0,0 +1,2 @@
+ALTER TABLE scheduled_tasks ADD resume_process_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE scheduled_tasks ADD execution_state SMALLINT;